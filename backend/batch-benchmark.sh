@@ -0,0 +1,113 @@
+#!/bin/bash
+
+# Family check-in throughput: the seat locks, confirmations and bag drops of a family as separate requests
+# against one POST /api/batch.
+# Usage: ./batch-benchmark.sh [sequential|batch] [rounds]
+# Example: ./batch-benchmark.sh sequential 30 && ./batch-benchmark.sh batch 30
+#
+# Each round a kiosk locks a seat per family member, confirms them and drops one bag per member: 3 operations per
+# member, sent as that many requests (sequential) or as one ALL_OR_NOTHING batch. Both modes send a round over
+# one keep-alive connection (curl --next), so the difference is the per-request work, not client start-up.
+# Rounds alternate between two rows so every confirmation moves the family to free seats; their number is
+# rounded up to an even one so a run leaves the families where the next one expects them.
+#
+# Runs against a started backend. Environment: KIOSK_URL (default http://localhost:8080/api), KIOSK_FAMILIES
+# (one kiosk per family, "FLIGHT:BOOKING,BOOKING,..." separated by spaces; default
+# "FL001:BK001,BK002,BK004 FL002:BK003,BK005,BK006"), KIOSK_ROWS (two rows with free seats A.. per family
+# member on each flight, "07 08").
+# Prints the operations per second over all kiosks and the mean and 95th percentile time per round.
+
+MODE=${1:-sequential}
+ROUNDS=$(( (${2:-20} + 1) / 2 * 2 ))
+BASE=${KIOSK_URL:-http://localhost:8080/api}
+FAMILIES=(${KIOSK_FAMILIES:-FL001:BK001,BK002,BK004 FL002:BK003,BK005,BK006})
+ROWS=(${KIOSK_ROWS:-07 08})
+LETTERS=(A B C D E F)
+RESULTS=$(mktemp)
+FAILURES=$(mktemp)
+trap 'rm -f "$RESULTS" "$FAILURES"' EXIT
+
+case "$MODE" in
+    sequential|batch) ;;
+    *)
+        echo "Unknown mode: $MODE (sequential or batch)"
+        exit 1
+        ;;
+esac
+
+# kiosk <n> <flight> <bookings>: appends "round-us operations" per successful round to the results
+kiosk() {
+    local flight=$2 session="batch-$$-$1" round row start end out i ok expected
+    local bookings
+    IFS=, read -r -a bookings <<< "$3"
+    for round in $(seq 1 "$ROUNDS"); do
+        row=${ROWS[$((round % 2))]}
+        local args=() ops=() seat
+        for i in "${!bookings[@]}"; do
+            seat="$flight-S$row${LETTERS[$i]}"
+            ops+=("{\"op\":\"LOCK_SEAT\",\"flightId\":\"$flight\",\"seatId\":\"$seat\",\"sessionId\":\"$session\"}")
+            args+=(--next -s -w '\n' -X POST "$BASE/flights/$flight/seats/$seat/lock" -H 'Content-Type: application/json'
+                -H "X-Kiosk-Id: $session" -d "{\"sessionId\":\"$session\"}")
+        done
+        for i in "${!bookings[@]}"; do
+            seat="$flight-S$row${LETTERS[$i]}"
+            ops+=("{\"op\":\"CONFIRM_SEAT\",\"flightId\":\"$flight\",\"seatId\":\"$seat\",\"bookingId\":\"${bookings[$i]}\",\
+\"sessionId\":\"$session\"}")
+            args+=(--next -s -w '\n' -X POST "$BASE/flights/$flight/seats/$seat/confirm" -H "X-Kiosk-Id: $session"
+                -H 'Content-Type: application/json' -d "{\"bookingId\":\"${bookings[$i]}\",\"sessionId\":\"$session\"}")
+        done
+        for i in "${!bookings[@]}"; do
+            ops+=("{\"op\":\"CHECK_IN_BAGGAGE\",\"bookingId\":\"${bookings[$i]}\",\"baggage\":{\"weight\":18.5,\"count\":1}}")
+            args+=(--next -s -w '\n' -X POST "$BASE/bookings/${bookings[$i]}/baggage" -H 'Content-Type: application/json'
+                -d '{"weight":18.5,"count":1}')
+        done
+
+        start=$(date +%s%N)
+        if [ "$MODE" = sequential ]; then
+            out=$(curl "${args[@]:1}")
+            ok=$(echo "$out" | grep -c '"Seat locked successfully"\|"Seat confirmed successfully"\|"tagNumber"')
+            expected=${#ops[@]}
+        else
+            local body
+            body=$(IFS=,; echo "{\"mode\":\"ALL_OR_NOTHING\",\"operations\":[${ops[*]}]}")
+            out=$(curl -s -X POST "$BASE/batch" -H 'Content-Type: application/json' -d "$body")
+            ok=$(echo "$out" | grep -c '"applied":true')
+            expected=1
+        fi
+        end=$(date +%s%N)
+        if [ "$ok" -eq "$expected" ]; then
+            echo "$(( (end - start) / 1000 )) ${#ops[@]}" >> "$RESULTS"
+        else
+            echo "$flight $round" >> "$FAILURES"
+            # Release what a failed round left locked
+            for i in "${!bookings[@]}"; do
+                curl -s -X DELETE -H "X-Kiosk-Id: $session" \
+                    "$BASE/flights/$flight/seats/$flight-S$row${LETTERS[$i]}/unlock?sessionId=$session" > /dev/null
+            done
+        fi
+    done
+}
+
+START=$(date +%s%N)
+PIDS=()
+for n in "${!FAMILIES[@]}"; do
+    kiosk "$n" "${FAMILIES[$n]%%:*}" "${FAMILIES[$n]#*:}" &
+    PIDS+=($!)
+done
+wait "${PIDS[@]}"
+ELAPSED=$(( ($(date +%s%N) - START) / 1000 ))
+
+DONE=$(wc -l < "$RESULTS")
+FAILED=$(wc -l < "$FAILURES")
+if [ "$DONE" -eq 0 ]; then
+    echo "No round succeeded ($FAILED failed)"
+    exit 1
+fi
+sort -n "$RESULTS" | awk -v mode="$MODE" -v elapsed="$ELAPSED" -v failed="$FAILED" '
+    { t[NR] = $1; sum += $1; ops += $2 }
+    END {
+        printf "%s: %d rounds (%d failed), %d operations in %.1f s = %.0f ops/s; per round mean %.1f ms, p95 %.1f ms\n",
+            mode, NR, failed, ops, elapsed / 1000000, ops / (elapsed / 1000000), sum / NR / 1000,
+            t[int(NR * 0.95 + 0.999)] / 1000
+    }'
+[ "$FAILED" -eq 0 ]
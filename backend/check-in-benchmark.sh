@@ -0,0 +1,112 @@
+#!/bin/bash
+
+# Kiosk check-in latency per passenger: the step-by-step calls against the single complete check-in call.
+# Usage: ./check-in-benchmark.sh [steps|single] [passengers per kiosk]
+# Example: ./check-in-benchmark.sh steps 50 && ./check-in-benchmark.sh single 50
+#
+# Each passenger: search booking, seat map, lock seat, then
+# steps:  confirm seat, bag drop, baggage count, boarding pass (the kiosk UI's calls)
+# single: POST /api/bookings/{bookingId}/check-in
+# One kiosk per booking runs in parallel; a kiosk's passengers alternate between two seats of its own row, so
+# each check-in moves the booking to the other seat.
+#
+# Runs against a started backend. Environment: KIOSK_URL (default http://localhost:8080/api), KIOSK_FLIGHT
+# (FL001), KIOSK_BOOKINGS (booking ids of the flight, "BK001 BK002 BK004"), KIOSK_FIRST_ROW (7; rows from it
+# on, one per booking, must have free seats A and B).
+# Prints the failed check-ins and the mean and 95th percentile of the summed call times (curl time_total) per
+# passenger, for the whole flow and for the part after the seat lock.
+
+MODE=${1:-steps}
+PASSENGERS=${2:-20}
+BASE=${KIOSK_URL:-http://localhost:8080/api}
+FLIGHT=${KIOSK_FLIGHT:-FL001}
+BOOKINGS=(${KIOSK_BOOKINGS:-BK001 BK002 BK004})
+FIRST_ROW=${KIOSK_FIRST_ROW:-7}
+RESULTS=$(mktemp)
+FAILURES=$(mktemp)
+trap 'rm -f "$RESULTS" "$FAILURES"' EXIT
+
+case "$MODE" in
+    steps|single) ;;
+    *)
+        echo "Unknown mode: $MODE (steps or single)"
+        exit 1
+        ;;
+esac
+
+# call <expected text> <curl arguments...>: prints the call's time in µs, fails if the answer lacks the text
+call() {
+    local expected=$1 out
+    shift
+    out=$(curl -s -w '\n%{time_total}' "$@")
+    if ! echo "$out" | grep -q "$expected"; then
+        echo "Unexpected answer: $(echo "$out" | head -n -1)" >&2
+        return 1
+    fi
+    echo "$out" | tail -1 | awk '{ printf "%d", $1 * 1000000 }'
+}
+
+JSON='Content-Type: application/json'
+
+# passenger <booking> <seat> <session>: one check-in; appends "flow-us after-lock-us" to the results
+passenger() {
+    local booking=$1 seat=$2 session=$3 t total=0 after=0
+    t=$(call '"success":true' -X POST "$BASE/bookings/search" -H "$JSON" -d "{\"bookingReference\":\"$booking\"}") || return 1
+    total=$((total + t))
+    t=$(call '"success":true' "$BASE/flights/$FLIGHT/seats" -H "X-Kiosk-Id: $session") || return 1
+    total=$((total + t))
+    t=$(call '"Seat locked successfully"' -X POST "$BASE/flights/$FLIGHT/seats/$seat/lock" \
+        -H "X-Kiosk-Id: $session" -H "$JSON" -d "{\"sessionId\":\"$session\"}") || return 1
+    total=$((total + t))
+    if [ "$MODE" = steps ]; then
+        t=$(call '"success":true' -X POST "$BASE/flights/$FLIGHT/seats/$seat/confirm" \
+            -H "X-Kiosk-Id: $session" -H "$JSON" -d "{\"bookingId\":\"$booking\",\"sessionId\":\"$session\"}") || return 1
+        after=$((after + t))
+        t=$(call '"tagNumber"' -X POST "$BASE/bookings/$booking/baggage" -H "$JSON" -d '{"weight":18.5,"count":1}') || return 1
+        after=$((after + t))
+        t=$(call '"count"' "$BASE/flights/$FLIGHT/baggage/count") || return 1
+        after=$((after + t))
+        t=$(call '"qrCode"' -X POST "$BASE/bookings/$booking/boarding-pass") || return 1
+        after=$((after + t))
+    else
+        t=$(call '"qrCode"' -X POST "$BASE/bookings/$booking/check-in" -H "$JSON" -d "{\"seatId\":\"$seat\",\
+\"sessionId\":\"$session\",\"baggage\":{\"weight\":18.5,\"count\":1}}") || return 1
+        after=$((after + t))
+    fi
+    echo "$((total + after)) $after" >> "$RESULTS"
+}
+
+# kiosk <n> <booking>: checks in PASSENGERS passengers; a failed one releases its seat and counts as failed
+kiosk() {
+    local booking=$2 row=$(printf '%02d' $((FIRST_ROW + $1 - 1))) session="check-in-$$-$1" i seat
+    for i in $(seq 1 "$PASSENGERS"); do
+        [ $((i % 2)) -eq 1 ] && seat="$FLIGHT-S${row}A" || seat="$FLIGHT-S${row}B"
+        if ! passenger "$booking" "$seat" "$session"; then
+            curl -s -X DELETE -H "X-Kiosk-Id: $session" "$BASE/flights/$FLIGHT/seats/$seat/unlock?sessionId=$session" \
+                > /dev/null
+            echo "$booking" >> "$FAILURES"
+        fi
+    done
+}
+
+PIDS=()
+for n in $(seq 1 ${#BOOKINGS[@]}); do
+    kiosk "$n" "${BOOKINGS[$((n - 1))]}" &
+    PIDS+=($!)
+done
+wait "${PIDS[@]}"
+
+# stats <column>: mean and 95th percentile of a results column, in ms
+stats() {
+    cut -d' ' -f"$1" "$RESULTS" | sort -n | awk '{ v[NR] = $1; sum += $1 }
+        END { printf "mean %.1f ms, p95 %.1f ms", sum / NR / 1000, v[int(NR * 0.95 + 0.999)] / 1000 }'
+}
+
+DONE=$(wc -l < "$RESULTS")
+FAILED=$(wc -l < "$FAILURES")
+if [ "$DONE" -eq 0 ]; then
+    echo "No passenger checked in ($FAILED failed)"
+    exit 1
+fi
+echo "$MODE: $DONE passengers checked in, $FAILED failed; flow $(stats 1); after lock $(stats 2)"
+[ "$FAILED" -eq 0 ]
@@ -0,0 +1,100 @@
+#!/bin/bash
+
+# Runs the backend as an edge node, stops its database, checks a passenger in offline, starts the database
+# again and checks that the queued seat confirmation and bag drop reached it
+# Usage: KIOSK_DB_STOP='<command>' KIOSK_DB_START='<command>' ./edge-offline-test.sh [extra application arguments...]
+# Example: KIOSK_DB_STOP='pg_ctl -D /var/lib/pgsql/edge stop -m immediate' \
+#          KIOSK_DB_START='pg_ctl -D /var/lib/pgsql/edge start -w' \
+#          ./edge-offline-test.sh --spring.datasource.url=jdbc:postgresql://localhost:5432/airport_kiosk
+#
+# Needs a stand-in database with the sample data (V2 migration) in which the flight departs today and the
+# booking has no seat and no baggage yet. The node's queue and snapshot go to target/edge-offline-test.
+# Environment: KIOSK_PORT (default 18092), KIOSK_BOOKING (BK002), KIOSK_PASSPORT (P87654321),
+# KIOSK_FLIGHT (FL001), KIOSK_SEAT (FL001-S05C)
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+cd "$SCRIPT_DIR"
+
+if [ -z "$KIOSK_DB_STOP" ] || [ -z "$KIOSK_DB_START" ]; then
+    echo "Set KIOSK_DB_STOP and KIOSK_DB_START to the commands stopping and starting the database"
+    exit 1
+fi
+PORT=${KIOSK_PORT:-18092}
+BOOKING=${KIOSK_BOOKING:-BK002}
+PASSPORT=${KIOSK_PASSPORT:-P87654321}
+FLIGHT=${KIOSK_FLIGHT:-FL001}
+SEAT=${KIOSK_SEAT:-FL001-S05C}
+SESSION="edge-$$"
+BASE="http://localhost:$PORT/api"
+DATA_DIR="target/edge-offline-test"
+LOG="target/edge-offline-test.log"
+
+rm -rf "$DATA_DIR"
+"${JAVA_HOME:+$JAVA_HOME/bin/}java" -jar target/kiosk-1.0.0.jar --server.port="$PORT" \
+    --kiosk.edge.enabled=true --kiosk.edge.data-dir="$DATA_DIR" --kiosk.edge.probe-interval-ms=1000 \
+    --spring.datasource.hikari.connection-timeout=2000 "$@" > "$LOG" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null; wait $PID 2>/dev/null' EXIT
+
+FAILED=0
+
+# wait_for <description> <expected text> <url>: up to 60 s
+wait_for() {
+    local description=$1 expected=$2 url=$3
+    for _ in $(seq 1 120); do
+        if ! kill -0 "$PID" 2>/dev/null; then
+            echo "The application exited (see $LOG)"
+            exit 1
+        fi
+        if curl -s "$url" | grep -q "$expected"; then
+            return 0
+        fi
+        sleep 0.5
+    done
+    echo "FAIL  $description"
+    exit 1
+}
+
+# step <name> <expected text> <curl arguments...>
+step() {
+    local name=$1 expected=$2
+    shift 2
+    local body
+    body=$(curl -s -i "$@")
+    if echo "$body" | grep -q "$expected"; then
+        echo "ok    $name"
+    else
+        echo "FAIL  $name: $body"
+        FAILED=1
+    fi
+}
+
+wait_for "snapshot taken" '"snapshotFlights":[1-9]' "$BASE/edge/status"
+echo "ok    snapshot taken"
+
+sh -c "$KIOSK_DB_STOP" || exit 1
+wait_for "node offline" '"state":"OFFLINE"' "$BASE/edge/status"
+echo "ok    node offline"
+
+step "flight list (offline)" 'X-Kiosk-Offline: true' "$BASE/flights"
+step "search booking (offline)" "\"bookingId\":\"$BOOKING\"" -X POST "$BASE/bookings/search" \
+    -H 'Content-Type: application/json' -d "{\"passportNumber\":\"$PASSPORT\"}"
+step "seat map (offline)" 'X-Kiosk-Offline: true' "$BASE/flights/$FLIGHT/seats" -H "X-Kiosk-Id: $SESSION"
+step "lock seat (offline)" '"Seat locked successfully"' -X POST "$BASE/flights/$FLIGHT/seats/$SEAT/lock" \
+    -H "X-Kiosk-Id: $SESSION" -H 'Content-Type: application/json' -d "{\"sessionId\":\"$SESSION\"}"
+step "confirm seat (offline)" '"seatStatus":"RESERVED"' -X POST "$BASE/flights/$FLIGHT/seats/$SEAT/confirm" \
+    -H "X-Kiosk-Id: $SESSION" -H 'Content-Type: application/json' -d "{\"bookingId\":\"$BOOKING\",\"sessionId\":\"$SESSION\"}"
+step "check in baggage (offline)" '"tagNumber"' -X POST "$BASE/bookings/$BOOKING/baggage" \
+    -H 'Content-Type: application/json' -d '{"weight":18.5,"count":1}'
+step "queued operations" '"pendingOperations":2' "$BASE/edge/status"
+
+sh -c "$KIOSK_DB_START" || exit 1
+wait_for "reconciled" '"state":"ONLINE".*"pendingOperations":0' "$BASE/edge/status"
+echo "ok    reconciled"
+
+step "no conflicts" '"data":\[\]' "$BASE/edge/conflicts"
+step "seat confirmed in the database" "\"seatId\":\"$SEAT\"[^}]*\"bookingId\":\"$BOOKING\"" \
+    "$BASE/flights/$FLIGHT/seats/assignments"
+step "baggage in the database" '"count":[1-9]' "$BASE/flights/$FLIGHT/baggage/count"
+
+exit $FAILED
@@ -0,0 +1,119 @@
+#!/bin/bash
+
+# Hot-seat load scenario: several kiosks want the same seat at once. Each one that gets the seat holds it
+# for a while (renewing its lease) and then releases it, until every kiosk has held it once.
+# Usage: ./hot-seat-benchmark.sh [retry|waitlist] [kiosks]
+# Example: ./hot-seat-benchmark.sh retry 20 && ./hot-seat-benchmark.sh waitlist 20
+#
+# retry:    a kiosk whose lock fails tries again every KIOSK_RETRY_MS (the kiosk UI's fail-and-retry behaviour)
+# waitlist: a kiosk whose lock fails joins the seat's waitlist and waits to be handed the lock. A real kiosk
+#           learns that from the seat topic over WebSocket; this script polls the waitlist status instead
+#           (every KIOSK_POLL_MS), which is counted separately from lock attempts
+#
+# Runs against a started backend. Environment: KIOSK_URL (default http://localhost:8080/api), KIOSK_FLIGHT
+# (FL001), KIOSK_SEAT (FL001-S01A; must be AVAILABLE), KIOSK_HOLD_MS (1000), KIOSK_RETRY_MS (200),
+# KIOSK_POLL_MS (250).
+# Prints the failed lock attempts seen by the kiosks and the server's kiosk.seat.lock.attempts counter delta.
+
+MODE=${1:-retry}
+KIOSKS=${2:-20}
+BASE=${KIOSK_URL:-http://localhost:8080/api}
+FLIGHT=${KIOSK_FLIGHT:-FL001}
+SEAT=${KIOSK_SEAT:-FL001-S01A}
+HOLD_MS=${KIOSK_HOLD_MS:-1000}
+RETRY_MS=${KIOSK_RETRY_MS:-200}
+POLL_MS=${KIOSK_POLL_MS:-250}
+SEAT_URL="$BASE/flights/$FLIGHT/seats/$SEAT"
+RESULTS=$(mktemp)
+trap 'rm -f "$RESULTS"' EXIT
+
+case "$MODE" in
+    retry|waitlist) ;;
+    *)
+        echo "Unknown mode: $MODE (retry or waitlist)"
+        exit 1
+        ;;
+esac
+
+# failed_lock_attempts: the server-side counter (0 if not exposed)
+failed_lock_attempts() {
+    curl -s "${BASE%/api}/actuator/metrics/kiosk.seat.lock.attempts?tag=outcome:unavailable" \
+        | grep -o '"value":[0-9.]*' | head -1 | cut -d: -f2 | cut -d. -f1 | grep . || echo 0
+}
+
+sleep_ms() {
+    sleep "$(printf '%d.%03d' $(( $1 / 1000 )) $(( $1 % 1000 )))"
+}
+
+# post <url> <session>: a kiosk's POST with its session as body and as kiosk id
+post() {
+    curl -s -X POST "$1" -H 'Content-Type: application/json' -H "X-Kiosk-Id: $2" -d "{\"sessionId\":\"$2\"}"
+}
+
+# kiosk <n>: get the seat, hold it, release it; appends "failed-locks requests wait-ms" to the results
+kiosk() {
+    local session="hot-seat-$$-$1" failed=0 requests=0 start got
+    start=$(date +%s%N)
+    while true; do
+        requests=$((requests + 1))
+        if post "$SEAT_URL/lock" "$session" | grep -q '"Seat locked successfully"'; then
+            break
+        fi
+        failed=$((failed + 1))
+        if [ "$MODE" = retry ]; then
+            sleep_ms "$RETRY_MS"
+            continue
+        fi
+        requests=$((requests + 1))
+        local joined
+        joined=$(post "$SEAT_URL/waitlist" "$session")
+        if echo "$joined" | grep -q '"granted":true'; then
+            break
+        fi
+        if ! echo "$joined" | grep -q '"granted":false'; then
+            # Queue full: back off like a retrying kiosk
+            sleep_ms "$RETRY_MS"
+            continue
+        fi
+        local polls=0 status
+        while true; do
+            sleep_ms "$POLL_MS"
+            polls=$((polls + 1))
+            requests=$((requests + 1))
+            status=$(curl -s -H "X-Kiosk-Id: $session" "$SEAT_URL/waitlist?sessionId=$session")
+            echo "$status" | grep -q '"granted":false' || break
+            # Lease heartbeat about every 5 s keeps the waitlist entry
+            if [ $((polls * POLL_MS % 5000)) -lt "$POLL_MS" ]; then
+                requests=$((requests + 1))
+                post "$BASE/seats/leases/renew" "$session" > /dev/null
+            fi
+        done
+        echo "$status" | grep -q '"granted":true' && break
+    done
+    got=$(date +%s%N)
+
+    sleep_ms "$HOLD_MS"
+    requests=$((requests + 1))
+    curl -s -X DELETE -H "X-Kiosk-Id: $session" "$SEAT_URL/unlock?sessionId=$session" > /dev/null
+    echo "$failed $requests $(( (got - start) / 1000000 ))" >> "$RESULTS"
+}
+
+SERVER_BEFORE=$(failed_lock_attempts)
+START=$(date +%s%N)
+PIDS=()
+for n in $(seq 1 "$KIOSKS"); do
+    kiosk "$n" &
+    PIDS+=($!)
+done
+wait "${PIDS[@]}"
+END=$(date +%s%N)
+SERVER_AFTER=$(failed_lock_attempts)
+
+awk -v mode="$MODE" -v kiosks="$KIOSKS" -v elapsed=$(( (END - START) / 1000000 )) \
+    -v server=$(( SERVER_AFTER - SERVER_BEFORE )) '
+    { failed += $1; requests += $2; wait += $3; if ($3 > maxWait) maxWait = $3 }
+    END {
+        printf "%s: %d kiosks served in %d ms; %d failed lock attempts (server: %d), %d requests, " \
+            "mean wait %d ms, max wait %d ms\n", mode, NR, elapsed, failed, server, requests, wait / NR, maxWait
+        if (NR != kiosks) { printf "%d kiosks did not finish\n", kiosks - NR; exit 1 }
+    }' "$RESULTS"
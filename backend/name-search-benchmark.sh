@@ -0,0 +1,59 @@
+#!/bin/bash
+
+# Passenger name search latency: GET /api/bookings/search?name=&flight= against the in-memory name index.
+# Usage: ./name-search-benchmark.sh [searches]
+# Example: ./name-search-benchmark.sh 2000
+#
+# Searches cycle through the given flights and names (typos, prefixes, accents and apostrophes included), one
+# request at a time. Runs against a started backend. Environment: KIOSK_URL (default http://localhost:8080/api),
+# KIOSK_FLIGHTS (flight ids, "FL001 FL002 FL003"), KIOSK_NAMES (searched names, "|"-separated).
+# Prints the mean and 95th percentile of the request times (curl time_total) and the time spent searching the
+# index (kiosk.name-index.search, so the flights' first loads are not included), with the index size.
+
+SEARCHES=${1:-500}
+BASE=${KIOSK_URL:-http://localhost:8080/api}
+FLIGHTS=(${KIOSK_FLIGHTS:-FL001 FL002 FL003})
+IFS='|' read -r -a NAMES <<< "${KIOSK_NAMES:-Smith|Jhon|Smyth Jane|obrien|Muller|Jose|Balasubramanian|Van der|Wiliams A|Brwn}"
+ACTUATOR=${BASE%/api}/actuator/metrics
+RESULTS=$(mktemp)
+trap 'rm -f "$RESULTS"' EXIT
+
+# metric <name> <statistic>: a statistic of an actuator metric, 0 if it has none yet
+metric() {
+    curl -s "$ACTUATOR/$1" | tr '{' '\n' | grep "\"$2\"" | sed 's/.*"value":\([0-9.Ee+-]*\).*/\1/' | awk '{ printf "%f", $1 }'
+}
+
+# One search per flight first, so the timed ones find every flight loaded
+for flight in "${FLIGHTS[@]}"; do
+    curl -s -G "$BASE/bookings/search" --data-urlencode "name=${NAMES[0]}" --data-urlencode "flight=$flight" > /dev/null
+done
+COUNT_BEFORE=$(metric kiosk.name-index.search COUNT)
+TOTAL_BEFORE=$(metric kiosk.name-index.search TOTAL_TIME)
+
+FAILED=0
+for i in $(seq 0 $((SEARCHES - 1))); do
+    out=$(curl -s -w '\n%{time_total}' -G "$BASE/bookings/search" --data-urlencode "name=${NAMES[$((i % ${#NAMES[@]}))]}" \
+        --data-urlencode "flight=${FLIGHTS[$((i % ${#FLIGHTS[@]}))]}")
+    if echo "$out" | grep -q '"success":true'; then
+        echo "$out" | tail -1 >> "$RESULTS"
+    else
+        FAILED=$((FAILED + 1))
+    fi
+done
+
+COUNT=$(awk -v a="$(metric kiosk.name-index.search COUNT)" -v b="$COUNT_BEFORE" 'BEGIN { print a - b }')
+TOTAL=$(awk -v a="$(metric kiosk.name-index.search TOTAL_TIME)" -v b="$TOTAL_BEFORE" 'BEGIN { print a - b }')
+if [ ! -s "$RESULTS" ]; then
+    echo "No search succeeded ($FAILED failed)"
+    exit 1
+fi
+sort -n "$RESULTS" | awk -v failed="$FAILED" -v count="$COUNT" -v total="$TOTAL" \
+    -v passengers="$(metric kiosk.name-index.passengers VALUE)" -v bytes="$(metric kiosk.name-index.bytes VALUE)" '
+    { t[NR] = $1; sum += $1 }
+    END {
+        search = count > 0 ? total / count * 1000000 : 0
+        printf "%d searches (%d failed): request mean %.2f ms, p95 %.2f ms; index search mean %.1f us",
+            NR, failed, sum / NR * 1000, t[int(NR * 0.95 + 0.999)] * 1000, search
+        printf "; index %d passengers, %.1f MB\n", passengers, bytes / 1048576
+    }'
+[ "$FAILED" -eq 0 ]
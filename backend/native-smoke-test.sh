@@ -0,0 +1,104 @@
+#!/bin/bash
+
+# Starts the backend and walks one passenger through the check-in flow; reports startup time and RSS
+# Usage: ./native-smoke-test.sh [native|jvm] [extra application arguments...]
+# Example: ./native-smoke-test.sh native --spring.datasource.url=jdbc:postgresql://db:5432/airport_kiosk
+#
+# native: target/kiosk                (mvn -Pnative native:compile)
+# jvm:    target/kiosk-1.0.0.jar with -Dspring.aot.enabled=true (mvn -Pnative package, same AOT code)
+#
+# Needs a database with the sample data (V2 migration) in which the booking has no seat and no baggage yet.
+# Environment: KIOSK_PORT (default 18091), KIOSK_BOOKING (BK002), KIOSK_PASSPORT (P87654321),
+# KIOSK_FLIGHT (FL001), KIOSK_SEAT (FL001-S05C)
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+cd "$SCRIPT_DIR"
+
+MODE=${1:-native}
+shift
+PORT=${KIOSK_PORT:-18091}
+BOOKING=${KIOSK_BOOKING:-BK002}
+PASSPORT=${KIOSK_PASSPORT:-P87654321}
+FLIGHT=${KIOSK_FLIGHT:-FL001}
+SEAT=${KIOSK_SEAT:-FL001-S05C}
+SESSION="smoke-$$"
+BASE="http://localhost:$PORT/api"
+LOG="target/native-smoke-test-$MODE.log"
+
+case "$MODE" in
+    native)
+        COMMAND=(target/kiosk)
+        ;;
+    jvm)
+        COMMAND=("${JAVA_HOME:+$JAVA_HOME/bin/}java" -Dspring.aot.enabled=true -jar target/kiosk-1.0.0.jar)
+        ;;
+    *)
+        echo "Unknown mode: $MODE (native or jvm)"
+        exit 1
+        ;;
+esac
+
+START=$(date +%s%N)
+"${COMMAND[@]}" --server.port="$PORT" "$@" > "$LOG" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null; wait $PID 2>/dev/null' EXIT
+
+until curl -s "$BASE/health" > /dev/null; do
+    if ! kill -0 "$PID" 2>/dev/null; then
+        echo "The application exited during startup (see $LOG)"
+        exit 1
+    fi
+    sleep 0.05
+done
+READY_MS=$(( ($(date +%s%N) - START) / 1000000 ))
+RSS_STARTED=$(awk '/VmRSS/ {print $2}' "/proc/$PID/status")
+
+FAILED=0
+
+# step <name> <expected text> <curl arguments...>
+step() {
+    local name=$1 expected=$2
+    shift 2
+    local body
+    body=$(curl -s "$@")
+    if echo "$body" | grep -q "$expected"; then
+        echo "ok    $name"
+    else
+        echo "FAIL  $name: $body"
+        FAILED=1
+    fi
+}
+
+# Seat events of the flight over SSE while the passenger checks in
+curl -s -N --max-time 15 "$BASE/flights/$FLIGHT/events" > "target/native-smoke-test-$MODE.events" &
+EVENTS_PID=$!
+sleep 0.5
+
+step "search booking" '"success":true' -X POST "$BASE/bookings/search" -H 'Content-Type: application/json' \
+    -d "{\"bookingReference\":\"$BOOKING\",\"passportNumber\":\"$PASSPORT\"}"
+step "flight list" '"success":true' "$BASE/flights"
+step "seat map" '"seats":\[' "$BASE/flights/$FLIGHT/seats" -H "X-Kiosk-Id: $SESSION"
+step "lock seat" '"Seat locked successfully"' -X POST "$BASE/flights/$FLIGHT/seats/$SEAT/lock" \
+    -H "X-Kiosk-Id: $SESSION" -H 'Content-Type: application/json' -d "{\"sessionId\":\"$SESSION\"}"
+step "confirm seat" '"success":true' -X POST "$BASE/flights/$FLIGHT/seats/$SEAT/confirm" \
+    -H "X-Kiosk-Id: $SESSION" -H 'Content-Type: application/json' -d "{\"bookingId\":\"$BOOKING\",\"sessionId\":\"$SESSION\"}"
+step "check in baggage" '"success":true' -X POST "$BASE/bookings/$BOOKING/baggage" \
+    -H 'Content-Type: application/json' -d '{"weight":18.5,"count":1}'
+step "baggage count" '"success":true' "$BASE/flights/$FLIGHT/baggage/count"
+step "boarding pass" '"success":true' -X POST "$BASE/bookings/$BOOKING/boarding-pass"
+step "booking history" '"success":true' "$BASE/history/bookings/$BOOKING"
+step "metrics" '"names"' "http://localhost:$PORT/actuator/metrics"
+
+sleep 0.5
+kill "$EVENTS_PID" 2>/dev/null
+wait "$EVENTS_PID" 2>/dev/null
+if grep -q "\"seatId\":\"$SEAT\"" "target/native-smoke-test-$MODE.events"; then
+    echo "ok    seat events (SSE)"
+else
+    echo "FAIL  seat events (SSE): no event for $SEAT"
+    FAILED=1
+fi
+
+RSS_AFTER=$(awk '/VmRSS/ {print $2}' "/proc/$PID/status")
+echo "$MODE: ready after $READY_MS ms, RSS $((RSS_STARTED / 1024)) MB at startup, $((RSS_AFTER / 1024)) MB after the flow"
+exit $FAILED
@@ -0,0 +1,40 @@
+#!/bin/bash
+
+# Reconciliation pass cost: POST /api/reconciliation, which checks the seat availability counters,
+# flights.available_seats and flights.baggage_count of the flights departing from yesterday on against their rows.
+# Usage: ./reconcile-benchmark.sh [passes]
+# Example: ./reconcile-benchmark.sh 20
+#
+# Passes run one after another against a started backend (environment: KIOSK_URL, default
+# http://localhost:8080/api); compare kiosk.reconcile.chunk-size and kiosk.reconcile.parallelism between runs.
+# The first pass also repairs whatever drifted before it; later passes only check.
+# Prints the flights checked per pass, the mean and 95th percentile pass time (elapsedMillis) and the repairs.
+
+PASSES=${1:-10}
+BASE=${KIOSK_URL:-http://localhost:8080/api}
+RESULTS=$(mktemp)
+trap 'rm -f "$RESULTS"' EXIT
+
+FAILED=0
+for i in $(seq 1 "$PASSES"); do
+    out=$(curl -s -X POST "$BASE/reconciliation")
+    if echo "$out" | grep -q '"success":true'; then
+        # flights checked, flights repaired, milliseconds
+        echo "$out" | sed 's/.*"flightsChecked":\([0-9]*\),"flightsRepaired":\([0-9]*\),.*"elapsedMillis":\([0-9]*\).*/\1 \2 \3/' \
+            >> "$RESULTS"
+    else
+        FAILED=$((FAILED + 1))
+    fi
+done
+
+if [ ! -s "$RESULTS" ]; then
+    echo "No pass succeeded ($FAILED failed)"
+    exit 1
+fi
+sort -n -k3 "$RESULTS" | awk -v failed="$FAILED" '
+    { t[NR] = $3; sum += $3; flights = $1; repaired += $2 }
+    END {
+        printf "%d passes (%d failed) over %d flights: mean %.0f ms, p95 %d ms (%.2f ms per flight); %d flights repaired\n",
+            NR, failed, flights, sum / NR, t[int(NR * 0.95 + 0.999)], sum / NR / (flights > 0 ? flights : 1), repaired
+    }'
+[ "$FAILED" -eq 0 ]
@@ -2,10 +2,14 @@ package com.airport.kiosk;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import com.airport.kiosk.config.KioskRuntimeHints;
+
 @SpringBootApplication
 @EnableScheduling
+@ImportRuntimeHints(KioskRuntimeHints.class)
 public class AirportKioskApplication {
 
     public static void main(String[] args) {
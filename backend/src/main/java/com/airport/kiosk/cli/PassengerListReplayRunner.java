@@ -0,0 +1,73 @@
+package com.airport.kiosk.cli;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.airport.kiosk.dto.PassengerListIngestionResult;
+import com.airport.kiosk.service.PassengerListIngestionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replays PNL/ADL messages from a local directory in file-name order, e.g. for testing:
+ * <pre>
+ * java -jar kiosk.jar --kiosk.pnl.replay-dir=./pnl
+ * </pre>
+ * Already-applied sequence numbers are skipped, so a directory can be replayed repeatedly.
+ */
+@Slf4j
+@Component
+@Order(2)
+@RequiredArgsConstructor
+@ConditionalOnProperty("kiosk.pnl.replay-dir")
+public class PassengerListReplayRunner implements ApplicationRunner {
+
+    private final PassengerListIngestionService ingestionService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${kiosk.pnl.replay-dir}")
+    private Path replayDir;
+
+    @Value("${kiosk.pnl.exit:true}")
+    private boolean exitAfterReplay;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(replayDir)) {
+            files = listing.filter(Files::isRegularFile).sorted().toList();
+        }
+
+        long passengers = 0;
+        long start = System.nanoTime();
+        for (Path file : files) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                PassengerListIngestionResult result = ingestionService.ingest(reader);
+                passengers += result.getPassengersProcessed();
+                log.info("Replayed {}: {} {} seq {} ({})", file.getFileName(), result.getMessageType(),
+                    result.getFlightId(), result.getSequence(), result.isSkipped() ? "skipped" : "applied");
+            }
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Replay finished: {} files, {} passengers in {} ms ({} passengers/s)",
+            files.size(), passengers, elapsedMillis, passengers * 1000 / elapsedMillis);
+
+        if (exitAfterReplay) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.airport.kiosk.cli;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.airport.kiosk.dto.ScheduleImportResult;
+import com.airport.kiosk.service.ScheduleImportService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Command-line schedule import. Example:
+ * <pre>
+ * java -jar kiosk.jar --kiosk.import.schedule=schedule.csv --kiosk.import.layouts=layouts.csv
+ * </pre>
+ * The application exits once the import completes unless {@code kiosk.import.exit=false}.
+ */
+@Slf4j
+@Component
+@Order(1)
+@RequiredArgsConstructor
+@ConditionalOnProperty("kiosk.import.schedule")
+public class ScheduleImportRunner implements ApplicationRunner {
+
+    private final ScheduleImportService scheduleImportService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${kiosk.import.schedule}")
+    private Path schedulePath;
+
+    @Value("${kiosk.import.layouts}")
+    private Path layoutsPath;
+
+    @Value("${kiosk.import.exit:true}")
+    private boolean exitAfterImport;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ScheduleImportResult result;
+        try (InputStream schedule = Files.newInputStream(schedulePath);
+             InputStream layouts = Files.newInputStream(layoutsPath)) {
+            result = scheduleImportService.importSchedule(
+                schedule, ScheduleImportService.Format.fromFileName(schedulePath.toString()),
+                layouts, ScheduleImportService.Format.fromFileName(layoutsPath.toString()));
+        }
+        result.getErrors().forEach(error -> log.warn("Rejected: {}", error));
+        result.getFailedChunks().forEach(chunk -> log.warn("Not imported (lines {}-{}): {}",
+            chunk.firstLine(), chunk.lastLine(), chunk.flightIds()));
+
+        if (exitAfterImport) {
+            int exitCode = result.getRowsRejected() > 0 ? 2 : 0;
+            System.exit(SpringApplication.exit(context, () -> exitCode));
+        }
+    }
+}
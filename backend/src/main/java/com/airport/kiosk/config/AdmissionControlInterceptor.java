@@ -0,0 +1,155 @@
+package com.airport.kiosk.config;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.service.AdmissionControlService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Applies {@link AdmissionControlService} to the seat endpoints and complete check-in (which confirms seats, so
+ * it takes the confirm lane), and through {@link #call} to batches, and answers rejected requests
+ * with 429 and a {@code Retry-After} header. Kiosks are identified by the {@code X-Kiosk-Id}
+ * header, which the kiosk client sends with every request; requests without it get 400 (kiosks
+ * behind one NAT would otherwise share one bucket), unless {@code kiosk.admission.require-kiosk-id}
+ * is off, when the client address stands in.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    public static final String KIOSK_ID_HEADER = "X-Kiosk-Id";
+
+    private static final String START_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".start";
+
+    private final AdmissionControlService admissionControlService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${kiosk.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${kiosk.admission.require-kiosk-id:true}")
+    private boolean requireKioskId;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) throws Exception {
+        if (!enabled) {
+            return true;
+        }
+        String kioskId = kioskId(request);
+        if (kioskId == null) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), missingKioskId());
+            return false;
+        }
+        long start = System.nanoTime();
+        AdmissionControlService.Decision decision = admissionControlService.tryAdmit(
+            kioskId, flightId(request), lane(request), start);
+        if (!decision.admitted()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds(decision));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), rateLimited(decision));
+            return false;
+        }
+        request.setAttribute(START_ATTRIBUTE, start);
+        return true;
+    }
+
+    /**
+     * Admission control for a handler whose cost is only known from its body, such as a batch of seat
+     * operations: it takes {@code kioskTokens} from the kiosk's bucket and the given tokens from each
+     * flight's bucket before calling {@code handler}.
+     */
+    public <T> ResponseEntity<ApiResponse<T>> call(HttpServletRequest request, int kioskTokens,
+                                                   Map<String, Integer> flightTokens,
+                                                   AdmissionControlService.Lane lane,
+                                                   Supplier<ResponseEntity<ApiResponse<T>>> handler) {
+        if (!enabled) {
+            return handler.get();
+        }
+        String kioskId = kioskId(request);
+        if (kioskId == null) {
+            return ResponseEntity.badRequest().body(missingKioskId());
+        }
+        long start = System.nanoTime();
+        AdmissionControlService.Decision decision = admissionControlService.tryAdmit(
+            kioskId, kioskTokens, flightTokens, lane, start);
+        if (!decision.admitted()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(decision))
+                .body(rateLimited(decision));
+        }
+        try {
+            return handler.get();
+        } finally {
+            admissionControlService.release(start);
+        }
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start != null) {
+            request.removeAttribute(START_ATTRIBUTE);
+            admissionControlService.release((Long) start);
+        }
+    }
+
+    /**
+     * The {@code X-Kiosk-Id} header, else the client address if that is allowed, else null.
+     */
+    private String kioskId(HttpServletRequest request) {
+        String kioskId = request.getHeader(KIOSK_ID_HEADER);
+        if (kioskId == null || kioskId.isBlank()) {
+            return requireKioskId ? null : request.getRemoteAddr();
+        }
+        return kioskId;
+    }
+
+    private static <T> ApiResponse<T> missingKioskId() {
+        return ApiResponse.error("Missing " + KIOSK_ID_HEADER + " header", "MISSING_KIOSK_ID");
+    }
+
+    private static <T> ApiResponse<T> rateLimited(AdmissionControlService.Decision decision) {
+        return ApiResponse.error("Too many requests (" + decision.reason() + "), retry later", "RATE_LIMITED");
+    }
+
+    private static String retryAfterSeconds(AdmissionControlService.Decision decision) {
+        return String.valueOf((decision.retryAfterMillis() + 999) / 1000);
+    }
+
+    private static AdmissionControlService.Lane lane(HttpServletRequest request) {
+        if ("GET".equals(request.getMethod())) {
+            return AdmissionControlService.Lane.POLL;
+        }
+        String uri = request.getRequestURI();
+        return uri.endsWith("/confirm") || uri.endsWith("/check-in")
+            ? AdmissionControlService.Lane.CONFIRM
+            : AdmissionControlService.Lane.LOCK;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String flightId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables instanceof Map ? ((Map<String, String>) variables).get("flightId") : null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.airport.kiosk.config;
+
+import java.util.Set;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import com.airport.kiosk.controller.HealthController;
+import com.airport.kiosk.controller.SeatController;
+import com.airport.kiosk.repository.FlightRepository;
+import com.airport.kiosk.repository.SeatRepository;
+import com.airport.kiosk.service.FlightService;
+import com.airport.kiosk.service.SeatService;
+
+/**
+ * Beans kept eager under {@code spring.main.lazy-initialization=true} (the fast-start profile): the seat
+ * lock path, so the first kiosk request after a restart does not pay for building it, and every bean with
+ * {@code @Scheduled} methods, whose tasks are only registered once the bean exists.
+ * The remaining beans (manifests, imports, PNL ingestion, history, boarding passes, ...) are created on first use.
+ */
+@Configuration
+public class FastStartConfig {
+
+    private static final Set<Class<?>> HOT_PATH = Set.of(
+        SeatController.class, SeatService.class, SeatRepository.class,
+        FlightService.class, FlightRepository.class, HealthController.class);
+
+    @Bean
+    static LazyInitializationExcludeFilter hotPathLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) ->
+            HOT_PATH.stream().anyMatch(type -> type.isAssignableFrom(beanType)) || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        boolean[] found = {false};
+        ReflectionUtils.doWithMethods(beanType,
+            method -> found[0] = true,
+            method -> !found[0] && AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return found[0];
+    }
+}
@@ -0,0 +1,264 @@
+package com.airport.kiosk.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.service.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Honours the {@code Idempotency-Key} header on mutating requests (POST, PUT, PATCH, DELETE).
+ * Keys are scoped per kiosk ({@code X-Kiosk-Id}, else the client address): a retried request from the same
+ * kiosk with the same key, method and path gets the original response replayed (marked
+ * {@code Idempotent-Replayed: true}) without reaching the controller, or 422 if its body differs from the
+ * original's. A retry that arrives while the original is still running waits for it, or gets 409 after
+ * {@code kiosk.idempotency.wait-timeout}. Server errors (5xx) are not remembered.
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_KIOSK_ID_LENGTH = 100;
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final long waitTimeoutMillis;
+    private final int maxBodyBytes;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+                             @Value("${kiosk.idempotency.wait-timeout:PT10S}") Duration waitTimeout,
+                             @Value("${kiosk.idempotency.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !MUTATING_METHODS.contains(request.getMethod())
+            || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Invalid Idempotency-Key header", "INVALID_IDEMPOTENCY_KEY");
+            return;
+        }
+        String kioskId = request.getHeader(AdmissionControlInterceptor.KIOSK_ID_HEADER);
+        if (kioskId == null || kioskId.isBlank()) {
+            kioskId = request.getRemoteAddr();
+        } else if (kioskId.length() > MAX_KIOSK_ID_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Invalid X-Kiosk-Id header", "INVALID_KIOSK_ID");
+            return;
+        }
+        byte[] body = readBody(request);
+        if (body == null) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body too large for an Idempotency-Key",
+                "IDEMPOTENCY_BODY_TOO_LARGE");
+            return;
+        }
+        String requestHash = sha256(body);
+        request = new CachedBodyRequest(request, body);
+        String key = request.getMethod() + " " + request.getRequestURI() + " " + kioskId.trim() + " " + idempotencyKey;
+
+        Optional<CompletableFuture<IdempotencyStore.CachedResponse>> existing = idempotencyStore.claim(key);
+        while (existing.isPresent()) {
+            IdempotencyStore.CachedResponse cached = await(existing.get());
+            if (cached == null && !existing.get().isDone()) {
+                writeError(response, HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still being processed", "IDEMPOTENCY_IN_PROGRESS");
+                return;
+            }
+            if (cached != null && !requestHash.equals(cached.requestHash())) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request body", "IDEMPOTENCY_KEY_REUSED");
+                return;
+            }
+            if (cached != null) {
+                log.debug("Replaying response for idempotent request {}", key);
+                replay(cached, response);
+                return;
+            }
+            // The original request failed and released the key: execute this one instead
+            existing = idempotencyStore.claim(key);
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (!request.isAsyncStarted() && responseWrapper.getStatus() < 500) {
+                idempotencyStore.complete(key, new IdempotencyStore.CachedResponse(
+                    responseWrapper.getStatus(), responseWrapper.getContentType(),
+                    responseWrapper.getContentAsByteArray(), requestHash));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyStore.release(key);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private IdempotencyStore.CachedResponse await(CompletableFuture<IdempotencyStore.CachedResponse> pending) {
+        try {
+            return pending.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * The whole request body, or null if it is larger than {@code kiosk.idempotency.max-body-bytes}.
+     */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            return null;
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = request.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (body.size() + read > maxBodyBytes) {
+                    return null;
+                }
+                body.write(buffer, 0, read);
+            }
+        }
+        return body.toByteArray();
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void replay(IdempotencyStore.CachedResponse cached, HttpServletResponse response) throws IOException {
+        response.setStatus(cached.status());
+        if (cached.contentType() != null) {
+            response.setContentType(cached.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message, String code)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message, code));
+    }
+
+    /**
+     * The request with its body read up front (to hash it), served again to the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Blocking reads only");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
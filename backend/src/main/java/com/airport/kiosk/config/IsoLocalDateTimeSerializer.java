@@ -0,0 +1,85 @@
+package com.airport.kiosk.config;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+/**
+ * Writes {@link LocalDateTime} as the same text as {@code DateTimeFormatter.ISO_LOCAL_DATE_TIME}
+ * (seconds always present, fraction only when non-zero and without trailing zeros), but straight into a
+ * reused char buffer instead of through the formatter. Every seat carries two timestamps, and formatting
+ * them was most of the CPU and almost all of the garbage of a seat map response.
+ * Anything unusual (timestamps enabled, {@code @JsonFormat}, years outside 0-9999) goes to Jackson's own serializer.
+ */
+class IsoLocalDateTimeSerializer extends StdSerializer<LocalDateTime> implements ContextualSerializer {
+
+    static final IsoLocalDateTimeSerializer INSTANCE = new IsoLocalDateTimeSerializer();
+
+    /** The generator copies the text out, so one scratch buffer per thread is enough. */
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[29]);
+
+    private IsoLocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        JsonFormat.Value format = findFormatOverrides(provider, property, handledType());
+        if (format != null && (format.hasPattern() || format.hasShape() || format.hasLocale())) {
+            return LocalDateTimeSerializer.INSTANCE.createContextual(provider, property);
+        }
+        return this;
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > 9999 || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            LocalDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        write4(buffer, 0, year);
+        buffer[4] = '-';
+        write2(buffer, 5, value.getMonthValue());
+        buffer[7] = '-';
+        write2(buffer, 8, value.getDayOfMonth());
+        buffer[10] = 'T';
+        write2(buffer, 11, value.getHour());
+        buffer[13] = ':';
+        write2(buffer, 14, value.getMinute());
+        buffer[16] = ':';
+        write2(buffer, 17, value.getSecond());
+        int length = 19;
+        int nano = value.getNano();
+        if (nano > 0) {
+            buffer[length++] = '.';
+            for (int divisor = 100_000_000; nano > 0; divisor /= 10) {
+                buffer[length++] = (char) ('0' + nano / divisor);
+                nano %= divisor;
+            }
+        }
+        generator.writeString(buffer, 0, length);
+    }
+
+    private static void write2(char[] buffer, int offset, int value) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    private static void write4(char[] buffer, int offset, int value) {
+        write2(buffer, offset, value / 100);
+        write2(buffer, offset + 2, value % 100);
+    }
+}
@@ -1,21 +1,36 @@
 package com.airport.kiosk.config;
 
+import java.time.LocalDateTime;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.NativeDetector;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
 @Configuration
 public class JacksonConfig {
     
+    /**
+     * Blackbird replaces reflective getter calls with generated lambdas; {@link IsoLocalDateTimeSerializer}
+     * (registered after the JavaTimeModule so it takes precedence) avoids DateTimeFormatter per timestamp.
+     * Both matter for the seat map, which serializes hundreds of seats per response.
+     * A native image cannot define classes at runtime, so Blackbird is left out there (plain reflection).
+     */
     @Bean
     @Primary
     public ObjectMapper objectMapper(Jackson2ObjectMapperBuilder builder) {
         ObjectMapper objectMapper = builder.build();
         objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.registerModule(new SimpleModule("IsoLocalDateTime")
+            .addSerializer(LocalDateTime.class, IsoLocalDateTimeSerializer.INSTANCE));
+        if (!NativeDetector.inNativeImage()) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
         return objectMapper;
     }
 }
-
@@ -0,0 +1,55 @@
+package com.airport.kiosk.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.FlightView;
+import com.airport.kiosk.dto.SeatMapResponse;
+import com.airport.kiosk.dto.SeatView;
+import com.airport.kiosk.edge.EdgeConflict;
+import com.airport.kiosk.edge.EdgeSnapshot;
+import com.airport.kiosk.edge.EdgeSnapshotDelta;
+import com.airport.kiosk.model.AuditLog;
+import com.airport.kiosk.model.BaggageRecord;
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Flight;
+import com.airport.kiosk.model.Seat;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative native:compile) that Spring's AOT
+ * processing cannot derive on its own. Controller request/response types, JPA entity metadata and the
+ * default Flyway location are registered by Spring already.
+ */
+public class KioskRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Cached seat map and flight list bodies are serialized by ResponseCache (controllers return ResponseEntity<?>);
+        // the archived history rows are read by BeanPropertyRowMapper
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+            ApiResponse.class, SeatMapResponse.class, SeatView.class, FlightView.class, Flight.class, Seat.class,
+            Booking.class, BaggageRecord.class);
+
+        // AuditLog's jsonb columns go through Hibernate's Jackson format mapper, looked up by class name
+        bindingRegistrar.registerReflectionHints(hints.reflection(), AuditLog.class);
+        hints.reflection().registerType(
+            TypeReference.of("org.hibernate.type.format.jackson.JacksonJsonFormatMapper"),
+            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Edge node snapshot, queue and conflict files (kiosk.edge.enabled)
+        bindingRegistrar.registerReflectionHints(hints.reflection(), EdgeSnapshot.class, EdgeSnapshotDelta.class,
+            EdgeConflict.class);
+
+        // Optional partitioned schema (spring.flyway.locations=...,classpath:db/partitioned)
+        hints.resources().registerPattern("db/partitioned/*.sql");
+
+        // SockJS / STOMP client scripts served from the webjars
+        hints.resources().registerPattern("META-INF/resources/webjars/**");
+    }
+}
@@ -0,0 +1,185 @@
+package com.airport.kiosk.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out primary connections, except inside read-only transactions declared by application code
+ * ({@code @Transactional(readOnly = true)}, read-only {@code TransactionTemplate}s), which get a replica
+ * connection when one is usable.
+ * <ul>
+ *   <li>Spring Data's own implicit read-only repository transactions stay on the primary: they are what
+ *       reads right after a write (reading back a confirmed seat, a boarding pass) run in</li>
+ *   <li>Every {@code kiosk.datasource.replicas.check-interval-ms} each replica's replay lag is measured;
+ *       a replica that lags more than {@code kiosk.datasource.replicas.max-lag}, is not streaming WAL from
+ *       the primary or cannot be reached is skipped until a later check finds it healthy again</li>
+ *   <li>Usable replicas are used round-robin; with none usable, or when getting a replica connection
+ *       fails, the primary serves the read</li>
+ * </ul>
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * transaction manager asks for the connection before the transaction is marked read-only.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    /**
+     * Seconds the replica is behind: zero when it has replayed everything it received (an idle primary
+     * sends nothing, which must not look like growing lag), or when it is not a standby at all; infinite
+     * when its WAL receiver is not streaming, since then "replayed everything received" says nothing
+     * about how far behind the primary it is. The receiver's {@code status} is only visible with
+     * pg_read_all_stats, so without it a running receiver counts as streaming.
+     */
+    private static final String POSTGRES_LAG_QUERY = "SELECT CASE "
+        + "WHEN NOT pg_is_in_recovery() THEN 0 "
+        + "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE COALESCE(status, 'streaming') = 'streaming') "
+        + "THEN 'Infinity'::float8 "
+        + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+        + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())::float8, 0) END";
+
+    private static final String SPRING_DATA_PACKAGE = "org.springframework.data.";
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(HikariDataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private final Counter routedCounter;
+        private volatile boolean usable;
+        private volatile double lagSeconds;
+
+        Replica(HikariDataSource dataSource, Counter routedCounter) {
+            this.dataSource = dataSource;
+            this.routedCounter = routedCounter;
+        }
+    }
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbackCounter;
+
+    public ReadReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                        double maxLagSeconds, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagSeconds = maxLagSeconds;
+        this.replicas = replicas.stream()
+            .map(replica -> {
+                Replica entry = new Replica(replica, meterRegistry.counter("kiosk.datasource.reads",
+                    Tags.of("target", replica.getPoolName())));
+                meterRegistry.gauge("kiosk.datasource.replica.lag", Tags.of("replica", replica.getPoolName()),
+                    entry, r -> r.lagSeconds);
+                return entry;
+            })
+            .toList();
+        this.fallbackCounter = meterRegistry.counter("kiosk.datasource.replica.fallbacks");
+        checkReplicas();
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        return connect(HikariDataSource::getConnection);
+    }
+
+    /**
+     * Routed like {@link #getConnection()}; the pool decides whether it supports other credentials
+     * (Hikari does not, and says so with a {@link java.sql.SQLFeatureNotSupportedException}).
+     */
+    @Override
+    @NonNull
+    public Connection getConnection(@NonNull String username, @NonNull String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        if (replicas.isEmpty() || !isReplicaRead()) {
+            return connector.connect(primary);
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.usable) {
+                continue;
+            }
+            try {
+                Connection connection = connector.connect(replica.dataSource);
+                replica.routedCounter.increment();
+                return connection;
+            } catch (SQLFeatureNotSupportedException e) {
+                throw e;
+            } catch (SQLException e) {
+                replica.usable = false;
+                log.warn("Replica {} unavailable, skipping it until the next check: {}",
+                    replica.dataSource.getPoolName(), e.getMessage());
+            }
+        }
+        fallbackCounter.increment();
+        return connector.connect(primary);
+    }
+
+    @Scheduled(fixedDelayString = "${kiosk.datasource.replicas.check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasUsable = replica.usable;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                replica.lagSeconds = measureLag(connection);
+                replica.usable = replica.lagSeconds <= maxLagSeconds;
+            } catch (SQLException e) {
+                replica.usable = false;
+                log.debug("Replica {} check failed: {}", replica.dataSource.getPoolName(), e.getMessage());
+            }
+            if (wasUsable != replica.usable) {
+                log.info("Replica {} is now {} (lag {} s)", replica.dataSource.getPoolName(),
+                    replica.usable ? "in use" : "skipped", replica.lagSeconds);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static boolean isReplicaRead() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name == null || !name.startsWith(SPRING_DATA_PACKAGE);
+    }
+
+    private static double measureLag(Connection connection) throws SQLException {
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            // e.g. an H2 stand-in: reachable is all we can tell
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(POSTGRES_LAG_QUERY)) {
+            resultSet.next();
+            return resultSet.getDouble(1);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.airport.kiosk.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class SchedulingConfig {
+
+    /** Scheduler of the seat lease jobs, named by their {@code @Scheduled(scheduler = ...)}. */
+    public static final String SEAT_LEASE_SCHEDULER = "seatLeaseScheduler";
+
+    /**
+     * Default scheduler of the {@code @Scheduled} jobs ({@code spring.task.scheduling.*}). Declared here because
+     * Spring Boot backs off its own once any other scheduler bean exists.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Lease renewal flush and expired lock/waitlist sweeps: kiosks wait on the flush for their heartbeat answer,
+     * so a slow reconciliation, archive or snapshot job on the shared scheduler must not hold them up.
+     */
+    @Bean(SEAT_LEASE_SCHEDULER)
+    public ThreadPoolTaskScheduler seatLeaseScheduler(
+            @Value("${kiosk.seat.lease.scheduler-threads:2}") int threads) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(1, threads));
+        scheduler.setThreadNamePrefix("seat-lease-");
+        return scheduler;
+    }
+}
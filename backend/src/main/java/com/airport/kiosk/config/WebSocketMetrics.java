@@ -0,0 +1,31 @@
+package com.airport.kiosk.config;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Queue depth of the STOMP inbound/outbound channel executors. A growing outbound queue means
+ * subscribers are not keeping up with seat events.
+ */
+@Component
+public class WebSocketMetrics {
+
+    public WebSocketMetrics(MeterRegistry meterRegistry,
+                            @Qualifier("clientInboundChannelExecutor") Executor inboundExecutor,
+                            @Qualifier("clientOutboundChannelExecutor") Executor outboundExecutor) {
+        meterRegistry.gauge("kiosk.websocket.queue.depth", Tags.of("channel", "inbound"), inboundExecutor,
+            WebSocketMetrics::queueDepth);
+        meterRegistry.gauge("kiosk.websocket.queue.depth", Tags.of("channel", "outbound"), outboundExecutor,
+            WebSocketMetrics::queueDepth);
+    }
+
+    private static double queueDepth(Executor executor) {
+        return executor instanceof ThreadPoolTaskExecutor pool ? pool.getThreadPoolExecutor().getQueue().size() : 0;
+    }
+}
@@ -1,8 +1,5 @@
 package com.airport.kiosk.controller;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,6 +11,10 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.airport.kiosk.dto.ApiResponse;
 import com.airport.kiosk.dto.BaggageCheckInRequest;
+import com.airport.kiosk.dto.BaggageCheckInResponse;
+import com.airport.kiosk.dto.BaggageCountResponse;
+import com.airport.kiosk.dto.FlightBaggageResponse;
+import com.airport.kiosk.edge.EdgeNodeService;
 import com.airport.kiosk.exception.BookingNotFoundException;
 import com.airport.kiosk.model.BaggageRecord;
 import com.airport.kiosk.repository.BookingRepository;
@@ -29,30 +30,35 @@ public class BaggageController {
     
     private final BaggageService baggageService;
     private final BookingRepository bookingRepository;
+    private final EdgeNodeService edgeNode;
     
     @PostMapping("/bookings/{bookingId}/baggage")
-    public ResponseEntity<ApiResponse<Object>> checkInBaggage(
+    public ResponseEntity<ApiResponse<BaggageCheckInResponse>> checkInBaggage(
             @PathVariable String bookingId,
             @RequestBody BaggageCheckInRequest request) {
         try {
-            // Get booking and flight ID (case-insensitive lookup)
-            com.airport.kiosk.model.Booking booking = bookingRepository.findByBookingIdIgnoreCase(bookingId != null ? bookingId.trim() : "")
-                .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
-            String normalizedBookingId = booking.getBookingId();
-            String flightId = booking.getFlightId();
-            
-            BaggageRecord baggage = baggageService.checkInBaggage(
-                normalizedBookingId,
-                flightId,
-                request.getWeight(),
-                request.getCount()
-            );
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("baggage", baggage);
-            result.put("tagNumber", baggage.getTagNumber());
-            
-            return ResponseEntity.ok(ApiResponse.success(result, "Baggage checked in successfully"));
+            return edgeNode.call(() -> {
+                // Get booking and flight ID (case-insensitive lookup)
+                com.airport.kiosk.model.Booking booking = bookingRepository.findByBookingIdIgnoreCase(bookingId != null ? bookingId.trim() : "")
+                    .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
+                String normalizedBookingId = booking.getBookingId();
+                String flightId = booking.getFlightId();
+                
+                BaggageRecord baggage = baggageService.checkInBaggage(
+                    normalizedBookingId,
+                    flightId,
+                    request.getWeight(),
+                    request.getCount(),
+                    null
+                );
+                
+                return ResponseEntity.ok(ApiResponse.success(BaggageCheckInResponse.of(baggage), "Baggage checked in successfully"));
+            }, () -> {
+                // Queued for the central database with the tag number printed now
+                BaggageRecord baggage = edgeNode.checkInBaggage(bookingId, request.getWeight(), request.getCount());
+                return EdgeNodeService.offlineResponse(ApiResponse.success(
+                    BaggageCheckInResponse.of(baggage), "Baggage checked in offline"));
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage(), "BAGGAGE_ERROR"));
@@ -60,27 +66,28 @@ public class BaggageController {
     }
     
     @GetMapping("/flights/{flightId}/baggage/count")
-    public ResponseEntity<ApiResponse<Object>> getBaggageCount(@PathVariable String flightId) {
+    public ResponseEntity<ApiResponse<BaggageCountResponse>> getBaggageCount(@PathVariable String flightId) {
         try {
-            Long count = baggageService.getBaggageCount(flightId);
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("count", count);
-            
-            return ResponseEntity.ok(ApiResponse.success(result, "Baggage count retrieved successfully"));
+            return edgeNode.call(
+                () -> ResponseEntity.ok(ApiResponse.success(new BaggageCountResponse(baggageService.getBaggageCount(flightId)),
+                    "Baggage count retrieved successfully")),
+                () -> EdgeNodeService.offlineResponse(ApiResponse.success(
+                    new BaggageCountResponse(edgeNode.getBaggageCount(flightId)),
+                    "Baggage count retrieved from the offline snapshot")));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage(), "BAGGAGE_COUNT_ERROR"));
         }
     }
     
-    @GetMapping("/flights/{flightId}/baggage/debug")
-    public ResponseEntity<ApiResponse<Object>> getBaggageDebug(@PathVariable String flightId) {
+    @GetMapping("/flights/{flightId}/baggage")
+    public ResponseEntity<ApiResponse<FlightBaggageResponse>> getFlightBaggage(@PathVariable String flightId) {
         try {
-            return baggageService.getBaggageDebug(flightId);
+            return ResponseEntity.ok(ApiResponse.success(baggageService.getFlightBaggage(flightId),
+                "Baggage records retrieved successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                .body(ApiResponse.error(e.getMessage(), "BAGGAGE_DEBUG_ERROR"));
+                .body(ApiResponse.error(e.getMessage(), "BAGGAGE_RECORDS_ERROR"));
         }
     }
 }
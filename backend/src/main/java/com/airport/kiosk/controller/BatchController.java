@@ -0,0 +1,55 @@
+package com.airport.kiosk.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.airport.kiosk.config.AdmissionControlInterceptor;
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.BatchRequest;
+import com.airport.kiosk.dto.BatchResponse;
+import com.airport.kiosk.edge.EdgeNodeService;
+import com.airport.kiosk.service.BatchService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Several seat, baggage and check-in operations in one request ({@link BatchService}). The response lists each
+ * operation's outcome; {@code applied} is false if any of them was not applied. Admission control charges a
+ * batch like its seat operations sent one by one.
+ */
+@RestController
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class BatchController {
+    
+    private final BatchService batchService;
+    private final EdgeNodeService edgeNode;
+    private final AdmissionControlInterceptor admissionControl;
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<BatchResponse>> executeBatch(@RequestBody BatchRequest request,
+                                                                   HttpServletRequest httpRequest) {
+        BatchService.AdmissionCost cost = BatchService.admissionCost(request);
+        return admissionControl.call(httpRequest, cost.kioskTokens(), cost.flightTokens(), cost.lane(), () -> {
+            try {
+                return edgeNode.call(() -> {
+                    BatchResponse result = batchService.execute(request);
+                    return ResponseEntity.ok(ApiResponse.success(result, result.applied()
+                        ? "Batch applied successfully"
+                        : result.failed() + " of " + result.results().size() + " operations not applied"));
+                }, () -> {
+                    throw new IllegalStateException("Batches are not available while the kiosk is offline");
+                });
+            } catch (Exception e) {
+                return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage(), "BATCH_ERROR"));
+            }
+        });
+    }
+}
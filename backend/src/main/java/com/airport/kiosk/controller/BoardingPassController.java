@@ -1,6 +1,7 @@
 package com.airport.kiosk.controller;
 
 import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.BoardingPassResponse;
 import com.airport.kiosk.service.BoardingPassService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -15,9 +16,9 @@ public class BoardingPassController {
     private final BoardingPassService boardingPassService;
     
     @PostMapping
-    public ResponseEntity<ApiResponse<Object>> generateBoardingPass(@PathVariable String bookingId) {
+    public ResponseEntity<ApiResponse<BoardingPassResponse>> generateBoardingPass(@PathVariable String bookingId) {
         try {
-            Object result = boardingPassService.generateBoardingPass(bookingId);
+            BoardingPassResponse result = boardingPassService.generateBoardingPass(bookingId);
             return ResponseEntity.ok(ApiResponse.success(result, "Boarding pass generated successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -1,8 +1,6 @@
 package com.airport.kiosk.controller;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -11,13 +9,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.BookingDetailsResponse;
 import com.airport.kiosk.dto.BookingSearchRequest;
+import com.airport.kiosk.dto.BookingView;
+import com.airport.kiosk.dto.CheckInRequest;
+import com.airport.kiosk.dto.CheckInResponse;
+import com.airport.kiosk.dto.PassengerNameResolveRequest;
+import com.airport.kiosk.dto.PassengerSearchResponse;
+import com.airport.kiosk.edge.EdgeNodeService;
 import com.airport.kiosk.model.Booking;
-import com.airport.kiosk.model.Flight;
 import com.airport.kiosk.service.BookingService;
+import com.airport.kiosk.service.CheckInService;
+import com.airport.kiosk.service.PassengerNameIndex;
 
 import lombok.RequiredArgsConstructor;
 
@@ -28,15 +35,64 @@ import lombok.RequiredArgsConstructor;
 public class BookingController {
     
     private final BookingService bookingService;
+    private final CheckInService checkInService;
+    private final PassengerNameIndex passengerNameIndex;
+    private final EdgeNodeService edgeNode;
     
     @PostMapping("/search")
-    public ResponseEntity<ApiResponse<Object>> searchBooking(@RequestBody BookingSearchRequest request) {
+    public ResponseEntity<ApiResponse<BookingDetailsResponse>> searchBooking(@RequestBody BookingSearchRequest request) {
         try {
-            Object result = bookingService.searchBooking(
-                request.getBookingReference(), 
-                request.getPassportNumber()
-            );
-            return ResponseEntity.ok(ApiResponse.success(result, "Booking found successfully"));
+            return edgeNode.call(() -> {
+                BookingDetailsResponse result = bookingService.searchBooking(
+                    request.getBookingReference(), 
+                    request.getPassportNumber()
+                );
+                return ResponseEntity.ok(ApiResponse.success(result, "Booking found successfully"));
+            }, () -> EdgeNodeService.offlineResponse(ApiResponse.success(
+                edgeNode.searchBooking(request.getBookingReference(), request.getPassportNumber()),
+                "Booking found in the offline snapshot")));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "BOOKING_NOT_FOUND"));
+        }
+    }
+    
+    /**
+     * Bookings of a flight by passenger name, typos allowed, for passengers without their booking reference.
+     * Answered from the in-memory name index, so also by an offline edge node for flights it has searched before.
+     * Names are masked and booking ids left out; {@link #resolveByName} opens the booking.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<PassengerSearchResponse>> searchByName(
+            @RequestParam(required = false) String name, @RequestParam(required = false) String flight) {
+        try {
+            PassengerSearchResponse result = passengerNameIndex.search(flight, name);
+            return ResponseEntity.ok(ApiResponse.success(result, result.matches().size() + " bookings found"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "BOOKING_SEARCH_ERROR"));
+        }
+    }
+    
+    /**
+     * The booking of a name search match, confirmed with the end of the passenger's passport number.
+     */
+    @PostMapping("/search/name")
+    public ResponseEntity<ApiResponse<BookingDetailsResponse>> resolveByName(
+            @RequestBody PassengerNameResolveRequest request) {
+        try {
+            return edgeNode.call(() -> {
+                String bookingId = passengerNameIndex.resolve(request.getFlight(), request.getName(),
+                    request.getPassportEnd(), bookingService::findPassportNumbers);
+                BookingDetailsResponse result = BookingDetailsResponse.of(bookingService.getBookingById(bookingId),
+                    bookingService.getFlightByBookingId(bookingId));
+                return ResponseEntity.ok(ApiResponse.success(result, "Booking found successfully"));
+            }, () -> {
+                String bookingId = passengerNameIndex.resolve(request.getFlight(), request.getName(),
+                    request.getPassportEnd(), edgeNode::findPassportNumbers);
+                return EdgeNodeService.offlineResponse(ApiResponse.success(edgeNode.getBooking(bookingId),
+                    "Booking found in the offline snapshot"));
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage(), "BOOKING_NOT_FOUND"));
@@ -44,26 +100,49 @@ public class BookingController {
     }
     
     @GetMapping("/{bookingId}")
-    public ResponseEntity<ApiResponse<Object>> getBooking(@PathVariable String bookingId) {
+    public ResponseEntity<ApiResponse<BookingDetailsResponse>> getBooking(@PathVariable String bookingId) {
         try {
-            Booking booking = bookingService.getBookingById(bookingId);
-            Flight flight = bookingService.getFlightByBookingId(bookingId);
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("booking", booking);
-            result.put("flight", flight);
-            
-            return ResponseEntity.ok(ApiResponse.success(result, "Booking retrieved successfully"));
+            return edgeNode.call(() -> {
+                Booking booking = bookingService.getBookingById(bookingId);
+                BookingDetailsResponse result = BookingDetailsResponse.of(booking,
+                    bookingService.getFlightByBookingId(bookingId));
+                
+                return ResponseEntity.ok(ApiResponse.success(result, "Booking retrieved successfully"));
+            }, () -> EdgeNodeService.offlineResponse(ApiResponse.success(edgeNode.getBooking(bookingId),
+                "Booking retrieved from the offline snapshot")));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage(), "BOOKING_NOT_FOUND"));
         }
     }
     
+    /**
+     * Seat confirmation, bag drop, CHECKED_IN status and boarding pass in one call and one transaction. Needs the
+     * central database: an offline edge node answers with an error and the kiosk uses the separate endpoints.
+     */
+    @PostMapping("/{bookingId}/check-in")
+    public ResponseEntity<ApiResponse<CheckInResponse>> checkIn(@PathVariable String bookingId,
+                                                                @RequestBody CheckInRequest request) {
+        try {
+            return edgeNode.call(() -> {
+                CheckInResponse result = checkInService.checkIn(bookingId, request.getSeatId(),
+                    request.getSessionId(), request.getBaggage());
+                return ResponseEntity.ok(ApiResponse.success(result, "Check-in completed successfully"));
+            }, () -> {
+                throw new IllegalStateException("Complete check-in is not available while the kiosk is offline");
+            });
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "CHECK_IN_ERROR"));
+        }
+    }
+    
     @GetMapping("/flight/{flightId}")
-    public ResponseEntity<ApiResponse<Object>> getBookingsByFlightId(@PathVariable String flightId) {
+    public ResponseEntity<ApiResponse<List<BookingView>>> getBookingsByFlightId(@PathVariable String flightId) {
         try {
-            List<Booking> bookings = bookingService.getBookingsByFlightId(flightId);
+            List<BookingView> bookings = bookingService.getBookingsByFlightId(flightId).stream()
+                .map(BookingView::from)
+                .toList();
             return ResponseEntity.ok(ApiResponse.success(bookings, "Bookings retrieved successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
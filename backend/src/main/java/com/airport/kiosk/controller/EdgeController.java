@@ -0,0 +1,43 @@
+package com.airport.kiosk.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.EdgeStatusResponse;
+import com.airport.kiosk.edge.EdgeConflict;
+import com.airport.kiosk.edge.EdgeNodeService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Edge node mode status and the offline operations rejected on reconnect.
+ */
+@RestController
+@RequestMapping("/api/edge")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class EdgeController {
+
+    private final EdgeNodeService edgeNode;
+
+    @GetMapping("/status")
+    public ResponseEntity<ApiResponse<EdgeStatusResponse>> getStatus() {
+        return ResponseEntity.ok(ApiResponse.success(edgeNode.getStatus(), "Edge status retrieved successfully"));
+    }
+
+    @GetMapping("/conflicts")
+    public ResponseEntity<ApiResponse<List<EdgeConflict>>> getConflicts() {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(edgeNode.getConflicts(), "Edge conflicts retrieved successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "EDGE_ERROR"));
+        }
+    }
+}
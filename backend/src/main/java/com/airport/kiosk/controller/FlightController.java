@@ -2,16 +2,20 @@ package com.airport.kiosk.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.airport.kiosk.dto.ApiResponse;
-import com.airport.kiosk.model.Flight;
+import com.airport.kiosk.dto.FlightView;
+import com.airport.kiosk.edge.EdgeNodeService;
 import com.airport.kiosk.service.FlightService;
+import com.airport.kiosk.service.ResponseCache;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,12 +26,25 @@ import lombok.RequiredArgsConstructor;
 public class FlightController {
     
     private final FlightService flightService;
+    private final ResponseCache responseCache;
+    private final EdgeNodeService edgeNode;
     
+    /**
+     * Served from {@link ResponseCache}: identical for all kiosks until a flight changes. Served from the edge
+     * snapshot while the node is offline.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<Object>> getAllFlights() {
+    public ResponseEntity<?> getAllFlights(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<Flight> flights = flightService.getAllFlights();
-            return ResponseEntity.ok(ApiResponse.success(flights, "Flights retrieved successfully"));
+            return edgeNode.<ResponseEntity<?>>call(
+                () -> responseCache.flights(() -> {
+                    List<FlightView> flights = flightService.getAllFlights().stream().map(FlightView::from).toList();
+                    return ApiResponse.success(flights, "Flights retrieved successfully");
+                }).toResponseEntity(acceptEncoding),
+                () -> EdgeNodeService.offlineResponse(
+                    ApiResponse.success(edgeNode.getFlights().stream().map(FlightView::from).toList(),
+                        "Flights retrieved from the offline snapshot")));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage(), "FLIGHT_ERROR"));
@@ -35,9 +52,9 @@ public class FlightController {
     }
     
     @GetMapping("/{flightId}")
-    public ResponseEntity<ApiResponse<Object>> getFlightById(@PathVariable String flightId) {
+    public ResponseEntity<ApiResponse<FlightView>> getFlightById(@PathVariable String flightId) {
         try {
-            Flight flight = flightService.getFlightById(flightId);
+            FlightView flight = FlightView.from(flightService.getFlightById(flightId));
             return ResponseEntity.ok(ApiResponse.success(flight, "Flight retrieved successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -0,0 +1,37 @@
+package com.airport.kiosk.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.FlightDashboardResponse;
+import com.airport.kiosk.service.FlightDashboardService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Live check-in figures for operations; changes are pushed on {@code /topic/flights/{flightId}/dashboard}.
+ */
+@RestController
+@RequestMapping("/api/flights/{flightId}/dashboard")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class FlightDashboardController {
+    
+    private final FlightDashboardService flightDashboardService;
+    
+    @GetMapping
+    public ResponseEntity<ApiResponse<FlightDashboardResponse>> getDashboard(@PathVariable String flightId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(flightDashboardService.getDashboard(flightId),
+                "Flight dashboard retrieved successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "DASHBOARD_ERROR"));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.airport.kiosk.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.airport.kiosk.service.FlightEventStreamService;
+import com.airport.kiosk.service.FlightService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/flights/{flightId}/events")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class FlightEventController {
+
+    private final FlightEventStreamService flightEventStreamService;
+    private final FlightService flightService;
+
+    /**
+     * Read-only seat/baggage event stream (text/event-stream) with events named {@code seat},
+     * {@code baggage} and {@code resync}. Browsers resume automatically with the {@code Last-Event-ID}
+     * header; {@code lastEventId} is accepted as a query parameter for clients that cannot set headers.
+     * Unknown flights are handled by GlobalExceptionHandler.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @PathVariable String flightId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        flightService.getFlightById(flightId);
+        return flightEventStreamService.subscribe(flightId,
+            lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam);
+    }
+}
@@ -1,28 +1,22 @@
 package com.airport.kiosk.controller;
 
 import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.HealthResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @RestController
 @RequestMapping("/api/health")
 @CrossOrigin(origins = "*")
 public class HealthController {
     
+    private static final HealthResponse HEALTH = new HealthResponse("UP", "Airport Check-In Kiosk System", "1.0.0");
+    
     @GetMapping
-    public ResponseEntity<ApiResponse<Object>> health() {
-        Map<String, Object> health = new HashMap<>();
-        health.put("status", "UP");
-        health.put("service", "Airport Check-In Kiosk System");
-        health.put("version", "1.0.0");
-        
-        return ResponseEntity.ok(ApiResponse.success(health, "Service is healthy"));
+    public ResponseEntity<ApiResponse<HealthResponse>> health() {
+        return ResponseEntity.ok(ApiResponse.success(HEALTH, "Service is healthy"));
     }
 }
-
@@ -0,0 +1,40 @@
+package com.airport.kiosk.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.BookingHistoryResponse;
+import com.airport.kiosk.dto.FlightHistoryResponse;
+import com.airport.kiosk.service.FlightHistoryService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Flight and booking lookups that also find archived (departed) flights.
+ * Unknown flights and bookings are handled by GlobalExceptionHandler.
+ */
+@RestController
+@RequestMapping("/api/history")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class HistoryController {
+
+    private final FlightHistoryService flightHistoryService;
+
+    @GetMapping("/flights/{flightId}")
+    public ResponseEntity<ApiResponse<FlightHistoryResponse>> getFlightHistory(@PathVariable String flightId) {
+        FlightHistoryResponse history = flightHistoryService.getFlightHistory(flightId);
+        return ResponseEntity.ok(ApiResponse.success(history, "Flight history retrieved successfully"));
+    }
+
+    @GetMapping("/bookings/{bookingId}")
+    public ResponseEntity<ApiResponse<BookingHistoryResponse>> getBookingHistory(@PathVariable String bookingId) {
+        BookingHistoryResponse history = flightHistoryService.getBookingHistory(bookingId);
+        return ResponseEntity.ok(ApiResponse.success(history, "Booking history retrieved successfully"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.airport.kiosk.controller;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.airport.kiosk.service.ManifestService;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/flights/{flightId}/manifest")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ManifestController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ManifestService manifestService;
+
+    /**
+     * Stream the passenger manifest as CSV (default) or NDJSON. Pass the returned
+     * {@code X-Manifest-Snapshot} header value as {@code since} to pull only rows changed afterwards.
+     * Errors (e.g. unknown flight) are handled by GlobalExceptionHandler before streaming starts.
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> getManifest(
+            @PathVariable String flightId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse servletResponse) {
+        ManifestService.Format manifestFormat = "ndjson".equalsIgnoreCase(format)
+            ? ManifestService.Format.NDJSON : ManifestService.Format.CSV;
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        manifestService.prepareManifest(flightId);
+
+        // The snapshot is read in the manifest's transaction; the header is set before any row is flushed
+        Consumer<LocalDateTime> snapshotHeader =
+            snapshot -> servletResponse.setHeader("X-Manifest-Snapshot", snapshot.toString());
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8 * 1024)) {
+                    manifestService.writeManifest(flightId, since, manifestFormat, gzipOut, snapshotHeader);
+                }
+            } else {
+                manifestService.writeManifest(flightId, since, manifestFormat, out, snapshotHeader);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(manifestFormat == ManifestService.Format.NDJSON ? APPLICATION_NDJSON : TEXT_CSV)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
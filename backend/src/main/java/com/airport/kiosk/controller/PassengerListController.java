@@ -0,0 +1,43 @@
+package com.airport.kiosk.controller;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.PassengerListIngestionResult;
+import com.airport.kiosk.service.PassengerListIngestionService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/passenger-lists")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class PassengerListController {
+
+    private final PassengerListIngestionService ingestionService;
+
+    /**
+     * Ingest a raw PNL/ADL message. The request body is streamed, never buffered as a whole.
+     */
+    @PostMapping(consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<ApiResponse<PassengerListIngestionResult>> ingest(InputStream body) {
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            PassengerListIngestionResult result = ingestionService.ingest(reader);
+            return ResponseEntity.ok(ApiResponse.success(result,
+                result.isSkipped() ? "Passenger list already applied" : "Passenger list applied successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "PASSENGER_LIST_ERROR"));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.airport.kiosk.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.FlightReconciliationResponse;
+import com.airport.kiosk.dto.ReconciliationResult;
+import com.airport.kiosk.service.AvailabilityReconciler;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Seat availability counters and baggage counts against the rows they summarize ({@link AvailabilityReconciler}).
+ */
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ReconciliationController {
+    
+    private final AvailabilityReconciler availabilityReconciler;
+    
+    @GetMapping("/flights/{flightId}/reconciliation")
+    public ResponseEntity<ApiResponse<FlightReconciliationResponse>> checkFlight(@PathVariable String flightId) {
+        try {
+            FlightReconciliationResponse figures = availabilityReconciler.check(flightId);
+            return ResponseEntity.ok(ApiResponse.success(figures,
+                figures.drifted() ? "Flight figures drifted" : "Flight figures match"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "RECONCILIATION_ERROR"));
+        }
+    }
+    
+    /**
+     * Run a reconciliation pass now instead of waiting for the next scheduled one.
+     */
+    @PostMapping("/reconciliation")
+    public ResponseEntity<ApiResponse<ReconciliationResult>> reconcile() {
+        try {
+            ReconciliationResult result = availabilityReconciler.reconcile();
+            return ResponseEntity.ok(ApiResponse.success(result, result.flightsChecked() + " flights checked, "
+                + result.flightsRepaired() + " repaired"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "RECONCILIATION_ERROR"));
+        }
+    }
+}
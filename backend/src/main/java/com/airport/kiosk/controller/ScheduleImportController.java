@@ -0,0 +1,48 @@
+package com.airport.kiosk.controller;
+
+import java.io.InputStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.ScheduleImportResult;
+import com.airport.kiosk.service.ScheduleImportService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/schedule")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ScheduleImportController {
+
+    private final ScheduleImportService scheduleImportService;
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<ScheduleImportResult>> importSchedule(
+            @RequestParam("schedule") MultipartFile schedule,
+            @RequestParam("layouts") MultipartFile layouts) {
+        try (InputStream scheduleStream = schedule.getInputStream();
+             InputStream layoutStream = layouts.getInputStream()) {
+            ScheduleImportResult result = scheduleImportService.importSchedule(
+                scheduleStream,
+                ScheduleImportService.Format.fromFileName(schedule.getOriginalFilename()),
+                layoutStream,
+                ScheduleImportService.Format.fromFileName(layouts.getOriginalFilename())
+            );
+            String message = result.getFailedChunks().isEmpty() ? "Schedule imported successfully"
+                : "Schedule partially imported: " + result.getFailedChunks().size() + " chunks failed";
+            return ResponseEntity.ok(ApiResponse.success(result, message));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "SCHEDULE_IMPORT_ERROR"));
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.airport.kiosk.controller;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,16 +11,31 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.AutoAssignRequest;
+import com.airport.kiosk.dto.AutoAssignResponse;
+import com.airport.kiosk.dto.SeatAssignmentResponse;
+import com.airport.kiosk.dto.SeatAssignmentsResponse;
 import com.airport.kiosk.dto.SeatConfirmRequest;
+import com.airport.kiosk.dto.SeatConfirmResponse;
 import com.airport.kiosk.dto.SeatLockRequest;
+import com.airport.kiosk.dto.SeatLockResponse;
+import com.airport.kiosk.dto.SeatMapResponse;
+import com.airport.kiosk.dto.SeatUnlockResponse;
+import com.airport.kiosk.dto.SeatView;
+import com.airport.kiosk.edge.EdgeNodeService;
 import com.airport.kiosk.model.Seat;
 import com.airport.kiosk.repository.BookingRepository;
 import com.airport.kiosk.repository.SeatRepository;
+import com.airport.kiosk.service.FlightService;
+import com.airport.kiosk.service.ResponseCache;
+import com.airport.kiosk.service.SeatAvailabilityService;
+import com.airport.kiosk.service.SeatGrid;
 import com.airport.kiosk.service.SeatService;
 
 import lombok.RequiredArgsConstructor;
@@ -32,20 +47,34 @@ import lombok.RequiredArgsConstructor;
 public class SeatController {
     
     private final SeatService seatService;
+    private final SeatAvailabilityService seatAvailabilityService;
     private final SeatRepository seatRepository;
     private final BookingRepository bookingRepository;
+    private final ResponseCache responseCache;
+    private final FlightService flightService;
+    private final EdgeNodeService edgeNode;
     
+    /**
+     * Served from {@link ResponseCache}: identical for all kiosks until a seat of the flight changes. Availability
+     * comes from the flight's per-class counters, not a count of its seats. Served from the edge snapshot while
+     * the node is offline.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<Object>> getSeatMap(@PathVariable String flightId) {
+    public ResponseEntity<?> getSeatMap(
+            @PathVariable String flightId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<Seat> seats = seatService.getSeatMap(flightId);
-            Long availableCount = seatRepository.countAvailableSeatsByFlightId(flightId);
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("seats", seats);
-            result.put("availableCount", availableCount);
-            
-            return ResponseEntity.ok(ApiResponse.success(result, "Seat map retrieved successfully"));
+            return edgeNode.<ResponseEntity<?>>call(
+                () -> responseCache.seatMap(flightId, () -> {
+                    List<Seat> seats = seatService.getSeatMap(flightId);
+                    Map<Seat.SeatClass, Long> availableByClass = seatAvailabilityService.getAvailableByClass(flightId,
+                        flightService.getDepartureDate(flightId));
+                    long availableCount = availableByClass.values().stream().mapToLong(Long::longValue).sum();
+                    return ApiResponse.success(SeatMapResponse.of(seats, availableCount, availableByClass),
+                        "Seat map retrieved successfully");
+                }).toResponseEntity(acceptEncoding),
+                () -> EdgeNodeService.offlineResponse(
+                    ApiResponse.success(edgeNode.getSeatMap(flightId), "Seat map retrieved from the offline snapshot")));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage(), "SEAT_MAP_ERROR"));
@@ -53,15 +82,11 @@ public class SeatController {
     }
     
     @GetMapping("/assignments")
-    public ResponseEntity<ApiResponse<Object>> getSeatAssignments(@PathVariable String flightId) {
+    public ResponseEntity<ApiResponse<SeatAssignmentsResponse>> getSeatAssignments(@PathVariable String flightId) {
         try {
-            List<com.airport.kiosk.dto.SeatAssignmentResponse> assignments = seatService.getSeatAssignments(flightId);
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("assignments", assignments);
-            result.put("count", assignments.size());
+            List<SeatAssignmentResponse> assignments = seatService.getSeatAssignments(flightId);
             
-            return ResponseEntity.ok(ApiResponse.success(result, "Seat assignments retrieved successfully"));
+            return ResponseEntity.ok(ApiResponse.success(new SeatAssignmentsResponse(assignments, assignments.size()), "Seat assignments retrieved successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage(), "SEAT_ASSIGNMENTS_ERROR"));
@@ -69,54 +94,81 @@ public class SeatController {
     }
     
     @PostMapping("/{seatId}/lock")
-    public ResponseEntity<ApiResponse<Object>> lockSeat(
+    public ResponseEntity<ApiResponse<SeatLockResponse>> lockSeat(
             @PathVariable String flightId,
             @PathVariable String seatId,
             @RequestBody SeatLockRequest request) {
         try {
-            boolean success = seatService.lockSeat(flightId, seatId, request.getSessionId());
+            return edgeNode.call(
+                () -> ResponseEntity.ok(lockResponse(seatService.lockSeat(flightId, seatId, request.getSessionId()))),
+                () -> EdgeNodeService.offlineResponse(
+                    lockResponse(edgeNode.lockSeat(flightId, seatId, request.getSessionId()))));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "LOCK_ERROR"));
+        }
+    }
+    
+    @PostMapping("/auto-assign")
+    public ResponseEntity<ApiResponse<AutoAssignResponse>> autoAssignSeats(
+            @PathVariable String flightId,
+            @RequestBody AutoAssignRequest request) {
+        try {
+            if (request.getSessionId() == null || request.getSessionId().isBlank()) {
+                throw new IllegalArgumentException("sessionId is required");
+            }
+            int count = request.getCount() != null ? request.getCount() : 1;
+            Seat.SeatClass seatClass = request.getSeatClass() != null && !request.getSeatClass().isBlank()
+                ? Seat.SeatClass.valueOf(request.getSeatClass().trim().toUpperCase())
+                : null;
+            SeatGrid.Preference preference = request.getPreference() != null && !request.getPreference().isBlank()
+                ? SeatGrid.Preference.valueOf(request.getPreference().trim().toUpperCase())
+                : SeatGrid.Preference.ANY;
             
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", success);
-            result.put("message", success ? "Seat locked successfully" : "Seat is not available");
+            List<Seat> seats = seatService.autoAssignSeats(flightId, count, seatClass, preference, request.getSessionId());
+            boolean success = !seats.isEmpty();
             
-            return ResponseEntity.ok(ApiResponse.success(result, success ? "Seat locked" : "Seat unavailable"));
+            return ResponseEntity.ok(ApiResponse.success(AutoAssignResponse.of(success, seats),
+                success ? "Seats locked successfully" : "No block of " + count + " adjacent seats available"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                .body(ApiResponse.error(e.getMessage(), "LOCK_ERROR"));
+                .body(ApiResponse.error(e.getMessage(), "AUTO_ASSIGN_ERROR"));
         }
     }
     
     @PostMapping("/{seatId}/confirm")
-    public ResponseEntity<ApiResponse<Object>> confirmSeat(
+    public ResponseEntity<ApiResponse<SeatConfirmResponse>> confirmSeat(
             @PathVariable String flightId,
             @PathVariable String seatId,
             @RequestBody SeatConfirmRequest request) {
         try {
-            // Normalize booking ID (case-insensitive lookup and ensure uppercase for consistency)
-            String normalizedBookingId = request.getBookingId();
-            if (normalizedBookingId != null && !normalizedBookingId.trim().isEmpty()) {
-                normalizedBookingId = bookingRepository.findByBookingIdIgnoreCase(normalizedBookingId.trim())
-                    .map(booking -> booking.getBookingId().toUpperCase()) // Ensure uppercase for consistency
-                    .orElse(normalizedBookingId.trim().toUpperCase());
-            }
-            
-            boolean success = seatService.confirmSeat(
-                flightId, 
-                seatId, 
-                normalizedBookingId, 
-                request.getSessionId()
-            );
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", success);
-            if (success) {
-                Seat seat = seatRepository.findByFlightIdAndSeatId(flightId, seatId).orElse(null);
-                result.put("seat", seat);
-            }
-            
-            return ResponseEntity.ok(ApiResponse.success(result, 
-                success ? "Seat confirmed successfully" : "Failed to confirm seat"));
+            return edgeNode.call(() -> {
+                // Normalize booking ID (case-insensitive lookup and ensure uppercase for consistency)
+                String normalizedBookingId = request.getBookingId();
+                if (normalizedBookingId != null && !normalizedBookingId.trim().isEmpty()) {
+                    normalizedBookingId = bookingRepository.findByBookingIdIgnoreCase(normalizedBookingId.trim())
+                        .map(booking -> booking.getBookingId().toUpperCase()) // Ensure uppercase for consistency
+                        .orElse(normalizedBookingId.trim().toUpperCase());
+                }
+                
+                boolean success = seatService.confirmSeat(
+                    flightId, 
+                    seatId, 
+                    normalizedBookingId, 
+                    request.getSessionId()
+                );
+                
+                SeatView seat = success ? seatRepository.findByFlightIdAndSeatId(flightId,
+                    flightService.getDepartureDate(flightId), seatId).map(SeatView::from).orElse(null) : null;
+                
+                return ResponseEntity.ok(confirmResponse(success, seat));
+            }, () -> {
+                // Queued for the central database; the seat as the snapshot now shows it
+                boolean success = edgeNode.confirmSeat(flightId, seatId, request.getBookingId(), request.getSessionId());
+                SeatView seat = success ? edgeNode.getSeatMap(flightId).seats().stream()
+                    .filter(s -> s.seatId().equals(seatId)).findFirst().orElse(null) : null;
+                return EdgeNodeService.offlineResponse(confirmResponse(success, seat));
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage(), "CONFIRM_ERROR"));
@@ -124,22 +176,33 @@ public class SeatController {
     }
     
     @DeleteMapping("/{seatId}/unlock")
-    public ResponseEntity<ApiResponse<Object>> unlockSeat(
+    public ResponseEntity<ApiResponse<SeatUnlockResponse>> unlockSeat(
             @PathVariable String flightId,
             @PathVariable String seatId,
             @RequestParam String sessionId) {
         try {
-            boolean success = seatService.unlockSeat(flightId, seatId, sessionId);
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", success);
-            
-            return ResponseEntity.ok(ApiResponse.success(result, 
-                success ? "Seat unlocked successfully" : "Failed to unlock seat"));
+            return edgeNode.call(
+                () -> ResponseEntity.ok(unlockResponse(seatService.unlockSeat(flightId, seatId, sessionId))),
+                () -> EdgeNodeService.offlineResponse(unlockResponse(edgeNode.unlockSeat(flightId, seatId, sessionId))));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage(), "UNLOCK_ERROR"));
         }
     }
+    
+    private static ApiResponse<SeatLockResponse> lockResponse(boolean success) {
+        SeatLockResponse result = new SeatLockResponse(success,
+            success ? "Seat locked successfully" : "Seat is not available");
+        return ApiResponse.success(result, success ? "Seat locked" : "Seat unavailable");
+    }
+    
+    private static ApiResponse<SeatConfirmResponse> confirmResponse(boolean success, SeatView seat) {
+        return ApiResponse.success(new SeatConfirmResponse(success, seat),
+            success ? "Seat confirmed successfully" : "Failed to confirm seat");
+    }
+    
+    private static ApiResponse<SeatUnlockResponse> unlockResponse(boolean success) {
+        return ApiResponse.success(new SeatUnlockResponse(success),
+            success ? "Seat unlocked successfully" : "Failed to unlock seat");
+    }
 }
-
@@ -0,0 +1,66 @@
+package com.airport.kiosk.controller;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.SeatLeaseRenewRequest;
+import com.airport.kiosk.dto.SeatLeaseRenewResponse;
+import com.airport.kiosk.edge.EdgeNodeService;
+import com.airport.kiosk.service.SeatLeaseService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Seat lock lease renewal (heartbeat) for all seats a kiosk session holds.
+ */
+@RestController
+@RequestMapping("/api/seats/leases")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SeatLeaseController {
+    
+    private final SeatLeaseService seatLeaseService;
+    private final EdgeNodeService edgeNode;
+    
+    /**
+     * Answered after the next batched renewal (at most {@code kiosk.seat.lease.flush-interval-ms}).
+     */
+    @PostMapping("/renew")
+    public CompletableFuture<ResponseEntity<ApiResponse<SeatLeaseRenewResponse>>> renewLeases(
+            @RequestBody SeatLeaseRenewRequest request) {
+        try {
+            if (edgeNode.isOffline()) {
+                return CompletableFuture.completedFuture(EdgeNodeService.offlineResponse(ApiResponse.success(
+                    edgeNode.renewLeases(request.getSessionId()), "Seat leases renewed offline")));
+            }
+            return seatLeaseService.renew(request.getSessionId())
+                .thenApply(result -> ResponseEntity.ok(ApiResponse.success(result, "Seat leases renewed")))
+                .exceptionally(e -> ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage(), "LEASE_ERROR")));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "LEASE_ERROR")));
+        }
+    }
+    
+    /**
+     * STOMP heartbeat ({@code /app/seats/leases/renew}): no reply, a lost seat shows up as an AVAILABLE event
+     * on the flight's seat topic once its lease runs out.
+     */
+    @MessageMapping("/seats/leases/renew")
+    public void renewLeasesOverStomp(SeatLeaseRenewRequest request) {
+        if (edgeNode.isOffline()) {
+            edgeNode.renewLeases(request.getSessionId());
+        } else {
+            seatLeaseService.renew(request.getSessionId());
+        }
+    }
+}
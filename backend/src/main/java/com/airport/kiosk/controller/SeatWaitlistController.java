@@ -0,0 +1,97 @@
+package com.airport.kiosk.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.airport.kiosk.dto.ApiResponse;
+import com.airport.kiosk.dto.SeatLockRequest;
+import com.airport.kiosk.dto.SeatUnlockResponse;
+import com.airport.kiosk.dto.SeatWaitlistResponse;
+import com.airport.kiosk.edge.EdgeNodeService;
+import com.airport.kiosk.service.SeatService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Waitlist of a seat another kiosk session has locked. The seat's lock is handed to the first waiting session
+ * when it is released or expires, announced on {@code /topic/flights/{flightId}/seats} as a LOCKED event with
+ * that session's id. Waiting sessions keep their place with the seat lease heartbeat.
+ */
+@RestController
+@RequestMapping("/api/flights/{flightId}/seats/{seatId}/waitlist")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SeatWaitlistController {
+    
+    private static final String OFFLINE_MESSAGE = "The seat waitlist is not available while the kiosk is offline";
+    
+    private final SeatService seatService;
+    private final EdgeNodeService edgeNode;
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<SeatWaitlistResponse>> joinWaitlist(
+            @PathVariable String flightId,
+            @PathVariable String seatId,
+            @RequestBody SeatLockRequest request) {
+        try {
+            if (request.getSessionId() == null || request.getSessionId().isBlank()) {
+                throw new IllegalArgumentException("sessionId is required");
+            }
+            if (edgeNode.isOffline()) {
+                throw new IllegalStateException(OFFLINE_MESSAGE);
+            }
+            SeatWaitlistResponse result = seatService.joinWaitlist(flightId, seatId, request.getSessionId());
+            return ResponseEntity.ok(ApiResponse.success(result,
+                result.granted() ? "Seat locked successfully" : "Waiting for the seat at position " + result.position()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "WAITLIST_ERROR"));
+        }
+    }
+    
+    /**
+     * For kiosks that cannot follow the seat topic: whether the seat has been granted, or the place in the queue.
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<SeatWaitlistResponse>> getWaitlistStatus(
+            @PathVariable String flightId,
+            @PathVariable String seatId,
+            @RequestParam String sessionId) {
+        try {
+            if (edgeNode.isOffline()) {
+                throw new IllegalStateException(OFFLINE_MESSAGE);
+            }
+            return ResponseEntity.ok(ApiResponse.success(seatService.getWaitlistStatus(flightId, seatId, sessionId),
+                "Waitlist status retrieved successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "WAITLIST_ERROR"));
+        }
+    }
+    
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<SeatUnlockResponse>> leaveWaitlist(
+            @PathVariable String flightId,
+            @PathVariable String seatId,
+            @RequestParam String sessionId) {
+        try {
+            if (edgeNode.isOffline()) {
+                throw new IllegalStateException(OFFLINE_MESSAGE);
+            }
+            boolean success = seatService.leaveWaitlist(flightId, seatId, sessionId);
+            return ResponseEntity.ok(ApiResponse.success(new SeatUnlockResponse(success),
+                success ? "Left the waitlist" : "Session was not on the waitlist"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), "WAITLIST_ERROR"));
+        }
+    }
+}
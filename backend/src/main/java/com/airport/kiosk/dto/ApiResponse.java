@@ -1,50 +1,24 @@
 package com.airport.kiosk.dto;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
 import java.time.LocalDateTime;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class ApiResponse<T> {
-    private boolean success;
-    private T data;
-    private String message;
-    private LocalDateTime timestamp;
-    private ErrorDetails error;
-    
+/**
+ * Envelope of every REST response; {@code data} is omitted on errors and {@code error} on success.
+ */
+public record ApiResponse<T>(boolean success, T data, String message, LocalDateTime timestamp, ErrorDetails error) {
+
     public static <T> ApiResponse<T> success(T data, String message) {
-        ApiResponse<T> response = new ApiResponse<>();
-        response.setSuccess(true);
-        response.setData(data);
-        response.setMessage(message);
-        response.setTimestamp(LocalDateTime.now());
-        return response;
+        return new ApiResponse<>(true, data, message, LocalDateTime.now(), null);
     }
-    
+
     public static <T> ApiResponse<T> success(T data) {
         return success(data, "Operation successful");
     }
-    
+
     public static <T> ApiResponse<T> error(String message, String code) {
-        ApiResponse<T> response = new ApiResponse<>();
-        response.setSuccess(false);
-        response.setMessage(message);
-        response.setTimestamp(LocalDateTime.now());
-        response.setError(new ErrorDetails(code, message, null));
-        return response;
+        return new ApiResponse<>(false, null, message, LocalDateTime.now(), new ErrorDetails(code, message, null));
     }
-    
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class ErrorDetails {
-        private String code;
-        private String message;
-        private Object details;
+
+    public record ErrorDetails(String code, String message, Object details) {
     }
 }
-
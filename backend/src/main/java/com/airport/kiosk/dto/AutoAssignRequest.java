@@ -0,0 +1,11 @@
+package com.airport.kiosk.dto;
+
+import lombok.Data;
+
+@Data
+public class AutoAssignRequest {
+    private String sessionId;
+    private Integer count = 1;
+    private String seatClass;   // ECONOMY, BUSINESS, FIRST or null for any
+    private String preference;  // WINDOW, AISLE or ANY
+}
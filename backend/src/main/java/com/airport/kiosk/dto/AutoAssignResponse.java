@@ -0,0 +1,12 @@
+package com.airport.kiosk.dto;
+
+import java.util.List;
+
+import com.airport.kiosk.model.Seat;
+
+public record AutoAssignResponse(boolean success, List<SeatView> seats) {
+
+    public static AutoAssignResponse of(boolean success, List<Seat> seats) {
+        return new AutoAssignResponse(success, seats.stream().map(SeatView::from).toList());
+    }
+}
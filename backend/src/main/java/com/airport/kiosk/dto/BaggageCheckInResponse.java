@@ -0,0 +1,10 @@
+package com.airport.kiosk.dto;
+
+import com.airport.kiosk.model.BaggageRecord;
+
+public record BaggageCheckInResponse(BaggageView baggage, String tagNumber) {
+
+    public static BaggageCheckInResponse of(BaggageRecord baggage) {
+        return new BaggageCheckInResponse(BaggageView.from(baggage), baggage.getTagNumber());
+    }
+}
@@ -0,0 +1,18 @@
+package com.airport.kiosk.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.airport.kiosk.model.BaggageRecord;
+
+/**
+ * A checked-in baggage record as shown on the kiosk.
+ */
+public record BaggageView(String baggageId, String bookingId, String flightId, BigDecimal baggageWeight,
+                          Integer baggageCount, String tagNumber, LocalDateTime checkInTime) {
+
+    public static BaggageView from(BaggageRecord baggage) {
+        return new BaggageView(baggage.getBaggageId(), baggage.getBookingId(), baggage.getFlightId(),
+            baggage.getBaggageWeight(), baggage.getBaggageCount(), baggage.getTagNumber(), baggage.getCheckInTime());
+    }
+}
@@ -0,0 +1,29 @@
+package com.airport.kiosk.dto;
+
+import lombok.Data;
+
+/**
+ * One operation of a batch; its fields are those of the matching endpoint's path and body.
+ */
+@Data
+public class BatchOperation {
+    private Type op;
+    private String flightId;
+    private String seatId;
+    private String sessionId;
+    private String bookingId;
+    private BaggageCheckInRequest baggage;
+    
+    public enum Type {
+        // POST /api/flights/{flightId}/seats/{seatId}/lock: flightId, seatId, sessionId
+        LOCK_SEAT,
+        // DELETE /api/flights/{flightId}/seats/{seatId}/unlock: flightId, seatId, sessionId
+        UNLOCK_SEAT,
+        // POST /api/flights/{flightId}/seats/{seatId}/confirm: flightId, seatId, bookingId, sessionId
+        CONFIRM_SEAT,
+        // POST /api/bookings/{bookingId}/baggage: bookingId, baggage
+        CHECK_IN_BAGGAGE,
+        // POST /api/bookings/{bookingId}/check-in: bookingId, seatId, sessionId, baggage
+        CHECK_IN
+    }
+}
@@ -0,0 +1,18 @@
+package com.airport.kiosk.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchRequest {
+    private Mode mode = Mode.ALL_OR_NOTHING;
+    private List<BatchOperation> operations;
+    
+    public enum Mode {
+        // One transaction: the first failing operation undoes the ones before it
+        ALL_OR_NOTHING,
+        // One transaction per operation: failed operations are reported, the others still run
+        BEST_EFFORT
+    }
+}
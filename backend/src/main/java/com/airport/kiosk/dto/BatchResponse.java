@@ -0,0 +1,17 @@
+package com.airport.kiosk.dto;
+
+import java.util.List;
+
+public record BatchResponse(BatchRequest.Mode mode, boolean applied, int succeeded, int failed,
+                            List<Result> results) {
+
+    /**
+     * @param data what the operation's endpoint returns, if anything beyond the message
+     */
+    public record Result(int index, BatchOperation.Type op, Status status, String message, Object data) {
+    }
+
+    public enum Status {
+        APPLIED, FAILED, ROLLED_BACK, SKIPPED
+    }
+}
@@ -0,0 +1,10 @@
+package com.airport.kiosk.dto;
+
+public record BoardingPassResponse(BoardingPass boardingPass, String pdfUrl) {
+
+    public record BoardingPass(String bookingId, String passengerName, String flightNumber, String airlineName,
+                               String aircraftType, String seatNumber, String departureAirport,
+                               String arrivalAirport, String departureTime, String arrivalTime, String gate,
+                               String boardingTime, String qrCode) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.airport.kiosk.dto;
+
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Flight;
+
+public record BookingDetailsResponse(BookingView booking, FlightView flight) {
+
+    public static BookingDetailsResponse of(Booking booking, Flight flight) {
+        return new BookingDetailsResponse(BookingView.from(booking), FlightView.from(flight));
+    }
+}
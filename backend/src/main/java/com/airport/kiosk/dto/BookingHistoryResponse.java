@@ -0,0 +1,17 @@
+package com.airport.kiosk.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.airport.kiosk.model.BaggageRecord;
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Flight;
+import com.airport.kiosk.model.Seat;
+
+/**
+ * A booking with its flight, seats and baggage; {@code archivedAt} is null (omitted) for a booking still
+ * in the operational tables.
+ */
+public record BookingHistoryResponse(Booking booking, Flight flight, List<Seat> seats,
+                                     List<BaggageRecord> baggage, LocalDateTime archivedAt) {
+}
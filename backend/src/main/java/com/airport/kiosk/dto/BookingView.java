@@ -0,0 +1,15 @@
+package com.airport.kiosk.dto;
+
+import com.airport.kiosk.model.Booking;
+
+/**
+ * The fields of a booking the kiosk shows to the passenger it belongs to.
+ */
+public record BookingView(String bookingId, String passengerName, String passportNumber, String email,
+                          String phone, String flightId, Booking.BookingStatus bookingStatus) {
+
+    public static BookingView from(Booking booking) {
+        return new BookingView(booking.getBookingId(), booking.getPassengerName(), booking.getPassportNumber(),
+            booking.getEmail(), booking.getPhone(), booking.getFlightId(), booking.getBookingStatus());
+    }
+}
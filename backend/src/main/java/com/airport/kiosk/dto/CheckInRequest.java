@@ -0,0 +1,12 @@
+package com.airport.kiosk.dto;
+
+import lombok.Data;
+
+@Data
+public class CheckInRequest {
+    // Seat locked by the session; null keeps the booking's reserved seat
+    private String seatId;
+    private String sessionId;
+    // Bags to record; null leaves the booking's bags as they are
+    private BaggageCheckInRequest baggage;
+}
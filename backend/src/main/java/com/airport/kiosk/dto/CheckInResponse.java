@@ -0,0 +1,17 @@
+package com.airport.kiosk.dto;
+
+import com.airport.kiosk.model.BaggageRecord;
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Seat;
+
+/**
+ * {@code baggage} is null (omitted) when no bags were checked in.
+ */
+public record CheckInResponse(BookingView booking, SeatView seat, BaggageView baggage, BoardingPassResponse boardingPass) {
+
+    public static CheckInResponse of(Booking booking, Seat seat, BaggageRecord baggage,
+                                     BoardingPassResponse boardingPass) {
+        return new CheckInResponse(BookingView.from(booking), SeatView.from(seat),
+            baggage != null ? BaggageView.from(baggage) : null, boardingPass);
+    }
+}
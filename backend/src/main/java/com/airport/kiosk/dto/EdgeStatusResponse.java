@@ -0,0 +1,10 @@
+package com.airport.kiosk.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Edge node state: {@code state} is ONLINE, OFFLINE or RECONCILING (null when edge mode is off).
+ */
+public record EdgeStatusResponse(boolean enabled, String state, LocalDateTime snapshotTakenAt, int snapshotFlights,
+                                 int pendingOperations, long conflicts, LocalDateTime lastReconciledAt) {
+}
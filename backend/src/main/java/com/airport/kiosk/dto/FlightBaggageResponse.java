@@ -0,0 +1,12 @@
+package com.airport.kiosk.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record FlightBaggageResponse(String flightId, List<Entry> records) {
+
+    public record Entry(String baggageId, String bookingId, Integer baggageCount, BigDecimal weight,
+                         String tagNumber, LocalDateTime checkInTime) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.airport.kiosk.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Live check-in figures of a flight.
+ *
+ * @param seatedPassengers seats with a confirmed passenger (RESERVED or OCCUPIED), whether or not the booking
+ *                         completed check-in
+ * @param seatsByClass seat count per class and status, e.g. {@code ECONOMY -> AVAILABLE -> 120}
+ * @param bagWeight total weight of the checked-in bags in kg
+ * @param updatedAt when the last change was applied to the figures
+ */
+public record FlightDashboardResponse(String flightId, LocalDate departureDate, long seatedPassengers,
+                                      long totalSeats, long availableSeats,
+                                      Map<String, Map<String, Long>> seatsByClass, long bags, BigDecimal bagWeight,
+                                      LocalDateTime updatedAt) {
+}
@@ -0,0 +1,17 @@
+package com.airport.kiosk.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.airport.kiosk.model.BaggageRecord;
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Flight;
+import com.airport.kiosk.model.Seat;
+
+/**
+ * A flight with its seats, bookings and baggage; {@code archivedAt} is null (omitted) for a flight still
+ * in the operational tables.
+ */
+public record FlightHistoryResponse(Flight flight, List<Seat> seats, List<Booking> bookings,
+                                    List<BaggageRecord> baggage, LocalDateTime archivedAt) {
+}
@@ -0,0 +1,23 @@
+package com.airport.kiosk.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A flight's incrementally kept figures next to the same figures computed from its rows.
+ *
+ * @param seatCounters the flight's seat_availability counters, "CLASS:available/locked/booked" per class
+ * @param seats the same counted from the flight's seats
+ * @param availableSeats flights.available_seats
+ * @param expectedAvailableSeats the flight's total seats less its RESERVED and OCCUPIED seats
+ * @param baggageCount flights.baggage_count
+ * @param recordedBags bags of the flight's baggage records
+ */
+public record FlightReconciliationResponse(String flightId, String seatCounters, String seats, int availableSeats,
+                                           int expectedAvailableSeats, int baggageCount, int recordedBags) {
+
+    @JsonProperty
+    public boolean drifted() {
+        return !seatCounters.equals(seats) || availableSeats != expectedAvailableSeats
+            || baggageCount != recordedBags;
+    }
+}
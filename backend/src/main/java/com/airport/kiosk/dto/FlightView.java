@@ -0,0 +1,21 @@
+package com.airport.kiosk.dto;
+
+import java.time.LocalDateTime;
+
+import com.airport.kiosk.model.Flight;
+
+/**
+ * The fields of a flight the kiosk shows alongside a booking.
+ */
+public record FlightView(String flightId, String flightNumber, String airlineName, String aircraftType,
+                         String departureAirport, String arrivalAirport, LocalDateTime departureTime,
+                         LocalDateTime arrivalTime, Integer totalSeats, Integer availableSeats, Integer baggageCount,
+                         Flight.FlightStatus flightStatus) {
+
+    public static FlightView from(Flight flight) {
+        return new FlightView(flight.getFlightId(), flight.getFlightNumber(), flight.getAirlineName(),
+            flight.getAircraftType(), flight.getDepartureAirport(), flight.getArrivalAirport(),
+            flight.getDepartureTime(), flight.getArrivalTime(), flight.getTotalSeats(), flight.getAvailableSeats(),
+            flight.getBaggageCount(), flight.getFlightStatus());
+    }
+}
@@ -0,0 +1,22 @@
+package com.airport.kiosk.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class PassengerListIngestionResult {
+    private String messageType;
+    private String flightId;
+    private long sequence;
+    private boolean skipped;
+    private long passengersProcessed;
+    private long bookingsUpserted;
+    private long bookingsRejected;
+    private long bookingsCancelled;
+    private long seatsReleased;
+    private long elapsedMillis;
+    private long passengersPerSecond;
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,13 @@
+package com.airport.kiosk.dto;
+
+import lombok.Data;
+
+/**
+ * A name search match confirmed with the end of the passenger's passport number.
+ */
+@Data
+public class PassengerNameResolveRequest {
+    private String flight;
+    private String name;
+    private String passportEnd;
+}
@@ -0,0 +1,22 @@
+package com.airport.kiosk.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Bookings of a flight whose passenger name matches a kiosk name search, best match first. Carries no booking
+ * ids: a match is turned into its booking with the passport number ({@code POST /api/bookings/search/name}).
+ *
+ * @param query the name as it was searched: upper case A-Z words, accents and punctuation dropped
+ * @param indexedPassengers passengers of the flight the name was searched among (cancelled bookings excluded)
+ */
+public record PassengerSearchResponse(String flightId, LocalDate departureDate, String query, List<Match> matches,
+                                      int indexedPassengers) {
+
+    /**
+     * @param passengerName the name with all but the first letter of each word masked ({@code J*** S****})
+     * @param typos letters inserted, dropped, replaced or swapped to match the name (0 for an exact or prefix match)
+     */
+    public record Match(String passengerName, int typos) {
+    }
+}
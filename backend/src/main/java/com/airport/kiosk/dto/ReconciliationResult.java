@@ -0,0 +1,8 @@
+package com.airport.kiosk.dto;
+
+/**
+ * One reconciliation pass over the current flights; a repaired flight may count under several figures.
+ */
+public record ReconciliationResult(int flightsChecked, int flightsRepaired, int seatCountersRepaired,
+                                   int availableSeatsRepaired, int baggageCountsRepaired, long elapsedMillis) {
+}
@@ -0,0 +1,24 @@
+package com.airport.kiosk.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ScheduleImportResult {
+    private String loader;
+    private long flightsImported;
+    private long seatsImported;
+    private long rowsRejected;
+    private long elapsedMillis;
+    private List<String> errors = new ArrayList<>();
+    /** Chunks rolled back on a database error; every other chunk was committed */
+    private List<FailedChunk> failedChunks = new ArrayList<>();
+
+    /**
+     * A chunk of the schedule that was not imported: its lines (first and last line read) and flights.
+     */
+    public record FailedChunk(long firstLine, long lastLine, List<String> flightIds, String error) {
+    }
+}
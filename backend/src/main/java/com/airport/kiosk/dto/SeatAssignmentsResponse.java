@@ -0,0 +1,6 @@
+package com.airport.kiosk.dto;
+
+import java.util.List;
+
+public record SeatAssignmentsResponse(List<SeatAssignmentResponse> assignments, int count) {
+}
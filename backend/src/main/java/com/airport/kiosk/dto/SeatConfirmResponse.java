@@ -0,0 +1,7 @@
+package com.airport.kiosk.dto;
+
+/**
+ * {@code seat} is only set (and serialized) when the confirmation succeeded.
+ */
+public record SeatConfirmResponse(boolean success, SeatView seat) {
+}
@@ -0,0 +1,8 @@
+package com.airport.kiosk.dto;
+
+import lombok.Data;
+
+@Data
+public class SeatLeaseRenewRequest {
+    private String sessionId;
+}
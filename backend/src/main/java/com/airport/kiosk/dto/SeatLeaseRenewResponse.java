@@ -0,0 +1,11 @@
+package com.airport.kiosk.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The seats the session still holds after a lease renewal, all locked until {@code expiresAt}.
+ * A seat missing from {@code seatIds} was lost (its lease had already run out).
+ */
+public record SeatLeaseRenewResponse(List<String> seatIds, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,4 @@
+package com.airport.kiosk.dto;
+
+public record SeatLockResponse(boolean success, String message) {
+}
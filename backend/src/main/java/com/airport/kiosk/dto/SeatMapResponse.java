@@ -0,0 +1,16 @@
+package com.airport.kiosk.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.airport.kiosk.model.Seat;
+
+/**
+ * @param availableCount available seats of the flight, the sum of {@code availableByClass}
+ */
+public record SeatMapResponse(List<SeatView> seats, Long availableCount, Map<Seat.SeatClass, Long> availableByClass) {
+
+    public static SeatMapResponse of(List<Seat> seats, long availableCount, Map<Seat.SeatClass, Long> availableByClass) {
+        return new SeatMapResponse(seats.stream().map(SeatView::from).toList(), availableCount, availableByClass);
+    }
+}
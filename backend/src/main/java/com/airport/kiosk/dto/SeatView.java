@@ -0,0 +1,15 @@
+package com.airport.kiosk.dto;
+
+import com.airport.kiosk.model.Seat;
+
+/**
+ * The fields of a seat the kiosk shows; {@code bookingId} and {@code lockedBy} are null (omitted) for a free seat.
+ */
+public record SeatView(String seatId, String flightId, String seatNumber, Seat.SeatClass seatClass,
+                       Seat.SeatStatus seatStatus, String bookingId, String lockedBy) {
+
+    public static SeatView from(Seat seat) {
+        return new SeatView(seat.getSeatId(), seat.getFlightId(), seat.getSeatNumber(), seat.getSeatClass(),
+            seat.getSeatStatus(), seat.getBookingId(), seat.getLockedBy());
+    }
+}
@@ -0,0 +1,8 @@
+package com.airport.kiosk.dto;
+
+/**
+ * A session's place on a seat's waitlist. {@code granted}: the session holds the seat's lock (position 0);
+ * otherwise {@code position} is its 1-based place in the queue.
+ */
+public record SeatWaitlistResponse(String seatId, boolean granted, int position) {
+}
@@ -0,0 +1,9 @@
+package com.airport.kiosk.edge;
+
+import java.time.LocalDateTime;
+
+/**
+ * An offline operation the database rejected on reconnect; kept for staff to resolve.
+ */
+public record EdgeConflict(EdgeOperation operation, String reason, LocalDateTime detectedAt) {
+}
@@ -0,0 +1,89 @@
+package com.airport.kiosk.edge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only file of JSON lines. Every append is forced to disk before it returns, so an entry that was
+ * acknowledged survives a crash; a line torn by a crash during the append is skipped when reading.
+ */
+@Slf4j
+final class EdgeLog<T> {
+
+    private final Path file;
+    private final Class<T> type;
+    private final ObjectMapper objectMapper;
+
+    EdgeLog(Path file, Class<T> type, ObjectMapper objectMapper) {
+        this.file = file;
+        this.type = type;
+        this.objectMapper = objectMapper;
+    }
+
+    synchronized void append(T entry) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    synchronized List<T> readAll() throws IOException {
+        List<T> entries = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                entries.add(objectMapper.readValue(line, type));
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable line of {}: {}", file, e.getOriginalMessage());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Atomically replace the file's entries (e.g. with the ones not yet reconciled).
+     */
+    synchronized void replace(List<T> entries) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        StringBuilder content = new StringBuilder();
+        for (T entry : entries) {
+            content.append(objectMapper.writeValueAsString(entry)).append('\n');
+        }
+        writeDurably(temp, content.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static void writeDurably(Path path, byte[] content) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
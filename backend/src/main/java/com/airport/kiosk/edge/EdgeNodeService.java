@@ -0,0 +1,865 @@
+package com.airport.kiosk.edge;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.airport.kiosk.dto.BookingDetailsResponse;
+import com.airport.kiosk.dto.EdgeStatusResponse;
+import com.airport.kiosk.dto.SeatLeaseRenewResponse;
+import com.airport.kiosk.dto.SeatMapResponse;
+import com.airport.kiosk.event.BookingsChangedEvent;
+import com.airport.kiosk.event.FlightsChangedEvent;
+import com.airport.kiosk.event.KioskEventPublisher;
+import com.airport.kiosk.exception.BookingNotFoundException;
+import com.airport.kiosk.exception.FlightNotFoundException;
+import com.airport.kiosk.exception.SeatNotFoundException;
+import com.airport.kiosk.model.BaggageRecord;
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Flight;
+import com.airport.kiosk.model.Seat;
+import com.airport.kiosk.repository.BaggageRepository;
+import com.airport.kiosk.repository.BookingRepository;
+import com.airport.kiosk.repository.FlightRepository;
+import com.airport.kiosk.repository.SeatRepository;
+import com.airport.kiosk.service.BaggageService;
+import com.airport.kiosk.service.SeatService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Edge node mode ({@code kiosk.edge.enabled}): keeps the kiosks of a satellite terminal working while the
+ * node's link to the central database is down.
+ * <ul>
+ *   <li>While online, the flights departing from the start of today to {@code kiosk.edge.snapshot-horizon}
+ *       ahead, with their seats, bookings and bag counts, are written to {@code snapshot.json} in
+ *       {@code kiosk.edge.data-dir} every {@code kiosk.edge.snapshot-full-interval}, after a restart without
+ *       one and after reconciliation</li>
+ *   <li>In between, every {@code kiosk.edge.snapshot-interval} only what changed is read and appended to
+ *       {@code snapshot-delta.ndjson}: flight rows, seats and bookings by {@code updated_at} (from the
+ *       database's clock of the last read, less {@code kiosk.edge.snapshot-overlap} for transactions still
+ *       open then), and the whole of flights that entered the window, moved, had bags checked in or were
+ *       named by a {@link BookingsChangedEvent} or {@link FlightsChangedEvent} (local or relayed)</li>
+ *   <li>The probe and the snapshot reads run on their own thread ({@code edge-probe}), not on the shared
+ *       scheduler. A probe every {@code kiosk.edge.probe-interval-ms}, and any request failing to reach the
+ *       database, switches the node offline: flight list, seat map, booking lookups, seat locks, seat
+ *       confirmations and bag drops are then served from the snapshot ({@link #call})</li>
+ *   <li>Seat confirmations and bag drops taken offline are appended to {@code queue.ndjson} and forced to disk
+ *       before the kiosk gets its answer; the queue is applied to the snapshot again after a restart</li>
+ *   <li>Once the database answers again the queue is replayed in order (offline requests keep being queued
+ *       until it is drained). A confirmation is only applied if {@code seats.version} is still the one in the
+ *       snapshot, or the seat is free again ({@link SeatService#applyOfflineConfirmation}); rejected operations
+ *       go to {@code conflicts.ndjson} and {@code GET /api/edge/conflicts}</li>
+ * </ul>
+ * Seat locks taken offline are local to the node: kiosks of other nodes cannot see them until reconnect.
+ */
+@Slf4j
+@Service
+public class EdgeNodeService {
+
+    /** Response header marking answers served from the offline snapshot. */
+    public static final String OFFLINE_HEADER = "X-Kiosk-Offline";
+
+    public enum LinkState {
+        ONLINE, OFFLINE, RECONCILING
+    }
+
+    private final boolean enabled;
+    private final Duration lockTtl;
+    private final Path dataDir;
+    private final Duration snapshotInterval;
+    private final Duration snapshotFullInterval;
+    private final Duration snapshotOverlap;
+    private final Duration snapshotHorizon;
+    private final long probeIntervalMillis;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final FlightRepository flightRepository;
+    private final SeatRepository seatRepository;
+    private final BookingRepository bookingRepository;
+    private final BaggageRepository baggageRepository;
+    private final SeatService seatService;
+    private final BaggageService baggageService;
+    private final KioskEventPublisher kioskEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final EdgeLog<EdgeOperation> queue;
+    private final EdgeLog<EdgeConflict> conflictLog;
+    private final EdgeLog<EdgeSnapshotDelta> deltaLog;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final Counter appliedCounter;
+    private final Counter conflictCounter;
+    private final Counter queuedCounter;
+
+    private volatile LinkState state = LinkState.ONLINE;
+    private volatile LocalDateTime lastReconciledAt;
+    private volatile ScheduledExecutorService prober;
+
+    // Flights to read whole at the next snapshot refresh; empty flight list events ask for a full snapshot
+    private final Set<String> flightsToReload = ConcurrentHashMap.newKeySet();
+    private volatile boolean fullSnapshotRequested;
+
+    // Offline view of the snapshot; guarded by this
+    private LocalDateTime snapshotTakenAt;
+    private LocalDateTime snapshotReadAt;
+    private LocalDateTime fullSnapshotTakenAt;
+    private final Map<String, Flight> flights = new LinkedHashMap<>();
+    private final Map<String, Map<String, Seat>> seatsByFlight = new HashMap<>();
+    private final Map<String, Booking> bookings = new HashMap<>();
+    private final Map<String, Integer> baggageCounts = new HashMap<>();
+
+    public EdgeNodeService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           FlightRepository flightRepository, SeatRepository seatRepository,
+                           BookingRepository bookingRepository, BaggageRepository baggageRepository,
+                           SeatService seatService, BaggageService baggageService,
+                           KioskEventPublisher kioskEventPublisher, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${kiosk.edge.enabled:false}") boolean enabled,
+                           @Value("${kiosk.edge.data-dir:edge-data}") String dataDir,
+                           @Value("${kiosk.edge.snapshot-interval:PT1M}") Duration snapshotInterval,
+                           @Value("${kiosk.edge.snapshot-full-interval:PT1H}") Duration snapshotFullInterval,
+                           @Value("${kiosk.edge.snapshot-overlap:PT1M}") Duration snapshotOverlap,
+                           @Value("${kiosk.edge.snapshot-horizon:PT24H}") Duration snapshotHorizon,
+                           @Value("${kiosk.edge.probe-interval-ms:2000}") long probeIntervalMillis,
+                           @Value("${kiosk.seat.lock-ttl:PT15S}") Duration lockTtl) {
+        this.enabled = enabled;
+        this.lockTtl = lockTtl;
+        this.dataDir = Path.of(dataDir);
+        this.snapshotInterval = snapshotInterval;
+        this.snapshotFullInterval = snapshotFullInterval;
+        this.snapshotOverlap = snapshotOverlap;
+        this.snapshotHorizon = snapshotHorizon;
+        this.probeIntervalMillis = probeIntervalMillis;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.flightRepository = flightRepository;
+        this.seatRepository = seatRepository;
+        this.bookingRepository = bookingRepository;
+        this.baggageRepository = baggageRepository;
+        this.seatService = seatService;
+        this.baggageService = baggageService;
+        this.kioskEventPublisher = kioskEventPublisher;
+        this.objectMapper = objectMapper;
+        this.queue = new EdgeLog<>(this.dataDir.resolve("queue.ndjson"), EdgeOperation.class, objectMapper);
+        this.conflictLog = new EdgeLog<>(this.dataDir.resolve("conflicts.ndjson"), EdgeConflict.class, objectMapper);
+        this.deltaLog = new EdgeLog<>(this.dataDir.resolve("snapshot-delta.ndjson"), EdgeSnapshotDelta.class,
+            objectMapper);
+        this.appliedCounter = meterRegistry.counter("kiosk.edge.reconciled", "outcome", "applied");
+        this.conflictCounter = meterRegistry.counter("kiosk.edge.reconciled", "outcome", "conflict");
+        this.queuedCounter = meterRegistry.counter("kiosk.edge.queued");
+        meterRegistry.gauge("kiosk.edge.pending", pending);
+        meterRegistry.gauge("kiosk.edge.offline", this, edge -> edge.isOffline() ? 1 : 0);
+    }
+
+    public boolean isOffline() {
+        return enabled && state != LinkState.ONLINE;
+    }
+
+    /**
+     * Run {@code online} against the database; on an edge node that is offline, or loses the database during
+     * the call, run {@code offline} against the snapshot instead.
+     */
+    public <T> T call(Supplier<T> online, Supplier<T> offline) {
+        if (!enabled) {
+            return online.get();
+        }
+        if (state != LinkState.ONLINE) {
+            return offline.get();
+        }
+        try {
+            return online.get();
+        } catch (RuntimeException e) {
+            if (!isLinkFailure(e)) {
+                throw e;
+            }
+            linkLost(e);
+            return offline.get();
+        }
+    }
+
+    /**
+     * A 200 response marked as served from the offline snapshot.
+     */
+    public static <T> ResponseEntity<T> offlineResponse(T body) {
+        return ResponseEntity.ok().header(OFFLINE_HEADER, "true").body(body);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(dataDir);
+            Path file = dataDir.resolve("snapshot.json");
+            List<EdgeOperation> operations = queue.readAll();
+            List<EdgeSnapshotDelta> deltas = deltaLog.readAll();
+            synchronized (this) {
+                if (Files.exists(file)) {
+                    install(objectMapper.readValue(file.toFile(), EdgeSnapshot.class));
+                    for (EdgeSnapshotDelta delta : deltas) {
+                        // Deltas older than the snapshot are left over from a crash before the log was cleared
+                        if (delta.takenAt().isAfter(snapshotTakenAt)) {
+                            apply(delta);
+                        }
+                    }
+                }
+                // Offline operations not reconciled before the restart
+                for (EdgeOperation operation : operations) {
+                    applyLocally(operation);
+                }
+            }
+            pending.set(operations.size());
+            conflicts.set(conflictLog.readAll().size());
+            log.info("Edge node mode: snapshot from {}, {} offline operations pending", snapshotTakenAt,
+                operations.size());
+        } catch (IOException e) {
+            log.error("Could not load the edge snapshot from {}", dataDir, e);
+        }
+        prober = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "edge-probe"));
+        prober.scheduleWithFixedDelay(this::probe, 0, probeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+    }
+
+    /**
+     * Flights whose bookings were replaced in bulk are read whole at the next snapshot refresh, so bookings
+     * removed by the ingestion leave the snapshot too.
+     */
+    @EventListener
+    public void onBookingsChanged(@NonNull BookingsChangedEvent event) {
+        if (enabled) {
+            flightsToReload.add(event.flightId());
+        }
+    }
+
+    @EventListener
+    public void onFlightsChanged(@NonNull FlightsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.flightIds().isEmpty()) {
+            fullSnapshotRequested = true;
+        } else {
+            flightsToReload.addAll(event.flightIds());
+        }
+    }
+
+    void probe() {
+        try {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        } catch (DataAccessException e) {
+            linkLost(e);
+            return;
+        }
+        try {
+            if (state != LinkState.ONLINE || pending.get() > 0) {
+                reconcile();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime takenAt;
+            LocalDateTime fullTakenAt;
+            boolean incremental;
+            synchronized (this) {
+                takenAt = snapshotTakenAt;
+                fullTakenAt = fullSnapshotTakenAt;
+                incremental = snapshotReadAt != null;
+            }
+            if (takenAt == null || fullSnapshotRequested || fullTakenAt == null || !incremental
+                    || fullTakenAt.plus(snapshotFullInterval).isBefore(now)) {
+                refreshSnapshot();
+            } else if (takenAt.plus(snapshotInterval).isBefore(now)) {
+                refreshChanges();
+            }
+        } catch (RuntimeException e) {
+            if (isLinkFailure(e)) {
+                linkLost(e);
+            } else {
+                log.error("Edge reconciliation/snapshot failed", e);
+            }
+        } catch (IOException e) {
+            log.error("Edge reconciliation/snapshot failed", e);
+        }
+    }
+
+    public EdgeStatusResponse getStatus() {
+        synchronized (this) {
+            return new EdgeStatusResponse(enabled, enabled ? state.name() : null, snapshotTakenAt, flights.size(),
+                pending.get(), conflicts.get(), lastReconciledAt);
+        }
+    }
+
+    public List<EdgeConflict> getConflicts() {
+        try {
+            return conflictLog.readAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the edge conflicts", e);
+        }
+    }
+
+    // ---- Offline operations (snapshot) ----
+
+    public synchronized List<Flight> getFlights() {
+        requireSnapshot();
+        return new ArrayList<>(flights.values());
+    }
+
+    public synchronized SeatMapResponse getSeatMap(String flightId) {
+        Map<String, Seat> seats = seats(flightId);
+        long available = 0;
+        Map<Seat.SeatClass, Long> availableByClass = new EnumMap<>(Seat.SeatClass.class);
+        for (Seat seat : seats.values()) {
+            expireLock(seat);
+            boolean free = seat.getSeatStatus() == Seat.SeatStatus.AVAILABLE;
+            if (free) {
+                available++;
+            }
+            availableByClass.merge(seat.getSeatClass(), free ? 1L : 0L, Long::sum);
+        }
+        return SeatMapResponse.of(new ArrayList<>(seats.values()), available, availableByClass);
+    }
+
+    public synchronized boolean lockSeat(String flightId, String seatId, String sessionId) {
+        Seat seat = seat(flightId, seatId);
+        expireLock(seat);
+        if (seat.getSeatStatus() != Seat.SeatStatus.AVAILABLE) {
+            return false;
+        }
+        seat.setSeatStatus(Seat.SeatStatus.LOCKED);
+        seat.setLockedBy(sessionId);
+        seat.setLockExpiry(LocalDateTime.now().plus(lockTtl));
+        kioskEventPublisher.seatChanged(flightId, seatId, Seat.SeatStatus.LOCKED, sessionId);
+        return true;
+    }
+
+    public synchronized boolean unlockSeat(String flightId, String seatId, String sessionId) {
+        Seat seat = seat(flightId, seatId);
+        if (seat.getSeatStatus() != Seat.SeatStatus.LOCKED || !sessionId.equals(seat.getLockedBy())) {
+            return false;
+        }
+        seat.setSeatStatus(Seat.SeatStatus.AVAILABLE);
+        seat.setLockedBy(null);
+        seat.setLockExpiry(null);
+        kioskEventPublisher.seatChanged(flightId, seatId, Seat.SeatStatus.AVAILABLE, null);
+        return true;
+    }
+
+    public synchronized SeatLeaseRenewResponse renewLeases(String sessionId) {
+        requireSnapshot();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(lockTtl);
+        List<String> seatIds = new ArrayList<>();
+        for (Map<String, Seat> seats : seatsByFlight.values()) {
+            for (Seat seat : seats.values()) {
+                expireLock(seat);
+                if (seat.getSeatStatus() == Seat.SeatStatus.LOCKED && sessionId.equals(seat.getLockedBy())) {
+                    seat.setLockExpiry(expiresAt);
+                    seatIds.add(seat.getSeatId());
+                }
+            }
+        }
+        return new SeatLeaseRenewResponse(seatIds, expiresAt);
+    }
+
+    /**
+     * Confirm a seat offline: queued durably, then applied to the snapshot. A lock taken online just before
+     * the link dropped is not in the snapshot, so a seat that is free here is accepted without one.
+     */
+    public synchronized boolean confirmSeat(String flightId, String seatId, String bookingId, String sessionId) {
+        Seat seat = seat(flightId, seatId);
+        expireLock(seat);
+        boolean lockedBySession = seat.getSeatStatus() == Seat.SeatStatus.LOCKED
+            && sessionId.equals(seat.getLockedBy());
+        if (!lockedBySession && seat.getSeatStatus() != Seat.SeatStatus.AVAILABLE) {
+            return false;
+        }
+        Booking booking = booking(bookingId);
+        if (!booking.getFlightId().equals(flightId)) {
+            throw new IllegalArgumentException("Booking " + booking.getBookingId() + " is not on flight " + flightId);
+        }
+        String previousSeatId = reservedSeats(flightId, booking.getBookingId()).stream()
+            .map(Seat::getSeatId)
+            .filter(id -> !id.equals(seatId))
+            .findFirst()
+            .orElse(null);
+        EdgeOperation operation = EdgeOperation.confirmSeat(flightId, booking.getBookingId(), seatId,
+            seat.getVersion(), previousSeatId);
+        enqueue(operation);
+        for (Seat changed : applyLocally(operation)) {
+            kioskEventPublisher.seatChanged(flightId, changed.getSeatId(), changed.getSeatStatus(), null);
+        }
+        return true;
+    }
+
+    public synchronized BookingDetailsResponse searchBooking(String bookingReference, String passportNumber) {
+        Booking booking;
+        if (bookingReference != null && !bookingReference.trim().isEmpty()) {
+            booking = booking(bookingReference);
+        } else if (passportNumber != null && !passportNumber.trim().isEmpty()) {
+            requireSnapshot();
+            booking = bookings.values().stream()
+                .filter(b -> passportNumber.trim().equalsIgnoreCase(b.getPassportNumber()))
+                .findFirst()
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found for passport: " + passportNumber
+                    + " (offline: only flights in the edge snapshot are available)"));
+        } else {
+            throw new IllegalArgumentException("Either booking reference or passport number must be provided");
+        }
+        return BookingDetailsResponse.of(booking, flight(booking.getFlightId()));
+    }
+
+    public synchronized Map<String, String> findPassportNumbers(Collection<String> bookingIds) {
+        requireSnapshot();
+        Map<String, String> passports = new HashMap<>();
+        for (String bookingId : bookingIds) {
+            Booking booking = bookings.get(bookingId.toUpperCase());
+            if (booking != null) {
+                passports.put(bookingId, booking.getPassportNumber());
+            }
+        }
+        return passports;
+    }
+
+    public synchronized BookingDetailsResponse getBooking(String bookingId) {
+        Booking booking = booking(bookingId);
+        return BookingDetailsResponse.of(booking, flight(booking.getFlightId()));
+    }
+
+    /**
+     * Bag drop offline: queued durably, then applied to the snapshot's counts. The tag number is generated
+     * here, so the tag printed now is the one the baggage record gets on reconnect.
+     */
+    public synchronized BaggageRecord checkInBaggage(String bookingId, BigDecimal weight, Integer count) {
+        Booking booking = booking(bookingId);
+        String flightId = booking.getFlightId();
+        EdgeOperation operation = EdgeOperation.bagDrop(flightId, booking.getBookingId(), weight, count,
+            BaggageService.generateTagNumber(flightId));
+        enqueue(operation);
+        applyLocally(operation);
+        Flight flight = flight(flightId);
+        kioskEventPublisher.baggageCountChanged(flightId, flight.getBaggageCount());
+
+        BaggageRecord baggage = new BaggageRecord();
+        baggage.setBookingId(booking.getBookingId());
+        baggage.setFlightId(flightId);
+        baggage.setDepartureDate(flight.getDepartureTime().toLocalDate());
+        baggage.setBaggageWeight(weight);
+        baggage.setBaggageCount(count);
+        baggage.setTagNumber(operation.tagNumber());
+        baggage.setCheckInTime(operation.recordedAt());
+        return baggage;
+    }
+
+    public synchronized Long getBaggageCount(String flightId) {
+        Integer count = flight(flightId).getBaggageCount();
+        return count != null ? count.longValue() : 0L;
+    }
+
+    // ---- Link state, reconciliation and snapshots ----
+
+    private void linkLost(Exception e) {
+        if (state == LinkState.ONLINE) {
+            log.warn("Database unreachable, edge node serving from its snapshot of {}: {}", snapshotTakenAt,
+                e.getMessage());
+        }
+        state = LinkState.OFFLINE;
+    }
+
+    private void reconcile() throws IOException {
+        if (state == LinkState.OFFLINE) {
+            log.info("Database reachable again, reconciling {} offline operations", pending.get());
+            state = LinkState.RECONCILING;
+        }
+        // Offline requests wait until the queue is drained, so they are queued behind it
+        synchronized (this) {
+            List<EdgeOperation> operations = queue.readAll();
+            int done = 0;
+            try {
+                for (EdgeOperation operation : operations) {
+                    reconcile(operation);
+                    done++;
+                }
+            } finally {
+                if (done > 0) {
+                    queue.replace(operations.subList(done, operations.size()));
+                    pending.set(operations.size() - done);
+                    lastReconciledAt = LocalDateTime.now();
+                }
+            }
+            state = LinkState.ONLINE;
+        }
+        // The snapshot holds the offline view until now; replace it with the database's
+        refreshSnapshot();
+    }
+
+    private void reconcile(EdgeOperation operation) throws IOException {
+        Optional<String> conflict;
+        try {
+            conflict = switch (operation.type()) {
+                case CONFIRM_SEAT -> seatService.applyOfflineConfirmation(operation.flightId(), operation.seatId(),
+                    operation.bookingId(), operation.expectedVersion(), operation.previousSeatId());
+                case BAG_DROP -> {
+                    baggageService.checkInBaggage(operation.bookingId(), operation.flightId(), operation.weight(),
+                        operation.count(), operation.tagNumber());
+                    yield Optional.empty();
+                }
+            };
+        } catch (RuntimeException e) {
+            if (isLinkFailure(e)) {
+                throw e;
+            }
+            conflict = Optional.of(e.getMessage());
+        }
+        if (conflict.isPresent()) {
+            log.warn("Offline {} {} rejected: {}", operation.type(), operation.id(), conflict.get());
+            conflictLog.append(new EdgeConflict(operation, conflict.get(), LocalDateTime.now()));
+            conflicts.incrementAndGet();
+            conflictCounter.increment();
+        } else {
+            appliedCounter.increment();
+        }
+    }
+
+    private void refreshSnapshot() throws IOException {
+        fullSnapshotRequested = false;
+        Set<String> reloads = Set.copyOf(flightsToReload);
+        LocalDateTime now = LocalDateTime.now();
+        EdgeSnapshot snapshot = readTransaction.execute(status -> {
+            LocalDateTime readAt = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+            List<Flight> snapshotFlights = flightRepository.findByDepartureTimeBetweenOrderByDepartureTimeAsc(
+                now.toLocalDate().atStartOfDay(), now.plus(snapshotHorizon));
+            List<Seat> seats = new ArrayList<>();
+            List<Booking> snapshotBookings = new ArrayList<>();
+            Map<String, Integer> counts = new HashMap<>();
+            for (Flight flight : snapshotFlights) {
+                readFlight(flight, seats, snapshotBookings, counts);
+            }
+            return new EdgeSnapshot(now, readAt, snapshotFlights, seats, snapshotBookings, counts);
+        });
+
+        Path file = dataDir.resolve("snapshot.json");
+        Path temp = dataDir.resolve("snapshot.json.tmp");
+        Files.createDirectories(dataDir);
+        EdgeLog.writeDurably(temp, objectMapper.writeValueAsBytes(snapshot));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deltaLog.replace(List.of());
+        synchronized (this) {
+            install(snapshot);
+        }
+        flightsToReload.removeAll(reloads);
+        log.debug("Edge snapshot: {} flights, {} seats, {} bookings", snapshot.flights().size(),
+            snapshot.seats().size(), snapshot.bookings().size());
+    }
+
+    /**
+     * Read what changed since the last snapshot or delta, append it to the delta log and apply it.
+     */
+    private void refreshChanges() throws IOException {
+        Set<String> reloads = Set.copyOf(flightsToReload);
+        Map<String, Flight> known;
+        LocalDateTime since;
+        synchronized (this) {
+            known = new HashMap<>(flights);
+            since = snapshotReadAt.minus(snapshotOverlap);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = now.toLocalDate().atStartOfDay();
+        LocalDateTime to = now.plus(snapshotHorizon);
+        EdgeSnapshotDelta delta = readTransaction.execute(status -> {
+            LocalDateTime readAt = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+            List<Flight> changedFlights = new ArrayList<>();
+            List<String> reloaded = new ArrayList<>();
+            List<Seat> seats = new ArrayList<>();
+            List<Booking> changedBookings = new ArrayList<>();
+            Map<String, Integer> counts = new HashMap<>();
+            Map<String, LocalDate> window = new HashMap<>();
+            for (Flight flight : flightRepository.findByDepartureTimeBetweenOrderByDepartureTimeAsc(from, to)) {
+                window.put(flight.getFlightId(), flight.getDepartureTime().toLocalDate());
+                Flight previous = known.get(flight.getFlightId());
+                if (!flight.equals(previous)) {
+                    changedFlights.add(flight);
+                }
+                // Bag records carry no updated_at: a changed bag count has the flight's records read again
+                if (previous == null || reloads.contains(flight.getFlightId())
+                        || !flight.getDepartureTime().equals(previous.getDepartureTime())
+                        || !Objects.equals(flight.getBaggageCount(), previous.getBaggageCount())) {
+                    reloaded.add(flight.getFlightId());
+                    readFlight(flight, seats, changedBookings, counts);
+                }
+            }
+            Set<String> whole = new HashSet<>(reloaded);
+            seatRepository.findByDepartureDateBetweenAndUpdatedAtGreaterThanEqual(from.toLocalDate(),
+                    to.toLocalDate(), since).stream()
+                .filter(seat -> !whole.contains(seat.getFlightId()))
+                .filter(seat -> seat.getDepartureDate().equals(window.get(seat.getFlightId())))
+                .filter(seat -> !isHeld(seat))
+                .forEach(seats::add);
+            bookingRepository.findByDepartureDateBetweenAndUpdatedAtGreaterThanEqual(from.toLocalDate(),
+                    to.toLocalDate(), since).stream()
+                .filter(booking -> !whole.contains(booking.getFlightId()))
+                .filter(booking -> booking.getDepartureDate().equals(window.get(booking.getFlightId())))
+                .filter(booking -> !isHeld(booking))
+                .forEach(changedBookings::add);
+            List<String> removed = known.keySet().stream().filter(id -> !window.containsKey(id)).toList();
+            return new EdgeSnapshotDelta(now, readAt, changedFlights, removed, reloaded, seats, changedBookings,
+                counts);
+        });
+
+        if (!delta.isEmpty()) {
+            Files.createDirectories(dataDir);
+            deltaLog.append(delta);
+        }
+        synchronized (this) {
+            apply(delta);
+        }
+        flightsToReload.removeAll(reloads);
+        log.debug("Edge snapshot delta: {} flights changed, {} reloaded, {} removed, {} seats, {} bookings",
+            delta.flights().size(), delta.reloadedFlightIds().size(), delta.removedFlightIds().size(),
+            delta.seats().size(), delta.bookings().size());
+    }
+
+    private void readFlight(Flight flight, List<Seat> seats, List<Booking> flightBookings,
+                            Map<String, Integer> counts) {
+        LocalDate departureDate = flight.getDepartureTime().toLocalDate();
+        seats.addAll(seatRepository.findByFlightIdAndDepartureDate(flight.getFlightId(), departureDate));
+        flightBookings.addAll(bookingRepository.findByFlightIdAndDepartureDate(flight.getFlightId(), departureDate));
+        baggageRepository.findByFlightIdAndDepartureDate(flight.getFlightId(), departureDate)
+            .forEach(record -> counts.merge(record.getBookingId(), record.getBaggageCount(), Integer::sum));
+    }
+
+    private void install(EdgeSnapshot snapshot) {
+        snapshotTakenAt = snapshot.takenAt();
+        snapshotReadAt = snapshot.readAt();
+        fullSnapshotTakenAt = snapshot.takenAt();
+        flights.clear();
+        seatsByFlight.clear();
+        bookings.clear();
+        baggageCounts.clear();
+        snapshot.flights().forEach(flight -> flights.put(flight.getFlightId(), flight));
+        putSeats(snapshot.seats());
+        snapshot.bookings().forEach(booking -> bookings.put(booking.getBookingId().toUpperCase(), booking));
+        baggageCounts.putAll(snapshot.baggageCounts());
+    }
+
+    private void apply(EdgeSnapshotDelta delta) {
+        snapshotTakenAt = delta.takenAt();
+        snapshotReadAt = delta.readAt();
+        for (String flightId : delta.removedFlightIds()) {
+            flights.remove(flightId);
+            removeFlightContents(flightId);
+        }
+        delta.reloadedFlightIds().forEach(this::removeFlightContents);
+        if (!delta.flights().isEmpty()) {
+            delta.flights().forEach(flight -> flights.put(flight.getFlightId(), flight));
+            // Keep the offline flight list in departure order
+            List<Flight> ordered = new ArrayList<>(flights.values());
+            ordered.sort(Comparator.comparing(Flight::getDepartureTime));
+            flights.clear();
+            ordered.forEach(flight -> flights.put(flight.getFlightId(), flight));
+        }
+        putSeats(delta.seats());
+        delta.bookings().forEach(booking -> bookings.put(booking.getBookingId().toUpperCase(), booking));
+        baggageCounts.putAll(delta.baggageCounts());
+    }
+
+    // Rows read again within the overlap are left out of the delta
+    private synchronized boolean isHeld(Seat seat) {
+        return seat.equals(seatsByFlight.getOrDefault(seat.getFlightId(), Map.of()).get(seat.getSeatId()));
+    }
+
+    private synchronized boolean isHeld(Booking booking) {
+        return booking.equals(bookings.get(booking.getBookingId().toUpperCase()));
+    }
+
+    private void putSeats(List<Seat> seats) {
+        for (Seat seat : seats) {
+            seatsByFlight.computeIfAbsent(seat.getFlightId(), id -> new LinkedHashMap<>()).put(seat.getSeatId(), seat);
+        }
+    }
+
+    private void removeFlightContents(String flightId) {
+        seatsByFlight.remove(flightId);
+        bookings.values().removeIf(booking -> {
+            if (!flightId.equals(booking.getFlightId())) {
+                return false;
+            }
+            baggageCounts.remove(booking.getBookingId());
+            return true;
+        });
+    }
+
+    private void enqueue(EdgeOperation operation) {
+        try {
+            queue.append(operation);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record the offline operation", e);
+        }
+        pending.incrementAndGet();
+        queuedCounter.increment();
+    }
+
+    /**
+     * Apply an offline operation to the snapshot.
+     * @return the seats changed by a confirmation: the booking's released seats, then the reserved one
+     */
+    private List<Seat> applyLocally(EdgeOperation operation) {
+        Flight flight = flights.get(operation.flightId());
+        if (flight == null) {
+            return List.of();
+        }
+        List<Seat> changed = new ArrayList<>();
+        switch (operation.type()) {
+            case CONFIRM_SEAT -> {
+                Seat seat = seatsByFlight.getOrDefault(operation.flightId(), Map.of()).get(operation.seatId());
+                if (seat == null) {
+                    return List.of();
+                }
+                for (Seat previous : reservedSeats(operation.flightId(), operation.bookingId())) {
+                    if (!previous.getSeatId().equals(operation.seatId())) {
+                        previous.setSeatStatus(Seat.SeatStatus.AVAILABLE);
+                        previous.setBookingId(null);
+                        changed.add(previous);
+                    }
+                }
+                seat.setSeatStatus(Seat.SeatStatus.RESERVED);
+                seat.setBookingId(operation.bookingId());
+                seat.setLockedBy(null);
+                seat.setLockExpiry(null);
+                changed.add(seat);
+                if (flight.getAvailableSeats() != null) {
+                    flight.setAvailableSeats(flight.getAvailableSeats() + changed.size() - 2);
+                }
+            }
+            case BAG_DROP -> {
+                Integer previous = baggageCounts.put(operation.bookingId(), operation.count());
+                int delta = operation.count() - (previous != null ? previous : 0);
+                flight.setBaggageCount((flight.getBaggageCount() != null ? flight.getBaggageCount() : 0) + delta);
+            }
+        }
+        return changed;
+    }
+
+    private List<Seat> reservedSeats(String flightId, String bookingId) {
+        return seatsByFlight.getOrDefault(flightId, Map.of()).values().stream()
+            .filter(seat -> bookingId.equalsIgnoreCase(seat.getBookingId()))
+            .filter(seat -> seat.getSeatStatus() == Seat.SeatStatus.RESERVED
+                || seat.getSeatStatus() == Seat.SeatStatus.OCCUPIED)
+            .toList();
+    }
+
+    private void expireLock(Seat seat) {
+        if (seat.getSeatStatus() == Seat.SeatStatus.LOCKED && seat.getLockExpiry() != null
+                && seat.getLockExpiry().isBefore(LocalDateTime.now())) {
+            seat.setSeatStatus(Seat.SeatStatus.AVAILABLE);
+            seat.setLockedBy(null);
+            seat.setLockExpiry(null);
+        }
+    }
+
+    private void requireSnapshot() {
+        if (snapshotTakenAt == null) {
+            throw new IllegalStateException("Database unreachable and no edge snapshot taken yet");
+        }
+    }
+
+    private Flight flight(String flightId) {
+        requireSnapshot();
+        Flight flight = flights.get(flightId);
+        if (flight == null) {
+            throw new FlightNotFoundException("Flight not found: " + flightId
+                + " (offline: only flights in the edge snapshot are available)");
+        }
+        return flight;
+    }
+
+    private Map<String, Seat> seats(String flightId) {
+        flight(flightId);
+        return seatsByFlight.getOrDefault(flightId, Map.of());
+    }
+
+    private Seat seat(String flightId, String seatId) {
+        Seat seat = seats(flightId).get(seatId);
+        if (seat == null) {
+            throw new SeatNotFoundException("Seat not found: " + seatId);
+        }
+        return seat;
+    }
+
+    private Booking booking(String bookingId) {
+        requireSnapshot();
+        Booking booking = bookings.get(bookingId != null ? bookingId.trim().toUpperCase() : "");
+        if (booking == null) {
+            throw new BookingNotFoundException("Booking not found: " + bookingId
+                + " (offline: only flights in the edge snapshot are available)");
+        }
+        return booking;
+    }
+
+    /**
+     * Whether the exception means the database could not be reached (as opposed to a rejected statement).
+     */
+    static boolean isLinkFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof org.hibernate.exception.JDBCConnectionException
+                    || cause instanceof ConnectException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && sqlException.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
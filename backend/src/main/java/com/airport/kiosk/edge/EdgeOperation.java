@@ -0,0 +1,32 @@
+package com.airport.kiosk.edge;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A write an edge node accepted while offline, replayed against the database on reconnect.
+ *
+ * @param expectedVersion seat confirmations: {@code seats.version} of the seat in the node's snapshot
+ * @param previousSeatId  seat confirmations: the booking's seat in the node's snapshot, if any
+ * @param tagNumber       bag drops: the tag printed for a new baggage record
+ */
+public record EdgeOperation(String id, Type type, LocalDateTime recordedAt, String flightId, String bookingId,
+                            String seatId, Long expectedVersion, String previousSeatId,
+                            BigDecimal weight, Integer count, String tagNumber) {
+
+    public enum Type {
+        CONFIRM_SEAT, BAG_DROP
+    }
+
+    static EdgeOperation confirmSeat(String flightId, String bookingId, String seatId, long expectedVersion,
+                                     String previousSeatId) {
+        return new EdgeOperation(UUID.randomUUID().toString(), Type.CONFIRM_SEAT, LocalDateTime.now(), flightId,
+            bookingId, seatId, expectedVersion, previousSeatId, null, null, null);
+    }
+
+    static EdgeOperation bagDrop(String flightId, String bookingId, BigDecimal weight, int count, String tagNumber) {
+        return new EdgeOperation(UUID.randomUUID().toString(), Type.BAG_DROP, LocalDateTime.now(), flightId,
+            bookingId, null, null, null, weight, count, tagNumber);
+    }
+}
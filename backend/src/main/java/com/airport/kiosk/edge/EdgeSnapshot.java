@@ -0,0 +1,19 @@
+package com.airport.kiosk.edge;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Flight;
+import com.airport.kiosk.model.Seat;
+
+/**
+ * The flights of the snapshot window with their seats and bookings, as an edge node last read them.
+ *
+ * @param readAt the database's clock when it was read: {@link EdgeSnapshotDelta}s take the rows changed since
+ * @param baggageCounts bags checked in per booking id
+ */
+public record EdgeSnapshot(LocalDateTime takenAt, LocalDateTime readAt, List<Flight> flights, List<Seat> seats,
+                           List<Booking> bookings, Map<String, Integer> baggageCounts) {
+}
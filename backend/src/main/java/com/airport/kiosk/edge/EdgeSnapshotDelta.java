@@ -0,0 +1,30 @@
+package com.airport.kiosk.edge;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Flight;
+import com.airport.kiosk.model.Seat;
+
+/**
+ * What changed in the snapshot window since the previous snapshot or delta; appended to
+ * {@code snapshot-delta.ndjson} and applied on top of {@code snapshot.json}.
+ *
+ * @param flights the flight rows that changed or entered the window
+ * @param removedFlightIds flights that left the window
+ * @param reloadedFlightIds flights whose seats, bookings and bag counts below replace the ones held
+ * @param seats seats of the reloaded flights, and seats changed since the last read of the others
+ * @param bookings likewise for bookings
+ * @param baggageCounts bags checked in per booking id of the reloaded flights
+ */
+public record EdgeSnapshotDelta(LocalDateTime takenAt, LocalDateTime readAt, List<Flight> flights,
+                                List<String> removedFlightIds, List<String> reloadedFlightIds, List<Seat> seats,
+                                List<Booking> bookings, Map<String, Integer> baggageCounts) {
+
+    boolean isEmpty() {
+        return flights.isEmpty() && removedFlightIds.isEmpty() && reloadedFlightIds.isEmpty() && seats.isEmpty()
+            && bookings.isEmpty();
+    }
+}
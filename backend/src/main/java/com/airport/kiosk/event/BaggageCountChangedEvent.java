@@ -0,0 +1,7 @@
+package com.airport.kiosk.event;
+
+/**
+ * The checked-in bag count of a flight changed. See {@link SeatChangedEvent} for {@code remote}.
+ */
+public record BaggageCountChangedEvent(String flightId, int count, boolean remote) {
+}
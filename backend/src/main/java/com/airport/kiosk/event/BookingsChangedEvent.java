@@ -0,0 +1,9 @@
+package com.airport.kiosk.event;
+
+/**
+ * Published after bookings of a flight were changed outside the JPA entity flow
+ * (e.g. passenger list ingestion), so in-memory views of that flight can be rebuilt.
+ * See {@link SeatChangedEvent} for {@code remote}.
+ */
+public record BookingsChangedEvent(String flightId, boolean remote) {
+}
@@ -0,0 +1,350 @@
+package com.airport.kiosk.event;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans seat and baggage events out to the other backend nodes through PostgreSQL
+ * {@code LISTEN/NOTIFY}, so kiosks see changes made through any node. Flights whose bookings
+ * changed ({@link BookingsChangedEvent}) or that were imported ({@link FlightsChangedEvent}) are passed on too,
+ * for the nodes' in-memory views.
+ * <ul>
+ *   <li>Local events are queued after their transaction commits and flushed every
+ *       {@code kiosk.events.cluster.flush-interval-ms}; within a flush only the latest state per
+ *       seat / per flight's bag count is kept (flights with changed bookings once each), and batches are
+ *       split to stay under NOTIFY's 8000-byte limit</li>
+ *   <li>Every batch carries the sending node id and a per-node sequence number; a receiver that
+ *       sees a gap (or has to reconnect) publishes {@link SeatsResyncEvent}</li>
+ *   <li>A dedicated thread holds one connection that {@code LISTEN}s and rebroadcasts other nodes'
+ *       batches to this node's STOMP subscribers</li>
+ *   <li>The same connection listens on {@value #FLIGHT_CHANGES_CHANNEL}, notified by the database itself
+ *       (V14 trigger) when a flight's departure moves to another day, however it was changed; every node
+ *       publishes a {@link FlightsChangedEvent} for it</li>
+ * </ul>
+ * Enabled with {@code kiosk.events.cluster.enabled=true}; needs nothing but the PostgreSQL database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "kiosk.events.cluster.enabled", havingValue = "true")
+@RegisterReflectionForBinding(ClusterEventRelay.Batch.class)
+public class ClusterEventRelay {
+
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    static final String FLIGHT_CHANGES_CHANNEL = "kiosk_flight_changes";
+    /** More changed flights than this in one flush are sent as {@link #ALL_FLIGHTS}. */
+    private static final int MAX_CHANGED_FLIGHTS = 200;
+    private static final String ALL_FLIGHTS = "*";
+
+    /** Wire format; short property names keep more changes in one NOTIFY. */
+    record SeatChange(String f, String s, String st, String sid) {
+    }
+
+    record BaggageChange(String f, int c) {
+    }
+
+    /** {@code k}: flights whose bookings changed; {@code c}: flights changed ({@code *}: any). */
+    record Batch(String n, long q, List<SeatChange> s, List<BaggageChange> b, List<String> k, List<String> c) {
+    }
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final KioskEventPublisher kioskEventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final String channel;
+    private final String nodeId;
+    private final long flushIntervalMillis;
+    private final Queue<Object> outbound = new ConcurrentLinkedQueue<>();
+    private final Map<String, Long> lastSequenceByNode = new HashMap<>();
+    private final Counter sentCounter;
+    private final Counter receivedCounter;
+    private final Counter gapCounter;
+    private long sequence;
+    private volatile boolean running;
+    private ScheduledExecutorService flusher;
+    private Thread listener;
+
+    public ClusterEventRelay(DataSource dataSource, ObjectMapper objectMapper, KioskEventPublisher kioskEventPublisher,
+                             ApplicationEventPublisher applicationEventPublisher, MeterRegistry meterRegistry,
+                             @Value("${kiosk.events.cluster.channel:kiosk_events}") String channel,
+                             @Value("${kiosk.events.cluster.node-id:}") String nodeId,
+                             @Value("${kiosk.events.cluster.flush-interval-ms:20}") long flushIntervalMillis) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid kiosk.events.cluster.channel: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.kioskEventPublisher = kioskEventPublisher;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.channel = channel;
+        // A restarted node starts a new sequence, so it must not reuse the previous id
+        this.nodeId = (nodeId.isBlank() ? "node" : nodeId) + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.sentCounter = meterRegistry.counter("kiosk.events.cluster.batches", "direction", "sent");
+        this.receivedCounter = meterRegistry.counter("kiosk.events.cluster.batches", "direction", "received");
+        this.gapCounter = meterRegistry.counter("kiosk.events.cluster.gaps");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                log.warn("Cluster event relay needs PostgreSQL, not started ({})",
+                    connection.getMetaData().getDatabaseProductName());
+                return;
+            }
+        } catch (SQLException e) {
+            log.warn("Cluster event relay not started: {}", e.getMessage());
+            return;
+        }
+        running = true;
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "cluster-event-flusher"));
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        listener = new Thread(this::listen, "cluster-event-listener");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("Cluster event relay started as {} on channel {}", nodeId, channel);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flush();
+        }
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatChanged(@NonNull SeatChangedEvent event) {
+        if (running && !event.remote()) {
+            outbound.add(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBaggageCountChanged(@NonNull BaggageCountChangedEvent event) {
+        if (running && !event.remote()) {
+            outbound.add(event);
+        }
+    }
+
+    @EventListener
+    public void onBookingsChanged(@NonNull BookingsChangedEvent event) {
+        if (running && !event.remote()) {
+            outbound.add(event);
+        }
+    }
+
+    @EventListener
+    public void onFlightsChanged(@NonNull FlightsChangedEvent event) {
+        if (running && !event.remote()) {
+            outbound.add(event);
+        }
+    }
+
+    /**
+     * Drain the outbound queue, compact it and NOTIFY. Runs on the single flusher thread,
+     * which is what keeps sequence numbers in send order.
+     */
+    void flush() {
+        if (outbound.isEmpty()) {
+            return;
+        }
+        Map<String, SeatChange> seats = new LinkedHashMap<>();
+        Map<String, BaggageChange> baggage = new LinkedHashMap<>();
+        Set<String> bookings = new LinkedHashSet<>();
+        Set<String> flights = new LinkedHashSet<>();
+        Object event;
+        while ((event = outbound.poll()) != null) {
+            if (event instanceof SeatChangedEvent seat) {
+                String key = seat.flightId() + '|' + seat.seatId();
+                seats.remove(key);
+                seats.put(key, new SeatChange(seat.flightId(), seat.seatId(), seat.status(), seat.sessionId()));
+            } else if (event instanceof BaggageCountChangedEvent bags) {
+                baggage.put(bags.flightId(), new BaggageChange(bags.flightId(), bags.count()));
+            } else if (event instanceof BookingsChangedEvent changed) {
+                bookings.add(changed.flightId());
+            } else if (event instanceof FlightsChangedEvent changed) {
+                if (changed.flightIds().isEmpty()) {
+                    flights.add(ALL_FLIGHTS);
+                } else {
+                    flights.addAll(changed.flightIds());
+                }
+            }
+        }
+        if (flights.contains(ALL_FLIGHTS) || flights.size() > MAX_CHANGED_FLIGHTS) {
+            flights = Set.of(ALL_FLIGHTS);
+        }
+        try {
+            send(new ArrayList<>(seats.values()), new ArrayList<>(baggage.values()), new ArrayList<>(bookings),
+                new ArrayList<>(flights));
+        } catch (RuntimeException | IOException e) {
+            // Other nodes detect the skipped sequence numbers as a gap and resync
+            log.warn("Failed to publish cluster events: {}", e.getMessage());
+        }
+    }
+
+    private void send(List<SeatChange> seats, List<BaggageChange> baggage, List<String> bookings,
+                      List<String> flights) throws IOException {
+        long nextSequence = sequence + 1;
+        String payload = objectMapper.writeValueAsString(
+            new Batch(nodeId, nextSequence, seats, baggage, bookings, flights));
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES
+            && seats.size() + baggage.size() + bookings.size() + flights.size() > 1) {
+            int seatHalf = seats.size() / 2;
+            int baggageHalf = baggage.size() / 2;
+            int bookingsHalf = bookings.size() / 2;
+            int flightsHalf = flights.size() / 2;
+            send(seats.subList(0, seatHalf), baggage.subList(0, baggageHalf), bookings.subList(0, bookingsHalf),
+                flights.subList(0, flightsHalf));
+            send(seats.subList(seatHalf, seats.size()), baggage.subList(baggageHalf, baggage.size()),
+                bookings.subList(bookingsHalf, bookings.size()), flights.subList(flightsHalf, flights.size()));
+            return;
+        }
+        sequence = nextSequence;
+        jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) ps -> {
+            ps.setString(1, channel);
+            ps.setString(2, payload);
+            return ps.execute();
+        });
+        sentCounter.increment();
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                    statement.execute("LISTEN " + FLIGHT_CHANGES_CHANNEL);
+                }
+                if (reconnect) {
+                    log.info("Cluster event listener reconnected");
+                    lastSequenceByNode.clear();
+                    applicationEventPublisher.publishEvent(new SeatsResyncEvent());
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(500);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            if (FLIGHT_CHANGES_CHANNEL.equals(notification.getName())) {
+                                applicationEventPublisher.publishEvent(
+                                    new FlightsChangedEvent(List.of(notification.getParameter()), true));
+                            } else {
+                                receive(notification.getParameter());
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cluster event listener lost its connection: {}", e.getMessage());
+                reconnect = true;
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        Batch batch;
+        try {
+            batch = objectMapper.readValue(payload, Batch.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cluster event payload: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(batch.n())) {
+            return;
+        }
+        receivedCounter.increment();
+        Long last = lastSequenceByNode.put(batch.n(), batch.q());
+        if (last != null && batch.q() != last + 1) {
+            gapCounter.increment();
+            log.warn("Cluster event gap from {}: expected {}, got {}", batch.n(), last + 1, batch.q());
+            applicationEventPublisher.publishEvent(new SeatsResyncEvent());
+        }
+
+        if (batch.s() != null) {
+            for (SeatChange change : batch.s()) {
+                SeatChangedEvent event = new SeatChangedEvent(change.f(), change.s(), change.st(), change.sid(), true);
+                kioskEventPublisher.broadcast(event);
+                applicationEventPublisher.publishEvent(event);
+            }
+        }
+        if (batch.b() != null) {
+            for (BaggageChange change : batch.b()) {
+                BaggageCountChangedEvent event = new BaggageCountChangedEvent(change.f(), change.c(), true);
+                kioskEventPublisher.broadcast(event);
+                applicationEventPublisher.publishEvent(event);
+            }
+        }
+        if (batch.k() != null) {
+            for (String flightId : batch.k()) {
+                applicationEventPublisher.publishEvent(new BookingsChangedEvent(flightId, true));
+            }
+        }
+        if (batch.c() != null && !batch.c().isEmpty()) {
+            applicationEventPublisher.publishEvent(
+                new FlightsChangedEvent(batch.c().contains(ALL_FLIGHTS) ? List.of() : batch.c(), true));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.airport.kiosk.event;
+
+import java.util.List;
+
+/**
+ * Published after departed flights were moved to the archive tables, so in-memory views of them can be dropped.
+ */
+public record FlightsArchivedEvent(List<String> flightIds) {
+}
@@ -0,0 +1,15 @@
+package com.airport.kiosk.event;
+
+import java.util.List;
+
+/**
+ * Published after flights (and their seats) were created or replaced in bulk, e.g. by a schedule import, or after
+ * a flight's departure moved to another day (the V14 trigger notifies it, see {@link ClusterEventRelay}).
+ * {@code flightIds} empty means any flight may have changed. See {@link SeatChangedEvent} for {@code remote}.
+ */
+public record FlightsChangedEvent(List<String> flightIds, boolean remote) {
+
+    public boolean includes(String flightId) {
+        return flightIds.isEmpty() || flightIds.contains(flightId);
+    }
+}
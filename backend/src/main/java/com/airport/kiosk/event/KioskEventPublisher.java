@@ -0,0 +1,132 @@
+package com.airport.kiosk.event;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import com.airport.kiosk.dto.FlightDashboardResponse;
+import com.airport.kiosk.model.Seat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Single place seat and baggage events leave the application: broadcasts them to this node's
+ * STOMP subscribers and publishes them as application events (picked up by
+ * {@link ClusterEventRelay} to reach the other nodes).
+ * Each event is serialized to JSON once; the broker hands the same bytes to every subscriber.
+ */
+@Component
+@RegisterReflectionForBinding({KioskEventPublisher.SeatPayload.class, KioskEventPublisher.BaggagePayload.class,
+    FlightDashboardResponse.class})
+public class KioskEventPublisher {
+
+    record SeatPayload(String flightId, String seatId, String status, String sessionId) {
+    }
+
+    record BaggagePayload(String flightId, int count) {
+    }
+
+    /**
+     * Kiosks reload their seat map and baggage count over REST when a message arrives here.
+     */
+    static final String RESYNC_DESTINATION = "/topic/resync";
+    private static final byte[] RESYNC_PAYLOAD = "{\"resync\":true}".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectWriter seatWriter;
+    private final ObjectWriter baggageWriter;
+    private final ObjectWriter dashboardWriter;
+
+    public KioskEventPublisher(SimpMessagingTemplate messagingTemplate,
+                               ApplicationEventPublisher applicationEventPublisher, ObjectMapper objectMapper) {
+        this.messagingTemplate = messagingTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+        // Writers bound to the payload type resolve their serializer once, not per event
+        this.seatWriter = objectMapper.writerFor(SeatPayload.class);
+        this.baggageWriter = objectMapper.writerFor(BaggagePayload.class);
+        this.dashboardWriter = objectMapper.writerFor(FlightDashboardResponse.class);
+    }
+
+    public void seatChanged(String flightId, String seatId, Seat.SeatStatus status, String sessionId) {
+        SeatChangedEvent event = new SeatChangedEvent(flightId, seatId, status.name(), sessionId, false);
+        broadcast(event);
+        applicationEventPublisher.publishEvent(event);
+    }
+
+    public void baggageCountChanged(String flightId, int count) {
+        BaggageCountChangedEvent event = new BaggageCountChangedEvent(flightId, count, false);
+        broadcast(event);
+        applicationEventPublisher.publishEvent(event);
+    }
+
+    /**
+     * Send to local STOMP subscribers only.
+     */
+    public void broadcast(SeatChangedEvent event) {
+        send("/topic/flights/" + event.flightId() + "/seats", toJson(event));
+    }
+
+    /**
+     * Send to local STOMP subscribers only.
+     */
+    public void broadcast(BaggageCountChangedEvent event) {
+        send("/topic/flights/" + event.flightId() + "/baggage", toJson(event));
+    }
+
+    /**
+     * Send a flight's dashboard figures to local STOMP subscribers only; every node keeps its own
+     * (see {@link com.airport.kiosk.service.FlightDashboardService}).
+     */
+    public void broadcast(FlightDashboardResponse dashboard) {
+        send("/topic/flights/" + dashboard.flightId() + "/dashboard",
+            serialize(dashboardWriter, dashboard, dashboard.flightId()));
+    }
+
+    /**
+     * Events from other nodes may have been missed (relay reconnect or sequence gap); the broker
+     * does not replay them, so local STOMP subscribers are told to reload instead.
+     */
+    @EventListener
+    public void onSeatsResync(SeatsResyncEvent event) {
+        send(RESYNC_DESTINATION, RESYNC_PAYLOAD);
+    }
+
+    /**
+     * The JSON payload subscribers receive for a seat event.
+     */
+    public byte[] toJson(SeatChangedEvent event) {
+        return serialize(seatWriter,
+            new SeatPayload(event.flightId(), event.seatId(), event.status(), event.sessionId()), event.flightId());
+    }
+
+    /**
+     * The JSON payload subscribers receive for a baggage event.
+     */
+    public byte[] toJson(BaggageCountChangedEvent event) {
+        return serialize(baggageWriter, new BaggagePayload(event.flightId(), event.count()), event.flightId());
+    }
+
+    private byte[] serialize(ObjectWriter writer, Object payload, String flightId) {
+        try {
+            return writer.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize event for flight " + flightId, e);
+        }
+    }
+
+    private void send(String destination, byte[] json) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setLeaveMutable(true);
+        messagingTemplate.send(destination, MessageBuilder.createMessage(json, headers.getMessageHeaders()));
+    }
+}
@@ -0,0 +1,8 @@
+package com.airport.kiosk.event;
+
+/**
+ * A seat changed status. {@code remote} events were received from another node through
+ * {@link ClusterEventRelay} and have already been applied to the database there.
+ */
+public record SeatChangedEvent(String flightId, String seatId, String status, String sessionId, boolean remote) {
+}
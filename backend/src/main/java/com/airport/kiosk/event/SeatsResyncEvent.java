@@ -0,0 +1,8 @@
+package com.airport.kiosk.event;
+
+/**
+ * Published when cluster events may have been missed (sequence gap or listener reconnect),
+ * so in-memory seat views of all flights must be rebuilt from the database.
+ */
+public record SeatsResyncEvent() {
+}
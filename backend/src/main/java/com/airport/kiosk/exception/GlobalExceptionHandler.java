@@ -10,31 +10,31 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 public class GlobalExceptionHandler {
     
     @ExceptionHandler(SeatNotFoundException.class)
-    public ResponseEntity<ApiResponse<Object>> handleSeatNotFoundException(SeatNotFoundException e) {
+    public ResponseEntity<ApiResponse<Void>> handleSeatNotFoundException(SeatNotFoundException e) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
             .body(ApiResponse.error(e.getMessage(), "SEAT_NOT_FOUND"));
     }
     
     @ExceptionHandler(BookingNotFoundException.class)
-    public ResponseEntity<ApiResponse<Object>> handleBookingNotFoundException(BookingNotFoundException e) {
+    public ResponseEntity<ApiResponse<Void>> handleBookingNotFoundException(BookingNotFoundException e) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
             .body(ApiResponse.error(e.getMessage(), "BOOKING_NOT_FOUND"));
     }
     
     @ExceptionHandler(FlightNotFoundException.class)
-    public ResponseEntity<ApiResponse<Object>> handleFlightNotFoundException(FlightNotFoundException e) {
+    public ResponseEntity<ApiResponse<Void>> handleFlightNotFoundException(FlightNotFoundException e) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
             .body(ApiResponse.error(e.getMessage(), "FLIGHT_NOT_FOUND"));
     }
     
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<ApiResponse<Object>> handleIllegalArgumentException(IllegalArgumentException e) {
+    public ResponseEntity<ApiResponse<Void>> handleIllegalArgumentException(IllegalArgumentException e) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
             .body(ApiResponse.error(e.getMessage(), "INVALID_INPUT"));
     }
     
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ApiResponse<Object>> handleGenericException(Exception e) {
+    public ResponseEntity<ApiResponse<Void>> handleGenericException(Exception e) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
             .body(ApiResponse.error("An unexpected error occurred: " + e.getMessage(), "INTERNAL_ERROR"));
     }
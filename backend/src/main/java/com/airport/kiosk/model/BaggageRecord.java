@@ -5,7 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.PartitionKey;
+
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -25,6 +28,11 @@ public class BaggageRecord {
     @Column(name = "flight_id", nullable = false, length = 50)
     private String flightId;
     
+    // Date of the flight's departure; partition key of the partitioned schema (V9_1)
+    @PartitionKey
+    @Column(name = "departure_date", nullable = false)
+    private LocalDate departureDate;
+    
     @Column(name = "baggage_weight", precision = 5, scale = 2)
     private BigDecimal baggageWeight;
     
@@ -5,6 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.PartitionKey;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -33,6 +36,11 @@ public class Booking {
     @Column(name = "flight_id", nullable = false, length = 50)
     private String flightId;
     
+    // Date of the flight's departure; partition key of the partitioned schema (V9_1)
+    @PartitionKey
+    @Column(name = "departure_date", nullable = false)
+    private LocalDate departureDate;
+    
     @Enumerated(EnumType.STRING)
     @Column(name = "booking_status", nullable = false)
     private BookingStatus bookingStatus = BookingStatus.CONFIRMED;
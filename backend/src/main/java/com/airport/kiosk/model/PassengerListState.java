@@ -0,0 +1,38 @@
+package com.airport.kiosk.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last PNL/ADL sequence applied per flight; older or repeated messages are skipped.
+ */
+@Entity
+@Table(name = "passenger_list_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PassengerListState {
+    
+    @Id
+    @Column(name = "flight_id", length = 50)
+    private String flightId;
+    
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+    
+    @Column(name = "last_message_type", nullable = false, length = 10)
+    private String lastMessageType;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,10 +1,15 @@
 package com.airport.kiosk.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.PartitionKey;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -43,6 +48,18 @@ public class Seat {
     @Column(name = "lock_expiry")
     private LocalDateTime lockExpiry;
     
+    // Booking that last gave up this seat, kept by a trigger (V12) for incremental manifests
+    @JsonIgnore
+    @Column(name = "released_booking_id", length = 50, insertable = false, updatable = false)
+    private String releasedBookingId;
+    
+    // Date of the flight's departure; partition key of the partitioned schema (V9_1).
+    // The same for every seat of a flight, so left out of the seat map JSON
+    @JsonIgnore
+    @PartitionKey
+    @Column(name = "departure_date", nullable = false)
+    private LocalDate departureDate;
+    
     @Version
     @Column(name = "version")
     private Long version = 0L;
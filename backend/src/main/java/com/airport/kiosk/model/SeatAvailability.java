@@ -0,0 +1,61 @@
+package com.airport.kiosk.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Seats of one class of a flight by status, adjusted in the transaction that changes the seats; booked seats are
+ * the RESERVED and OCCUPIED ones.
+ */
+@Entity
+@Table(name = "seat_availability")
+@IdClass(SeatAvailability.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatAvailability {
+
+    @Id
+    @Column(name = "flight_id", length = 50)
+    private String flightId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "seat_class", length = 20)
+    private Seat.SeatClass seatClass;
+
+    @Column(name = "departure_date", nullable = false)
+    private LocalDate departureDate;
+
+    @Column(name = "available_seats", nullable = false)
+    private int availableSeats;
+
+    @Column(name = "locked_seats", nullable = false)
+    private int lockedSeats;
+
+    @Column(name = "booked_seats", nullable = false)
+    private int bookedSeats;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String flightId;
+        private Seat.SeatClass seatClass;
+    }
+}
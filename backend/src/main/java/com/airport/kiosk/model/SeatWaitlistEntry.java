@@ -0,0 +1,51 @@
+package com.airport.kiosk.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A kiosk session queued for a seat another session holds; entries are served in {@code entryId} order.
+ */
+@Entity
+@Table(name = "seat_waitlist", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"seat_id", "departure_date", "session_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatWaitlistEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "entry_id")
+    private Long entryId;
+    
+    @Column(name = "flight_id", nullable = false, length = 50)
+    private String flightId;
+    
+    @Column(name = "seat_id", nullable = false, length = 50)
+    private String seatId;
+    
+    @Column(name = "departure_date", nullable = false)
+    private LocalDate departureDate;
+    
+    @Column(name = "session_id", nullable = false, length = 100)
+    private String sessionId;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Extended with the session's seat lease heartbeat; a lapsed entry is skipped and purged
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
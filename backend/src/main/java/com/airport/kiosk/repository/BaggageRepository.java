@@ -6,14 +6,31 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BaggageRepository extends JpaRepository<BaggageRecord, String> {
+    
+    /**
+     * Just what the in-memory dashboard aggregates keep per booking.
+     */
+    interface BagState {
+        String getFlightId();
+        String getBookingId();
+        Integer getBaggageCount();
+        BigDecimal getBaggageWeight();
+    }
+    
+    List<BagState> findStatesByFlightIdAndDepartureDate(String flightId, LocalDate departureDate);
+    
+    List<BagState> findStatesByDepartureDateBetween(LocalDate fromDate, LocalDate toDate);
+    
     Optional<BaggageRecord> findByBaggageId(String baggageId);
     List<BaggageRecord> findByBookingId(String bookingId);
-    List<BaggageRecord> findByFlightId(String flightId);
+    List<BaggageRecord> findByFlightIdAndDepartureDate(String flightId, LocalDate departureDate);
     Optional<BaggageRecord> findByTagNumber(String tagNumber);
     
     @Query("SELECT COUNT(b) FROM BaggageRecord b WHERE b.flightId = :flightId")
@@ -1,5 +1,7 @@
 package com.airport.kiosk.repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,19 +14,39 @@ import com.airport.kiosk.model.Booking;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, String> {
+    
+    /**
+     * Just what the in-memory passenger name index keeps per booking. A record rather than an interface
+     * projection: the index loads every booking of the coming days, and proxies cost more than the query.
+     */
+    record NameState(String flightId, LocalDate departureDate, String bookingId, String passengerName,
+                     Booking.BookingStatus bookingStatus) {
+    }
+    
+    List<NameState> findNamesByFlightIdAndDepartureDate(String flightId, LocalDate departureDate);
+    
+    List<NameState> findNamesByDepartureDateBetween(LocalDate fromDate, LocalDate toDate);
+    
     Optional<Booking> findByBookingId(String bookingId);
     
     // Case-insensitive search using native SQL with UPPER() function
     @Query(value = "SELECT * FROM bookings WHERE UPPER(booking_id) = UPPER(:bookingId)", nativeQuery = true)
     Optional<Booking> findByBookingIdIgnoreCase(@Param("bookingId") String bookingId);
     
+    // Same lookup holding the row lock until commit: check-ins of one booking run one after the other
+    @Query(value = "SELECT * FROM bookings WHERE UPPER(booking_id) = UPPER(:bookingId) FOR UPDATE", nativeQuery = true)
+    Optional<Booking> findByBookingIdIgnoreCaseForUpdate(@Param("bookingId") String bookingId);
+    
     Optional<Booking> findByPassportNumber(String passportNumber);
     
     // Case-insensitive search using native SQL with UPPER() function
     @Query(value = "SELECT * FROM bookings WHERE UPPER(passport_number) = UPPER(:passportNumber)", nativeQuery = true)
     Optional<Booking> findByPassportNumberIgnoreCase(@Param("passportNumber") String passportNumber);
     
-    // Get all bookings for a flight
-    List<Booking> findByFlightId(String flightId);
+    // Get all bookings for a flight (with its departure date, the partition key)
+    List<Booking> findByFlightIdAndDepartureDate(String flightId, LocalDate departureDate);
+    
+    // Bookings changed since an edge node's last snapshot (updated_at is set by the database trigger)
+    List<Booking> findByDepartureDateBetweenAndUpdatedAtGreaterThanEqual(LocalDate fromDate, LocalDate toDate, LocalDateTime since);
 }
 
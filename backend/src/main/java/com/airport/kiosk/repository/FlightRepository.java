@@ -1,5 +1,7 @@
 package com.airport.kiosk.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,17 +16,23 @@ import com.airport.kiosk.model.Flight;
 public interface FlightRepository extends JpaRepository<Flight, String> {
     Optional<Flight> findByFlightId(String flightId);
     
-    @Modifying
-    @Query("UPDATE Flight f SET f.availableSeats = f.availableSeats - 1 WHERE f.flightId = :flightId")
-    void decrementAvailableSeats(@Param("flightId") String flightId);
+    List<Flight> findAllByOrderByDepartureTimeAsc();
+    
+    List<Flight> findByDepartureTimeBetweenOrderByDepartureTimeAsc(LocalDateTime from, LocalDateTime to);
+    
+    @Query("SELECT f.departureTime FROM Flight f WHERE f.flightId = :flightId")
+    Optional<LocalDateTime> findDepartureTimeByFlightId(@Param("flightId") String flightId);
     
     @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query(value = "UPDATE flights SET baggage_count = baggage_count + :count WHERE flight_id = :flightId", nativeQuery = true)
     void incrementBaggageCount(@Param("flightId") String flightId, @Param("count") Integer count);
     
+    /**
+     * Seats not booked: total seats less the RESERVED and OCCUPIED ones; {@code AvailabilityReconciler} repairs drift.
+     */
     @Modifying
-    @Query("UPDATE Flight f SET f.availableSeats = f.availableSeats + 1 WHERE f.flightId = :flightId")
-    void incrementAvailableSeats(@Param("flightId") String flightId);
+    @Query("UPDATE Flight f SET f.availableSeats = f.availableSeats + :delta WHERE f.flightId = :flightId")
+    void adjustAvailableSeats(@Param("flightId") String flightId, @Param("delta") int delta);
     
     @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query(value = "UPDATE flights SET baggage_count = baggage_count - :count WHERE flight_id = :flightId", nativeQuery = true)
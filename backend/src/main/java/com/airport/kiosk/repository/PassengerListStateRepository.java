@@ -0,0 +1,9 @@
+package com.airport.kiosk.repository;
+
+import com.airport.kiosk.model.PassengerListState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PassengerListStateRepository extends JpaRepository<PassengerListState, String> {
+}
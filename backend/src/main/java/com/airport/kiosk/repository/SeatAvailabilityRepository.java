@@ -0,0 +1,26 @@
+package com.airport.kiosk.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.airport.kiosk.model.Seat;
+import com.airport.kiosk.model.SeatAvailability;
+
+@Repository
+public interface SeatAvailabilityRepository extends JpaRepository<SeatAvailability, SeatAvailability.Key> {
+
+    List<SeatAvailability> findByFlightId(String flightId);
+
+    /**
+     * Move seats between the counters of a flight's class.
+     * @return 0 if the flight has no counters for the class yet
+     */
+    @Modifying
+    @Query("UPDATE SeatAvailability a SET a.availableSeats = a.availableSeats + :available, a.lockedSeats = a.lockedSeats + :locked, a.bookedSeats = a.bookedSeats + :booked, a.updatedAt = LOCAL DATETIME WHERE a.flightId = :flightId AND a.seatClass = :seatClass")
+    int adjust(@Param("flightId") String flightId, @Param("seatClass") Seat.SeatClass seatClass, @Param("available") int available, @Param("locked") int locked, @Param("booked") int booked);
+}
@@ -1,29 +1,97 @@
 package com.airport.kiosk.repository;
 
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Flight;
 import com.airport.kiosk.model.Seat;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Every query carries the flight's departure date (the partition key), so on the partitioned schema
+ * PostgreSQL only searches that day's partition. See {@link com.airport.kiosk.service.FlightService#getDepartureDate}.
+ */
 @Repository
 public interface SeatRepository extends JpaRepository<Seat, String> {
-    List<Seat> findByFlightId(String flightId);
     
-    @Query("SELECT s FROM Seat s WHERE s.flightId = :flightId AND s.seatId = :seatId")
-    Optional<Seat> findByFlightIdAndSeatId(@Param("flightId") String flightId, @Param("seatId") String seatId);
+    /**
+     * Just what the in-memory dashboard aggregates keep per seat.
+     */
+    interface SeatState {
+        String getFlightId();
+        LocalDate getDepartureDate();
+        String getSeatId();
+        Seat.SeatClass getSeatClass();
+        Seat.SeatStatus getSeatStatus();
+    }
     
-    @Query("SELECT s FROM Seat s WHERE s.flightId = :flightId AND s.lockExpiry < :now AND s.seatStatus = 'LOCKED'")
-    List<Seat> findExpiredLocks(@Param("flightId") String flightId, @Param("now") LocalDateTime now);
+    List<SeatState> findStatesByFlightIdAndDepartureDate(String flightId, LocalDate departureDate);
     
-    @Query("SELECT COUNT(s) FROM Seat s WHERE s.flightId = :flightId AND s.seatStatus = 'AVAILABLE'")
-    Long countAvailableSeatsByFlightId(@Param("flightId") String flightId);
+    List<SeatState> findStatesByDepartureDateBetween(LocalDate fromDate, LocalDate toDate);
     
-    @Query("SELECT s FROM Seat s WHERE s.flightId = :flightId AND s.bookingId IS NOT NULL AND UPPER(s.bookingId) = UPPER(:bookingId) AND s.seatStatus = 'RESERVED'")
-    List<Seat> findByFlightIdAndBookingIdAndReserved(@Param("flightId") String flightId, @Param("bookingId") String bookingId);
+    List<Seat> findByFlightIdAndDepartureDate(String flightId, LocalDate departureDate);
+    
+    List<Seat> findByBookingIdAndDepartureDate(String bookingId, LocalDate departureDate);
+    
+    // Seats changed since an edge node's last snapshot (updated_at is set by the database trigger)
+    List<Seat> findByDepartureDateBetweenAndUpdatedAtGreaterThanEqual(LocalDate fromDate, LocalDate toDate, LocalDateTime since);
+    
+    @Query("SELECT s FROM Seat s WHERE s.departureDate = :departureDate AND s.seatId IN :seatIds")
+    List<Seat> findAllByIdAndDepartureDate(@Param("seatIds") Collection<String> seatIds, @Param("departureDate") LocalDate departureDate);
+    
+    @Query("SELECT s FROM Seat s WHERE s.flightId = :flightId AND s.departureDate = :departureDate AND s.seatId = :seatId")
+    Optional<Seat> findByFlightIdAndSeatId(@Param("flightId") String flightId, @Param("departureDate") LocalDate departureDate, @Param("seatId") String seatId);
+    
+    @Query("SELECT s FROM Seat s WHERE s.flightId = :flightId AND s.departureDate = :departureDate AND s.lockExpiry < :now AND s.seatStatus = 'LOCKED'")
+    List<Seat> findExpiredLocks(@Param("flightId") String flightId, @Param("departureDate") LocalDate departureDate, @Param("now") LocalDateTime now);
+    
+    /**
+     * Expired locks of all flights departing on or after {@code fromDate}.
+     */
+    @Query("SELECT s FROM Seat s WHERE s.departureDate >= :fromDate AND s.lockExpiry < :now AND s.seatStatus = 'LOCKED'")
+    List<Seat> findExpiredLocksFrom(@Param("fromDate") LocalDate fromDate, @Param("now") LocalDateTime now);
+    
+    /**
+     * Extend the unexpired locks held by the sessions. A lease renewal is not a seat change: the version stays.
+     */
+    @Modifying
+    @Query("UPDATE Seat s SET s.lockExpiry = :expiresAt WHERE s.departureDate >= :fromDate AND s.seatStatus = 'LOCKED' AND s.lockedBy IN :sessionIds AND s.lockExpiry >= :now")
+    int renewLocks(@Param("sessionIds") Collection<String> sessionIds, @Param("fromDate") LocalDate fromDate, @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Query("SELECT s FROM Seat s WHERE s.departureDate >= :fromDate AND s.seatStatus = 'LOCKED' AND s.lockedBy IN :sessionIds AND s.lockExpiry >= :expiresAt")
+    List<Seat> findLocksHeldUntil(@Param("sessionIds") Collection<String> sessionIds, @Param("fromDate") LocalDate fromDate, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Available seats of one class, counted while a flight has no availability counters yet.
+     */
+    interface ClassCount {
+        Seat.SeatClass getSeatClass();
+        long getSeats();
+    }
+    
+    @Query("SELECT s.seatClass AS seatClass, COUNT(s) AS seats FROM Seat s WHERE s.flightId = :flightId AND s.departureDate = :departureDate AND s.seatStatus = 'AVAILABLE' GROUP BY s.seatClass")
+    List<ClassCount> countAvailableByClass(@Param("flightId") String flightId, @Param("departureDate") LocalDate departureDate);
+    
+    @Query("SELECT s FROM Seat s WHERE s.flightId = :flightId AND s.departureDate = :departureDate AND s.bookingId IS NOT NULL AND UPPER(TRIM(s.bookingId)) = UPPER(:bookingId) AND s.seatStatus = 'RESERVED'")
+    List<Seat> findByFlightIdAndBookingIdAndReserved(@Param("flightId") String flightId, @Param("departureDate") LocalDate departureDate, @Param("bookingId") String bookingId);
+    
+    /**
+     * A reserved seat with its booking (null if it is gone) and flight.
+     */
+    interface Assignment {
+        Seat getSeat();
+        Booking getBooking();
+        Flight getFlight();
+    }
+    
+    @Query("SELECT s AS seat, b AS booking, f AS flight FROM Seat s JOIN Flight f ON f.flightId = s.flightId LEFT JOIN Booking b ON b.bookingId = s.bookingId AND b.departureDate = s.departureDate WHERE s.flightId = :flightId AND s.departureDate = :departureDate AND s.seatStatus = 'RESERVED' AND s.bookingId IS NOT NULL")
+    List<Assignment> findAssignments(@Param("flightId") String flightId, @Param("departureDate") LocalDate departureDate);
 }
-
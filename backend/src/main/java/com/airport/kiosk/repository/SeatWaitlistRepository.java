@@ -0,0 +1,39 @@
+package com.airport.kiosk.repository;
+
+import com.airport.kiosk.model.SeatWaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SeatWaitlistRepository extends JpaRepository<SeatWaitlistEntry, Long> {
+    
+    /**
+     * The seat's queue in serving order, without lapsed entries.
+     */
+    @Query("SELECT e FROM SeatWaitlistEntry e WHERE e.seatId = :seatId AND e.departureDate = :departureDate AND e.expiresAt >= :now ORDER BY e.entryId")
+    List<SeatWaitlistEntry> findQueue(@Param("seatId") String seatId, @Param("departureDate") LocalDate departureDate, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM SeatWaitlistEntry e WHERE e.seatId = :seatId AND e.departureDate = :departureDate AND e.sessionId = :sessionId")
+    int deleteEntry(@Param("seatId") String seatId, @Param("departureDate") LocalDate departureDate, @Param("sessionId") String sessionId);
+    
+    @Modifying
+    @Query("DELETE FROM SeatWaitlistEntry e WHERE e.flightId = :flightId AND e.departureDate = :departureDate AND e.sessionId = :sessionId")
+    int deleteSessionEntries(@Param("flightId") String flightId, @Param("departureDate") LocalDate departureDate, @Param("sessionId") String sessionId);
+    
+    @Modifying
+    @Query("DELETE FROM SeatWaitlistEntry e WHERE e.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE SeatWaitlistEntry e SET e.expiresAt = :expiresAt WHERE e.sessionId IN :sessionIds AND e.expiresAt >= :now")
+    int renewEntries(@Param("sessionIds") Collection<String> sessionIds, @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+}
@@ -0,0 +1,73 @@
+package com.airport.kiosk.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD concurrency limit driven by observed request latency: every sample under the target
+ * grows the limit by one per "limit" samples (additive increase), a sample over the target
+ * shrinks it by 10% at most once per backoff window (multiplicative decrease).
+ * All state is atomic; no locks on the request path.
+ */
+class AdaptiveConcurrencyLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final long backoffWindowNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger successSinceIncrease = new AtomicInteger();
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(System.nanoTime());
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffWindowNanos = latencyTargetNanos;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+    }
+
+    /**
+     * Reserve a slot if fewer than {@code share} of the current limit are in use.
+     */
+    boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit.get() * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long latencyNanos, long nowNanos) {
+        int current = inFlight.getAndDecrement();
+        if (latencyNanos > latencyTargetNanos) {
+            long last = lastDecreaseNanos.get();
+            if (nowNanos - last >= backoffWindowNanos && lastDecreaseNanos.compareAndSet(last, nowNanos)) {
+                limit.updateAndGet(l -> Math.max(minLimit, (int) (l * BACKOFF_RATIO)));
+            }
+            return;
+        }
+        // Only grow while the limit is actually being used
+        int l = limit.get();
+        if (current * 2 >= l && successSinceIncrease.incrementAndGet() >= l) {
+            successSinceIncrease.set(0);
+            limit.compareAndSet(l, Math.min(maxLimit, l + 1));
+        }
+    }
+
+    int getLimit() {
+        return limit.get();
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,157 @@
+package com.airport.kiosk.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Admission control for the seat endpoints, complete check-in and batches. A request is admitted only if
+ * <ol>
+ *   <li>its kiosk (session) token bucket has a token ({@code kiosk.admission.kiosk-rate/-burst})</li>
+ *   <li>its flight token bucket has a token ({@code kiosk.admission.flight-rate/-burst}); confirms skip
+ *       this check so a passenger who already holds a lock can always finish</li>
+ *   <li>the adaptive concurrency limit has room for its lane: confirms may use the whole limit, locks 80%
+ *       and seat-map polls 50%, so under load polls are shed first and confirms last</li>
+ * </ol>
+ * Rejections are cheap (no queueing) and carry a retry-after hint. A request rejected by a later check gets back
+ * the tokens an earlier one took, so it does not count against its kiosk or flight.
+ */
+@Service
+public class AdmissionControlService {
+
+    public enum Lane {
+        CONFIRM(1.0), LOCK(0.8), POLL(0.5);
+
+        private final double concurrencyShare;
+
+        Lane(double concurrencyShare) {
+            this.concurrencyShare = concurrencyShare;
+        }
+    }
+
+    public record Decision(boolean admitted, long retryAfterMillis, String reason) {
+
+        private static final Decision ADMITTED = new Decision(true, 0, null);
+    }
+
+    private final Map<String, TokenBucket> kioskBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> flightBuckets = new ConcurrentHashMap<>();
+    /** Rejection counters by reason and lane, registered on first use */
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final MeterRegistry meterRegistry;
+    private final Timer latencyTimer;
+    private final double kioskRate;
+    private final int kioskBurst;
+    private final double flightRate;
+    private final int flightBurst;
+    private final long concurrencyRetryAfterMillis;
+
+    public AdmissionControlService(MeterRegistry meterRegistry,
+                                   @Value("${kiosk.admission.kiosk-rate:10}") double kioskRate,
+                                   @Value("${kiosk.admission.kiosk-burst:20}") int kioskBurst,
+                                   @Value("${kiosk.admission.flight-rate:200}") double flightRate,
+                                   @Value("${kiosk.admission.flight-burst:400}") int flightBurst,
+                                   @Value("${kiosk.admission.initial-limit:50}") int initialLimit,
+                                   @Value("${kiosk.admission.min-limit:5}") int minLimit,
+                                   @Value("${kiosk.admission.max-limit:200}") int maxLimit,
+                                   @Value("${kiosk.admission.latency-target:PT0.25S}") Duration latencyTarget) {
+        this.meterRegistry = meterRegistry;
+        this.kioskRate = kioskRate;
+        this.kioskBurst = kioskBurst;
+        this.flightRate = flightRate;
+        this.flightBurst = flightBurst;
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, latencyTarget.toNanos());
+        this.concurrencyRetryAfterMillis = Math.max(1, latencyTarget.toMillis());
+        this.latencyTimer = Timer.builder("kiosk.admission.latency")
+            .description("Latency of admitted seat requests, drives the adaptive concurrency limit")
+            .register(meterRegistry);
+        meterRegistry.gauge("kiosk.admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit);
+        meterRegistry.gauge("kiosk.admission.inflight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight);
+    }
+
+    /**
+     * Decide whether to admit a request. An admitted request must be followed by {@link #release}.
+     */
+    public Decision tryAdmit(String kioskId, String flightId, Lane lane, long nowNanos) {
+        return tryAdmit(kioskId, 1, flightId != null ? Map.of(flightId, 1) : Map.of(), lane, nowNanos);
+    }
+
+    /**
+     * Decide whether to admit a request that carries several seat operations, such as a batch: it takes
+     * {@code kioskTokens} from the kiosk's bucket and the given tokens from each flight's bucket, but one
+     * concurrency slot. An admitted request must be followed by {@link #release}.
+     */
+    public Decision tryAdmit(String kioskId, int kioskTokens, Map<String, Integer> flightTokens, Lane lane,
+                             long nowNanos) {
+        TokenBucket kioskBucket = kioskBuckets.computeIfAbsent(kioskId, k -> new TokenBucket(kioskRate, kioskBurst));
+        long waitNanos = kioskBucket.tryAcquire(nowNanos, kioskTokens);
+        if (waitNanos > 0) {
+            return reject("kiosk", lane, waitNanos);
+        }
+        // A later rejection gives back the tokens already taken, so rejected requests cost the kiosk nothing
+        List<Map.Entry<TokenBucket, Integer>> taken = new ArrayList<>(flightTokens.size() + 1);
+        taken.add(Map.entry(kioskBucket, kioskTokens));
+        if (lane != Lane.CONFIRM) {
+            for (Map.Entry<String, Integer> entry : flightTokens.entrySet()) {
+                TokenBucket flightBucket = flightBuckets.computeIfAbsent(entry.getKey(),
+                    k -> new TokenBucket(flightRate, flightBurst));
+                waitNanos = flightBucket.tryAcquire(nowNanos, entry.getValue());
+                if (waitNanos > 0) {
+                    refund(taken);
+                    return reject("flight", lane, waitNanos);
+                }
+                taken.add(Map.entry(flightBucket, entry.getValue()));
+            }
+        }
+        if (!concurrencyLimit.tryAcquire(lane.concurrencyShare)) {
+            refund(taken);
+            return reject("concurrency", lane, TimeUnit.MILLISECONDS.toNanos(concurrencyRetryAfterMillis));
+        }
+        return Decision.ADMITTED;
+    }
+
+    public void release(long startNanos) {
+        long now = System.nanoTime();
+        long latency = now - startNanos;
+        latencyTimer.record(latency, TimeUnit.NANOSECONDS);
+        concurrencyLimit.release(latency, now);
+    }
+
+    /**
+     * Drop buckets that have been idle (and therefore full) for a minute.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        long idleSince = System.nanoTime() - TimeUnit.MINUTES.toNanos(1);
+        kioskBuckets.values().removeIf(bucket -> bucket.isIdleSince(idleSince));
+        flightBuckets.values().removeIf(bucket -> bucket.isIdleSince(idleSince));
+    }
+
+    private static void refund(List<Map.Entry<TokenBucket, Integer>> taken) {
+        for (Map.Entry<TokenBucket, Integer> entry : taken) {
+            entry.getKey().refund(entry.getValue());
+        }
+    }
+
+    private Decision reject(String reason, Lane lane, long waitNanos) {
+        rejectedCounters.computeIfAbsent(reason + "/" + lane, key -> Counter.builder("kiosk.admission.rejected")
+                .description("Seat requests rejected with 429 by admission control")
+                .tag("reason", reason)
+                .tag("lane", lane.name().toLowerCase())
+                .register(meterRegistry))
+            .increment();
+        return new Decision(false, Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)), reason);
+    }
+}
@@ -0,0 +1,329 @@
+package com.airport.kiosk.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.airport.kiosk.dto.FlightReconciliationResponse;
+import com.airport.kiosk.dto.ReconciliationResult;
+import com.airport.kiosk.exception.FlightNotFoundException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checks the figures kept incrementally beside the rows they summarize, and repairs those that drifted (a bug, a
+ * manual fix in the database, a change made before the counters existed):
+ * <ul>
+ *   <li>the per-class seat counters ({@link SeatAvailabilityService}) against the flight's seats</li>
+ *   <li>{@code flights.available_seats} against the flight's total seats less its booked seats</li>
+ *   <li>{@code flights.baggage_count} against the flight's baggage records</li>
+ * </ul>
+ * Every {@code kiosk.reconcile.interval-ms} the flights departing from yesterday on are checked
+ * {@code kiosk.reconcile.chunk-size} at a time on {@code kiosk.reconcile.parallelism} threads. A chunk is checked
+ * with one statement, so against one consistent snapshot, comparing per-flight signatures of each figure (the
+ * counters' {@code CLASS:available/locked/booked} list and the two totals) with the same computed from the rows;
+ * only flights that differ leave the database. Each of those is repaired in its own transaction that locks its
+ * flights row, then its counter rows (the order seat and baggage changes take them in), and counts again after
+ * the locks are granted, so a change committing meanwhile is neither lost nor counted twice.
+ * PostgreSQL only; off in the H2 test profile.
+ */
+@Slf4j
+@Service
+public class AvailabilityReconciler {
+
+    private static final String SEAT_COUNTERS = "seat-counters";
+    private static final String AVAILABLE_SEATS = "available-seats";
+    private static final String BAGGAGE_COUNT = "baggage-count";
+
+    private static final String LIVE_FLIGHTS_SQL =
+        "SELECT flight_id FROM flights WHERE departure_time >= ? ORDER BY flight_id";
+
+    private static final String FIGURES_SQL =
+        "WITH f AS (SELECT flight_id, CAST(departure_time AS DATE) AS departure_date, total_seats, available_seats, "
+        + "COALESCE(baggage_count, 0) AS baggage_count FROM flights WHERE flight_id = ANY (?)), "
+        + "seat_counts AS (SELECT s.flight_id, CAST(s.seat_class AS VARCHAR) AS seat_class, "
+        + "COUNT(*) FILTER (WHERE s.seat_status = 'AVAILABLE') AS available, "
+        + "COUNT(*) FILTER (WHERE s.seat_status = 'LOCKED') AS locked, "
+        + "COUNT(*) FILTER (WHERE s.seat_status IN ('RESERVED', 'OCCUPIED')) AS booked "
+        + "FROM seats s JOIN f ON f.flight_id = s.flight_id AND f.departure_date = s.departure_date "
+        + "GROUP BY s.flight_id, s.seat_class), "
+        + "seat_sums AS (SELECT flight_id, SUM(booked) AS booked, STRING_AGG(seat_class || ':' || available || '/' "
+        + "|| locked || '/' || booked, ' ' ORDER BY seat_class) AS signature FROM seat_counts GROUP BY flight_id), "
+        + "counter_sums AS (SELECT a.flight_id, STRING_AGG(a.seat_class || ':' || a.available_seats || '/' "
+        + "|| a.locked_seats || '/' || a.booked_seats, ' ' ORDER BY a.seat_class) AS signature "
+        + "FROM seat_availability a JOIN f ON f.flight_id = a.flight_id GROUP BY a.flight_id), "
+        + "bags AS (SELECT r.flight_id, SUM(r.baggage_count) AS bags FROM baggage_records r "
+        + "JOIN f ON f.flight_id = r.flight_id AND f.departure_date = r.departure_date GROUP BY r.flight_id) "
+        + "SELECT f.flight_id, COALESCE(c.signature, '') AS seat_counters, COALESCE(s.signature, '') AS seats, "
+        + "f.available_seats, GREATEST(f.total_seats - COALESCE(s.booked, 0), 0) AS expected_available_seats, "
+        + "f.baggage_count, COALESCE(b.bags, 0) AS recorded_bags FROM f "
+        + "LEFT JOIN seat_sums s ON s.flight_id = f.flight_id "
+        + "LEFT JOIN counter_sums c ON c.flight_id = f.flight_id "
+        + "LEFT JOIN bags b ON b.flight_id = f.flight_id";
+
+    private static final String DRIFTED_SQL = "SELECT flight_id FROM (" + FIGURES_SQL + ") figures "
+        + "WHERE seat_counters <> seats OR available_seats <> expected_available_seats "
+        + "OR baggage_count <> recorded_bags";
+
+    private static final String LOCK_FLIGHT_SQL =
+        "SELECT CAST(departure_time AS DATE) AS departure_date, total_seats, available_seats, "
+        + "COALESCE(baggage_count, 0) AS baggage_count FROM flights WHERE flight_id = ? FOR UPDATE";
+
+    // Same order as SeatAvailabilityService applies a transaction's counter moves in
+    private static final String LOCK_COUNTERS_SQL =
+        "SELECT seat_class, available_seats, locked_seats, booked_seats FROM seat_availability "
+        + "WHERE flight_id = ? ORDER BY seat_class FOR UPDATE";
+
+    private static final String COUNT_SEATS_SQL =
+        "SELECT CAST(seat_class AS VARCHAR) AS seat_class, "
+        + "COUNT(*) FILTER (WHERE seat_status = 'AVAILABLE') AS available, "
+        + "COUNT(*) FILTER (WHERE seat_status = 'LOCKED') AS locked, "
+        + "COUNT(*) FILTER (WHERE seat_status IN ('RESERVED', 'OCCUPIED')) AS booked "
+        + "FROM seats WHERE flight_id = ? AND departure_date = ? GROUP BY seat_class";
+
+    private static final String SUM_BAGS_SQL =
+        "SELECT COALESCE(SUM(baggage_count), 0) FROM baggage_records WHERE flight_id = ? AND departure_date = ?";
+
+    private static final String UPDATE_COUNTER_SQL =
+        "UPDATE seat_availability SET departure_date = ?, available_seats = ?, locked_seats = ?, booked_seats = ?, "
+        + "updated_at = LOCALTIMESTAMP WHERE flight_id = ? AND seat_class = ?";
+
+    private static final String INSERT_COUNTER_SQL =
+        "INSERT INTO seat_availability (departure_date, available_seats, locked_seats, booked_seats, updated_at, "
+        + "flight_id, seat_class) VALUES (?, ?, ?, ?, LOCALTIMESTAMP, ?, ?)";
+
+    private static final String DELETE_COUNTER_SQL =
+        "DELETE FROM seat_availability WHERE flight_id = ? AND seat_class = ?";
+
+    private static final String UPDATE_FLIGHT_SQL =
+        "UPDATE flights SET available_seats = ?, baggage_count = ? WHERE flight_id = ?";
+
+    private record FlightFigures(LocalDate departureDate, int totalSeats, int availableSeats, int baggageCount) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate repairTransaction;
+    private final SeatAvailabilityService seatAvailabilityService;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final ExecutorService workers;
+    private final Counter flightCounter;
+    private final Timer passTimer;
+
+    public AvailabilityReconciler(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  SeatAvailabilityService seatAvailabilityService, MeterRegistry meterRegistry,
+                                  @Value("${kiosk.reconcile.enabled:true}") boolean enabled,
+                                  @Value("${kiosk.reconcile.chunk-size:50}") int chunkSize,
+                                  @Value("${kiosk.reconcile.parallelism:2}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.repairTransaction = new TransactionTemplate(transactionManager);
+        this.seatAvailabilityService = seatAvailabilityService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, parallelism),
+            r -> new Thread(r, "reconciler-" + threads.incrementAndGet()));
+        this.flightCounter = meterRegistry.counter("kiosk.reconcile.flights");
+        this.passTimer = meterRegistry.timer("kiosk.reconcile.pass");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Scheduled(initialDelayString = "${kiosk.reconcile.interval-ms:60000}",
+               fixedDelayString = "${kiosk.reconcile.interval-ms:60000}")
+    public void reconcileScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Reconciling availability and baggage counts failed", e);
+        }
+    }
+
+    /**
+     * Check the flights departing from yesterday on (and any whose counters were missing) and repair drift.
+     * A pass started while another runs waits for it.
+     */
+    public synchronized ReconciliationResult reconcile() {
+        long start = System.nanoTime();
+        TreeSet<String> flightIds = new TreeSet<>(seatAvailabilityService.drainUncountedFlights());
+        flightIds.addAll(jdbcTemplate.queryForList(LIVE_FLIGHTS_SQL, String.class,
+            LocalDate.now().minusDays(1).atStartOfDay()));
+
+        List<Callable<List<List<String>>>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>(chunkSize);
+        for (String flightId : flightIds) {
+            chunk.add(flightId);
+            if (chunk.size() == chunkSize) {
+                chunks.add(checkTask(chunk));
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(checkTask(chunk));
+        }
+
+        List<List<String>> repairs = new ArrayList<>();
+        try {
+            for (Future<List<List<String>>> result : workers.invokeAll(chunks)) {
+                try {
+                    repairs.addAll(result.get());
+                } catch (ExecutionException e) {
+                    log.warn("Reconciling a chunk of flights failed: {}", e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int flightsRepaired = 0;
+        Map<String, Integer> repaired = new TreeMap<>();
+        for (List<String> figures : repairs) {
+            if (!figures.isEmpty()) {
+                flightsRepaired++;
+            }
+            for (String figure : figures) {
+                repaired.merge(figure, 1, Integer::sum);
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        passTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        flightCounter.increment(flightIds.size());
+        if (flightsRepaired > 0) {
+            log.info("Reconciled {} flights in {} ms: repaired {} ({})", flightIds.size(), elapsedNanos / 1_000_000,
+                flightsRepaired, repaired);
+        }
+        return new ReconciliationResult(flightIds.size(), flightsRepaired, repaired.getOrDefault(SEAT_COUNTERS, 0),
+            repaired.getOrDefault(AVAILABLE_SEATS, 0), repaired.getOrDefault(BAGGAGE_COUNT, 0),
+            elapsedNanos / 1_000_000);
+    }
+
+    /**
+     * The flight's figures as kept and as computed from its rows, without repairing them.
+     */
+    public FlightReconciliationResponse check(String flightId) {
+        List<FlightReconciliationResponse> figures = jdbcTemplate.query(FIGURES_SQL,
+            (rs, i) -> new FlightReconciliationResponse(rs.getString("flight_id"), rs.getString("seat_counters"),
+                rs.getString("seats"), rs.getInt("available_seats"), rs.getInt("expected_available_seats"),
+                rs.getInt("baggage_count"), rs.getInt("recorded_bags")),
+            (Object) new String[] {flightId});
+        if (figures.isEmpty()) {
+            throw new FlightNotFoundException("Flight not found: " + flightId);
+        }
+        return figures.get(0);
+    }
+
+    private Callable<List<List<String>>> checkTask(List<String> flightIds) {
+        Object ids = flightIds.toArray(String[]::new);
+        return () -> {
+            List<String> drifted = jdbcTemplate.queryForList(DRIFTED_SQL, String.class, ids);
+            List<List<String>> repairs = new ArrayList<>(drifted.size());
+            for (String flightId : drifted) {
+                repairs.add(repair(flightId));
+            }
+            return repairs;
+        };
+    }
+
+    /**
+     * @return the figures repaired, as tagged on kiosk.reconcile.drift; none if another node repaired them first
+     */
+    private List<String> repair(String flightId) {
+        List<String> changes = new ArrayList<>();
+        List<String> figures = repairTransaction.execute(status -> {
+            List<FlightFigures> locked = jdbcTemplate.query(LOCK_FLIGHT_SQL,
+                (rs, i) -> new FlightFigures(rs.getObject("departure_date", LocalDate.class), rs.getInt("total_seats"),
+                    rs.getInt("available_seats"), rs.getInt("baggage_count")), flightId);
+            if (locked.isEmpty()) {
+                return List.<String>of();
+            }
+            FlightFigures flight = locked.get(0);
+            LocalDate departureDate = flight.departureDate();
+
+            Map<String, List<Integer>> counters = new TreeMap<>();
+            jdbcTemplate.query(LOCK_COUNTERS_SQL, rs -> {
+                counters.put(rs.getString("seat_class"),
+                    List.of(rs.getInt("available_seats"), rs.getInt("locked_seats"), rs.getInt("booked_seats")));
+            }, flightId);
+
+            // Counted after the locks are held: every change that committed before them is included
+            Map<String, List<Integer>> seats = new TreeMap<>();
+            jdbcTemplate.query(COUNT_SEATS_SQL, rs -> {
+                seats.put(rs.getString("seat_class"),
+                    List.of(rs.getInt("available"), rs.getInt("locked"), rs.getInt("booked")));
+            }, flightId, departureDate);
+            Integer recordedBags = jdbcTemplate.queryForObject(SUM_BAGS_SQL, Integer.class, flightId, departureDate);
+            int bookedSeats = seats.values().stream().mapToInt(counts -> counts.get(2)).sum();
+            int expectedAvailableSeats = Math.max(flight.totalSeats() - bookedSeats, 0);
+            int bags = recordedBags != null ? recordedBags : 0;
+
+            List<String> repaired = new ArrayList<>();
+            if (!counters.equals(seats)) {
+                for (Map.Entry<String, List<Integer>> entry : seats.entrySet()) {
+                    List<Integer> counts = entry.getValue();
+                    if (!counts.equals(counters.get(entry.getKey()))) {
+                        jdbcTemplate.update(counters.containsKey(entry.getKey()) ? UPDATE_COUNTER_SQL
+                                : INSERT_COUNTER_SQL, departureDate, counts.get(0), counts.get(1), counts.get(2),
+                            flightId, entry.getKey());
+                    }
+                }
+                for (String seatClass : counters.keySet()) {
+                    if (!seats.containsKey(seatClass)) {
+                        jdbcTemplate.update(DELETE_COUNTER_SQL, flightId, seatClass);
+                    }
+                }
+                repaired.add(SEAT_COUNTERS);
+                changes.add("seat counters " + counters + " -> " + seats);
+            }
+            if (flight.availableSeats() != expectedAvailableSeats || flight.baggageCount() != bags) {
+                jdbcTemplate.update(UPDATE_FLIGHT_SQL, expectedAvailableSeats, bags, flightId);
+                if (flight.availableSeats() != expectedAvailableSeats) {
+                    repaired.add(AVAILABLE_SEATS);
+                    changes.add("available seats " + flight.availableSeats() + " -> " + expectedAvailableSeats);
+                }
+                if (flight.baggageCount() != bags) {
+                    repaired.add(BAGGAGE_COUNT);
+                    changes.add("baggage count " + flight.baggageCount() + " -> " + bags);
+                }
+            }
+            return repaired;
+        });
+        List<String> repaired = Objects.requireNonNullElse(figures, List.of());
+        for (String figure : repaired) {
+            meterRegistry.counter("kiosk.reconcile.drift", "figure", figure).increment();
+        }
+        if (!repaired.isEmpty()) {
+            log.warn("Repaired drift of flight {}: {}", flightId, String.join(", ", changes));
+        }
+        return repaired;
+    }
+}
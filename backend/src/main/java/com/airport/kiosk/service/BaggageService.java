@@ -2,15 +2,14 @@ package com.airport.kiosk.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.airport.kiosk.dto.FlightBaggageResponse;
+import com.airport.kiosk.event.KioskEventPublisher;
 import com.airport.kiosk.exception.FlightNotFoundException;
 import com.airport.kiosk.model.BaggageRecord;
 import com.airport.kiosk.model.Flight;
@@ -25,18 +24,31 @@ public class BaggageService {
     
     private final FlightRepository flightRepository;
     private final BaggageRepository baggageRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final KioskEventPublisher kioskEventPublisher;
+    private final FlightDashboardService flightDashboardService;
     
     /**
      * Check in baggage for a passenger (passenger-wise: replaces old count if exists)
      * Uses synchronized method and REPEATABLE_READ isolation level
+     * @param tagNumber tag for a new record (one printed by an offline edge node), or null to generate one
      */
     @Transactional(isolation = Isolation.REPEATABLE_READ)
     public synchronized BaggageRecord checkInBaggage(String bookingId, String flightId, 
-                                                      BigDecimal weight, Integer count) {
+                                                      BigDecimal weight, Integer count, String tagNumber) {
         // Verify flight exists
         Flight flight = flightRepository.findByFlightId(flightId)
             .orElseThrow(() -> new FlightNotFoundException("Flight not found: " + flightId));
+        return recordBaggage(flight, bookingId, weight, count, tagNumber);
+    }
+    
+    /**
+     * {@link #checkInBaggage} for an already resolved flight, without the service's lock: for callers that
+     * serialize check-ins of the booking themselves ({@link CheckInService} holds the booking's row lock)
+     */
+    @Transactional
+    public BaggageRecord recordBaggage(Flight flight, String bookingId, BigDecimal weight, Integer count,
+                                       String tagNumber) {
+        String flightId = flight.getFlightId();
         
         // Check if passenger already has a baggage record
         // IMPORTANT: Only ONE record per booking_id is allowed
@@ -78,9 +90,10 @@ public class BaggageService {
             baggage.setBaggageId(UUID.randomUUID().toString());
             baggage.setBookingId(bookingId);
             baggage.setFlightId(flightId);
+            baggage.setDepartureDate(flight.getDepartureTime().toLocalDate());
             baggage.setBaggageWeight(weight);
             baggage.setBaggageCount(count);
-            baggage.setTagNumber(generateTagNumber(flightId));
+            baggage.setTagNumber(tagNumber != null ? tagNumber : generateTagNumber(flightId));
             baggage.setCheckInTime(LocalDateTime.now());
         }
         
@@ -91,15 +104,12 @@ public class BaggageService {
         baggageRepository.save(baggage);
         
         // Refresh entity to get updated count
-        flight = flightRepository.findByFlightId(flightId)
+        Flight refreshed = flightRepository.findByFlightId(flightId)
             .orElseThrow(() -> new FlightNotFoundException("Flight not found: " + flightId));
         
         // Broadcast baggage count update
-        Map<String, Object> event = new HashMap<>();
-        event.put("flightId", flightId);
-        event.put("count", flight.getBaggageCount());
-        
-        messagingTemplate.convertAndSend("/topic/flights/" + flightId + "/baggage", event);
+        kioskEventPublisher.baggageCountChanged(flightId, refreshed.getBaggageCount());
+        flightDashboardService.baggageCheckedIn(flightId, bookingId, count, weight);
         
         return baggage;
     }
@@ -114,44 +124,23 @@ public class BaggageService {
     }
     
     /**
-     * Debug method to inspect baggage records and flight count
+     * Baggage records of a flight, one per passenger with checked bags
      */
-    public org.springframework.http.ResponseEntity<com.airport.kiosk.dto.ApiResponse<Object>> getBaggageDebug(String flightId) {
+    @Transactional(readOnly = true)
+    public FlightBaggageResponse getFlightBaggage(String flightId) {
         Flight flight = flightRepository.findByFlightId(flightId)
             .orElseThrow(() -> new FlightNotFoundException("Flight not found: " + flightId));
-        
-        java.util.List<BaggageRecord> records = baggageRepository.findByFlightId(flightId);
-        
-        // Calculate sum of baggage_count from records
-        Integer sumFromRecords = records.stream()
-            .mapToInt(BaggageRecord::getBaggageCount)
-            .sum();
-        
-        Map<String, Object> debugInfo = new HashMap<>();
-        debugInfo.put("flightId", flightId);
-        debugInfo.put("flightBaggageCount", flight.getBaggageCount());
-        debugInfo.put("sumFromRecords", sumFromRecords);
-        debugInfo.put("recordCount", records.size());
-        debugInfo.put("records", records.stream().map(r -> {
-            Map<String, Object> recordInfo = new HashMap<>();
-            recordInfo.put("baggageId", r.getBaggageId());
-            recordInfo.put("bookingId", r.getBookingId());
-            recordInfo.put("baggageCount", r.getBaggageCount());
-            recordInfo.put("weight", r.getBaggageWeight());
-            recordInfo.put("tagNumber", r.getTagNumber());
-            recordInfo.put("checkInTime", r.getCheckInTime());
-            return recordInfo;
-        }).collect(java.util.stream.Collectors.toList()));
-        
-        return org.springframework.http.ResponseEntity.ok(
-            com.airport.kiosk.dto.ApiResponse.success(debugInfo, "Baggage debug info retrieved successfully")
-        );
+        return new FlightBaggageResponse(flightId,
+            baggageRepository.findByFlightIdAndDepartureDate(flightId, flight.getDepartureTime().toLocalDate()).stream()
+                .map(r -> new FlightBaggageResponse.Entry(r.getBaggageId(), r.getBookingId(), r.getBaggageCount(),
+                    r.getBaggageWeight(), r.getTagNumber(), r.getCheckInTime()))
+                .toList());
     }
     
     /**
      * Generate unique tag number for baggage
      */
-    private String generateTagNumber(String flightId) {
+    public static String generateTagNumber(String flightId) {
         return flightId + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 }
@@ -0,0 +1,345 @@
+package com.airport.kiosk.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.airport.kiosk.dto.BaggageCheckInResponse;
+import com.airport.kiosk.dto.BatchOperation;
+import com.airport.kiosk.dto.BatchRequest;
+import com.airport.kiosk.dto.BatchResponse;
+import com.airport.kiosk.event.KioskEventPublisher;
+import com.airport.kiosk.exception.FlightNotFoundException;
+import com.airport.kiosk.model.BaggageRecord;
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Flight;
+import com.airport.kiosk.repository.BookingRepository;
+import com.airport.kiosk.repository.FlightRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Batches of the seat, baggage and check-in operations of the separate endpoints ({@code POST /api/batch}), for
+ * family check-ins and agent kiosks that would otherwise send them one request at a time.
+ * <ul>
+ *   <li>{@code ALL_OR_NOTHING} runs the batch in one transaction; {@code BEST_EFFORT} runs each operation in its
+ *       own, like separate requests would</li>
+ *   <li>A transaction locks the rows of the bookings its operations name (in id order), then takes the
+ *       {@link SeatService} lock once for all its operations. {@link CheckInService} takes its booking row before
+ *       that lock too, so the two cannot deadlock; baggage is recorded without {@link BaggageService}'s own lock
+ *       for the same reason (the booking row lock serializes it)</li>
+ *   <li>Admission control charges a batch like its seat operations sent one by one ({@link #admissionCost})</li>
+ *   <li>Seat and baggage events go out as the operations run; after a rollback the stored state of what the
+ *       batch touched is announced again</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class BatchService {
+
+    private final SeatService seatService;
+    private final CheckInService checkInService;
+    private final BaggageService baggageService;
+    private final FlightService flightService;
+    private final BookingRepository bookingRepository;
+    private final FlightRepository flightRepository;
+    private final KioskEventPublisher kioskEventPublisher;
+    private final TransactionTemplate batchTransaction;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSize;
+    private final int maxOperations;
+
+    public BatchService(SeatService seatService, CheckInService checkInService, BaggageService baggageService,
+                        FlightService flightService, BookingRepository bookingRepository,
+                        FlightRepository flightRepository, KioskEventPublisher kioskEventPublisher,
+                        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                        @Value("${kiosk.batch.max-operations:20}") int maxOperations) {
+        this.seatService = seatService;
+        this.checkInService = checkInService;
+        this.baggageService = baggageService;
+        this.flightService = flightService;
+        this.bookingRepository = bookingRepository;
+        this.flightRepository = flightRepository;
+        this.kioskEventPublisher = kioskEventPublisher;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = meterRegistry.summary("kiosk.batch.size");
+        this.maxOperations = maxOperations;
+    }
+
+    /**
+     * What a batch costs in admission control, like its operations sent one by one: a kiosk token for each
+     * seat lock, unlock, confirmation and check-in, and a flight token for each lock and unlock. Batches with
+     * locks or unlocks take the lock lane, others the confirm lane; a batch of bag drops only takes one
+     * kiosk token.
+     */
+    public static AdmissionCost admissionCost(BatchRequest request) {
+        int kioskTokens = 0;
+        Map<String, Integer> flightTokens = new HashMap<>();
+        if (request.getOperations() != null) {
+            for (BatchOperation operation : request.getOperations()) {
+                if (operation == null || operation.getOp() == null
+                        || operation.getOp() == BatchOperation.Type.CHECK_IN_BAGGAGE) {
+                    continue;
+                }
+                kioskTokens++;
+                if ((operation.getOp() == BatchOperation.Type.LOCK_SEAT
+                        || operation.getOp() == BatchOperation.Type.UNLOCK_SEAT)
+                        && operation.getFlightId() != null && !operation.getFlightId().isBlank()) {
+                    flightTokens.merge(operation.getFlightId().trim(), 1, Integer::sum);
+                }
+            }
+        }
+        return new AdmissionCost(Math.max(1, kioskTokens), flightTokens,
+            flightTokens.isEmpty() ? AdmissionControlService.Lane.CONFIRM : AdmissionControlService.Lane.LOCK);
+    }
+
+    public record AdmissionCost(int kioskTokens, Map<String, Integer> flightTokens,
+                                AdmissionControlService.Lane lane) {
+    }
+
+    public BatchResponse execute(BatchRequest request) {
+        List<BatchOperation> operations = request.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("operations must not be empty");
+        }
+        if (operations.size() > maxOperations) {
+            throw new IllegalArgumentException("At most " + maxOperations + " operations per batch");
+        }
+        for (int i = 0; i < operations.size(); i++) {
+            if (operations.get(i) == null || operations.get(i).getOp() == null) {
+                throw new IllegalArgumentException("operations[" + i + "].op is required");
+            }
+        }
+        BatchRequest.Mode mode = request.getMode() != null ? request.getMode() : BatchRequest.Mode.ALL_OR_NOTHING;
+
+        List<BatchResponse.Result> results = new ArrayList<>(operations.size());
+        if (mode == BatchRequest.Mode.ALL_OR_NOTHING) {
+            results.addAll(run(operations, 0));
+        } else {
+            for (int i = 0; i < operations.size(); i++) {
+                results.addAll(run(List.of(operations.get(i)), i));
+            }
+        }
+
+        int succeeded = 0;
+        for (BatchResponse.Result result : results) {
+            meterRegistry.counter("kiosk.batch.operations", "mode", mode.name(),
+                "outcome", result.status().name().toLowerCase()).increment();
+            if (result.status() == BatchResponse.Status.APPLIED) {
+                succeeded++;
+            }
+        }
+        batchSize.record(operations.size());
+        return new BatchResponse(mode, succeeded == results.size(), succeeded, results.size() - succeeded, results);
+    }
+
+    /**
+     * Run the operations in one transaction; the first failure rolls all of them back.
+     *
+     * @param firstIndex index of the first operation in the request
+     */
+    private List<BatchResponse.Result> run(List<BatchOperation> operations, int firstIndex) {
+        Map<String, TouchedFlight> touched = new LinkedHashMap<>();
+        List<BatchResponse.Result> results = new ArrayList<>(operations.size());
+        try {
+            batchTransaction.executeWithoutResult(status -> {
+                Map<String, Booking> bookings = lockBookings(operations, firstIndex);
+                Map<String, Flight> flights = new HashMap<>();
+                seatService.exclusively(() -> {
+                    for (int i = 0; i < operations.size(); i++) {
+                        try {
+                            results.add(apply(firstIndex + i, operations.get(i), bookings, flights, touched));
+                        } catch (RuntimeException e) {
+                            throw new OperationFailedException(i, e.getMessage());
+                        }
+                    }
+                    return null;
+                });
+            });
+            return results;
+        } catch (OperationFailedException e) {
+            republish(touched);
+            return rolledBack(operations, firstIndex, e.position, e.getMessage(),
+                "Not applied: operation " + (firstIndex + e.position) + " failed");
+        } catch (RuntimeException e) {
+            // The commit itself failed
+            republish(touched);
+            return rolledBack(operations, firstIndex, operations.size(), null,
+                "Not applied: the transaction failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Results of a rolled back transaction that failed at {@code position} (past the end: at commit).
+     */
+    private static List<BatchResponse.Result> rolledBack(List<BatchOperation> operations, int firstIndex,
+                                                         int position, String error, String message) {
+        List<BatchResponse.Result> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BatchResponse.Status status = i < position ? BatchResponse.Status.ROLLED_BACK
+                : i == position ? BatchResponse.Status.FAILED : BatchResponse.Status.SKIPPED;
+            results.add(new BatchResponse.Result(firstIndex + i, operations.get(i).getOp(), status,
+                i == position ? error : message, null));
+        }
+        return results;
+    }
+
+    /**
+     * Lock the rows of the bookings the operations name, in id order.
+     *
+     * @return the bookings by upper-case id
+     */
+    private Map<String, Booking> lockBookings(List<BatchOperation> operations, int firstIndex) {
+        Map<String, Integer> firstUse = new TreeMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            String bookingId = operations.get(i).getBookingId();
+            if (bookingId != null && !bookingId.isBlank()) {
+                firstUse.putIfAbsent(bookingId.trim().toUpperCase(), i);
+            }
+        }
+        Map<String, Booking> bookings = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : firstUse.entrySet()) {
+            Booking booking = bookingRepository.findByBookingIdIgnoreCaseForUpdate(entry.getKey())
+                .orElseThrow(() -> new OperationFailedException(entry.getValue(),
+                    "Booking not found: " + operations.get(entry.getValue()).getBookingId()));
+            bookings.put(entry.getKey(), booking);
+        }
+        return bookings;
+    }
+
+    private BatchResponse.Result apply(int index, BatchOperation operation, Map<String, Booking> bookings,
+                                       Map<String, Flight> flights, Map<String, TouchedFlight> touched) {
+        BatchOperation.Type type = operation.getOp();
+        switch (type) {
+            case LOCK_SEAT -> {
+                String flightId = required(operation.getFlightId(), "flightId");
+                String seatId = required(operation.getSeatId(), "seatId");
+                touched(touched, flightId).seatIds.add(seatId);
+                if (!seatService.lockSeat(flightId, seatId, required(operation.getSessionId(), "sessionId"))) {
+                    throw new IllegalStateException("Seat is not available");
+                }
+                return new BatchResponse.Result(index, type, BatchResponse.Status.APPLIED, "Seat locked successfully", null);
+            }
+            case UNLOCK_SEAT -> {
+                String flightId = required(operation.getFlightId(), "flightId");
+                String seatId = required(operation.getSeatId(), "seatId");
+                touched(touched, flightId).seatIds.add(seatId);
+                if (!seatService.unlockSeat(flightId, seatId, required(operation.getSessionId(), "sessionId"))) {
+                    throw new IllegalStateException("Failed to unlock seat");
+                }
+                return new BatchResponse.Result(index, type, BatchResponse.Status.APPLIED, "Seat unlocked successfully", null);
+            }
+            case CONFIRM_SEAT -> {
+                String flightId = required(operation.getFlightId(), "flightId");
+                String seatId = required(operation.getSeatId(), "seatId");
+                Booking booking = booking(bookings, operation);
+                TouchedFlight flight = touched(touched, flightId);
+                flight.seatIds.add(seatId);
+                flight.bookingIds.add(booking.getBookingId());
+                if (!seatService.confirmSeat(flightId, seatId, booking.getBookingId(),
+                        required(operation.getSessionId(), "sessionId"))) {
+                    throw new IllegalStateException("Failed to confirm seat");
+                }
+                return new BatchResponse.Result(index, type, BatchResponse.Status.APPLIED, "Seat confirmed successfully", null);
+            }
+            case CHECK_IN_BAGGAGE -> {
+                Booking booking = booking(bookings, operation);
+                if (operation.getBaggage() == null) {
+                    throw new IllegalArgumentException("baggage is required");
+                }
+                CheckInService.validate(operation.getBaggage());
+                Flight flight = flights.computeIfAbsent(booking.getFlightId(), flightId -> flightRepository
+                    .findByFlightId(flightId)
+                    .orElseThrow(() -> new FlightNotFoundException("Flight not found: " + flightId)));
+                touched(touched, flight.getFlightId()).baggage = true;
+                BaggageRecord baggage = baggageService.recordBaggage(flight, booking.getBookingId(),
+                    operation.getBaggage().getWeight(), operation.getBaggage().getCount(), null);
+                return new BatchResponse.Result(index, type, BatchResponse.Status.APPLIED,
+                    "Baggage checked in successfully", BaggageCheckInResponse.of(baggage));
+            }
+            case CHECK_IN -> {
+                Booking booking = booking(bookings, operation);
+                TouchedFlight flight = touched(touched, booking.getFlightId());
+                flight.seatIds.add(operation.getSeatId());
+                flight.bookingIds.add(booking.getBookingId());
+                flight.baggage |= operation.getBaggage() != null;
+                return new BatchResponse.Result(index, type, BatchResponse.Status.APPLIED,
+                    "Check-in completed successfully", checkInService.checkIn(booking.getBookingId(),
+                        operation.getSeatId(), operation.getSessionId(), operation.getBaggage()));
+            }
+            default -> throw new IllegalArgumentException("Unsupported operation: " + type);
+        }
+    }
+
+    /**
+     * After a rollback: the seat and baggage events of the undone operations have gone out already.
+     */
+    private void republish(Map<String, TouchedFlight> touched) {
+        for (Map.Entry<String, TouchedFlight> entry : touched.entrySet()) {
+            String flightId = entry.getKey();
+            TouchedFlight flight = entry.getValue();
+            try {
+                seatService.republishSeats(flightId, flightService.getDepartureDate(flightId), flight.seatIds,
+                    flight.bookingIds);
+                if (flight.baggage) {
+                    kioskEventPublisher.baggageCountChanged(flightId,
+                        baggageService.getBaggageCount(flightId).intValue());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not announce the seats of flight {} after a rolled back batch: {}", flightId,
+                    e.getMessage());
+            }
+        }
+    }
+
+    private static Booking booking(Map<String, Booking> bookings, BatchOperation operation) {
+        // Locked by lockBookings, which fails the batch for unknown ids
+        return bookings.get(required(operation.getBookingId(), "bookingId").trim().toUpperCase());
+    }
+
+    private static String required(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value.trim();
+    }
+
+    private static TouchedFlight touched(Map<String, TouchedFlight> touched, String flightId) {
+        return touched.computeIfAbsent(flightId, id -> new TouchedFlight());
+    }
+
+    /**
+     * What a transaction changed on one flight, to announce again if it is rolled back.
+     */
+    private static class TouchedFlight {
+        private final Set<String> seatIds = new LinkedHashSet<>();
+        private final Set<String> bookingIds = new LinkedHashSet<>();
+        private boolean baggage;
+    }
+
+    /**
+     * Fails the batch transaction at an operation.
+     */
+    private static class OperationFailedException extends RuntimeException {
+        // Position within the transaction's operations
+        private final int position;
+
+        OperationFailedException(int position, String message) {
+            super(message);
+            this.position = position;
+        }
+    }
+}
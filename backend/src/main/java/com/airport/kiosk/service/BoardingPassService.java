@@ -1,12 +1,11 @@
 package com.airport.kiosk.service;
 
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.stereotype.Service;
 
+import com.airport.kiosk.dto.BoardingPassResponse;
 import com.airport.kiosk.exception.BookingNotFoundException;
 import com.airport.kiosk.exception.FlightNotFoundException;
 import com.airport.kiosk.exception.SeatNotFoundException;
@@ -30,7 +29,7 @@ public class BoardingPassService {
     /**
      * Generate boarding pass data (case-insensitive booking lookup)
      */
-    public Map<String, Object> generateBoardingPass(String bookingId) {
+    public BoardingPassResponse generateBoardingPass(String bookingId) {
         Booking booking = bookingRepository.findByBookingIdIgnoreCase(bookingId != null ? bookingId.trim() : "")
             .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
         
@@ -39,32 +38,39 @@ public class BoardingPassService {
         
         // Find seat for this booking (case-insensitive comparison)
         String normalizedBookingId = booking.getBookingId();
-        Seat seat = seatRepository.findByFlightId(flight.getFlightId()).stream()
+        Seat seat = seatRepository.findByFlightIdAndDepartureDate(flight.getFlightId(),
+                flight.getDepartureTime().toLocalDate()).stream()
             .filter(s -> s.getBookingId() != null && s.getBookingId().equalsIgnoreCase(normalizedBookingId))
             .findFirst()
             .orElseThrow(() -> new SeatNotFoundException("Seat not found for booking: " + bookingId));
         
-        // Generate boarding pass data
-        Map<String, Object> boardingPass = new HashMap<>();
-        boardingPass.put("bookingId", booking.getBookingId());
-        boardingPass.put("passengerName", booking.getPassengerName());
-        boardingPass.put("flightNumber", flight.getFlightNumber());
-        boardingPass.put("airlineName", flight.getAirlineName());
-        boardingPass.put("aircraftType", flight.getAircraftType());
-        boardingPass.put("seatNumber", seat.getSeatNumber());
-        boardingPass.put("departureAirport", flight.getDepartureAirport());
-        boardingPass.put("arrivalAirport", flight.getArrivalAirport());
-        boardingPass.put("departureTime", flight.getDepartureTime().format(DateTimeFormatter.ISO_DATE_TIME));
-        boardingPass.put("arrivalTime", flight.getArrivalTime().format(DateTimeFormatter.ISO_DATE_TIME));
-        boardingPass.put("gate", "TBD"); // Gate assignment would come from another service
-        boardingPass.put("boardingTime", flight.getDepartureTime().minusMinutes(30).format(DateTimeFormatter.ISO_DATE_TIME));
-        boardingPass.put("qrCode", generateQRCode(bookingId, flight.getFlightNumber(), seat.getSeatNumber()));
+        return boardingPass(booking, flight, seat);
+    }
+    
+    /**
+     * Boarding pass for an already resolved booking, flight and seat (complete check-in)
+     */
+    public BoardingPassResponse boardingPass(Booking booking, Flight flight, Seat seat) {
+        String bookingId = booking.getBookingId();
         
-        Map<String, Object> result = new HashMap<>();
-        result.put("boardingPass", boardingPass);
-        result.put("pdfUrl", "/api/bookings/" + bookingId + "/boarding-pass/pdf");
+        // Generate boarding pass data
+        BoardingPassResponse.BoardingPass boardingPass = new BoardingPassResponse.BoardingPass(
+            booking.getBookingId(),
+            booking.getPassengerName(),
+            flight.getFlightNumber(),
+            flight.getAirlineName(),
+            flight.getAircraftType(),
+            seat.getSeatNumber(),
+            flight.getDepartureAirport(),
+            flight.getArrivalAirport(),
+            flight.getDepartureTime().format(DateTimeFormatter.ISO_DATE_TIME),
+            flight.getArrivalTime().format(DateTimeFormatter.ISO_DATE_TIME),
+            "TBD", // Gate assignment would come from another service
+            flight.getDepartureTime().minusMinutes(30).format(DateTimeFormatter.ISO_DATE_TIME),
+            generateQRCode(bookingId, flight.getFlightNumber(), seat.getSeatNumber())
+        );
         
-        return result;
+        return new BoardingPassResponse(boardingPass, "/api/bookings/" + bookingId + "/boarding-pass/pdf");
     }
     
     /**
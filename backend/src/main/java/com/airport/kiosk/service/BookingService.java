@@ -1,11 +1,14 @@
 package com.airport.kiosk.service;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.airport.kiosk.dto.BookingDetailsResponse;
 import com.airport.kiosk.exception.BookingNotFoundException;
 import com.airport.kiosk.exception.FlightNotFoundException;
 import com.airport.kiosk.model.Booking;
@@ -25,7 +28,8 @@ public class BookingService {
     /**
      * Search booking by reference or passport number (case-insensitive)
      */
-    public Map<String, Object> searchBooking(String bookingReference, String passportNumber) {
+    @Transactional(readOnly = true)
+    public BookingDetailsResponse searchBooking(String bookingReference, String passportNumber) {
         Booking booking;
         
         if (bookingReference != null && !bookingReference.trim().isEmpty()) {
@@ -42,11 +46,7 @@ public class BookingService {
         Flight flight = flightRepository.findByFlightId(booking.getFlightId())
             .orElseThrow(() -> new FlightNotFoundException("Flight not found: " + booking.getFlightId()));
         
-        Map<String, Object> result = new HashMap<>();
-        result.put("booking", booking);
-        result.put("flight", flight);
-        
-        return result;
+        return BookingDetailsResponse.of(booking, flight);
     }
     
     /**
@@ -57,6 +57,17 @@ public class BookingService {
             .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
     }
     
+    /**
+     * Passport numbers of bookings by booking ID, read with one query; bookings that do not exist are left out
+     */
+    public Map<String, String> findPassportNumbers(Collection<String> bookingIds) {
+        Map<String, String> passports = new HashMap<>();
+        for (Booking booking : bookingRepository.findAllById(bookingIds)) {
+            passports.put(booking.getBookingId(), booking.getPassportNumber());
+        }
+        return passports;
+    }
+    
     /**
      * Get flight by booking ID
      */
@@ -67,14 +78,15 @@ public class BookingService {
     }
     
     /**
-     * Get all bookings for a flight
+     * Get all bookings for a flight (read-only, no dirty-checking snapshots)
      */
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByFlightId(String flightId) {
-        // Verify flight exists
-        flightRepository.findByFlightId(flightId)
+        // Verify flight exists and get its departure date (the partition key)
+        Flight flight = flightRepository.findByFlightId(flightId)
             .orElseThrow(() -> new FlightNotFoundException("Flight not found: " + flightId));
         
-        return bookingRepository.findByFlightId(flightId);
+        return bookingRepository.findByFlightIdAndDepartureDate(flightId, flight.getDepartureTime().toLocalDate());
     }
 }
 
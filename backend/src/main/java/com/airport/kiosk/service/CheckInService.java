@@ -0,0 +1,94 @@
+package com.airport.kiosk.service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.airport.kiosk.dto.BaggageCheckInRequest;
+import com.airport.kiosk.dto.CheckInResponse;
+import com.airport.kiosk.exception.BookingNotFoundException;
+import com.airport.kiosk.exception.FlightNotFoundException;
+import com.airport.kiosk.model.BaggageRecord;
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Flight;
+import com.airport.kiosk.model.Seat;
+import com.airport.kiosk.repository.BookingRepository;
+import com.airport.kiosk.repository.FlightRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Complete check-in in one request: what the kiosk otherwise does with seat confirm, bag drop and boarding pass
+ * calls, each resolving the booking and flight again.
+ */
+@Service
+@RequiredArgsConstructor
+public class CheckInService {
+
+    // baggage_records.baggage_weight is NUMERIC(5,2)
+    private static final BigDecimal MAX_WEIGHT = new BigDecimal("999.99");
+
+    private final BookingRepository bookingRepository;
+    private final FlightRepository flightRepository;
+    private final SeatService seatService;
+    private final BaggageService baggageService;
+    private final BoardingPassService boardingPassService;
+
+    /**
+     * Confirm the seat the session holds, record the bags, mark the booking CHECKED_IN and issue the boarding
+     * pass, all in one transaction: if any step fails nothing is changed and the seat stays locked by the session.
+     * The booking row is locked first, so two kiosks checking in the same booking run one after the other.
+     *
+     * @param seatId   seat locked by the session, or null to keep the booking's reserved seat
+     * @param baggage  bags replacing the booking's earlier ones, or null to leave them as they are
+     */
+    @Transactional
+    public CheckInResponse checkIn(String bookingId, String seatId, String sessionId, BaggageCheckInRequest baggage) {
+        if (baggage != null) {
+            validate(baggage);
+        }
+        Booking booking = bookingRepository.findByBookingIdIgnoreCaseForUpdate(bookingId != null ? bookingId.trim() : "")
+            .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
+        if (booking.getBookingStatus() == Booking.BookingStatus.CANCELLED) {
+            throw new IllegalStateException("Booking " + booking.getBookingId() + " is cancelled");
+        }
+        Flight flight = flightRepository.findByFlightId(booking.getFlightId())
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found: " + booking.getFlightId()));
+
+        // Written with the seat changes: the baggage counter update flushes the persistence context, or on commit
+        booking.setBookingStatus(Booking.BookingStatus.CHECKED_IN);
+
+        // Seat events and the assignment engine see the seat step before commit: correct them if it is undone
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    seatService.republishSeats(flight.getFlightId(), booking.getDepartureDate(),
+                        Collections.singletonList(seatId), List.of(booking.getBookingId()));
+                }
+            }
+        });
+        Seat seat = seatService.confirmCheckInSeat(flight.getFlightId(), booking.getDepartureDate(), seatId,
+            booking.getBookingId(), sessionId);
+        BaggageRecord baggageRecord = baggage != null
+            ? baggageService.recordBaggage(flight, booking.getBookingId(), baggage.getWeight(), baggage.getCount(), null)
+            : null;
+
+        return CheckInResponse.of(booking, seat, baggageRecord, boardingPassService.boardingPass(booking, flight, seat));
+    }
+
+    static void validate(BaggageCheckInRequest baggage) {
+        if (baggage.getCount() == null || baggage.getCount() < 1) {
+            throw new IllegalArgumentException("baggage.count must be 1 or more");
+        }
+        if (baggage.getWeight() != null
+            && (baggage.getWeight().signum() < 0 || baggage.getWeight().compareTo(MAX_WEIGHT) > 0)) {
+            throw new IllegalArgumentException("baggage.weight must be between 0 and " + MAX_WEIGHT);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.airport.kiosk.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.airport.kiosk.event.FlightsArchivedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves departed flights, once unchanged for {@code kiosk.archive.grace-period}, with their bookings, seats
+ * and baggage records from the operational tables to the {@code *_archive} tables (V8 migration).
+ * <ul>
+ *   <li>Flights are moved {@code kiosk.archive.chunk-size} at a time, one transaction per chunk, so locks
+ *       and WAL per transaction stay small while a season of history is drained</li>
+ *   <li>Each table is moved with a single {@code DELETE ... RETURNING} feeding the archive insert, so a row
+ *       is archived exactly as it was deleted</li>
+ *   <li>A flight id that is archived again (reused by a later schedule) replaces its earlier archive copy</li>
+ *   <li>Candidate flights are locked with {@code SKIP LOCKED}: several nodes can run the archiver at once</li>
+ *   <li>A scheduled run stops after {@code kiosk.archive.max-flights-per-run} flights: it shares the scheduler
+ *       thread with the other periodic tasks, and a large backlog is drained over several runs instead</li>
+ * </ul>
+ * On the partitioned schema the day partitions emptied this way are dropped afterwards.
+ * PostgreSQL only (the archive tables come from Flyway); off in the H2 test profile.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "kiosk.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class FlightArchiveService {
+
+    private static final String FIND_CANDIDATES_SQL =
+        "SELECT flight_id, CAST(departure_time AS DATE) AS departure_date FROM flights "
+        + "WHERE flight_status = 'DEPARTED' "
+        + "AND updated_at < LOCALTIMESTAMP - make_interval(secs => ?) "
+        + "ORDER BY departure_time LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final List<String> ARCHIVE_TABLES =
+        List.of("baggage_records_archive", "seats_archive", "bookings_archive", "flights_archive");
+
+    private static final String MOVE_BAGGAGE_SQL =
+        "WITH moved AS (DELETE FROM baggage_records WHERE flight_id = ANY (?) "
+        + "AND departure_date = ANY (CAST(? AS DATE[])) RETURNING *) "
+        + "INSERT INTO baggage_records_archive (baggage_id, booking_id, flight_id, baggage_weight, baggage_count, "
+        + "tag_number, check_in_time, departure_date) "
+        + "SELECT baggage_id, booking_id, flight_id, baggage_weight, baggage_count, tag_number, check_in_time, "
+        + "departure_date FROM moved";
+
+    private static final String MOVE_SEATS_SQL =
+        "WITH moved AS (DELETE FROM seats WHERE flight_id = ANY (?) "
+        + "AND departure_date = ANY (CAST(? AS DATE[])) RETURNING *) "
+        + "INSERT INTO seats_archive (seat_id, flight_id, seat_number, seat_class, seat_status, booking_id, "
+        + "locked_by, lock_expiry, version, created_at, updated_at, departure_date) "
+        + "SELECT seat_id, flight_id, seat_number, seat_class, seat_status, booking_id, "
+        + "locked_by, lock_expiry, version, created_at, updated_at, departure_date FROM moved";
+
+    private static final String MOVE_BOOKINGS_SQL =
+        "WITH moved AS (DELETE FROM bookings WHERE flight_id = ANY (?) "
+        + "AND departure_date = ANY (CAST(? AS DATE[])) RETURNING *) "
+        + "INSERT INTO bookings_archive (booking_id, passenger_name, passport_number, email, phone, flight_id, "
+        + "booking_status, created_at, updated_at, departure_date) "
+        + "SELECT booking_id, passenger_name, passport_number, email, phone, flight_id, "
+        + "booking_status, created_at, updated_at, departure_date FROM moved";
+
+    // Also removes the flights' passenger_list_state, seat_waitlist and seat_availability rows (ON DELETE CASCADE)
+    private static final String MOVE_FLIGHTS_SQL =
+        "WITH moved AS (DELETE FROM flights WHERE flight_id = ANY (?) RETURNING *) "
+        + "INSERT INTO flights_archive (flight_id, flight_number, airline_name, aircraft_type, departure_airport, "
+        + "arrival_airport, departure_time, arrival_time, total_seats, available_seats, baggage_count, "
+        + "flight_status, created_at, updated_at) "
+        + "SELECT flight_id, flight_number, airline_name, aircraft_type, departure_airport, "
+        + "arrival_airport, departure_time, arrival_time, total_seats, available_seats, baggage_count, "
+        + "flight_status, created_at, updated_at FROM moved";
+
+    private static final String IS_PARTITIONED_SQL =
+        "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('seats'))";
+
+    private record Chunk(List<String> flightIds, int seats) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration gracePeriod;
+    private final int chunkSize;
+    private final int maxFlightsPerRun;
+    private final Counter flightCounter;
+    private final Counter seatCounter;
+    private final Timer chunkTimer;
+
+    public FlightArchiveService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                                @Value("${kiosk.archive.grace-period:PT6H}") Duration gracePeriod,
+                                @Value("${kiosk.archive.chunk-size:10}") int chunkSize,
+                                @Value("${kiosk.archive.max-flights-per-run:200}") int maxFlightsPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.gracePeriod = gracePeriod;
+        this.chunkSize = chunkSize;
+        this.maxFlightsPerRun = maxFlightsPerRun;
+        this.flightCounter = meterRegistry.counter("kiosk.archive.flights");
+        this.seatCounter = meterRegistry.counter("kiosk.archive.seats");
+        this.chunkTimer = meterRegistry.timer("kiosk.archive.chunk");
+    }
+
+    @Scheduled(initialDelayString = "${kiosk.archive.interval-ms:600000}",
+               fixedDelayString = "${kiosk.archive.interval-ms:600000}")
+    public void archiveScheduled() {
+        try {
+            archiveDepartedFlights();
+        } catch (Exception e) {
+            log.error("Archiving departed flights failed", e);
+        }
+    }
+
+    /**
+     * Archive eligible departed flights chunk by chunk, up to {@code kiosk.archive.max-flights-per-run}.
+     * @return the number of flights archived
+     */
+    public int archiveDepartedFlights() {
+        long start = System.nanoTime();
+        int flights = 0;
+        int seats = 0;
+        while (true) {
+            Chunk chunk = chunkTimer.record(this::archiveChunk);
+            flights += chunk.flightIds().size();
+            seats += chunk.seats();
+            if (chunk.flightIds().size() < chunkSize || flights >= maxFlightsPerRun) {
+                break;
+            }
+        }
+        if (flights > 0) {
+            log.info("Archived {} departed flights ({} seats) in {} ms", flights, seats,
+                (System.nanoTime() - start) / 1_000_000);
+            dropDepartedPartitions();
+        }
+        return flights;
+    }
+
+    /**
+     * On the partitioned schema (db/partitioned), drop the day partitions the archiver has emptied.
+     * Dropping a partition briefly locks the parent table: give up after a short wait and retry next run.
+     */
+    private void dropDepartedPartitions() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class))) {
+            return;
+        }
+        try {
+            Integer dropped = chunkTransaction.execute(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '2s'");
+                return jdbcTemplate.queryForObject("SELECT drop_departed_partitions()", Integer.class);
+            });
+            if (dropped != null && dropped > 0) {
+                log.info("Dropped {} emptied departure date partitions", dropped);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not drop emptied departure date partitions: {}", e.getMessage());
+        }
+    }
+
+    private Chunk archiveChunk() {
+        Chunk chunk = chunkTransaction.execute(status -> {
+            List<String> flightIds = new ArrayList<>();
+            Set<LocalDate> departureDates = new HashSet<>();
+            jdbcTemplate.query(FIND_CANDIDATES_SQL, rs -> {
+                flightIds.add(rs.getString("flight_id"));
+                departureDates.add(rs.getObject("departure_date", LocalDate.class));
+            }, gracePeriod.toSeconds(), chunkSize);
+            if (flightIds.isEmpty()) {
+                return new Chunk(flightIds, 0);
+            }
+            Object ids = flightIds.toArray(String[]::new);
+            // Departure dates restrict the deletes to the flights' partitions on the partitioned schema
+            Object dates = departureDates.stream().map(LocalDate::toString).toArray(String[]::new);
+            for (String table : ARCHIVE_TABLES) {
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE flight_id = ANY (?)", ids);
+            }
+            jdbcTemplate.update(MOVE_BAGGAGE_SQL, ids, dates);
+            int seats = jdbcTemplate.update(MOVE_SEATS_SQL, ids, dates);
+            jdbcTemplate.update(MOVE_BOOKINGS_SQL, ids, dates);
+            jdbcTemplate.update(MOVE_FLIGHTS_SQL, ids);
+            return new Chunk(flightIds, seats);
+        });
+        if (!chunk.flightIds().isEmpty()) {
+            flightCounter.increment(chunk.flightIds().size());
+            seatCounter.increment(chunk.seats());
+            eventPublisher.publishEvent(new FlightsArchivedEvent(chunk.flightIds()));
+        }
+        return chunk;
+    }
+}
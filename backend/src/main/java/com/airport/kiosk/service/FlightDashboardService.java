@@ -0,0 +1,309 @@
+package com.airport.kiosk.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.airport.kiosk.dto.FlightDashboardResponse;
+import com.airport.kiosk.event.BaggageCountChangedEvent;
+import com.airport.kiosk.event.BookingsChangedEvent;
+import com.airport.kiosk.event.FlightsArchivedEvent;
+import com.airport.kiosk.event.FlightsChangedEvent;
+import com.airport.kiosk.event.KioskEventPublisher;
+import com.airport.kiosk.event.SeatChangedEvent;
+import com.airport.kiosk.event.SeatsResyncEvent;
+import com.airport.kiosk.model.Seat;
+import com.airport.kiosk.repository.BaggageRepository;
+import com.airport.kiosk.repository.SeatRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-flight check-in figures for operations (seats by class and status, seated passengers, bags and their
+ * weight), kept in memory and updated incrementally instead of scanning the flight's seats and bags per refresh.
+ * <ul>
+ *   <li>Flights departing within {@code kiosk.dashboard.preload-days} are loaded at startup with one query for
+ *       seats and one for bags; any other flight on first request</li>
+ *   <li>Seat events (after commit, from this node or through the cluster relay) move the seat between the
+ *       {@link LongAdder} counters of its class; {@link BaggageService} reports each booking's new bags</li>
+ *   <li>Counters keep the last known status per seat and bags per booking, so an event applied twice (or
+ *       already contained in the load) changes nothing; {@link FlightViews} replays the events arriving while
+ *       a flight is read on the loaded figures</li>
+ *   <li>Changed flights are pushed to {@code /topic/flights/{flightId}/dashboard} at most once every
+ *       {@code kiosk.dashboard.push-interval-ms}</li>
+ * </ul>
+ * Flights are only re-read from the database, in the background, when events may have been missed (cluster
+ * resync, bulk booking changes, the flights named by a schedule change) and, with the cluster relay, for bags
+ * checked in on another node (its events carry no weight).
+ */
+@Slf4j
+@Service
+public class FlightDashboardService {
+
+    private static final Seat.SeatClass[] CLASSES = Seat.SeatClass.values();
+    private static final Seat.SeatStatus[] STATUSES = Seat.SeatStatus.values();
+
+    /**
+     * Figures of one flight. Seats are stored as {@code class ordinal * STATUSES.length + status ordinal}, which
+     * is also the index of their counter.
+     */
+    private static final class FlightAggregates {
+
+        private final String flightId;
+        private final LocalDate departureDate;
+        private final ConcurrentHashMap<String, Integer> seats = new ConcurrentHashMap<>();
+        private final LongAdder[] seatCounts = new LongAdder[CLASSES.length * STATUSES.length];
+        /** Bags and their weight in hundredths of a kg (the column's scale) per booking. */
+        private final ConcurrentHashMap<String, long[]> bagsByBooking = new ConcurrentHashMap<>();
+        private final LongAdder bags = new LongAdder();
+        private final LongAdder bagWeightHundredths = new LongAdder();
+        private volatile LocalDateTime updatedAt = LocalDateTime.now();
+
+        FlightAggregates(String flightId, LocalDate departureDate) {
+            this.flightId = flightId;
+            this.departureDate = departureDate;
+            for (int i = 0; i < seatCounts.length; i++) {
+                seatCounts[i] = new LongAdder();
+            }
+        }
+
+        void addSeat(String seatId, Seat.SeatClass seatClass, Seat.SeatStatus status) {
+            int slot = seatClass.ordinal() * STATUSES.length + status.ordinal();
+            if (seats.put(seatId, slot) == null) {
+                seatCounts[slot].increment();
+            }
+        }
+
+        /**
+         * @return false if the seat is not known (the flight's seats changed outside the seat events)
+         */
+        boolean updateSeat(String seatId, Seat.SeatStatus status) {
+            Integer updated = seats.computeIfPresent(seatId, (id, slot) -> {
+                int newSlot = slot - slot % STATUSES.length + status.ordinal();
+                if (newSlot != slot) {
+                    seatCounts[slot].decrement();
+                    seatCounts[newSlot].increment();
+                }
+                return newSlot;
+            });
+            updatedAt = LocalDateTime.now();
+            return updated != null;
+        }
+
+        void updateBags(String bookingId, int count, BigDecimal weight) {
+            long hundredths = weight != null ? weight.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : 0;
+            bagsByBooking.compute(bookingId, (id, previous) -> {
+                bags.add(count - (previous != null ? previous[0] : 0));
+                bagWeightHundredths.add(hundredths - (previous != null ? previous[1] : 0));
+                return new long[] { count, hundredths };
+            });
+            updatedAt = LocalDateTime.now();
+        }
+
+        FlightDashboardResponse snapshot() {
+            Map<String, Map<String, Long>> seatsByClass = new LinkedHashMap<>();
+            long total = 0;
+            long available = 0;
+            long seated = 0;
+            for (Seat.SeatClass seatClass : CLASSES) {
+                Map<String, Long> byStatus = new LinkedHashMap<>();
+                for (Seat.SeatStatus status : STATUSES) {
+                    long count = seatCounts[seatClass.ordinal() * STATUSES.length + status.ordinal()].sum();
+                    byStatus.put(status.name(), count);
+                    total += count;
+                    if (status == Seat.SeatStatus.AVAILABLE) {
+                        available += count;
+                    } else if (status == Seat.SeatStatus.RESERVED || status == Seat.SeatStatus.OCCUPIED) {
+                        seated += count;
+                    }
+                }
+                seatsByClass.put(seatClass.name(), byStatus);
+            }
+            return new FlightDashboardResponse(flightId, departureDate, seated, total, available, seatsByClass,
+                bags.sum(), BigDecimal.valueOf(bagWeightHundredths.sum(), 2), updatedAt);
+        }
+    }
+
+    private final SeatRepository seatRepository;
+    private final BaggageRepository baggageRepository;
+    private final FlightService flightService;
+    private final KioskEventPublisher kioskEventPublisher;
+    private final int preloadDays;
+    private final FlightViews<FlightAggregates> flights;
+    private final Set<String> changedFlights = ConcurrentHashMap.newKeySet();
+    private final Counter pushCounter;
+
+    public FlightDashboardService(SeatRepository seatRepository, BaggageRepository baggageRepository,
+                                  FlightService flightService, KioskEventPublisher kioskEventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${kiosk.dashboard.preload-days:2}") int preloadDays) {
+        this.seatRepository = seatRepository;
+        this.baggageRepository = baggageRepository;
+        this.flightService = flightService;
+        this.kioskEventPublisher = kioskEventPublisher;
+        this.preloadDays = preloadDays;
+        this.flights = new FlightViews<>("dashboard", this::load, changedFlights::add,
+            meterRegistry.timer("kiosk.dashboard.load"));
+        this.pushCounter = meterRegistry.counter("kiosk.dashboard.pushes");
+        meterRegistry.gauge("kiosk.dashboard.flights", flights, FlightViews::size);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flights.shutdown();
+    }
+
+    public FlightDashboardResponse getDashboard(String flightId) {
+        return flights.get(flightId).snapshot();
+    }
+
+    /**
+     * Record a booking's bags as they are after a check-in (applied when the transaction commits).
+     */
+    public void baggageCheckedIn(String flightId, String bookingId, int count, BigDecimal weight) {
+        Runnable apply = () -> {
+            flights.update(flightId, aggregates -> aggregates.updateBags(bookingId, count, weight));
+            changedFlights.add(flightId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (preloadDays <= 0) {
+            return;
+        }
+        try {
+            LocalDate from = LocalDate.now();
+            LocalDate to = from.plusDays(preloadDays - 1L);
+            Map<String, FlightAggregates> loaded = flights.preload(() -> {
+                Map<String, FlightAggregates> byFlight = new HashMap<>();
+                for (SeatRepository.SeatState seat : seatRepository.findStatesByDepartureDateBetween(from, to)) {
+                    byFlight.computeIfAbsent(seat.getFlightId(),
+                            id -> new FlightAggregates(id, seat.getDepartureDate()))
+                        .addSeat(seat.getSeatId(), seat.getSeatClass(), seat.getSeatStatus());
+                }
+                for (BaggageRepository.BagState bag : baggageRepository.findStatesByDepartureDateBetween(from, to)) {
+                    FlightAggregates aggregates = byFlight.get(bag.getFlightId());
+                    if (aggregates != null) {
+                        aggregates.updateBags(bag.getBookingId(), bag.getBaggageCount(), bag.getBaggageWeight());
+                    }
+                }
+                return byFlight;
+            });
+            log.info("Dashboard figures loaded for {} flights departing {} to {}", loaded.size(), from, to);
+        } catch (RuntimeException e) {
+            // Flights are loaded on first request instead (e.g. an edge node that starts offline)
+            log.warn("Preloading dashboard figures failed: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatChanged(@NonNull SeatChangedEvent event) {
+        Seat.SeatStatus status = Seat.SeatStatus.valueOf(event.status());
+        flights.update(event.flightId(), aggregates -> {
+            if (!aggregates.updateSeat(event.seatId(), status)) {
+                flights.reload(List.of(event.flightId()));
+            }
+        });
+        changedFlights.add(event.flightId());
+    }
+
+    /**
+     * Local check-ins arrive through {@link #baggageCheckedIn}; another node's only carry the flight's bag count.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBaggageCountChanged(@NonNull BaggageCountChangedEvent event) {
+        FlightAggregates loaded = flights.getIfLoaded(event.flightId());
+        if (event.remote() && loaded != null) {
+            List<BaggageRepository.BagState> bags = baggageRepository.findStatesByFlightIdAndDepartureDate(
+                event.flightId(), loaded.departureDate);
+            flights.update(event.flightId(), aggregates -> bags.forEach(bag ->
+                aggregates.updateBags(bag.getBookingId(), bag.getBaggageCount(), bag.getBaggageWeight())));
+            changedFlights.add(event.flightId());
+        }
+    }
+
+    @EventListener
+    public void onBookingsChanged(@NonNull BookingsChangedEvent event) {
+        flights.reload(List.of(event.flightId()));
+    }
+
+    @EventListener
+    public void onFlightsArchived(@NonNull FlightsArchivedEvent event) {
+        flights.remove(event.flightIds());
+    }
+
+    @EventListener
+    public void onFlightsChanged(@NonNull FlightsChangedEvent event) {
+        if (event.flightIds().isEmpty()) {
+            flights.reloadAll();
+        } else {
+            flights.reload(event.flightIds());
+        }
+    }
+
+    @EventListener
+    public void onSeatsResync(@NonNull SeatsResyncEvent event) {
+        flights.reloadAll();
+    }
+
+    /**
+     * Push the figures of the flights changed since the last run; a burst of check-ins becomes one message.
+     */
+    @Scheduled(fixedDelayString = "${kiosk.dashboard.push-interval-ms:1000}")
+    public void pushChanges() {
+        for (String flightId : changedFlights) {
+            changedFlights.remove(flightId);
+            FlightAggregates aggregates = flights.getIfLoaded(flightId);
+            if (aggregates != null) {
+                kioskEventPublisher.broadcast(aggregates.snapshot());
+                pushCounter.increment();
+            }
+        }
+    }
+
+    private FlightAggregates load(String flightId) {
+        LocalDate departureDate = flightService.getDepartureDate(flightId);
+        FlightAggregates aggregates = new FlightAggregates(flightId, departureDate);
+        for (SeatRepository.SeatState seat : seatRepository.findStatesByFlightIdAndDepartureDate(flightId,
+                departureDate)) {
+            aggregates.addSeat(seat.getSeatId(), seat.getSeatClass(), seat.getSeatStatus());
+        }
+        for (BaggageRepository.BagState bag : baggageRepository.findStatesByFlightIdAndDepartureDate(flightId,
+                departureDate)) {
+            aggregates.updateBags(bag.getBookingId(), bag.getBaggageCount(), bag.getBaggageWeight());
+        }
+        return aggregates;
+    }
+}
@@ -0,0 +1,368 @@
+package com.airport.kiosk.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.airport.kiosk.event.BaggageCountChangedEvent;
+import com.airport.kiosk.event.KioskEventPublisher;
+import com.airport.kiosk.event.SeatChangedEvent;
+import com.airport.kiosk.event.SeatsResyncEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server-Sent Events feed of seat and baggage events per flight, for read-only displays.
+ * <ul>
+ *   <li>Connections are async servlet requests: an idle subscriber holds no thread, only its
+ *       {@link SseEmitter} and socket</li>
+ *   <li>Each event is serialized and framed once; every subscriber has its own bounded queue of frames,
+ *       written in order by a small sender pool, so a slow client only delays itself</li>
+ *   <li>A subscriber whose queue exceeds {@code kiosk.sse.send-queue-limit} frames, or whose write has
+ *       been blocked for longer than {@code kiosk.sse.send-time-limit-ms}, is dropped; it reconnects
+ *       with {@code Last-Event-ID} and gets what it missed (or a {@code resync})</li>
+ *   <li>The last {@code kiosk.sse.replay-buffer-size} events per flight are kept so a client that
+ *       reconnects with {@code Last-Event-ID} only receives what it missed; if that is no longer
+ *       available (or the id is from another node or run) it gets a {@code resync} event instead</li>
+ *   <li>When the cluster relay may have missed other nodes' events, every stream gets a {@code resync} event</li>
+ * </ul>
+ * Events are received after commit, from this node or (with the cluster relay) from other nodes.
+ */
+@Slf4j
+@Service
+public class FlightEventStreamService {
+
+    static final String SEAT_EVENT = "seat";
+    static final String BAGGAGE_EVENT = "baggage";
+    static final String RESYNC_EVENT = "resync";
+
+    /** A framed SSE event, shared read-only by every subscriber it is sent to. */
+    private record Frame(Set<ResponseBodyEmitter.DataWithMediaType> data) {
+    }
+
+    private record BufferedEvent(long sequence, Frame frame) {
+    }
+
+    private static final Frame CONNECTED = new Frame(SseEmitter.event().comment("connected").build());
+    private static final Frame HEARTBEAT = new Frame(SseEmitter.event().comment("heartbeat").build());
+
+    /**
+     * Subscribers and replay ring buffer of one flight. The instance lock guards the buffer and is held
+     * while queueing frames, so a new subscriber's replay is queued before any later event.
+     */
+    private final class FlightStream {
+
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final BufferedEvent[] buffer;
+        private long nextSequence = 1;
+        private volatile long lastActivityMillis = System.currentTimeMillis();
+
+        FlightStream(int bufferSize) {
+            this.buffer = new BufferedEvent[bufferSize];
+        }
+
+        synchronized BufferedEvent append(String name, String data) {
+            long sequence = nextSequence++;
+            BufferedEvent event = new BufferedEvent(sequence,
+                new Frame(SseEmitter.event().id(epoch + "-" + sequence).name(name).data(data).build()));
+            buffer[(int) (sequence % buffer.length)] = event;
+            lastActivityMillis = System.currentTimeMillis();
+            return event;
+        }
+
+        /**
+         * Register a subscriber and return the events after {@code lastSequence},
+         * or null if some of them are no longer buffered.
+         */
+        synchronized List<BufferedEvent> subscribe(Subscriber subscriber, long lastSequence) {
+            subscribers.add(subscriber);
+            lastActivityMillis = System.currentTimeMillis();
+            if (lastSequence < 0) {
+                return List.of();
+            }
+            long oldest = Math.max(1, nextSequence - buffer.length);
+            if (lastSequence >= nextSequence || lastSequence + 1 < oldest) {
+                return null;
+            }
+            List<BufferedEvent> missed = new ArrayList<>();
+            for (long sequence = lastSequence + 1; sequence < nextSequence; sequence++) {
+                missed.add(buffer[(int) (sequence % buffer.length)]);
+            }
+            return missed;
+        }
+
+        boolean isIdleSince(long staleBefore) {
+            return subscribers.isEmpty() && lastActivityMillis < staleBefore;
+        }
+    }
+
+    /**
+     * One connection: its queue of frames not yet written, and at most one sender task draining it.
+     */
+    private final class Subscriber {
+
+        private final FlightStream stream;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Frame> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        /** When the write in progress started, or 0 when not writing. */
+        private volatile long sendStartedNanos;
+
+        Subscriber(FlightStream stream, SseEmitter emitter) {
+            this.stream = stream;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queue a frame; false if the subscriber has fallen too far behind (or is gone).
+         */
+        synchronized boolean offer(Frame frame) {
+            if (closed || queue.size() >= sendQueueLimit) {
+                return false;
+            }
+            queue.add(frame);
+            if (!draining) {
+                draining = true;
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    draining = false;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        synchronized boolean isIdle() {
+            return queue.isEmpty() && !draining;
+        }
+
+        boolean isStalled(long nowNanos) {
+            long started = sendStartedNanos;
+            return started != 0 && nowNanos - started > sendTimeLimitNanos;
+        }
+
+        /**
+         * Mark closed and stop counting the connection; true the first time only.
+         */
+        boolean close() {
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                closed = true;
+                queue.clear();
+            }
+            stream.subscribers.remove(this);
+            connections.decrementAndGet();
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                Frame frame;
+                synchronized (this) {
+                    frame = queue.poll();
+                    if (frame == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                sendStartedNanos = System.nanoTime();
+                try {
+                    emitter.send(frame.data());
+                } catch (IOException | IllegalStateException e) {
+                    drop(this, "write failed");
+                    return;
+                } finally {
+                    sendStartedNanos = 0;
+                }
+            }
+        }
+    }
+
+    private final Map<String, FlightStream> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService senders;
+    private final Counter droppedCounter;
+    private final KioskEventPublisher kioskEventPublisher;
+    /** Prefix of every event id; ids from an earlier run or another node never match. */
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int sendQueueLimit;
+    private final long sendTimeLimitNanos;
+
+    public FlightEventStreamService(KioskEventPublisher kioskEventPublisher, MeterRegistry meterRegistry,
+                                    @Value("${kiosk.sse.timeout:PT30M}") Duration timeout,
+                                    @Value("${kiosk.sse.replay-buffer-size:256}") int bufferSize,
+                                    @Value("${kiosk.sse.send-queue-limit:1000}") int sendQueueLimit,
+                                    @Value("${kiosk.sse.send-time-limit-ms:5000}") long sendTimeLimitMillis,
+                                    @Value("${kiosk.sse.sender-threads:8}") int senderThreads) {
+        this.kioskEventPublisher = kioskEventPublisher;
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.sendQueueLimit = Math.max(1, sendQueueLimit);
+        this.sendTimeLimitNanos = Duration.ofMillis(sendTimeLimitMillis).toNanos();
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads),
+            r -> new Thread(r, "sse-sender-" + threads.incrementAndGet()));
+        this.droppedCounter = meterRegistry.counter("kiosk.sse.dropped");
+        meterRegistry.gauge("kiosk.sse.connections", connections);
+    }
+
+    /**
+     * Open a stream for a flight, replaying events after {@code lastEventId} if given.
+     */
+    public SseEmitter subscribe(String flightId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        long lastSequence = parseSequence(lastEventId);
+        connections.incrementAndGet();
+        Subscriber[] registered = new Subscriber[1];
+        // Registered inside compute, so the heartbeat cannot remove the stream in between
+        streams.compute(flightId, (id, existing) -> {
+            FlightStream stream = existing != null ? existing : new FlightStream(bufferSize);
+            Subscriber subscriber = new Subscriber(stream, emitter);
+            synchronized (stream) {
+                List<BufferedEvent> missed = stream.subscribe(subscriber, lastSequence);
+                if (missed == null || missed.size() > sendQueueLimit) {
+                    // Not all of it can be replayed (or queued): reload instead
+                    subscriber.offer(new Frame(SseEmitter.event().name(RESYNC_EVENT)
+                        .data("{\"flightId\":\"" + flightId + "\"}").build()));
+                } else if (missed.isEmpty()) {
+                    // Flush the response headers so the client sees the stream open
+                    subscriber.offer(CONNECTED);
+                } else {
+                    missed.forEach(event -> subscriber.offer(event.frame()));
+                }
+            }
+            registered[0] = subscriber;
+            return stream;
+        });
+        Subscriber subscriber = registered[0];
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatChanged(@NonNull SeatChangedEvent event) {
+        // Nobody has subscribed to a flight without a stream, so there is nobody to replay to either
+        FlightStream stream = streams.get(event.flightId());
+        if (stream != null) {
+            publish(stream, SEAT_EVENT, new String(kioskEventPublisher.toJson(event), StandardCharsets.UTF_8));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBaggageCountChanged(@NonNull BaggageCountChangedEvent event) {
+        FlightStream stream = streams.get(event.flightId());
+        if (stream != null) {
+            publish(stream, BAGGAGE_EVENT, new String(kioskEventPublisher.toJson(event), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Other nodes' events may have been missed (relay reconnect or sequence gap): tell every
+     * subscriber to reload. Buffered like any event, so a client resuming from before it sees it too.
+     */
+    @EventListener
+    public void onSeatsResync(@NonNull SeatsResyncEvent event) {
+        streams.forEach((flightId, stream) ->
+            publish(stream, RESYNC_EVENT, "{\"flightId\":\"" + flightId + "\"}"));
+    }
+
+    /**
+     * Keep idle connections alive through proxies and detect dead ones; drop subscribers stuck in a
+     * write; forget flights without subscribers or events for longer than the replay is useful.
+     */
+    @Scheduled(fixedDelayString = "${kiosk.sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long staleBefore = System.currentTimeMillis() - timeoutMillis;
+        long now = System.nanoTime();
+        for (String flightId : streams.keySet()) {
+            // Atomic with subscribe's compute: a stream gaining a subscriber is never removed
+            streams.computeIfPresent(flightId, (id, stream) -> stream.isIdleSince(staleBefore) ? null : stream);
+        }
+        for (FlightStream stream : streams.values()) {
+            for (Subscriber subscriber : stream.subscribers) {
+                if (subscriber.isStalled(now)) {
+                    drop(subscriber, "write blocked");
+                } else if (subscriber.isIdle()) {
+                    // Busy subscribers are already being written to
+                    subscriber.offer(HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (FlightStream stream : streams.values()) {
+            stream.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+
+    private void publish(FlightStream stream, String name, String data) {
+        synchronized (stream) {
+            BufferedEvent event = stream.append(name, data);
+            for (Subscriber subscriber : stream.subscribers) {
+                if (!subscriber.offer(event.frame())) {
+                    drop(subscriber, "send queue full");
+                }
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (subscriber.close()) {
+            log.debug("Dropping SSE subscriber: {}", reason);
+            droppedCounter.increment();
+        }
+        subscriber.emitter.complete();
+    }
+
+    private long parseSequence(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            // Unknown id: force a resync
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
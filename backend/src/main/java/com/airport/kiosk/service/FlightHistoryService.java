@@ -0,0 +1,126 @@
+package com.airport.kiosk.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.airport.kiosk.dto.BookingHistoryResponse;
+import com.airport.kiosk.dto.FlightHistoryResponse;
+import com.airport.kiosk.exception.BookingNotFoundException;
+import com.airport.kiosk.exception.FlightNotFoundException;
+import com.airport.kiosk.model.BaggageRecord;
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.model.Flight;
+import com.airport.kiosk.model.Seat;
+import com.airport.kiosk.repository.BaggageRepository;
+import com.airport.kiosk.repository.BookingRepository;
+import com.airport.kiosk.repository.FlightRepository;
+import com.airport.kiosk.repository.SeatRepository;
+
+/**
+ * Historical lookups of flights and bookings wherever they currently live: the operational tables first,
+ * then the archive tables filled by {@link FlightArchiveService}. Callers do not need to know whether a
+ * flight has been archived yet.
+ */
+@Service
+public class FlightHistoryService {
+
+    private static final String ARCHIVED_FLIGHT_SQL = "SELECT * FROM flights_archive WHERE flight_id = ?";
+    private static final String ARCHIVED_SEATS_SQL =
+        "SELECT * FROM seats_archive WHERE flight_id = ? ORDER BY seat_number";
+    private static final String ARCHIVED_BOOKINGS_SQL = "SELECT * FROM bookings_archive WHERE flight_id = ?";
+    private static final String ARCHIVED_BAGGAGE_SQL = "SELECT * FROM baggage_records_archive WHERE flight_id = ?";
+    // Booking ids may be reused by later flights: the most recently archived booking wins
+    private static final String ARCHIVED_BOOKING_SQL =
+        "SELECT * FROM bookings_archive WHERE UPPER(booking_id) = UPPER(?) ORDER BY archived_at DESC LIMIT 1";
+    private static final String ARCHIVED_BOOKING_SEATS_SQL =
+        "SELECT * FROM seats_archive WHERE booking_id = ? AND flight_id = ?";
+    private static final String ARCHIVED_BOOKING_BAGGAGE_SQL =
+        "SELECT * FROM baggage_records_archive WHERE booking_id = ? AND flight_id = ?";
+
+    private static final RowMapper<Flight> FLIGHT_MAPPER = BeanPropertyRowMapper.newInstance(Flight.class);
+    private static final RowMapper<Seat> SEAT_MAPPER = BeanPropertyRowMapper.newInstance(Seat.class);
+    private static final RowMapper<Booking> BOOKING_MAPPER = BeanPropertyRowMapper.newInstance(Booking.class);
+    private static final RowMapper<BaggageRecord> BAGGAGE_MAPPER = BeanPropertyRowMapper.newInstance(BaggageRecord.class);
+
+    private record Archived<T>(T row, LocalDateTime archivedAt) {
+    }
+
+    private final FlightRepository flightRepository;
+    private final SeatRepository seatRepository;
+    private final BookingRepository bookingRepository;
+    private final BaggageRepository baggageRepository;
+    private final JdbcTemplate jdbcTemplate;
+    /** Without the archiver (e.g. the H2 test profile) there are no archive tables to look in. */
+    private final boolean archiveEnabled;
+
+    public FlightHistoryService(FlightRepository flightRepository, SeatRepository seatRepository,
+                                BookingRepository bookingRepository, BaggageRepository baggageRepository,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${kiosk.archive.enabled:true}") boolean archiveEnabled) {
+        this.flightRepository = flightRepository;
+        this.seatRepository = seatRepository;
+        this.bookingRepository = bookingRepository;
+        this.baggageRepository = baggageRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    @Transactional(readOnly = true)
+    public FlightHistoryResponse getFlightHistory(String flightId) {
+        Optional<Flight> live = flightRepository.findByFlightId(flightId);
+        if (live.isPresent()) {
+            LocalDate departureDate = live.get().getDepartureTime().toLocalDate();
+            return new FlightHistoryResponse(live.get(),
+                seatRepository.findByFlightIdAndDepartureDate(flightId, departureDate),
+                bookingRepository.findByFlightIdAndDepartureDate(flightId, departureDate),
+                baggageRepository.findByFlightIdAndDepartureDate(flightId, departureDate), null);
+        }
+        Archived<Flight> archived = findArchived(ARCHIVED_FLIGHT_SQL, FLIGHT_MAPPER, flightId)
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found: " + flightId));
+        return new FlightHistoryResponse(archived.row(),
+            jdbcTemplate.query(ARCHIVED_SEATS_SQL, SEAT_MAPPER, flightId),
+            jdbcTemplate.query(ARCHIVED_BOOKINGS_SQL, BOOKING_MAPPER, flightId),
+            jdbcTemplate.query(ARCHIVED_BAGGAGE_SQL, BAGGAGE_MAPPER, flightId),
+            archived.archivedAt());
+    }
+
+    @Transactional(readOnly = true)
+    public BookingHistoryResponse getBookingHistory(String bookingId) {
+        Optional<Booking> live = bookingRepository.findByBookingIdIgnoreCase(bookingId);
+        if (live.isPresent()) {
+            Booking booking = live.get();
+            return new BookingHistoryResponse(booking,
+                flightRepository.findByFlightId(booking.getFlightId()).orElse(null),
+                seatRepository.findByBookingIdAndDepartureDate(booking.getBookingId(), booking.getDepartureDate()),
+                baggageRepository.findByBookingId(booking.getBookingId()), null);
+        }
+        Archived<Booking> archived = findArchived(ARCHIVED_BOOKING_SQL, BOOKING_MAPPER, bookingId)
+            .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
+        Booking booking = archived.row();
+        return new BookingHistoryResponse(booking,
+            findArchived(ARCHIVED_FLIGHT_SQL, FLIGHT_MAPPER, booking.getFlightId()).map(Archived::row).orElse(null),
+            jdbcTemplate.query(ARCHIVED_BOOKING_SEATS_SQL, SEAT_MAPPER, booking.getBookingId(), booking.getFlightId()),
+            jdbcTemplate.query(ARCHIVED_BOOKING_BAGGAGE_SQL, BAGGAGE_MAPPER, booking.getBookingId(),
+                booking.getFlightId()),
+            archived.archivedAt());
+    }
+
+    private <T> Optional<Archived<T>> findArchived(String sql, RowMapper<T> mapper, String id) {
+        if (!archiveEnabled) {
+            return Optional.empty();
+        }
+        return jdbcTemplate.query(sql, (rs, rowNum) ->
+                new Archived<>(mapper.mapRow(rs, rowNum), rs.getObject("archived_at", LocalDateTime.class)), id)
+            .stream()
+            .findFirst();
+    }
+}
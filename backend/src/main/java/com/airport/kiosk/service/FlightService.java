@@ -1,31 +1,51 @@
 package com.airport.kiosk.service;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.airport.kiosk.event.FlightsArchivedEvent;
+import com.airport.kiosk.event.FlightsChangedEvent;
+import com.airport.kiosk.event.SeatsResyncEvent;
 import com.airport.kiosk.exception.FlightNotFoundException;
 import com.airport.kiosk.model.Flight;
 import com.airport.kiosk.repository.FlightRepository;
 
-import lombok.RequiredArgsConstructor;
-
 @Service
-@RequiredArgsConstructor
 public class FlightService {
     
+    private record CachedDate(LocalDate date, long loadedAtNanos) {
+    }
+    
     private final FlightRepository flightRepository;
+    // flightId -> date of its departure_time, the partition key of seats, bookings and baggage records
+    private final Map<String, CachedDate> departureDates = new ConcurrentHashMap<>();
+    private final long departureDateTtlNanos;
+    
+    public FlightService(FlightRepository flightRepository,
+                         @Value("${kiosk.flights.departure-date-ttl:PT60S}") Duration departureDateTtl) {
+        this.flightRepository = flightRepository;
+        this.departureDateTtlNanos = departureDateTtl.toNanos();
+    }
     
     /**
      * Get all flights sorted by departure time (ascending - today to future)
      * Returns all flights sorted by departure time, which naturally shows
-     * today's and future flights first, followed by past flights
+     * today's and future flights first, followed by past flights.
+     * Sorting is done by the database; the read-only transaction keeps
+     * Hibernate from retaining dirty-checking snapshots.
      */
+    @Transactional(readOnly = true)
     public List<Flight> getAllFlights() {
-        return flightRepository.findAll().stream()
-            .sorted((f1, f2) -> f1.getDepartureTime().compareTo(f2.getDepartureTime()))
-            .collect(Collectors.toList());
+        return flightRepository.findAllByOrderByDepartureTimeAsc();
     }
     
     /**
@@ -35,5 +55,48 @@ public class FlightService {
         return flightRepository.findByFlightId(flightId)
             .orElseThrow(() -> new FlightNotFoundException("Flight not found: " + flightId));
     }
+    
+    /**
+     * Departure date of a flight, to be passed with every seat, booking and baggage query of that flight.
+     * Cached per flight for {@code kiosk.flights.departure-date-ttl}; dropped earlier when flights are imported,
+     * archived or moved to another day ({@link FlightsChangedEvent}, from any node with the cluster relay), or
+     * may have changed unseen.
+     */
+    public LocalDate getDepartureDate(String flightId) {
+        CachedDate cached = departureDates.get(flightId);
+        if (cached == null || System.nanoTime() - cached.loadedAtNanos() > departureDateTtlNanos) {
+            return refreshDepartureDate(flightId);
+        }
+        return cached.date();
+    }
+    
+    /**
+     * Re-read a flight's departure date, e.g. after a lookup under the cached date found nothing.
+     */
+    public LocalDate refreshDepartureDate(String flightId) {
+        LocalDate departureDate = flightRepository.findDepartureTimeByFlightId(flightId)
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found: " + flightId))
+            .toLocalDate();
+        departureDates.put(flightId, new CachedDate(departureDate, System.nanoTime()));
+        return departureDate;
+    }
+    
+    @EventListener
+    public void onFlightsChanged(@NonNull FlightsChangedEvent event) {
+        if (event.flightIds().isEmpty()) {
+            departureDates.clear();
+        } else {
+            event.flightIds().forEach(departureDates::remove);
+        }
+    }
+    
+    @EventListener
+    public void onFlightsArchived(@NonNull FlightsArchivedEvent event) {
+        event.flightIds().forEach(departureDates::remove);
+    }
+    
+    @EventListener
+    public void onSeatsResync(@NonNull SeatsResyncEvent event) {
+        departureDates.clear();
+    }
 }
-
@@ -0,0 +1,279 @@
+package com.airport.kiosk.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory views of single flights (dashboard figures, name index) built from the database and kept current by
+ * events, without losing the events that arrive while a flight is being read.
+ * <ul>
+ *   <li>A flight's slot is installed before its rows are queried; changes arriving during the load are kept
+ *       and replayed on the loaded view before it is published, so they must be idempotent (set a state rather
+ *       than add to it)</li>
+ *   <li>A reload keeps serving, and updating, the current view until the new one is swapped in; it runs on the
+ *       view's own thread, not on the thread publishing the event. A reload requested while one is running runs
+ *       once more after it, as the running one may have read the rows before the change</li>
+ *   <li>A bulk preload buffers the changes of flights it has not installed yet the same way</li>
+ * </ul>
+ */
+@Slf4j
+final class FlightViews<V> {
+
+    private final class Slot {
+        /** Null until the first load completed. */
+        private V view;
+        /** Set while a load runs, with the changes to replay on its result. */
+        private CompletableFuture<V> loading;
+        private List<Consumer<V>> pending;
+        private boolean reloadRequested;
+    }
+
+    private final String name;
+    private final Function<String, V> loader;
+    private final Consumer<String> reloaded;
+    private final Timer loadTimer;
+    private final ExecutorService reloader;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    // Changes and reloads of flights a running preload may still install; guarded by preloadLock
+    private final Object preloadLock = new Object();
+    private volatile boolean preloading;
+    private Map<String, List<Consumer<V>>> preloadChanges;
+    private Set<String> preloadReloads;
+
+    /**
+     * @param reloaded called with the flight id once a reloaded view has been swapped in
+     */
+    FlightViews(String name, Function<String, V> loader, Consumer<String> reloaded, Timer loadTimer) {
+        this.name = name;
+        this.loader = loader;
+        this.reloaded = reloaded;
+        this.loadTimer = loadTimer;
+        this.reloader = Executors.newSingleThreadExecutor(r -> new Thread(r, name + "-reload"));
+    }
+
+    /**
+     * The flight's view, read from the database on first use (concurrent callers share one load).
+     */
+    V get(String flightId) {
+        Slot slot = slots.computeIfAbsent(flightId, id -> new Slot());
+        CompletableFuture<V> load;
+        boolean loadHere = false;
+        synchronized (slot) {
+            if (slot.view != null) {
+                return slot.view;
+            }
+            if (slot.loading == null) {
+                startLoad(slot);
+                loadHere = true;
+            }
+            load = slot.loading;
+        }
+        if (loadHere) {
+            load(flightId, slot);
+        }
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The flight's view if it is loaded, without reading it.
+     */
+    V getIfLoaded(String flightId) {
+        Slot slot = slots.get(flightId);
+        if (slot == null) {
+            return null;
+        }
+        synchronized (slot) {
+            return slot.view;
+        }
+    }
+
+    /**
+     * Apply a change to the flight's view, and to the one being loaded for it; ignored for flights not held.
+     */
+    void update(String flightId, Consumer<V> change) {
+        Slot slot = slots.get(flightId);
+        if (slot == null) {
+            if (preloading) {
+                bufferForPreload(flightId, change);
+            }
+            return;
+        }
+        synchronized (slot) {
+            if (slot.view != null) {
+                change.accept(slot.view);
+            }
+            if (slot.pending != null) {
+                slot.pending.add(change);
+            }
+        }
+    }
+
+    /**
+     * Read the views of those of the flights that are held again, in the background.
+     */
+    void reload(Collection<String> flightIds) {
+        for (String flightId : flightIds) {
+            Slot slot = slots.get(flightId);
+            if (slot == null) {
+                if (preloading) {
+                    synchronized (preloadLock) {
+                        if (preloadReloads != null) {
+                            preloadReloads.add(flightId);
+                        }
+                    }
+                }
+                continue;
+            }
+            synchronized (slot) {
+                if (slot.loading != null) {
+                    slot.reloadRequested = true;
+                    continue;
+                }
+                startLoad(slot);
+            }
+            reloader.execute(() -> load(flightId, slot));
+        }
+    }
+
+    void reloadAll() {
+        reload(new ArrayList<>(slots.keySet()));
+    }
+
+    void remove(Collection<String> flightIds) {
+        flightIds.forEach(slots::remove);
+    }
+
+    /**
+     * Install the views of many flights read at once; flights loaded individually meanwhile keep theirs.
+     */
+    Map<String, V> preload(Supplier<Map<String, V>> bulkLoader) {
+        synchronized (preloadLock) {
+            preloadChanges = new HashMap<>();
+            preloadReloads = new HashSet<>();
+            preloading = true;
+        }
+        Map<String, V> loaded = Map.of();
+        List<String> again = new ArrayList<>();
+        try {
+            loaded = loadTimer.record(bulkLoader);
+        } finally {
+            synchronized (preloadLock) {
+                loaded.forEach((flightId, view) -> {
+                    preloadChanges.getOrDefault(flightId, List.of()).forEach(change -> change.accept(view));
+                    Slot slot = new Slot();
+                    slot.view = view;
+                    if (slots.putIfAbsent(flightId, slot) == null && preloadReloads.contains(flightId)) {
+                        again.add(flightId);
+                    }
+                });
+                preloading = false;
+                preloadChanges = null;
+                preloadReloads = null;
+            }
+        }
+        reload(again);
+        return loaded;
+    }
+
+    int size() {
+        return slots.size();
+    }
+
+    List<V> loadedViews() {
+        List<V> views = new ArrayList<>(slots.size());
+        for (Slot slot : slots.values()) {
+            synchronized (slot) {
+                if (slot.view != null) {
+                    views.add(slot.view);
+                }
+            }
+        }
+        return views;
+    }
+
+    void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    private void startLoad(Slot slot) {
+        slot.loading = new CompletableFuture<>();
+        slot.pending = new ArrayList<>();
+    }
+
+    private void load(String flightId, Slot slot) {
+        V view;
+        try {
+            view = loadTimer.record(() -> loader.apply(flightId));
+        } catch (RuntimeException e) {
+            CompletableFuture<V> failed;
+            synchronized (slot) {
+                failed = slot.loading;
+                slot.loading = null;
+                slot.pending = null;
+                slot.reloadRequested = false;
+                if (slot.view == null) {
+                    slots.remove(flightId, slot);
+                } else {
+                    log.warn("Reloading the {} of flight {} failed: {}", name, flightId, e.getMessage());
+                }
+            }
+            failed.completeExceptionally(e);
+            return;
+        }
+        CompletableFuture<V> done;
+        boolean again;
+        boolean replaced;
+        synchronized (slot) {
+            slot.pending.forEach(change -> change.accept(view));
+            replaced = slot.view != null;
+            slot.view = view;
+            done = slot.loading;
+            slot.loading = null;
+            slot.pending = null;
+            again = slot.reloadRequested;
+            slot.reloadRequested = false;
+        }
+        done.complete(view);
+        if (replaced) {
+            reloaded.accept(flightId);
+        }
+        if (again) {
+            reload(List.of(flightId));
+        }
+    }
+
+    private void bufferForPreload(String flightId, Consumer<V> change) {
+        synchronized (preloadLock) {
+            if (preloadChanges != null) {
+                preloadChanges.computeIfAbsent(flightId, id -> new ArrayList<>()).add(change);
+                return;
+            }
+        }
+        // The preload finished in between and may have installed the flight
+        update(flightId, change);
+    }
+}
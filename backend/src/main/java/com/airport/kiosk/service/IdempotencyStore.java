@@ -0,0 +1,180 @@
+package com.airport.kiosk.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded, time-evicting store of responses for requests carrying an {@code Idempotency-Key}.
+ * <ul>
+ *   <li>The first request for a key claims it; concurrent duplicates wait for its response</li>
+ *   <li>Entries expire after {@code kiosk.idempotency.ttl} and the oldest are evicted beyond
+ *       {@code kiosk.idempotency.max-entries}</li>
+ *   <li>With {@code kiosk.idempotency.persistent=true} completed responses are also written to the
+ *       {@code idempotency_records} table so duplicates landing on another node are suppressed too</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class IdempotencyStore {
+
+    /**
+     * A completed response and the hash of the request body it answered.
+     */
+    public record CachedResponse(int status, String contentType, byte[] body, String requestHash) {
+    }
+
+    private record Entry(CompletableFuture<CachedResponse> response, long createdAtMillis) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter replayedCounter;
+    private final Counter inFlightCounter;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final boolean persistent;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                            @Value("${kiosk.idempotency.ttl:PT10M}") Duration ttl,
+                            @Value("${kiosk.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${kiosk.idempotency.persistent:false}") boolean persistent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.persistent = persistent;
+        this.replayedCounter = Counter.builder("kiosk.idempotency.duplicates")
+            .description("Duplicate requests answered from the idempotency store")
+            .tag("outcome", "replayed")
+            .register(meterRegistry);
+        this.inFlightCounter = Counter.builder("kiosk.idempotency.duplicates")
+            .description("Duplicate requests answered from the idempotency store")
+            .tag("outcome", "waited")
+            .register(meterRegistry);
+        meterRegistry.gauge("kiosk.idempotency.entries", entries, Map::size);
+    }
+
+    /**
+     * Claim a key. Returns empty if the caller owns the key and must execute the request, or the
+     * (possibly still pending) response of the original request otherwise.
+     */
+    public Optional<CompletableFuture<CachedResponse>> claim(String key) {
+        long now = System.currentTimeMillis();
+        Entry claimed = new Entry(new CompletableFuture<>(), now);
+        Entry existing = entries.putIfAbsent(key, claimed);
+        if (existing != null && now - existing.createdAtMillis() > ttlMillis) {
+            // Expired but not yet evicted: take it over
+            existing = entries.replace(key, existing, claimed) ? null : entries.get(key);
+        }
+        if (existing != null) {
+            if (existing.response().isDone()) {
+                replayedCounter.increment();
+            } else {
+                inFlightCounter.increment();
+            }
+            return Optional.of(existing.response());
+        }
+
+        insertionOrder.add(key);
+        evictOverflow();
+
+        if (persistent) {
+            CachedResponse stored = loadPersisted(key);
+            if (stored != null) {
+                claimed.response().complete(stored);
+                replayedCounter.increment();
+                return Optional.of(claimed.response());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Record the response for a claimed key and release waiting duplicates.
+     */
+    public void complete(String key, CachedResponse response) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.response().complete(response);
+        }
+        if (persistent) {
+            try {
+                jdbcTemplate.update("INSERT INTO idempotency_records (idempotency_key, status_code, content_type, body, "
+                    + "request_hash, created_at) VALUES (?, ?, ?, ?, ?, LOCALTIMESTAMP) "
+                    + "ON CONFLICT (idempotency_key) DO NOTHING",
+                    key, response.status(), response.contentType(), response.body(), response.requestHash());
+            } catch (RuntimeException e) {
+                log.warn("Failed to persist idempotency record {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Give up a claimed key (e.g. the request failed with a server error) so a retry executes again.
+     */
+    public void release(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            entry.response().complete(null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kiosk.idempotency.eviction-interval-ms:30000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        entries.entrySet().removeIf(e -> e.getValue().createdAtMillis() < cutoff && e.getValue().response().isDone());
+        insertionOrder.removeIf(key -> !entries.containsKey(key));
+        if (persistent) {
+            try {
+                jdbcTemplate.update("DELETE FROM idempotency_records WHERE created_at < LOCALTIMESTAMP - CAST(? AS INTERVAL)",
+                    (ttlMillis / 1000) + " seconds");
+            } catch (RuntimeException e) {
+                log.warn("Failed to evict idempotency records: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            Entry entry = entries.get(oldest);
+            if (entry != null && entry.response().isDone()) {
+                entries.remove(oldest, entry);
+            } else if (entry != null) {
+                // Still executing: keep it and look at the next oldest
+                insertionOrder.add(oldest);
+                return;
+            }
+        }
+    }
+
+    private CachedResponse loadPersisted(String key) {
+        try {
+            return jdbcTemplate.query("SELECT status_code, content_type, body, request_hash FROM idempotency_records "
+                    + "WHERE idempotency_key = ? AND created_at >= LOCALTIMESTAMP - CAST(? AS INTERVAL)",
+                rs -> rs.next()
+                    ? new CachedResponse(rs.getInt(1), rs.getString(2), rs.getBytes(3), rs.getString(4)) : null,
+                key, (ttlMillis / 1000) + " seconds");
+        } catch (RuntimeException e) {
+            log.warn("Failed to read idempotency record {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.airport.kiosk.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams a flight manifest (booking + seat + baggage per passenger) straight from a database
+ * cursor to the response, one row at a time. Nothing is materialized, so memory use is constant
+ * regardless of flight size.
+ */
+@Service
+public class ManifestService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String MANIFEST_SQL =
+        "SELECT b.booking_id, b.passenger_name, b.passport_number, b.booking_status, "
+        + "s.seat_number, s.seat_class, s.seat_status, g.baggage_count, g.baggage_weight, g.tag_number, "
+        + "GREATEST(b.updated_at, COALESCE(s.updated_at, b.updated_at), COALESCE(g.check_in_time, b.updated_at)) "
+        + "AS last_modified "
+        + "FROM bookings b "
+        + "LEFT JOIN seats s ON s.flight_id = b.flight_id AND s.departure_date = b.departure_date "
+        + "AND s.booking_id = b.booking_id "
+        + "LEFT JOIN baggage_records g ON g.booking_id = b.booking_id AND g.departure_date = b.departure_date "
+        + "WHERE b.flight_id = ? AND b.departure_date = ? ";
+
+    // A booking whose seat was released since has no seat to join to; the seat remembers it (V12)
+    private static final String SINCE_FILTER =
+        "AND (b.updated_at >= ? OR s.updated_at >= ? OR g.check_in_time >= ? OR EXISTS (SELECT 1 FROM seats r "
+        + "WHERE r.flight_id = b.flight_id AND r.departure_date = b.departure_date "
+        + "AND r.released_booking_id = b.booking_id AND r.updated_at >= ?)) ";
+
+    // Rows of transactions still in progress are not in the manifest, but carry their transaction's start
+    // time as updated_at: the snapshot must not be later than the oldest of them
+    private static final String PG_SNAPSHOT_SQL =
+        "SELECT LEAST(LOCALTIMESTAMP, COALESCE(CAST(MIN(xact_start) AS TIMESTAMP), LOCALTIMESTAMP)) "
+        + "FROM pg_stat_activity WHERE backend_xid IS NOT NULL AND pid <> pg_backend_pid()";
+
+    private static final String SNAPSHOT_SQL = "SELECT LOCALTIMESTAMP";
+
+    private static final String ORDER_BY = "ORDER BY b.booking_id";
+
+    private static final String CSV_HEADER = "booking_id,passenger_name,passport_number,booking_status,"
+        + "seat_number,seat_class,seat_status,baggage_count,baggage_weight,tag_number,last_modified\n";
+
+    public enum Format { CSV, NDJSON }
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final FlightService flightService;
+    private final ObjectMapper objectMapper;
+    /** How far the manifest rows may be behind the primary's clock that the snapshot is taken from. */
+    private final Duration snapshotMargin;
+
+    public ManifestService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                           FlightService flightService, ObjectMapper objectMapper,
+                           @Value("${kiosk.datasource.replicas.enabled:false}") boolean replicasEnabled,
+                           @Value("${kiosk.datasource.replicas.max-lag:PT5S}") Duration replicaMaxLag,
+                           @Value("${kiosk.datasource.replicas.check-interval-ms:1000}") long replicaCheckIntervalMillis) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        // PostgreSQL only streams with a cursor (fetch size) inside a transaction; the snapshot time and the
+        // rows are read in one REPEATABLE READ transaction, so both see the same committed state
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.flightService = flightService;
+        this.objectMapper = objectMapper;
+        // The rows may come from a replica up to max-lag behind (plus the time until the next lag check);
+        // handing out an earlier snapshot makes the next pull repeat a few rows rather than miss them
+        this.snapshotMargin = replicasEnabled
+            ? replicaMaxLag.plusMillis(replicaCheckIntervalMillis)
+            : Duration.ZERO;
+    }
+
+    /**
+     * Verify the flight exists (before the response is committed).
+     */
+    public void prepareManifest(String flightId) {
+        flightService.getDepartureDate(flightId);
+    }
+
+    /**
+     * Write the manifest rows changed at or after {@code since} (all rows if null) to {@code out}. Before the
+     * first row, {@code onSnapshot} gets the database time to hand out as the next {@code since} value.
+     */
+    public void writeManifest(String flightId, LocalDateTime since, Format format, OutputStream out,
+                              Consumer<LocalDateTime> onSnapshot) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        RowCallbackHandler rowWriter;
+        JsonGenerator json = null;
+        if (format == Format.NDJSON) {
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.setRootValueSeparator(null);
+            JsonGenerator generator = json;
+            rowWriter = rs -> writeJsonRow(rs, generator, writer);
+        } else {
+            writer.write(CSV_HEADER);
+            rowWriter = rs -> writeCsvRow(rs, writer);
+        }
+
+        String sql = since != null ? MANIFEST_SQL + SINCE_FILTER + ORDER_BY : MANIFEST_SQL + ORDER_BY;
+        LocalDate departureDate = flightService.getDepartureDate(flightId);
+        Object[] args = since != null
+            ? new Object[] { flightId, departureDate, Timestamp.valueOf(since), Timestamp.valueOf(since),
+                Timestamp.valueOf(since), Timestamp.valueOf(since) }
+            : new Object[] { flightId, departureDate };
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                onSnapshot.accept(snapshot());
+                jdbcTemplate.query(sql, rowWriter, args);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    /**
+     * The next {@code since} value; the first statement of the manifest transaction, so it fixes the rows seen.
+     */
+    private LocalDateTime snapshot() {
+        boolean postgres;
+        try {
+            postgres = DataSourceUtils.getConnection(dataSource).isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            postgres = false;
+        }
+        return jdbcTemplate.queryForObject(postgres ? PG_SNAPSHOT_SQL : SNAPSHOT_SQL, LocalDateTime.class)
+            .minus(snapshotMargin);
+    }
+
+    private void writeJsonRow(ResultSet rs, JsonGenerator json, Writer writer) throws SQLException {
+        try {
+            json.writeStartObject();
+            json.writeStringField("bookingId", rs.getString("booking_id"));
+            json.writeStringField("passengerName", rs.getString("passenger_name"));
+            writeOptionalString(json, "passportNumber", rs.getString("passport_number"));
+            json.writeStringField("bookingStatus", rs.getString("booking_status"));
+            writeOptionalString(json, "seatNumber", rs.getString("seat_number"));
+            writeOptionalString(json, "seatClass", rs.getString("seat_class"));
+            writeOptionalString(json, "seatStatus", rs.getString("seat_status"));
+            int baggageCount = rs.getInt("baggage_count");
+            if (!rs.wasNull()) {
+                json.writeNumberField("baggageCount", baggageCount);
+            }
+            BigDecimal weight = rs.getBigDecimal("baggage_weight");
+            if (weight != null) {
+                json.writeNumberField("baggageWeight", weight);
+            }
+            writeOptionalString(json, "tagNumber", rs.getString("tag_number"));
+            Timestamp lastModified = rs.getTimestamp("last_modified");
+            writeOptionalString(json, "lastModified",
+                lastModified != null ? lastModified.toLocalDateTime().toString() : null);
+            json.writeEndObject();
+            json.flush();
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvRow(ResultSet rs, Writer writer) throws SQLException {
+        try {
+            writeCsvField(writer, rs.getString("booking_id"), false);
+            writeCsvField(writer, rs.getString("passenger_name"), true);
+            writeCsvField(writer, rs.getString("passport_number"), true);
+            writeCsvField(writer, rs.getString("booking_status"), true);
+            writeCsvField(writer, rs.getString("seat_number"), true);
+            writeCsvField(writer, rs.getString("seat_class"), true);
+            writeCsvField(writer, rs.getString("seat_status"), true);
+            writeCsvField(writer, rs.getString("baggage_count"), true);
+            writeCsvField(writer, rs.getString("baggage_weight"), true);
+            writeCsvField(writer, rs.getString("tag_number"), true);
+            Timestamp lastModified = rs.getTimestamp("last_modified");
+            writeCsvField(writer, lastModified != null ? lastModified.toLocalDateTime().toString() : null, true);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeOptionalString(JsonGenerator json, String field, String value) throws IOException {
+        if (value != null) {
+            json.writeStringField(field, value);
+        }
+    }
+
+    private static void writeCsvField(Writer writer, String value, boolean separator) throws IOException {
+        if (separator) {
+            writer.write(',');
+        }
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+}
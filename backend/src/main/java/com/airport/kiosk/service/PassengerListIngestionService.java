@@ -0,0 +1,282 @@
+package com.airport.kiosk.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.airport.kiosk.dto.PassengerListIngestionResult;
+import com.airport.kiosk.event.BookingsChangedEvent;
+import com.airport.kiosk.event.KioskEventPublisher;
+import com.airport.kiosk.exception.FlightNotFoundException;
+import com.airport.kiosk.model.PassengerListState;
+import com.airport.kiosk.model.Seat;
+import com.airport.kiosk.repository.FlightRepository;
+import com.airport.kiosk.repository.PassengerListStateRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies PNL (full passenger list) and ADL (add/change/delete delta) messages to bookings.
+ * <ul>
+ *   <li>Entries are streamed from {@link PassengerListParser} and written with batched MERGE upserts,
+ *       one transaction per batch, so a 50k-passenger list never sits in memory at once</li>
+ *   <li>A PNL cancels CONFIRMED bookings of the flight it no longer lists; ADL DEL cancels the named booking.
+ *       Seats reserved by cancelled bookings are released</li>
+ *   <li>A booking reference that already belongs to another flight is rejected and reported, not moved</li>
+ *   <li>Messages whose sequence number is not newer than the last applied one are skipped, and upserts
+ *       are idempotent, so re-delivery or replay of the same message is harmless</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PassengerListIngestionService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String UPSERT_SQL =
+        "MERGE INTO bookings b USING (SELECT CAST(? AS VARCHAR(50)) AS booking_id, "
+        + "CAST(? AS VARCHAR(255)) AS passenger_name, CAST(? AS VARCHAR(50)) AS passport_number, "
+        + "CAST(? AS VARCHAR(255)) AS email, CAST(? AS VARCHAR(50)) AS phone, "
+        + "CAST(? AS VARCHAR(50)) AS flight_id, CAST(? AS DATE) AS departure_date) s "
+        + "ON b.booking_id = s.booking_id "
+        // A booking of another flight is left alone (update count 0) and reported, never moved to this flight
+        + "WHEN MATCHED AND b.flight_id = s.flight_id THEN UPDATE SET passenger_name = s.passenger_name, "
+        + "passport_number = COALESCE(s.passport_number, b.passport_number), "
+        + "email = COALESCE(s.email, b.email), phone = COALESCE(s.phone, b.phone), "
+        + "departure_date = s.departure_date, "
+        + "booking_status = CASE WHEN b.booking_status = 'CANCELLED' THEN 'CONFIRMED' ELSE b.booking_status END, "
+        + "updated_at = LOCALTIMESTAMP "
+        + "WHEN NOT MATCHED THEN INSERT (booking_id, passenger_name, passport_number, email, phone, flight_id, "
+        + "booking_status, created_at, updated_at, departure_date) VALUES (s.booking_id, s.passenger_name, "
+        + "s.passport_number, s.email, s.phone, s.flight_id, 'CONFIRMED', LOCALTIMESTAMP, LOCALTIMESTAMP, "
+        + "s.departure_date)";
+
+    private static final String CANCEL_SQL =
+        "UPDATE bookings SET booking_status = 'CANCELLED', updated_at = LOCALTIMESTAMP "
+        + "WHERE booking_id = ? AND flight_id = ? AND departure_date = ? AND booking_status = 'CONFIRMED'";
+
+    private static final String CANCEL_ABSENT_SQL =
+        "UPDATE bookings SET booking_status = 'CANCELLED', updated_at = LOCALTIMESTAMP "
+        + "WHERE flight_id = ? AND departure_date = ? AND booking_status = 'CONFIRMED' AND updated_at < ?";
+
+    private static final String FIND_RELEASABLE_SEATS_SQL =
+        "SELECT s.seat_id, s.seat_class FROM seats s "
+        + "JOIN bookings b ON b.booking_id = s.booking_id AND b.departure_date = s.departure_date "
+        + "WHERE s.flight_id = ? AND s.departure_date = ? AND s.seat_status = 'RESERVED' "
+        + "AND b.booking_status = 'CANCELLED'";
+
+    private static final String RELEASE_SEAT_SQL =
+        "UPDATE seats SET seat_status = 'AVAILABLE', booking_id = NULL, locked_by = NULL, lock_expiry = NULL, "
+        + "version = version + 1, updated_at = LOCALTIMESTAMP "
+        + "WHERE seat_id = ? AND departure_date = ? AND seat_status = 'RESERVED'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final FlightRepository flightRepository;
+    private final PassengerListStateRepository stateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KioskEventPublisher kioskEventPublisher;
+    private final SeatAvailabilityService seatAvailabilityService;
+
+    @Value("${kiosk.pnl.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Ingest a single PNL or ADL message.
+     */
+    public PassengerListIngestionResult ingest(Reader message) throws IOException {
+        long start = System.nanoTime();
+        PassengerListParser parser = new PassengerListParser(message);
+        PassengerListParser.Header header = parser.readHeader();
+        String flightId = header.flightId();
+
+        PassengerListIngestionResult result = new PassengerListIngestionResult();
+        result.setMessageType(header.messageType().name());
+        result.setFlightId(flightId);
+        result.setSequence(header.sequence());
+
+        LocalDate departureDate = flightRepository.findByFlightId(flightId)
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found: " + flightId))
+            .getDepartureTime().toLocalDate();
+
+        boolean alreadyApplied = stateRepository.findById(flightId)
+            .map(state -> state.getLastSequence() >= header.sequence())
+            .orElse(false);
+        if (alreadyApplied) {
+            result.setSkipped(true);
+            log.info("Skipping {} {} for flight {}: sequence already applied",
+                header.messageType(), header.sequence(), flightId);
+            return result;
+        }
+
+        // Database clock at the start of a PNL: bookings not touched by this list stay older than this
+        LocalDateTime listStart = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+        List<String> releasedSeats = new ArrayList<>();
+
+        List<PassengerListParser.Entry> batch = new ArrayList<>(batchSize);
+        PassengerListParser.Entry entry;
+        while ((entry = parser.next()) != null) {
+            batch.add(entry);
+            result.setPassengersProcessed(result.getPassengersProcessed() + 1);
+            if (batch.size() >= batchSize) {
+                applyInTransaction(flightId, departureDate, batch, result, releasedSeats);
+                batch.clear();
+            }
+        }
+
+        // Last batch, PNL absence cancellations and the sequence marker commit together
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            applyBatch(flightId, departureDate, batch, result);
+            if (header.messageType() == PassengerListParser.MessageType.PNL) {
+                result.setBookingsCancelled(result.getBookingsCancelled()
+                    + jdbcTemplate.update(CANCEL_ABSENT_SQL, flightId, departureDate, listStart));
+            }
+            releaseSeatsOfCancelledBookings(flightId, departureDate, result, releasedSeats);
+            stateRepository.save(new PassengerListState(flightId, header.sequence(),
+                header.messageType().name(), null));
+        });
+
+        broadcastReleasedSeats(flightId, releasedSeats);
+        eventPublisher.publishEvent(new BookingsChangedEvent(flightId, false));
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        result.setElapsedMillis(elapsedMillis);
+        result.setPassengersPerSecond(result.getPassengersProcessed() * 1000 / elapsedMillis);
+        log.info("Applied {} {} for flight {}: {} passengers ({} upserted, {} rejected, {} cancelled, "
+                + "{} seats released) in {} ms, {} passengers/s", header.messageType(), header.sequence(), flightId,
+            result.getPassengersProcessed(), result.getBookingsUpserted(), result.getBookingsRejected(),
+            result.getBookingsCancelled(), result.getSeatsReleased(), elapsedMillis, result.getPassengersPerSecond());
+        return result;
+    }
+
+    private void applyInTransaction(String flightId, LocalDate departureDate, List<PassengerListParser.Entry> batch,
+                                    PassengerListIngestionResult result, List<String> releasedSeats) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            applyBatch(flightId, departureDate, batch, result);
+            releaseSeatsOfCancelledBookings(flightId, departureDate, result, releasedSeats);
+        });
+    }
+
+    /**
+     * Apply entries in message order, sending each consecutive run of upserts or deletes as one JDBC batch.
+     */
+    private void applyBatch(String flightId, LocalDate departureDate, List<PassengerListParser.Entry> batch,
+                            PassengerListIngestionResult result) {
+        int runStart = 0;
+        for (int i = 1; i <= batch.size(); i++) {
+            boolean endOfRun = i == batch.size()
+                || isDelete(batch.get(i)) != isDelete(batch.get(runStart));
+            if (endOfRun) {
+                List<PassengerListParser.Entry> run = batch.subList(runStart, i);
+                if (isDelete(run.get(0))) {
+                    result.setBookingsCancelled(result.getBookingsCancelled() + sum(jdbcTemplate.batchUpdate(
+                        CANCEL_SQL, run, run.size(), (ps, e) -> {
+                            ps.setString(1, e.bookingId());
+                            ps.setString(2, flightId);
+                            ps.setObject(3, departureDate);
+                        })));
+                } else {
+                    int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, run, run.size(), (ps, e) -> {
+                        ps.setString(1, e.bookingId());
+                        ps.setString(2, e.passengerName());
+                        ps.setString(3, e.passportNumber());
+                        ps.setString(4, e.email());
+                        ps.setString(5, e.phone());
+                        ps.setString(6, flightId);
+                        ps.setObject(7, departureDate);
+                    });
+                    result.setBookingsUpserted(result.getBookingsUpserted() + sum(counts));
+                    rejectOtherFlightsBookings(flightId, run, counts, result);
+                }
+                runStart = i;
+            }
+        }
+    }
+
+    /**
+     * Entries the upsert left alone (count 0): their booking reference belongs to another flight.
+     */
+    private static void rejectOtherFlightsBookings(String flightId, List<PassengerListParser.Entry> run,
+                                                   int[][] counts, PassengerListIngestionResult result) {
+        int i = 0;
+        for (int[] batchCounts : counts) {
+            for (int count : batchCounts) {
+                if (count == 0) {
+                    String bookingId = run.get(i).bookingId();
+                    log.warn("Passenger list for flight {} names booking {} of another flight; not applied",
+                        flightId, bookingId);
+                    result.setBookingsRejected(result.getBookingsRejected() + 1);
+                    if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                        result.getErrors().add("booking " + bookingId + " belongs to another flight");
+                    }
+                }
+                i++;
+            }
+        }
+    }
+
+    private void releaseSeatsOfCancelledBookings(String flightId, LocalDate departureDate,
+                                                 PassengerListIngestionResult result, List<String> releasedSeats) {
+        List<String> seatIds = new ArrayList<>();
+        List<Seat.SeatClass> seatClasses = new ArrayList<>();
+        jdbcTemplate.query(FIND_RELEASABLE_SEATS_SQL, rs -> {
+            seatIds.add(rs.getString("seat_id"));
+            seatClasses.add(Seat.SeatClass.valueOf(rs.getString("seat_class")));
+        }, flightId, departureDate);
+        if (seatIds.isEmpty()) {
+            return;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(RELEASE_SEAT_SQL, seatIds, seatIds.size(),
+            (ps, seatId) -> {
+                ps.setString(1, seatId);
+                ps.setObject(2, departureDate);
+            });
+        int released = sum(counts);
+        int i = 0;
+        for (int[] batchCounts : counts) {
+            for (int count : batchCounts) {
+                // A seat changed since the select (count 0) was not released here, nor announced
+                if (count > 0) {
+                    seatAvailabilityService.seatChanged(flightId, seatClasses.get(i), Seat.SeatStatus.RESERVED,
+                        Seat.SeatStatus.AVAILABLE);
+                    releasedSeats.add(seatIds.get(i));
+                }
+                i++;
+            }
+        }
+        flightRepository.adjustAvailableSeats(flightId, released);
+        result.setSeatsReleased(result.getSeatsReleased() + released);
+    }
+
+    private void broadcastReleasedSeats(String flightId, List<String> seatIds) {
+        for (String seatId : seatIds) {
+            kioskEventPublisher.seatChanged(flightId, seatId, Seat.SeatStatus.AVAILABLE, null);
+        }
+    }
+
+    private static boolean isDelete(PassengerListParser.Entry entry) {
+        return entry.action() == PassengerListParser.Action.DEL;
+    }
+
+    private static int sum(int[][] counts) {
+        int total = 0;
+        for (int[] batchCounts : counts) {
+            for (int count : batchCounts) {
+                total += Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+}
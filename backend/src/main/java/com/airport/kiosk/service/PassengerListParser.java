@@ -0,0 +1,182 @@
+package com.airport.kiosk.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Streaming parser for PNL/ADL-style passenger list messages.
+ * <pre>
+ * PNL FL001 12                      (header: message type, flight ID, sequence number)
+ * 1DOE/JOHN MR .L/BK001 .P/P12345678 .E/JOHN.DOE@EMAIL.COM .T/+1234567890
+ * ENDPNL
+ *
+ * ADL FL001 13
+ * ADD                               (section markers: ADD, CHG, DEL)
+ * 1SMITH/JANE MS .L/BK010 .P/P99887766
+ * DEL
+ * 1DOE/JOHN MR .L/BK001
+ * ENDADL
+ * </pre>
+ * Entries are returned one at a time so arbitrarily large lists are processed in bounded memory.
+ * Lines in a PNL are always treated as ADD.
+ */
+public class PassengerListParser {
+
+    public enum MessageType { PNL, ADL }
+
+    public enum Action { ADD, CHG, DEL }
+
+    public record Header(MessageType messageType, String flightId, long sequence) {
+    }
+
+    public record Entry(Action action, String bookingId, String passengerName,
+                        String passportNumber, String email, String phone) {
+    }
+
+    private final BufferedReader reader;
+    private Header header;
+    private Action section = Action.ADD;
+    private long lineNumber;
+
+    public PassengerListParser(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    public Header readHeader() throws IOException {
+        String line = nextContentLine();
+        if (line == null) {
+            throw new IllegalArgumentException("Empty passenger list message");
+        }
+        String[] parts = line.split("\\s+");
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Invalid header, expected '<PNL|ADL> <flightId> <sequence>': " + line);
+        }
+        try {
+            header = new Header(MessageType.valueOf(parts[0].toUpperCase(Locale.ROOT)), parts[1],
+                Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid header: " + line, e);
+        }
+        return header;
+    }
+
+    /**
+     * @return the next passenger entry, or null at the end of the message
+     */
+    public Entry next() throws IOException {
+        if (header == null) {
+            readHeader();
+        }
+        String line;
+        while ((line = nextContentLine()) != null) {
+            String upper = line.toUpperCase(Locale.ROOT);
+            if (upper.startsWith("END")) {
+                return null;
+            }
+            if (header.messageType() == MessageType.ADL && isSectionMarker(upper)) {
+                section = Action.valueOf(upper);
+                continue;
+            }
+            return parseEntry(line, header.messageType() == MessageType.PNL ? Action.ADD : section);
+        }
+        return null;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private Entry parseEntry(String line, Action action) {
+        int remarksStart = line.indexOf(" .");
+        String nameElement = (remarksStart >= 0 ? line.substring(0, remarksStart) : line).trim();
+
+        String bookingId = null;
+        String passport = null;
+        String email = null;
+        String phone = null;
+        if (remarksStart >= 0) {
+            for (String remark : line.substring(remarksStart + 2).split("\\s+\\.")) {
+                int slash = remark.indexOf('/');
+                if (slash <= 0) {
+                    continue;
+                }
+                String code = remark.substring(0, slash).trim().toUpperCase(Locale.ROOT);
+                String value = remark.substring(slash + 1).trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                switch (code) {
+                    case "L" -> bookingId = value.toUpperCase(Locale.ROOT);
+                    case "P" -> passport = value.toUpperCase(Locale.ROOT);
+                    case "E" -> email = value.toLowerCase(Locale.ROOT);
+                    case "T" -> phone = value;
+                    default -> { }
+                }
+            }
+        }
+        if (bookingId == null) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": missing .L/ booking reference");
+        }
+        return new Entry(action, bookingId, formatName(nameElement), passport, email, phone);
+    }
+
+    /**
+     * Convert "1DOE/JOHN MR" into "John Doe" (matching how names are stored in bookings).
+     */
+    static String formatName(String nameElement) {
+        int start = 0;
+        while (start < nameElement.length() && Character.isDigit(nameElement.charAt(start))) {
+            start++;
+        }
+        String name = nameElement.substring(start).trim();
+        int slash = name.indexOf('/');
+        if (slash < 0) {
+            return titleCase(name);
+        }
+        String surname = name.substring(0, slash);
+        String given = name.substring(slash + 1).trim();
+        int lastSpace = given.lastIndexOf(' ');
+        if (lastSpace > 0 && isTitle(given.substring(lastSpace + 1))) {
+            given = given.substring(0, lastSpace);
+        } else if (isTitle(given)) {
+            given = "";
+        }
+        return titleCase(given.isEmpty() ? surname : given + " " + surname);
+    }
+
+    private static boolean isTitle(String token) {
+        return switch (token.toUpperCase(Locale.ROOT)) {
+            case "MR", "MRS", "MS", "MISS", "MSTR", "DR", "CHD", "INF" -> true;
+            default -> false;
+        };
+    }
+
+    private static String titleCase(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        boolean capitalize = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            builder.append(capitalize ? Character.toUpperCase(c) : Character.toLowerCase(c));
+            capitalize = c == ' ' || c == '-' || c == '\'';
+        }
+        return builder.toString();
+    }
+
+    private static boolean isSectionMarker(String upper) {
+        return upper.equals("ADD") || upper.equals("CHG") || upper.equals("DEL");
+    }
+
+    private String nextContentLine() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (!line.isEmpty()) {
+                return line;
+            }
+        }
+        return null;
+    }
+}
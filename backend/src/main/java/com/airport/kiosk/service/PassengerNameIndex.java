@@ -0,0 +1,534 @@
+package com.airport.kiosk.service;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import com.airport.kiosk.dto.PassengerSearchResponse;
+import com.airport.kiosk.event.BookingsChangedEvent;
+import com.airport.kiosk.event.FlightsArchivedEvent;
+import com.airport.kiosk.event.FlightsChangedEvent;
+import com.airport.kiosk.event.SeatsResyncEvent;
+import com.airport.kiosk.exception.BookingNotFoundException;
+import com.airport.kiosk.model.Booking;
+import com.airport.kiosk.repository.BookingRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Passenger name search for kiosks (passengers without their booking reference or passport at hand), answered
+ * from memory instead of a {@code LIKE} scan of the bookings table.
+ * <ul>
+ *   <li>Names are kept per flight, normalized to upper case A-Z words; every letter of a word is indexed with
+ *       the two letters before it (blanks at the start of the word), so a query word finds the names it is a
+ *       prefix of</li>
+ *   <li>Typos: names sharing enough of these letter triples with the query are compared with an edit distance
+ *       (letters inserted, dropped, replaced or swapped) against their words' prefixes. Query words of 4 letters
+ *       may have one typo, of 7 letters two</li>
+ *   <li>Search results only show masked names (first letter of each word), never booking ids: the caller is not
+ *       authenticated. A match becomes a booking through {@link #resolve}, which also needs the end of the
+ *       passenger's passport number</li>
+ *   <li>Flights departing within {@code kiosk.name-index.preload-days} are loaded at startup with one query; any
+ *       other flight on its first search</li>
+ *   <li>A flight's index is never modified: it is rebuilt from the database in the background and swapped in
+ *       when the flight's bookings change ({@link BookingsChangedEvent}, also from other nodes through the
+ *       cluster relay) or the flight is named by a {@link FlightsChangedEvent}, so searches take no lock. A
+ *       change during a rebuild has the flight rebuilt once more ({@link FlightViews})</li>
+ * </ul>
+ * The estimated heap size of the index is reported as {@code kiosk.name-index.bytes}.
+ */
+@Slf4j
+@Service
+public class PassengerNameIndex {
+
+    private static final int MAX_QUERY_LENGTH = 100;
+    /** Passport characters (from the end) a name match must be confirmed with. */
+    static final int MIN_PASSPORT_SUFFIX = 4;
+    /** A typo changes at most this many of a word's letter triples (a swap of two letters). */
+    private static final int TRIPLES_PER_TYPO = 4;
+
+    /**
+     * Names of one flight's bookings. Normalized name {@code i} is {@code letters[nameStarts[i]]} to
+     * {@code letters[nameStarts[i + 1] - 1]} (one array instead of a String per name). Letter triples are encoded
+     * as {@code (a * 27 + b) * 27 + c} with blank 0 and A-Z 1-26; {@code keys} holds them sorted, and the names
+     * containing {@code keys[k]} are {@code postings[offsets[k]]} to {@code postings[offsets[k + 1] - 1]}.
+     */
+    static final class FlightNames {
+
+        private final String flightId;
+        private final LocalDate departureDate;
+        private final String[] bookingIds;
+        private final String[] names;
+        private final byte[] letters;
+        private final int[] nameStarts;
+        private final int[] keys;
+        private final int[] offsets;
+        private final int[] postings;
+        private final long bytes;
+
+        FlightNames(String flightId, LocalDate departureDate, List<BookingRepository.NameState> bookings) {
+            this.flightId = flightId;
+            this.departureDate = departureDate;
+            List<String> ids = new ArrayList<>(bookings.size());
+            List<String> displayed = new ArrayList<>(bookings.size());
+            List<String> normalized = new ArrayList<>(bookings.size());
+            for (BookingRepository.NameState booking : bookings) {
+                String name = booking.passengerName() != null ? normalize(booking.passengerName()) : "";
+                if (booking.bookingStatus() != Booking.BookingStatus.CANCELLED && !name.isEmpty()) {
+                    ids.add(booking.bookingId());
+                    displayed.add(booking.passengerName());
+                    normalized.add(name);
+                }
+            }
+            bookingIds = ids.toArray(String[]::new);
+            names = displayed.toArray(String[]::new);
+            nameStarts = new int[normalized.size() + 1];
+            for (int i = 0; i < normalized.size(); i++) {
+                nameStarts[i + 1] = nameStarts[i] + normalized.get(i).length();
+            }
+            letters = new byte[nameStarts[normalized.size()]];
+            for (int i = 0; i < normalized.size(); i++) {
+                String name = normalized.get(i);
+                for (int c = 0; c < name.length(); c++) {
+                    letters[nameStarts[i] + c] = (byte) name.charAt(c);
+                }
+            }
+
+            // (triple, name) pairs sorted by triple, then name: the posting lists in order
+            long[] pairs = new long[16];
+            int pairCount = 0;
+            for (int i = 0; i < normalized.size(); i++) {
+                for (int key : triples(normalized.get(i))) {
+                    if (pairCount == pairs.length) {
+                        pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                    }
+                    pairs[pairCount++] = (long) key << 32 | i;
+                }
+            }
+            Arrays.sort(pairs, 0, pairCount);
+            int[] sortedKeys = new int[pairCount];
+            int[] starts = new int[pairCount + 1];
+            postings = new int[pairCount];
+            int keyCount = 0;
+            for (int p = 0; p < pairCount; p++) {
+                int key = (int) (pairs[p] >>> 32);
+                if (keyCount == 0 || sortedKeys[keyCount - 1] != key) {
+                    sortedKeys[keyCount] = key;
+                    starts[keyCount++] = p;
+                }
+                postings[p] = (int) pairs[p];
+            }
+            starts[keyCount] = pairCount;
+            keys = Arrays.copyOf(sortedKeys, keyCount);
+            offsets = Arrays.copyOf(starts, keyCount + 1);
+
+            long size = 64 + arrayBytes(keys.length, 4) + arrayBytes(offsets.length, 4)
+                + arrayBytes(postings.length, 4) + 2 * arrayBytes(bookingIds.length, 4)
+                + arrayBytes(letters.length, 1) + arrayBytes(nameStarts.length, 4);
+            for (int i = 0; i < bookingIds.length; i++) {
+                size += stringBytes(bookingIds[i]) + stringBytes(names[i]);
+            }
+            bytes = size;
+        }
+
+        int size() {
+            return bookingIds.length;
+        }
+
+        PassengerSearchResponse search(String query, int maxResults) {
+            List<PassengerSearchResponse.Match> matches = new ArrayList<>();
+            for (Candidate candidate : rank(query, maxResults)) {
+                matches.add(new PassengerSearchResponse.Match(mask(names[candidate.index()]), candidate.typos()));
+            }
+            return new PassengerSearchResponse(flightId, departureDate, query, matches, bookingIds.length);
+        }
+
+        List<String> matchingBookingIds(String query, int maxResults) {
+            return rank(query, maxResults).stream().map(candidate -> bookingIds[candidate.index()]).toList();
+        }
+
+        /**
+         * The names matching the query, best first, at most {@code maxResults} ({@link Integer#MAX_VALUE} for all).
+         */
+        private List<Candidate> rank(String query, int maxResults) {
+            String[] words = query.split(" ");
+            int typoBudget = 0;
+            for (String word : words) {
+                typoBudget += allowedTypos(word.length());
+            }
+            // A name within the typo budget shares at least this many of the query's distinct triples
+            int[] queryKeys = triples(query);
+            int threshold = Math.max(1, queryKeys.length - TRIPLES_PER_TYPO * typoBudget);
+
+            int[] shared = new int[bookingIds.length];
+            for (int key : queryKeys) {
+                int k = Arrays.binarySearch(keys, key);
+                if (k >= 0) {
+                    for (int p = offsets[k]; p < offsets[k + 1]; p++) {
+                        shared[postings[p]]++;
+                    }
+                }
+            }
+
+            int longestWord = 0;
+            for (String word : words) {
+                longestWord = Math.max(longestWord, word.length());
+            }
+            int[][] rows = new int[3][longestWord + 3];
+            List<Candidate> candidates = new ArrayList<>();
+            for (int i = 0; i < shared.length; i++) {
+                if (shared[i] >= threshold) {
+                    Candidate candidate = compare(i, words, rows);
+                    if (candidate != null) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+            candidates.sort(Comparator.comparingInt(Candidate::typos)
+                .thenComparingInt(Candidate::partialWords)
+                .thenComparing(candidate -> names[candidate.index()]));
+
+            return candidates.subList(0, Math.min(maxResults, candidates.size()));
+        }
+
+        /**
+         * @return the typos of the best matching word of the name for each query word, or null if a query word
+         *         matches none within its allowed typos
+         */
+        private Candidate compare(int index, String[] words, int[][] rows) {
+            int nameEnd = nameStarts[index + 1];
+            int typos = 0;
+            int partialWords = 0;
+            for (String word : words) {
+                int allowed = allowedTypos(word.length());
+                int best = Integer.MAX_VALUE;
+                int start = nameStarts[index];
+                while (start < nameEnd && best > 0) {
+                    int end = start;
+                    while (end < nameEnd && letters[end] != ' ') {
+                        end++;
+                    }
+                    int distance = prefixDistance(word, letters, start, end, allowed, rows);
+                    if (distance >= 0) {
+                        best = Math.min(best, distance);
+                    }
+                    start = end + 1;
+                }
+                if (best == Integer.MAX_VALUE) {
+                    return null;
+                }
+                typos += best >> 1;
+                partialWords += best & 1;
+            }
+            return new Candidate(index, typos, partialWords);
+        }
+
+        long bytes() {
+            return bytes;
+        }
+    }
+
+    private record Candidate(int index, int typos, int partialWords) {
+    }
+
+    private final BookingRepository bookingRepository;
+    private final FlightService flightService;
+    private final int preloadDays;
+    private final int maxResults;
+    private final FlightViews<FlightNames> flights;
+    private final Timer searchTimer;
+    private final Counter resolvedCounter;
+    private final Counter rejectedCounter;
+
+    public PassengerNameIndex(BookingRepository bookingRepository, FlightService flightService,
+                              MeterRegistry meterRegistry,
+                              @Value("${kiosk.name-index.preload-days:2}") int preloadDays,
+                              @Value("${kiosk.name-index.max-results:10}") int maxResults) {
+        this.bookingRepository = bookingRepository;
+        this.flightService = flightService;
+        this.preloadDays = preloadDays;
+        this.maxResults = maxResults;
+        this.flights = new FlightViews<>("name-index", this::load, flightId -> { },
+            meterRegistry.timer("kiosk.name-index.load"));
+        this.searchTimer = meterRegistry.timer("kiosk.name-index.search");
+        this.resolvedCounter = meterRegistry.counter("kiosk.name-index.resolutions", "outcome", "resolved");
+        this.rejectedCounter = meterRegistry.counter("kiosk.name-index.resolutions", "outcome", "rejected");
+        meterRegistry.gauge("kiosk.name-index.flights", flights, FlightViews::size);
+        meterRegistry.gauge("kiosk.name-index.passengers", flights,
+            index -> index.loadedViews().stream().mapToLong(FlightNames::size).sum());
+        meterRegistry.gauge("kiosk.name-index.bytes", flights,
+            index -> index.loadedViews().stream().mapToLong(FlightNames::bytes).sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flights.shutdown();
+    }
+
+    /**
+     * Bookings of the flight whose passenger name contains every word of {@code name} (or the start of a word,
+     * allowing for typos), best match first.
+     */
+    public PassengerSearchResponse search(String flightId, String name) {
+        String query = query(flightId, name);
+        FlightNames index = flights.get(flightId.trim());
+        return searchTimer.record(() -> index.search(query, maxResults));
+    }
+
+    /**
+     * The booking id of the one name match whose passport number ends with {@code passportEnd} (at least
+     * {@value #MIN_PASSPORT_SUFFIX} characters, or the whole number). All name matches are checked, not just
+     * the ones a search shows. The answer is the same whether the name or the passport did not match, so it does
+     * not tell which one was guessed right.
+     *
+     * @param passportNumbers passport numbers of booking ids, read at once (from the database, or an offline edge
+     *                        node's snapshot)
+     */
+    public String resolve(String flightId, String name, String passportEnd,
+                          Function<Collection<String>, Map<String, String>> passportNumbers) {
+        String query = query(flightId, name);
+        String suffix = passportEnd != null ? passportEnd.replaceAll("[^A-Za-z0-9]", "").toUpperCase(Locale.ROOT) : "";
+        if (suffix.length() < MIN_PASSPORT_SUFFIX) {
+            throw new IllegalArgumentException("the last " + MIN_PASSPORT_SUFFIX
+                + " characters of the passport number must be provided");
+        }
+        List<String> candidates = flights.get(flightId.trim()).matchingBookingIds(query, Integer.MAX_VALUE);
+        Map<String, String> passports = candidates.isEmpty() ? Map.of() : passportNumbers.apply(candidates);
+        List<String> matching = candidates.stream()
+            .filter(bookingId -> {
+                String passport = passports.get(bookingId);
+                return passport != null
+                    && passport.replaceAll("[^A-Za-z0-9]", "").toUpperCase(Locale.ROOT).endsWith(suffix);
+            })
+            .toList();
+        if (matching.size() != 1) {
+            rejectedCounter.increment();
+            throw new BookingNotFoundException("No booking matches this name and passport number");
+        }
+        resolvedCounter.increment();
+        return matching.get(0);
+    }
+
+    private static String query(String flightId, String name) {
+        if (flightId == null || flightId.isBlank()) {
+            throw new IllegalArgumentException("flight must be provided");
+        }
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("name must be provided");
+        }
+        String query = normalize(name.length() > MAX_QUERY_LENGTH ? name.substring(0, MAX_QUERY_LENGTH) : name);
+        if (query.isEmpty()) {
+            throw new IllegalArgumentException("name must contain letters");
+        }
+        return query;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (preloadDays <= 0) {
+            return;
+        }
+        try {
+            LocalDate from = LocalDate.now();
+            LocalDate to = from.plusDays(preloadDays - 1L);
+            Map<String, FlightNames> loaded = flights.preload(() -> {
+                Map<String, List<BookingRepository.NameState>> byFlight = new HashMap<>();
+                for (BookingRepository.NameState booking : bookingRepository.findNamesByDepartureDateBetween(from, to)) {
+                    byFlight.computeIfAbsent(booking.flightId(), id -> new ArrayList<>()).add(booking);
+                }
+                Map<String, FlightNames> indexes = new HashMap<>();
+                byFlight.forEach((flightId, bookings) -> indexes.put(flightId,
+                    new FlightNames(flightId, bookings.get(0).departureDate(), bookings)));
+                return indexes;
+            });
+            log.info("Name index loaded for {} passengers of {} flights departing {} to {} ({} KB)",
+                loaded.values().stream().mapToInt(FlightNames::size).sum(), loaded.size(), from, to,
+                loaded.values().stream().mapToLong(FlightNames::bytes).sum() / 1024);
+        } catch (RuntimeException e) {
+            // Flights are loaded on first search instead (e.g. an edge node that starts offline)
+            log.warn("Preloading the name index failed: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onBookingsChanged(@NonNull BookingsChangedEvent event) {
+        flights.reload(List.of(event.flightId()));
+    }
+
+    @EventListener
+    public void onFlightsArchived(@NonNull FlightsArchivedEvent event) {
+        flights.remove(event.flightIds());
+    }
+
+    @EventListener
+    public void onFlightsChanged(@NonNull FlightsChangedEvent event) {
+        if (event.flightIds().isEmpty()) {
+            flights.reloadAll();
+        } else {
+            flights.reload(event.flightIds());
+        }
+    }
+
+    @EventListener
+    public void onSeatsResync(@NonNull SeatsResyncEvent event) {
+        flights.reloadAll();
+    }
+
+    private FlightNames load(String flightId) {
+        LocalDate departureDate = flightService.getDepartureDate(flightId);
+        return new FlightNames(flightId, departureDate,
+            bookingRepository.findNamesByFlightIdAndDepartureDate(flightId, departureDate));
+    }
+
+    /**
+     * Upper case A-Z words separated by single blanks: accents are dropped and apostrophes removed (O'Brien is
+     * OBRIEN, as on passenger lists); anything else separates words.
+     */
+    static String normalize(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = Character.toUpperCase(decomposed.charAt(i));
+            if (c >= 'A' && c <= 'Z') {
+                normalized.append(c);
+            } else if (c != '\'' && c != '\u2019' && Character.getType(c) != Character.NON_SPACING_MARK
+                && normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        int length = normalized.length();
+        return length > 0 && normalized.charAt(length - 1) == ' ' ? normalized.substring(0, length - 1)
+            : normalized.toString();
+    }
+
+    /**
+     * The name as shown to an unauthenticated kiosk: the first letter of each word, the other letters masked
+     * ({@code John O'Brien} is {@code J*** O'*****}, apostrophes joining words as in {@link #normalize}).
+     */
+    static String mask(String name) {
+        StringBuilder masked = new StringBuilder(name.length());
+        boolean inWord = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetter(c)) {
+                masked.append(inWord ? '*' : c);
+                inWord = true;
+            } else {
+                masked.append(c);
+                inWord = inWord && (c == '\'' || c == '\u2019');
+            }
+        }
+        return masked.toString();
+    }
+
+    /**
+     * Distinct letter triples of normalized text, sorted: one per letter, with the two letters before it in its
+     * word.
+     */
+    static int[] triples(String normalized) {
+        int[] keys = new int[normalized.length()];
+        int count = 0;
+        int secondLast = 0;
+        int last = 0;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c == ' ') {
+                secondLast = 0;
+                last = 0;
+                continue;
+            }
+            int code = c - 'A' + 1;
+            keys[count++] = (secondLast * 27 + last) * 27 + code;
+            secondLast = last;
+            last = code;
+        }
+        Arrays.sort(keys, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || keys[distinct - 1] != keys[i]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    static int allowedTypos(int wordLength) {
+        return wordLength >= 7 ? 2 : wordLength >= 4 ? 1 : 0;
+    }
+
+    /**
+     * Fewest typos (optimal string alignment distance: insert, drop, replace, swap adjacent) turning {@code word}
+     * into a prefix of the name word {@code text[start, end)}: twice the typos, plus one if matching the whole word
+     * takes more; -1 if it takes more than {@code maxTypos}. {@code rows} are three arrays of at least
+     * {@code word.length() + maxTypos + 1} elements to compute in.
+     */
+    static int prefixDistance(String word, byte[] text, int start, int end, int maxTypos, int[][] rows) {
+        int n = word.length();
+        // Longer prefixes are more than maxTypos away
+        int m = Math.min(end - start, n + maxTypos);
+        int[] beforePrevious = rows[0];
+        int[] previous = rows[1];
+        int[] current = rows[2];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowBest = i;
+            char a = word.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char b = (char) text[start + j - 1];
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1),
+                    previous[j - 1] + (a == b ? 0 : 1));
+                if (i > 1 && j > 1 && a == text[start + j - 2] && word.charAt(i - 2) == b) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowBest = Math.min(rowBest, distance);
+            }
+            // No row has a smaller minimum than the one before it
+            if (rowBest > maxTypos) {
+                return -1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int j = 0; j <= m; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        if (best > maxTypos) {
+            return -1;
+        }
+        return best * 2 + (m == end - start && previous[m] == best ? 0 : 1);
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return (16L + (long) length * elementBytes + 7) & ~7L;
+    }
+
+    private static long stringBytes(String value) {
+        // String object plus its byte[] (one byte per character for Latin-1 text)
+        return 24 + arrayBytes(value.length(), 1);
+    }
+}
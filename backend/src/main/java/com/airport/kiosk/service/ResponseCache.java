@@ -0,0 +1,319 @@
+package com.airport.kiosk.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.airport.kiosk.event.BaggageCountChangedEvent;
+import com.airport.kiosk.event.BookingsChangedEvent;
+import com.airport.kiosk.event.FlightsArchivedEvent;
+import com.airport.kiosk.event.FlightsChangedEvent;
+import com.airport.kiosk.event.SeatChangedEvent;
+import com.airport.kiosk.event.SeatsResyncEvent;
+import com.airport.kiosk.model.Seat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Serialized and gzip-compressed responses of the polled read endpoints (a flight's seat map and the
+ * flight list), shared by all kiosks until the data changes.
+ * <ul>
+ *   <li>Every key has a version that the after-commit seat, baggage, booking and flight events bump
+ *       (other nodes' seat and baggage events too, through the cluster relay); a body is only served while
+ *       its version is current, and never longer than {@code kiosk.response-cache.ttl}, which bounds
+ *       staleness for changes that publish no event</li>
+ *   <li>Concurrent misses for a key wait for a single load, so a poll storm costs one query and one
+ *       serialization per change instead of one per request</li>
+ *   <li>Every stored body gets a new ETag; kiosks revalidating with {@code If-None-Match} get a 304</li>
+ * </ul>
+ */
+@Service
+public class ResponseCache {
+
+    private static final String FLIGHTS_KEY = "flights";
+    private static final String SEAT_MAP_KEY_PREFIX = "seats/";
+
+    /**
+     * A cached body; {@code gzipBody} is null when compressing did not make it smaller.
+     */
+    public record CachedResponse(String etag, byte[] body, byte[] gzipBody) {
+
+        public ResponseEntity<byte[]> toResponseEntity(String acceptEncoding) {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+            if (gzipBody != null && acceptsGzip(acceptEncoding)) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzipBody);
+            }
+            return builder.body(body);
+        }
+    }
+
+    private record Entry(long version, long createdAtNanos, CachedResponse response) {
+    }
+
+    private static final class Slot {
+
+        private volatile long version;
+        private volatile Entry entry;
+        /** Load in progress, guarded by the slot's lock. */
+        private CompletableFuture<Entry> loading;
+
+        Slot(long version) {
+            this.version = version;
+        }
+    }
+
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+    /** Source of versions and ETags; never repeats within a run, so an old ETag cannot match new content. */
+    private final AtomicLong sequence = new AtomicLong();
+    /** Prefix of every ETag; ETags from an earlier run or another node never match. */
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate loadTransaction;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final long loadTimeoutMillis;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+
+    public ResponseCache(ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${kiosk.response-cache.enabled:true}") boolean enabled,
+                         @Value("${kiosk.response-cache.ttl:PT60S}") Duration ttl,
+                         @Value("${kiosk.response-cache.load-timeout:PT5S}") Duration loadTimeout) {
+        this.objectMapper = objectMapper;
+        // Read-write on purpose: the read-only service methods called by a load join it and so read from the
+        // primary even with read replicas enabled. A load follows the change that invalidated the body, and a
+        // lagging replica would cache the state before it until the next change.
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.loadTimeoutMillis = loadTimeout.toMillis();
+        this.hitCounter = meterRegistry.counter("kiosk.response-cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("kiosk.response-cache.requests", "result", "miss");
+        this.coalescedCounter = meterRegistry.counter("kiosk.response-cache.requests", "result", "coalesced");
+        meterRegistry.gaugeMapSize("kiosk.response-cache.entries", Tags.empty(), slots);
+    }
+
+    /**
+     * The seat map response of a flight, loading and serializing {@code loader}'s result on a miss.
+     */
+    public CachedResponse seatMap(String flightId, Supplier<?> loader) {
+        return get(SEAT_MAP_KEY_PREFIX + flightId, loader);
+    }
+
+    /**
+     * The flight list response, loading and serializing {@code loader}'s result on a miss.
+     */
+    public CachedResponse flights(Supplier<?> loader) {
+        return get(FLIGHTS_KEY, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatChanged(@NonNull SeatChangedEvent event) {
+        invalidate(SEAT_MAP_KEY_PREFIX + event.flightId());
+        // Reservations and releases change the flight's available seat count; locks do not
+        if (!Seat.SeatStatus.LOCKED.name().equals(event.status())) {
+            invalidate(FLIGHTS_KEY);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBaggageCountChanged(@NonNull BaggageCountChangedEvent event) {
+        invalidate(FLIGHTS_KEY);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingsChanged(@NonNull BookingsChangedEvent event) {
+        invalidate(SEAT_MAP_KEY_PREFIX + event.flightId());
+        invalidate(FLIGHTS_KEY);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFlightsChanged(@NonNull FlightsChangedEvent event) {
+        if (event.flightIds().isEmpty()) {
+            slots.keySet().forEach(this::invalidate);
+            return;
+        }
+        event.flightIds().forEach(flightId -> invalidate(SEAT_MAP_KEY_PREFIX + flightId));
+        invalidate(FLIGHTS_KEY);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFlightsArchived(@NonNull FlightsArchivedEvent event) {
+        event.flightIds().forEach(flightId -> slots.remove(SEAT_MAP_KEY_PREFIX + flightId));
+        invalidate(FLIGHTS_KEY);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsResync(@NonNull SeatsResyncEvent event) {
+        slots.keySet().forEach(this::invalidate);
+    }
+
+    /**
+     * Forget expired bodies, e.g. of flights nobody polls any more.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        slots.values().removeIf(slot -> {
+            Entry entry = slot.entry;
+            return entry == null || now - entry.createdAtNanos() >= ttlNanos;
+        });
+    }
+
+    private CachedResponse get(String key, Supplier<?> loader) {
+        if (!enabled) {
+            return render(loader);
+        }
+        while (true) {
+            Slot slot = slots.computeIfAbsent(key, k -> new Slot(sequence.incrementAndGet()));
+            long version = slot.version;
+            Entry entry = slot.entry;
+            if (isCurrent(entry, version)) {
+                hitCounter.increment();
+                return entry.response();
+            }
+
+            CompletableFuture<Entry> load;
+            boolean leader = false;
+            synchronized (slot) {
+                entry = slot.entry;
+                if (isCurrent(entry, version)) {
+                    hitCounter.increment();
+                    return entry.response();
+                }
+                if (slot.loading == null) {
+                    slot.loading = new CompletableFuture<>();
+                    leader = true;
+                }
+                load = slot.loading;
+            }
+
+            if (leader) {
+                missCounter.increment();
+                try {
+                    Entry loaded = new Entry(version, System.nanoTime(), render(loader));
+                    // A change committed during the load has bumped the version; the entry is then simply not current
+                    slot.entry = loaded;
+                    load.complete(loaded);
+                    return loaded.response();
+                } catch (RuntimeException e) {
+                    load.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    synchronized (slot) {
+                        slot.loading = null;
+                    }
+                }
+            }
+
+            coalescedCounter.increment();
+            try {
+                Entry loaded = load.get(loadTimeoutMillis, TimeUnit.MILLISECONDS);
+                if (loaded.version() >= version) {
+                    return loaded.response();
+                }
+                // That load started before the change this request already saw; go again
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+            } catch (TimeoutException e) {
+                return render(loader);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return render(loader);
+            }
+        }
+    }
+
+    private boolean isCurrent(Entry entry, long version) {
+        return entry != null && entry.version() == version && System.nanoTime() - entry.createdAtNanos() < ttlNanos;
+    }
+
+    private void invalidate(String key) {
+        Slot slot = slots.get(key);
+        if (slot != null) {
+            slot.version = sequence.incrementAndGet();
+        }
+    }
+
+    private CachedResponse render(Supplier<?> loader) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(loadTransaction.execute(status -> loader.get()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+        byte[] gzipBody = gzip(body);
+        return new CachedResponse("W/\"" + epoch + "-" + sequence.incrementAndGet() + "\"", body,
+            gzipBody.length < body.length ? gzipBody : null);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        // Compressed once per change, served many times: worth the best ratio
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") && parameter.substring(2).trim().matches("0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
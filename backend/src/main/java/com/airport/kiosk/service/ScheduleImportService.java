@@ -0,0 +1,555 @@
+package com.airport.kiosk.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.airport.kiosk.dto.ScheduleImportResult;
+import com.airport.kiosk.event.FlightsChangedEvent;
+import com.airport.kiosk.model.Seat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams a flight schedule plus aircraft seat layouts into the flights and seats tables (and the flights'
+ * seat_availability counters).
+ * Rows are validated one at a time and loaded in chunks (one transaction per chunk), using
+ * PostgreSQL COPY when available and JDBC batch inserts otherwise (e.g. H2), so memory use
+ * is bounded by the chunk size rather than the file size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScheduleImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int JDBC_BATCH_SIZE = 1000;
+    private static final int COPY_FLUSH_CHARS = 64 * 1024;
+    private static final DateTimeFormatter SQL_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String FLIGHT_COLUMNS = "flight_id, flight_number, airline_name, aircraft_type, "
+        + "departure_airport, arrival_airport, departure_time, arrival_time, total_seats, available_seats, "
+        + "baggage_count, flight_status, created_at, updated_at";
+    private static final String SEAT_COLUMNS = "seat_id, flight_id, seat_number, seat_class, seat_status, "
+        + "version, created_at, updated_at, departure_date";
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${kiosk.import.chunk-size:50}")
+    private int chunkSize;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromFileName(String fileName) {
+            String name = fileName != null ? fileName.toLowerCase() : "";
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? NDJSON : CSV;
+        }
+    }
+
+    /**
+     * Import a schedule. Layouts are read fully (they are small); the schedule is streamed.
+     */
+    public ScheduleImportResult importSchedule(InputStream schedule, Format scheduleFormat,
+                                               InputStream layouts, Format layoutFormat) throws IOException {
+        Map<String, List<LayoutBlock>> layoutMap = readLayouts(layouts, layoutFormat);
+
+        ScheduleImportResult result = new ScheduleImportResult();
+        long start = System.nanoTime();
+        Map<String, ScheduleRow> chunk = new LinkedHashMap<>();
+        List<String> importedFlights = new ArrayList<>();
+        long chunkFirstLine = 0;
+        long lineNumber = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(schedule, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (isSkippable(line, lineNumber, scheduleFormat, "flight_id")) {
+                    continue;
+                }
+                try {
+                    ScheduleRow row = parseScheduleRow(line, scheduleFormat);
+                    validate(row, layoutMap);
+                    if (chunk.putIfAbsent(row.flightId(), row) != null) {
+                        throw new IllegalArgumentException("Duplicate flight in file: " + row.flightId());
+                    }
+                    if (chunk.size() == 1) {
+                        chunkFirstLine = lineNumber;
+                    }
+                } catch (IllegalArgumentException | IOException e) {
+                    reject(result, "line " + lineNumber + ": " + e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    loadChunk(chunk, chunkFirstLine, lineNumber, layoutMap, result, importedFlights);
+                    logProgress(result, start);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            loadChunk(chunk, chunkFirstLine, lineNumber, layoutMap, result, importedFlights);
+        }
+
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Schedule import finished via {}: {} flights, {} seats, {} rejected rows, {} failed chunks in {} ms",
+            result.getLoader(), result.getFlightsImported(), result.getSeatsImported(),
+            result.getRowsRejected(), result.getFailedChunks().size(), result.getElapsedMillis());
+        if (!importedFlights.isEmpty()) {
+            eventPublisher.publishEvent(new FlightsChangedEvent(importedFlights, false));
+        }
+        return result;
+    }
+
+    /**
+     * Load one chunk in its own transaction. A chunk that fails is rolled back and reported with its lines and
+     * flights (counted as rejected rows); the chunks before it stay committed and the import goes on with the next.
+     */
+    private void loadChunk(Map<String, ScheduleRow> chunk, long firstLine, long lastLine,
+                           Map<String, List<LayoutBlock>> layoutMap, ScheduleImportResult result,
+                           List<String> importedFlights) {
+        List<String> existingFlights = new ArrayList<>();
+        long[] loaded;
+        try {
+            loaded = new TransactionTemplate(transactionManager).execute(status -> {
+                Connection connection = DataSourceUtils.getConnection(dataSource);
+                try {
+                    List<ScheduleRow> rows = new ArrayList<>(chunk.size());
+                    Set<String> existing = findExistingFlightIds(connection, chunk.keySet());
+                    for (ScheduleRow row : chunk.values()) {
+                        if (existing.contains(row.flightId())) {
+                            existingFlights.add(row.flightId());
+                        } else {
+                            rows.add(row);
+                        }
+                    }
+                    if (rows.isEmpty()) {
+                        return new long[] {0, 0};
+                    }
+
+                    long seats;
+                    if (connection.isWrapperFor(PGConnection.class)) {
+                        result.setLoader("COPY");
+                        seats = copyChunk(connection.unwrap(PGConnection.class), rows, layoutMap);
+                    } else {
+                        result.setLoader("JDBC_BATCH");
+                        seats = batchChunk(connection, rows, layoutMap);
+                    }
+                    insertAvailability(connection, rows, layoutMap);
+                    return new long[] {rows.size(), seats};
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Failed to load schedule chunk: " + e.getMessage(), e);
+                } finally {
+                    DataSourceUtils.releaseConnection(connection, dataSource);
+                }
+            });
+        } catch (RuntimeException e) {
+            // SQL, data access and commit failures alike: nothing of this chunk was committed
+            log.error("Schedule import chunk at lines {}-{} failed: {}", firstLine, lastLine, e.getMessage());
+            result.getFailedChunks().add(new ScheduleImportResult.FailedChunk(firstLine, lastLine,
+                List.copyOf(chunk.keySet()), e.getMessage()));
+            result.setRowsRejected(result.getRowsRejected() + chunk.size());
+            return;
+        }
+        // Counted once committed
+        for (String flightId : existingFlights) {
+            reject(result, "flight already exists: " + flightId);
+        }
+        if (loaded[0] > 0) {
+            chunk.keySet().stream().filter(flightId -> !existingFlights.contains(flightId)).forEach(importedFlights::add);
+        }
+        result.setFlightsImported(result.getFlightsImported() + loaded[0]);
+        result.setSeatsImported(result.getSeatsImported() + loaded[1]);
+    }
+
+    private long copyChunk(PGConnection connection, List<ScheduleRow> rows,
+                           Map<String, List<LayoutBlock>> layoutMap) throws SQLException {
+        String now = LocalDateTime.now().format(SQL_TIMESTAMP);
+
+        CopyIn flightCopy = connection.getCopyAPI()
+            .copyIn("COPY flights (" + FLIGHT_COLUMNS + ") FROM STDIN WITH (FORMAT csv)");
+        StringBuilder buffer = new StringBuilder(COPY_FLUSH_CHARS + 1024);
+        for (ScheduleRow row : rows) {
+            int seatCount = seatCount(layoutMap.get(row.layout()));
+            appendCsv(buffer, row.flightId(), row.flightNumber(), row.airlineName(), row.aircraftType(),
+                row.departureAirport(), row.arrivalAirport(), row.departureTime().format(SQL_TIMESTAMP),
+                row.arrivalTime().format(SQL_TIMESTAMP), Integer.toString(seatCount), Integer.toString(seatCount),
+                "0", "SCHEDULED", now, now);
+        }
+        flushCopy(flightCopy, buffer);
+        flightCopy.endCopy();
+
+        long seats = 0;
+        CopyIn seatCopy = connection.getCopyAPI()
+            .copyIn("COPY seats (" + SEAT_COLUMNS + ") FROM STDIN WITH (FORMAT csv)");
+        for (ScheduleRow row : rows) {
+            String departureDate = row.departureTime().toLocalDate().toString();
+            for (LayoutBlock block : layoutMap.get(row.layout())) {
+                for (int seatRow = block.firstRow(); seatRow <= block.lastRow(); seatRow++) {
+                    for (int i = 0; i < block.letters().length(); i++) {
+                        char letter = block.letters().charAt(i);
+                        appendCsv(buffer, seatId(row.flightId(), seatRow, letter), row.flightId(),
+                            seatRow + String.valueOf(letter), block.seatClass().name(), "AVAILABLE", "0", now, now,
+                            departureDate);
+                        seats++;
+                        if (buffer.length() >= COPY_FLUSH_CHARS) {
+                            flushCopy(seatCopy, buffer);
+                        }
+                    }
+                }
+            }
+        }
+        flushCopy(seatCopy, buffer);
+        seatCopy.endCopy();
+        return seats;
+    }
+
+    private long batchChunk(Connection connection, List<ScheduleRow> rows,
+                            Map<String, List<LayoutBlock>> layoutMap) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try (PreparedStatement flightInsert = connection.prepareStatement(
+                "INSERT INTO flights (" + FLIGHT_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 'SCHEDULED', ?, ?)")) {
+            for (ScheduleRow row : rows) {
+                int seatCount = seatCount(layoutMap.get(row.layout()));
+                flightInsert.setString(1, row.flightId());
+                flightInsert.setString(2, row.flightNumber());
+                flightInsert.setString(3, row.airlineName());
+                flightInsert.setString(4, row.aircraftType());
+                flightInsert.setString(5, row.departureAirport());
+                flightInsert.setString(6, row.arrivalAirport());
+                flightInsert.setTimestamp(7, Timestamp.valueOf(row.departureTime()));
+                flightInsert.setTimestamp(8, Timestamp.valueOf(row.arrivalTime()));
+                flightInsert.setInt(9, seatCount);
+                flightInsert.setInt(10, seatCount);
+                flightInsert.setTimestamp(11, now);
+                flightInsert.setTimestamp(12, now);
+                flightInsert.addBatch();
+            }
+            flightInsert.executeBatch();
+        }
+
+        long seats = 0;
+        try (PreparedStatement seatInsert = connection.prepareStatement(
+                "INSERT INTO seats (" + SEAT_COLUMNS + ") VALUES (?, ?, ?, ?, 'AVAILABLE', 0, ?, ?, ?)")) {
+            for (ScheduleRow row : rows) {
+                Date departureDate = Date.valueOf(row.departureTime().toLocalDate());
+                for (LayoutBlock block : layoutMap.get(row.layout())) {
+                    for (int seatRow = block.firstRow(); seatRow <= block.lastRow(); seatRow++) {
+                        for (int i = 0; i < block.letters().length(); i++) {
+                            char letter = block.letters().charAt(i);
+                            seatInsert.setString(1, seatId(row.flightId(), seatRow, letter));
+                            seatInsert.setString(2, row.flightId());
+                            seatInsert.setString(3, seatRow + String.valueOf(letter));
+                            seatInsert.setString(4, block.seatClass().name());
+                            seatInsert.setTimestamp(5, now);
+                            seatInsert.setTimestamp(6, now);
+                            seatInsert.setDate(7, departureDate);
+                            seatInsert.addBatch();
+                            if (++seats % JDBC_BATCH_SIZE == 0) {
+                                seatInsert.executeBatch();
+                            }
+                        }
+                    }
+                }
+            }
+            seatInsert.executeBatch();
+        }
+        return seats;
+    }
+
+    /**
+     * The new flights' per-class availability counters ({@link SeatAvailabilityService}), in the transaction
+     * that creates their seats: all seats start AVAILABLE.
+     */
+    private void insertAvailability(Connection connection, List<ScheduleRow> rows,
+                                    Map<String, List<LayoutBlock>> layoutMap) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO seat_availability (flight_id, seat_class, departure_date, available_seats, locked_seats, "
+                + "booked_seats, updated_at) VALUES (?, ?, ?, ?, 0, 0, ?)")) {
+            for (ScheduleRow row : rows) {
+                Map<Seat.SeatClass, Integer> seatsByClass = new EnumMap<>(Seat.SeatClass.class);
+                for (LayoutBlock block : layoutMap.get(row.layout())) {
+                    seatsByClass.merge(block.seatClass(), seatCount(List.of(block)), Integer::sum);
+                }
+                for (Map.Entry<Seat.SeatClass, Integer> entry : seatsByClass.entrySet()) {
+                    insert.setString(1, row.flightId());
+                    insert.setString(2, entry.getKey().name());
+                    insert.setDate(3, Date.valueOf(row.departureTime().toLocalDate()));
+                    insert.setInt(4, entry.getValue());
+                    insert.setTimestamp(5, now);
+                    insert.addBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private Set<String> findExistingFlightIds(Connection connection, Set<String> flightIds) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        String placeholders = String.join(", ", Collections.nCopies(flightIds.size(), "?"));
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT flight_id FROM flights WHERE flight_id IN (" + placeholders + ")")) {
+            int index = 1;
+            for (String flightId : flightIds) {
+                query.setString(index++, flightId);
+            }
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1));
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Read seat layouts. CSV columns: layout,seat_class,first_row,last_row,letters
+     * (several lines per layout, one per cabin block).
+     */
+    private Map<String, List<LayoutBlock>> readLayouts(InputStream layouts, Format format) throws IOException {
+        Map<String, List<LayoutBlock>> layoutMap = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(layouts, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (isSkippable(line, lineNumber, format, "layout")) {
+                    continue;
+                }
+                String layout;
+                LayoutBlock block;
+                try {
+                    if (format == Format.NDJSON) {
+                        JsonNode node = objectMapper.readTree(line);
+                        layout = text(node, "layout");
+                        block = new LayoutBlock(Seat.SeatClass.valueOf(text(node, "seatClass").toUpperCase()),
+                            node.path("firstRow").asInt(), node.path("lastRow").asInt(),
+                            text(node, "letters").toUpperCase());
+                    } else {
+                        List<String> fields = splitCsvLine(line);
+                        if (fields.size() < 5) {
+                            throw new IllegalArgumentException("expected 5 columns");
+                        }
+                        layout = fields.get(0);
+                        block = new LayoutBlock(Seat.SeatClass.valueOf(fields.get(1).toUpperCase()),
+                            Integer.parseInt(fields.get(2)), Integer.parseInt(fields.get(3)),
+                            fields.get(4).toUpperCase());
+                    }
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    throw new IllegalArgumentException("Invalid seat layout at line " + lineNumber + ": " + e.getMessage(), e);
+                }
+                if (block.firstRow() < 1 || block.lastRow() < block.firstRow() || block.lastRow() > 999
+                        || block.letters().isEmpty() || !block.letters().chars().allMatch(Character::isLetter)) {
+                    throw new IllegalArgumentException("Invalid seat layout block at line " + lineNumber);
+                }
+                layoutMap.computeIfAbsent(layout, k -> new ArrayList<>()).add(block);
+            }
+        }
+        if (layoutMap.isEmpty()) {
+            throw new IllegalArgumentException("No seat layouts provided");
+        }
+        return layoutMap;
+    }
+
+    /**
+     * Parse a schedule row. CSV columns: flight_id,flight_number,airline_name,aircraft_type,
+     * departure_airport,arrival_airport,departure_time,arrival_time,layout
+     */
+    private ScheduleRow parseScheduleRow(String line, Format format) throws IOException {
+        if (format == Format.NDJSON) {
+            JsonNode node = objectMapper.readTree(line);
+            return new ScheduleRow(text(node, "flightId"), text(node, "flightNumber"), text(node, "airlineName"),
+                text(node, "aircraftType"), text(node, "departureAirport"), text(node, "arrivalAirport"),
+                parseTime(text(node, "departureTime")), parseTime(text(node, "arrivalTime")), text(node, "layout"));
+        }
+        List<String> fields = splitCsvLine(line);
+        if (fields.size() < 9) {
+            throw new IllegalArgumentException("expected 9 columns but found " + fields.size());
+        }
+        return new ScheduleRow(fields.get(0), fields.get(1), fields.get(2), fields.get(3), fields.get(4),
+            fields.get(5), parseTime(fields.get(6)), parseTime(fields.get(7)), fields.get(8));
+    }
+
+    private void validate(ScheduleRow row, Map<String, List<LayoutBlock>> layoutMap) {
+        requireLength("flightId", row.flightId(), 40);
+        requireLength("flightNumber", row.flightNumber(), 20);
+        requireLength("departureAirport", row.departureAirport(), 10);
+        requireLength("arrivalAirport", row.arrivalAirport(), 10);
+        if (row.airlineName() != null && row.airlineName().length() > 100) {
+            throw new IllegalArgumentException("airlineName too long");
+        }
+        if (row.aircraftType() != null && row.aircraftType().length() > 50) {
+            throw new IllegalArgumentException("aircraftType too long");
+        }
+        if (!row.arrivalTime().isAfter(row.departureTime())) {
+            throw new IllegalArgumentException("arrival must be after departure for " + row.flightId());
+        }
+        if (!layoutMap.containsKey(row.layout())) {
+            throw new IllegalArgumentException("unknown seat layout: " + row.layout());
+        }
+    }
+
+    private static void requireLength(String field, String value, int maxLength) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(field + " too long: " + value);
+        }
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("missing timestamp");
+        }
+        try {
+            return LocalDateTime.parse(value.trim().replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid timestamp: " + value);
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText().trim();
+    }
+
+    private static boolean isSkippable(String line, long lineNumber, Format format, String headerPrefix) {
+        String trimmed = line.trim();
+        return trimmed.isEmpty() || trimmed.startsWith("#")
+            || (format == Format.CSV && lineNumber == 1 && trimmed.toLowerCase().startsWith(headerPrefix));
+    }
+
+    private static int seatCount(List<LayoutBlock> blocks) {
+        int count = 0;
+        for (LayoutBlock block : blocks) {
+            count += (block.lastRow() - block.firstRow() + 1) * block.letters().length();
+        }
+        return count;
+    }
+
+    /**
+     * Seat IDs follow the seed data convention, e.g. FL001-S07C
+     */
+    private static String seatId(String flightId, int row, char letter) {
+        return flightId + (row < 10 ? "-S0" : "-S") + row + letter;
+    }
+
+    private static void reject(ScheduleImportResult result, String error) {
+        result.setRowsRejected(result.getRowsRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(error);
+        }
+    }
+
+    private static void logProgress(ScheduleImportResult result, long startNanos) {
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Schedule import progress: {} flights, {} seats loaded, {} rows rejected ({} seats/s)",
+            result.getFlightsImported(), result.getSeatsImported(), result.getRowsRejected(),
+            result.getSeatsImported() * 1000 / elapsedMillis);
+    }
+
+    private static void appendCsv(StringBuilder buffer, String... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            String value = values[i];
+            if (value != null) {
+                buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+            }
+        }
+        buffer.append('\n');
+    }
+
+    private static void flushCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    /**
+     * Minimal CSV splitter supporting double-quoted fields with "" escapes.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(emptyToNull(current.toString().trim()));
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(emptyToNull(current.toString().trim()));
+        return fields;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private record ScheduleRow(String flightId, String flightNumber, String airlineName, String aircraftType,
+                               String departureAirport, String arrivalAirport, LocalDateTime departureTime,
+                               LocalDateTime arrivalTime, String layout) {
+    }
+
+    private record LayoutBlock(Seat.SeatClass seatClass, int firstRow, int lastRow, String letters) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.airport.kiosk.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.airport.kiosk.event.BookingsChangedEvent;
+import com.airport.kiosk.event.FlightsArchivedEvent;
+import com.airport.kiosk.event.SeatChangedEvent;
+import com.airport.kiosk.event.SeatsResyncEvent;
+import com.airport.kiosk.model.Seat;
+import com.airport.kiosk.repository.SeatRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Holds one {@link SeatGrid} per flight, loaded lazily from the database and kept current by
+ * {@link SeatService} on every seat transition and by seat events from other nodes. A grid whose
+ * transaction rolls back, or whose flight was changed outside SeatService, is dropped and rebuilt on next use.
+ */
+@Service
+@RequiredArgsConstructor
+public class SeatAssignmentEngine {
+
+    private final SeatRepository seatRepository;
+    private final FlightService flightService;
+    private final Map<String, SeatGrid> grids = new ConcurrentHashMap<>();
+
+    public SeatGrid getGrid(String flightId) {
+        SeatGrid grid = grids.get(flightId);
+        if (grid == null) {
+            grid = new SeatGrid(seatRepository.findByFlightIdAndDepartureDate(flightId,
+                flightService.getDepartureDate(flightId)));
+            SeatGrid existing = grids.putIfAbsent(flightId, grid);
+            if (existing != null) {
+                grid = existing;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Mirror a seat status change into the flight's grid (if loaded).
+     */
+    public void updateStatus(String flightId, String seatId, Seat.SeatStatus status) {
+        SeatGrid grid = grids.get(flightId);
+        if (grid == null) {
+            return;
+        }
+        grid.updateStatus(seatId, status);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    if (completionStatus != STATUS_COMMITTED) {
+                        invalidate(flightId);
+                    }
+                }
+            });
+        }
+    }
+
+    public void invalidate(String flightId) {
+        grids.remove(flightId);
+    }
+
+    @EventListener
+    public void onBookingsChanged(@NonNull BookingsChangedEvent event) {
+        invalidate(event.flightId());
+    }
+
+    @EventListener
+    public void onFlightsArchived(@NonNull FlightsArchivedEvent event) {
+        event.flightIds().forEach(this::invalidate);
+    }
+
+    @EventListener
+    public void onSeatChanged(@NonNull SeatChangedEvent event) {
+        if (event.remote()) {
+            updateStatus(event.flightId(), event.seatId(), Seat.SeatStatus.valueOf(event.status()));
+        }
+    }
+
+    @EventListener
+    public void onSeatsResync(@NonNull SeatsResyncEvent event) {
+        grids.clear();
+    }
+}
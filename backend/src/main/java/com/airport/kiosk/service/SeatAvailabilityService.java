@@ -0,0 +1,158 @@
+package com.airport.kiosk.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.airport.kiosk.model.Seat;
+import com.airport.kiosk.model.SeatAvailability;
+import com.airport.kiosk.repository.SeatAvailabilityRepository;
+import com.airport.kiosk.repository.SeatRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Per-class availability counters of the flights ({@link SeatAvailability}, V11 migration), kept in step with
+ * their seats so availability is read from a few rows instead of counting seats.
+ * <ul>
+ *   <li>{@link SeatService} and {@link PassengerListIngestionService} report every seat status change. The moves
+ *       are summed per flight and class over the transaction and applied just before it commits, one UPDATE per
+ *       flight and class in key order: the counter rows stay locked only for the commit, and two transactions
+ *       never wait on each other's counters in opposite order</li>
+ *   <li>A change to a flight without counters (e.g. just imported) is left to {@link AvailabilityReconciler},
+ *       which counts them from the seats; so is any drift</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+public class SeatAvailabilityService {
+
+    // The order AvailabilityReconciler locks a flight's counters in (by class name)
+    private static final Comparator<Counter> COUNTER_ORDER =
+        Comparator.comparing(Counter::flightId).thenComparing(counter -> counter.seatClass().name());
+
+    private final SeatAvailabilityRepository seatAvailabilityRepository;
+    private final SeatRepository seatRepository;
+
+    /** Flights changed while they had no counters (or outside a transaction), until the reconciler counts them. */
+    private final Set<String> uncountedFlights = ConcurrentHashMap.newKeySet();
+
+    private record Counter(String flightId, Seat.SeatClass seatClass) {
+    }
+
+    /**
+     * Seat moves of one transaction: available, locked and booked seats gained (or lost) per flight and class.
+     */
+    private final class PendingMoves implements TransactionSynchronization {
+
+        private final TreeMap<Counter, int[]> moves = new TreeMap<>(COUNTER_ORDER);
+        private final List<String> uncounted = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            for (Map.Entry<Counter, int[]> entry : moves.entrySet()) {
+                int[] move = entry.getValue();
+                if (move[0] == 0 && move[1] == 0 && move[2] == 0) {
+                    continue;
+                }
+                Counter counter = entry.getKey();
+                if (seatAvailabilityRepository.adjust(counter.flightId(), counter.seatClass(),
+                        move[0], move[1], move[2]) == 0) {
+                    uncounted.add(counter.flightId());
+                }
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            // Only now: counting the flight earlier would miss this transaction's seats
+            uncountedFlights.addAll(uncounted);
+        }
+    }
+
+    /**
+     * Record a seat's status change in the current transaction; call before setting the new status.
+     */
+    public void seatChanged(Seat seat, Seat.SeatStatus status) {
+        seatChanged(seat.getFlightId(), seat.getSeatClass(), seat.getSeatStatus(), status);
+    }
+
+    public void seatChanged(String flightId, Seat.SeatClass seatClass, Seat.SeatStatus from, Seat.SeatStatus to) {
+        int fromBucket = bucket(from);
+        int toBucket = bucket(to);
+        if (fromBucket == toBucket) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            uncountedFlights.add(flightId);
+            return;
+        }
+        int[] move = pendingMoves().moves.computeIfAbsent(new Counter(flightId, seatClass), c -> new int[3]);
+        move[fromBucket]--;
+        move[toBucket]++;
+    }
+
+    /**
+     * Available seats of the flight per class, from its counters; counted from the seats while it has none.
+     */
+    @Transactional(readOnly = true)
+    public Map<Seat.SeatClass, Long> getAvailableByClass(String flightId, LocalDate departureDate) {
+        Map<Seat.SeatClass, Long> available = new EnumMap<>(Seat.SeatClass.class);
+        List<SeatAvailability> counters = seatAvailabilityRepository.findByFlightId(flightId);
+        if (counters.isEmpty()) {
+            for (SeatRepository.ClassCount count : seatRepository.countAvailableByClass(flightId, departureDate)) {
+                available.put(count.getSeatClass(), count.getSeats());
+            }
+        } else {
+            for (SeatAvailability counter : counters) {
+                available.put(counter.getSeatClass(), (long) counter.getAvailableSeats());
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Flights whose counters need counting from their seats; the reconciler takes them.
+     */
+    public Set<String> drainUncountedFlights() {
+        Set<String> flights = new HashSet<>();
+        for (String flightId : uncountedFlights) {
+            if (uncountedFlights.remove(flightId)) {
+                flights.add(flightId);
+            }
+        }
+        return flights;
+    }
+
+    /** Counter a status is counted in: 0 available, 1 locked, 2 booked. */
+    private static int bucket(Seat.SeatStatus status) {
+        return switch (status) {
+            case AVAILABLE -> 0;
+            case LOCKED -> 1;
+            case RESERVED, OCCUPIED -> 2;
+        };
+    }
+
+    private PendingMoves pendingMoves() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingMoves moves) {
+                return moves;
+            }
+        }
+        PendingMoves moves = new PendingMoves();
+        TransactionSynchronizationManager.registerSynchronization(moves);
+        return moves;
+    }
+}
@@ -0,0 +1,244 @@
+package com.airport.kiosk.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.airport.kiosk.model.Seat;
+
+/**
+ * Compact in-memory seat grid for one flight (rows x letters parsed from {@code seatNumber}),
+ * used to find the best block of adjacent available seats without touching the database.
+ * Cells without a seat (e.g. missing letters in a row) are null. Aisles are inferred from the
+ * number of seat letters using common single/twin-aisle layouts (3-3, 2-4-2, 3-4-3, ...).
+ */
+public class SeatGrid {
+
+    public enum Preference { ANY, WINDOW, AISLE }
+
+    private static final double CROSS_AISLE_PENALTY = 5.0;
+    private static final double PREFERENCE_BONUS = 10.0;
+
+    private final int[] rowNumbers;
+    private final char[] letters;
+    private final boolean[] aisleAfter;
+    private final String[] seatIds;
+    private final String[] seatNumbers;
+    private final Seat.SeatClass[] classes;
+    private final Seat.SeatStatus[] statuses;
+    private final Map<String, Integer> indexBySeatId;
+
+    public SeatGrid(List<Seat> seats) {
+        TreeSet<Integer> rowSet = new TreeSet<>();
+        TreeSet<Character> letterSet = new TreeSet<>();
+        for (Seat seat : seats) {
+            int row = parseRow(seat.getSeatNumber());
+            if (row > 0) {
+                rowSet.add(row);
+                letterSet.add(seat.getSeatNumber().charAt(seat.getSeatNumber().length() - 1));
+            }
+        }
+        rowNumbers = rowSet.stream().mapToInt(Integer::intValue).toArray();
+        letters = new char[letterSet.size()];
+        int l = 0;
+        for (char letter : letterSet) {
+            letters[l++] = letter;
+        }
+        aisleAfter = aisles(letters.length);
+
+        int cells = rowNumbers.length * letters.length;
+        seatIds = new String[cells];
+        seatNumbers = new String[cells];
+        classes = new Seat.SeatClass[cells];
+        statuses = new Seat.SeatStatus[cells];
+        indexBySeatId = new HashMap<>(seats.size() * 2);
+        for (Seat seat : seats) {
+            int row = parseRow(seat.getSeatNumber());
+            if (row <= 0) {
+                continue;
+            }
+            int r = Arrays.binarySearch(rowNumbers, row);
+            int c = Arrays.binarySearch(letters, seat.getSeatNumber().charAt(seat.getSeatNumber().length() - 1));
+            int index = r * letters.length + c;
+            seatIds[index] = seat.getSeatId();
+            seatNumbers[index] = seat.getSeatNumber();
+            classes[index] = seat.getSeatClass();
+            statuses[index] = seat.getSeatStatus();
+            indexBySeatId.put(seat.getSeatId(), index);
+        }
+    }
+
+    public synchronized void updateStatus(String seatId, Seat.SeatStatus status) {
+        Integer index = indexBySeatId.get(seatId);
+        if (index != null) {
+            statuses[index] = status;
+        }
+    }
+
+    public String getSeatNumber(String seatId) {
+        Integer index = indexBySeatId.get(seatId);
+        return index != null ? seatNumbers[index] : null;
+    }
+
+    /**
+     * Find the best block of {@code count} adjacent available seats.
+     * Search order: same row without crossing an aisle, same row across an aisle,
+     * then split over two consecutive rows (front/back). Within a pass the highest
+     * score wins: preference bonus, then seats closer to the front.
+     *
+     * @param seatClass required class, or null for any (a block never mixes classes)
+     * @return seat IDs of the chosen block, or null if no block exists
+     */
+    public synchronized String[] findBlock(int count, Seat.SeatClass seatClass, Preference preference) {
+        if (count < 1 || count > letters.length * 2) {
+            return null;
+        }
+        if (count <= letters.length) {
+            String[] block = findSameRowBlock(count, seatClass, preference, false);
+            if (block == null) {
+                block = findSameRowBlock(count, seatClass, preference, true);
+            }
+            if (block != null || count == 1) {
+                return block;
+            }
+        }
+        return findTwoRowBlock(count, seatClass, preference);
+    }
+
+    private String[] findSameRowBlock(int count, Seat.SeatClass seatClass, Preference preference, boolean allowAisle) {
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int bestRow = -1;
+        int bestColumn = -1;
+        for (int r = 0; r < rowNumbers.length; r++) {
+            for (int c = 0; c + count <= letters.length; c++) {
+                boolean crosses = crossesAisle(c, count);
+                if (crosses && !allowAisle) {
+                    continue;
+                }
+                if (!isFree(r, c, count, seatClass)) {
+                    continue;
+                }
+                double score = score(r, c, count, preference) - (crosses ? CROSS_AISLE_PENALTY : 0);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestRow = r;
+                    bestColumn = c;
+                }
+            }
+        }
+        return bestRow < 0 ? null : collect(bestRow, bestColumn, count, -1, -1, 0);
+    }
+
+    private String[] findTwoRowBlock(int count, Seat.SeatClass seatClass, Preference preference) {
+        int front = (count + 1) / 2;
+        int back = count - front;
+        if (front > letters.length) {
+            return null;
+        }
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int bestRow = -1;
+        int bestColumn = -1;
+        for (int r = 0; r + 1 < rowNumbers.length; r++) {
+            if (rowNumbers[r + 1] != rowNumbers[r] + 1) {
+                continue;
+            }
+            for (int c = 0; c + front <= letters.length; c++) {
+                if (!isFree(r, c, front, seatClass) || !isFree(r + 1, c, back, seatClass)
+                        || classes[r * letters.length + c] != classes[(r + 1) * letters.length + c]) {
+                    continue;
+                }
+                double score = score(r, c, front, preference)
+                    - (crossesAisle(c, front) ? CROSS_AISLE_PENALTY : 0);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestRow = r;
+                    bestColumn = c;
+                }
+            }
+        }
+        return bestRow < 0 ? null : collect(bestRow, bestColumn, front, bestRow + 1, bestColumn, back);
+    }
+
+    private boolean isFree(int r, int c, int count, Seat.SeatClass seatClass) {
+        int base = r * letters.length;
+        Seat.SeatClass blockClass = seatClass != null ? seatClass : classes[base + c];
+        for (int i = c; i < c + count; i++) {
+            int index = base + i;
+            if (seatIds[index] == null || statuses[index] != Seat.SeatStatus.AVAILABLE
+                    || classes[index] != blockClass) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double score(int r, int c, int count, Preference preference) {
+        double score = -r * 0.01;
+        int last = c + count - 1;
+        if (preference == Preference.WINDOW && (c == 0 || last == letters.length - 1)) {
+            score += PREFERENCE_BONUS;
+        } else if (preference == Preference.AISLE && (isAisleSeat(c) || isAisleSeat(last))) {
+            score += PREFERENCE_BONUS;
+        }
+        return score;
+    }
+
+    private boolean isAisleSeat(int c) {
+        return aisleAfter[c] || (c > 0 && aisleAfter[c - 1]);
+    }
+
+    private boolean crossesAisle(int c, int count) {
+        for (int i = c; i < c + count - 1; i++) {
+            if (aisleAfter[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String[] collect(int r1, int c1, int n1, int r2, int c2, int n2) {
+        String[] block = new String[n1 + n2];
+        for (int i = 0; i < n1; i++) {
+            block[i] = seatIds[r1 * letters.length + c1 + i];
+        }
+        for (int i = 0; i < n2; i++) {
+            block[n1 + i] = seatIds[r2 * letters.length + c2 + i];
+        }
+        return block;
+    }
+
+    /**
+     * Aisle positions by seats per row: 4 = 2-2, 5 = 2-3, 6 = 3-3, 7 = 2-3-2,
+     * 8 = 2-4-2, 9 = 3-3-3, 10 = 3-4-3; narrower rows have no aisle.
+     */
+    private static boolean[] aisles(int columns) {
+        boolean[] aisleAfter = new boolean[columns];
+        int[] positions = switch (columns) {
+            case 4, 5 -> new int[] { 1 };
+            case 6 -> new int[] { 2 };
+            case 7 -> new int[] { 1, 4 };
+            case 8 -> new int[] { 1, 5 };
+            case 9 -> new int[] { 2, 5 };
+            case 10 -> new int[] { 2, 6 };
+            default -> new int[0];
+        };
+        for (int position : positions) {
+            aisleAfter[position] = true;
+        }
+        return aisleAfter;
+    }
+
+    private static int parseRow(String seatNumber) {
+        if (seatNumber == null || seatNumber.length() < 2
+                || !Character.isLetter(seatNumber.charAt(seatNumber.length() - 1))) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(seatNumber.substring(0, seatNumber.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
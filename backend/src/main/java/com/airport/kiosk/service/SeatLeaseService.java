@@ -0,0 +1,125 @@
+package com.airport.kiosk.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.airport.kiosk.config.SchedulingConfig;
+import com.airport.kiosk.dto.SeatLeaseRenewResponse;
+import com.airport.kiosk.model.Seat;
+import com.airport.kiosk.repository.SeatRepository;
+import com.airport.kiosk.repository.SeatWaitlistRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Seat lock leases: a kiosk renews all the seats its session holds with one call while the passenger is
+ * still deciding, so locks can have a short {@code kiosk.seat.lock-ttl} and abandoned seats come back quickly.
+ * <ul>
+ *   <li>Renewals are coalesced: every {@code kiosk.seat.lease.flush-interval-ms} the sessions that asked are
+ *       renewed with one {@code UPDATE}, however many kiosks are heartbeating (repeated requests of a session
+ *       within a tick share the result)</li>
+ *   <li>The same heartbeat keeps the session's {@link SeatWaitlistService} entries alive</li>
+ *   <li>Only unexpired locks are extended; a lock that already ran out is left to
+ *       {@link SeatService#cleanExpiredLocksScheduled} and missing from the session's renewal result</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class SeatLeaseService {
+
+    private final SeatRepository seatRepository;
+    private final SeatWaitlistRepository seatWaitlistRepository;
+    private final TransactionTemplate flushTransaction;
+    private final Duration lockTtl;
+    private final ConcurrentHashMap<String, CompletableFuture<SeatLeaseRenewResponse>> pending =
+        new ConcurrentHashMap<>();
+    private final Counter requestCounter;
+    private final Counter renewedCounter;
+    private final Counter lostCounter;
+    private final DistributionSummary batchSessions;
+    private final Timer flushTimer;
+
+    public SeatLeaseService(SeatRepository seatRepository, SeatWaitlistRepository seatWaitlistRepository,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${kiosk.seat.lock-ttl:PT15S}") Duration lockTtl) {
+        this.seatRepository = seatRepository;
+        this.seatWaitlistRepository = seatWaitlistRepository;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.lockTtl = lockTtl;
+        this.requestCounter = meterRegistry.counter("kiosk.seat.lease.renewal.requests");
+        this.renewedCounter = meterRegistry.counter("kiosk.seat.lease.renewed");
+        this.lostCounter = meterRegistry.counter("kiosk.seat.lease.renewal.empty");
+        this.batchSessions = meterRegistry.summary("kiosk.seat.lease.renewal.batch.sessions");
+        this.flushTimer = meterRegistry.timer("kiosk.seat.lease.renewal.flush");
+    }
+
+    /**
+     * Queue a renewal of every lock the session holds; completes after the next flush.
+     */
+    public CompletableFuture<SeatLeaseRenewResponse> renew(String sessionId) {
+        if (sessionId == null || sessionId.isBlank()) {
+            throw new IllegalArgumentException("sessionId is required");
+        }
+        requestCounter.increment();
+        return pending.computeIfAbsent(sessionId, id -> new CompletableFuture<>());
+    }
+
+    @Scheduled(fixedDelayString = "${kiosk.seat.lease.flush-interval-ms:1000}",
+               scheduler = SchedulingConfig.SEAT_LEASE_SCHEDULER)
+    public void flushRenewals() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, CompletableFuture<SeatLeaseRenewResponse>> batch = new HashMap<>();
+        for (String sessionId : pending.keySet()) {
+            CompletableFuture<SeatLeaseRenewResponse> renewal = pending.remove(sessionId);
+            if (renewal != null) {
+                batch.put(sessionId, renewal);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Database timestamps keep microseconds: compare against the value actually stored
+        LocalDateTime expiresAt = now.plus(lockTtl).truncatedTo(ChronoUnit.MICROS);
+        try {
+            List<Seat> held = flushTimer.record(() -> flushTransaction.execute(status -> {
+                seatRepository.renewLocks(batch.keySet(), now.toLocalDate().minusDays(1), now, expiresAt);
+                seatWaitlistRepository.renewEntries(batch.keySet(), now, expiresAt);
+                return seatRepository.findLocksHeldUntil(batch.keySet(), now.toLocalDate().minusDays(1), expiresAt);
+            }));
+            batchSessions.record(batch.size());
+            renewedCounter.increment(held.size());
+
+            Map<String, List<String>> seatIdsBySession = new HashMap<>();
+            for (Seat seat : held) {
+                seatIdsBySession.computeIfAbsent(seat.getLockedBy(), id -> new ArrayList<>()).add(seat.getSeatId());
+            }
+            batch.forEach((sessionId, renewal) -> {
+                List<String> seatIds = seatIdsBySession.getOrDefault(sessionId, List.of());
+                if (seatIds.isEmpty()) {
+                    lostCounter.increment();
+                }
+                renewal.complete(new SeatLeaseRenewResponse(seatIds, expiresAt));
+            });
+        } catch (RuntimeException e) {
+            log.warn("Renewing seat leases of {} sessions failed: {}", batch.size(), e.getMessage());
+            batch.values().forEach(renewal -> renewal.completeExceptionally(e));
+        }
+    }
+}
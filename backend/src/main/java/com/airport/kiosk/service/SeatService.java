@@ -1,22 +1,34 @@
 package com.airport.kiosk.service;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Supplier;
 
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.airport.kiosk.config.SchedulingConfig;
+import com.airport.kiosk.dto.SeatWaitlistResponse;
+import com.airport.kiosk.event.KioskEventPublisher;
 import com.airport.kiosk.exception.SeatNotFoundException;
 import com.airport.kiosk.model.Seat;
-import com.airport.kiosk.repository.BookingRepository;
 import com.airport.kiosk.repository.FlightRepository;
 import com.airport.kiosk.repository.SeatRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -25,43 +37,123 @@ public class SeatService {
     
     private final SeatRepository seatRepository;
     private final FlightRepository flightRepository;
-    private final BookingRepository bookingRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final KioskEventPublisher kioskEventPublisher;
+    private final SeatAssignmentEngine seatAssignmentEngine;
+    private final FlightService flightService;
+    private final SeatWaitlistService seatWaitlistService;
+    private final SeatAvailabilityService seatAvailabilityService;
+    private final MeterRegistry meterRegistry;
     
-    private static final long LOCK_TTL_SECONDS = 30; // 30 seconds TTL
+    /** Lock lease; kiosks extend it through {@link SeatLeaseService} while the passenger decides. */
+    @Value("${kiosk.seat.lock-ttl:PT15S}")
+    private Duration lockTtl;
     
     /**
      * Lock a seat with TTL. Thread-safe operation using synchronized block.
      */
     @Transactional
     public synchronized boolean lockSeat(String flightId, String seatId, String sessionId) {
+        LocalDate departureDate = flightService.getDepartureDate(flightId);
+        
         // Clean expired locks first
-        cleanExpiredLocks(flightId);
+        cleanExpiredLocks(flightId, departureDate);
         
-        Seat seat = seatRepository.findByFlightIdAndSeatId(flightId, seatId)
-            .orElseThrow(() -> new SeatNotFoundException("Seat not found: " + seatId));
+        Seat seat = findSeat(flightId, departureDate, seatId);
         
         // Atomic check and lock
-        if (seat.getSeatStatus() == Seat.SeatStatus.AVAILABLE && 
-            (seat.getLockExpiry() == null || seat.getLockExpiry().isBefore(LocalDateTime.now()))) {
-            
-            seat.setSeatStatus(Seat.SeatStatus.LOCKED);
-            seat.setLockedBy(sessionId);
-            seat.setLockExpiry(LocalDateTime.now().plusSeconds(LOCK_TTL_SECONDS));
-            seatRepository.save(seat);
-            
-            // Broadcast lock event to all clients
-            Map<String, Object> event = new HashMap<>();
-            event.put("flightId", flightId);
-            event.put("seatId", seatId);
-            event.put("status", "LOCKED");
-            event.put("sessionId", sessionId);
-            
-            messagingTemplate.convertAndSend("/topic/flights/" + flightId + "/seats", event);
-            
-            return true;
+        boolean locked = isLockable(seat);
+        if (locked) {
+            lock(seat, sessionId, LocalDateTime.now());
         }
-        return false; // Seat already locked or unavailable
+        // Failed attempts are what kiosks retry; compare with kiosk.seat.waitlist.* for contended seats
+        meterRegistry.counter("kiosk.seat.lock.attempts", "outcome", locked ? "locked" : "unavailable").increment();
+        return locked; // false: seat already locked or unavailable
+    }
+    
+    /**
+     * Queue the session for a seat another session has locked; when that lock is released or expires it
+     * goes to the first session in the queue ({@link SeatWaitlistService}). A free seat is locked right away.
+     *
+     * @throws IllegalStateException if the seat is reserved or its waitlist is full
+     */
+    @Transactional
+    public synchronized SeatWaitlistResponse joinWaitlist(String flightId, String seatId, String sessionId) {
+        LocalDate departureDate = flightService.getDepartureDate(flightId);
+        
+        // An expired lock passes to an earlier waiter (or frees the seat) first
+        cleanExpiredLocks(flightId, departureDate);
+        
+        Seat seat = findSeat(flightId, departureDate, seatId);
+        LocalDateTime now = LocalDateTime.now();
+        
+        if (seat.getSeatStatus() == Seat.SeatStatus.LOCKED && sessionId.equals(seat.getLockedBy())) {
+            return new SeatWaitlistResponse(seatId, true, 0);
+        }
+        if (isLockable(seat)) {
+            lock(seat, sessionId, now);
+            return new SeatWaitlistResponse(seatId, true, 0);
+        }
+        if (seat.getSeatStatus() != Seat.SeatStatus.LOCKED) {
+            throw new IllegalStateException("Seat " + seatId + " is already taken");
+        }
+        return new SeatWaitlistResponse(seatId, false, seatWaitlistService.join(seat, sessionId, now));
+    }
+    
+    /**
+     * @throws IllegalStateException if the session neither holds the seat nor is queued for it (any more)
+     */
+    @Transactional(readOnly = true)
+    public SeatWaitlistResponse getWaitlistStatus(String flightId, String seatId, String sessionId) {
+        Seat seat = findSeat(flightId, flightService.getDepartureDate(flightId), seatId);
+        if (seat.getSeatStatus() == Seat.SeatStatus.LOCKED && sessionId.equals(seat.getLockedBy())) {
+            return new SeatWaitlistResponse(seatId, true, 0);
+        }
+        OptionalInt position = seatWaitlistService.position(seat, sessionId, LocalDateTime.now());
+        if (position.isEmpty()) {
+            throw new IllegalStateException("Session is not on the waitlist for seat " + seatId);
+        }
+        return new SeatWaitlistResponse(seatId, false, position.getAsInt());
+    }
+    
+    @Transactional
+    public boolean leaveWaitlist(String flightId, String seatId, String sessionId) {
+        Seat seat = findSeat(flightId, flightService.getDepartureDate(flightId), seatId);
+        return seatWaitlistService.leave(seat, sessionId);
+    }
+    
+    private static boolean isLockable(Seat seat) {
+        return seat.getSeatStatus() == Seat.SeatStatus.AVAILABLE
+            && (seat.getLockExpiry() == null || seat.getLockExpiry().isBefore(LocalDateTime.now()));
+    }
+    
+    private void lock(Seat seat, String sessionId, LocalDateTime now) {
+        setStatus(seat, Seat.SeatStatus.LOCKED);
+        seat.setLockedBy(sessionId);
+        seat.setLockExpiry(now.plus(lockTtl));
+        seatRepository.save(seat);
+        seatAssignmentEngine.updateStatus(seat.getFlightId(), seat.getSeatId(), Seat.SeatStatus.LOCKED);
+        
+        // Broadcast lock event to all clients
+        kioskEventPublisher.seatChanged(seat.getFlightId(), seat.getSeatId(), Seat.SeatStatus.LOCKED, sessionId);
+    }
+    
+    /**
+     * Free the seat, or pass its lock straight on to the first session on its waitlist. Only sets the fields;
+     * the caller saves the seat and broadcasts its new status.
+     */
+    private void release(Seat seat, LocalDateTime now) {
+        Optional<String> next = seatWaitlistService.pollNext(seat, now);
+        setStatus(seat, next.isPresent() ? Seat.SeatStatus.LOCKED : Seat.SeatStatus.AVAILABLE);
+        seat.setLockedBy(next.orElse(null));
+        seat.setLockExpiry(next.isPresent() ? now.plus(lockTtl) : null);
+    }
+    
+    /**
+     * Every seat status change goes through here, so the flight's availability counters move with it.
+     */
+    private void setStatus(Seat seat, Seat.SeatStatus status) {
+        seatAvailabilityService.seatChanged(seat, status);
+        seat.setSeatStatus(status);
     }
     
     /**
@@ -70,8 +162,8 @@ public class SeatService {
      */
     @Transactional
     public synchronized boolean confirmSeat(String flightId, String seatId, String bookingId, String sessionId) {
-        Seat seat = seatRepository.findByFlightIdAndSeatId(flightId, seatId)
-            .orElseThrow(() -> new SeatNotFoundException("Seat not found: " + seatId));
+        LocalDate departureDate = flightService.getDepartureDate(flightId);
+        Seat seat = findSeat(flightId, departureDate, seatId);
         
         // Verify lock ownership
         if (seat.getSeatStatus() == Seat.SeatStatus.LOCKED && 
@@ -81,99 +173,190 @@ public class SeatService {
             // Normalize bookingId to ensure consistent comparison
             String normalizedBookingId = bookingId != null ? bookingId.trim().toUpperCase() : null;
             
-            // Find ALL reserved seats for this booking (case-insensitive query)
-            List<Seat> existingSeats = new ArrayList<>(seatRepository.findByFlightIdAndBookingIdAndReserved(flightId, normalizedBookingId));
-            
-            // Also check all seats for this flight and manually filter by bookingId (case-insensitive)
-            // This ensures we catch any seats that might have been saved with different case
-            if (normalizedBookingId != null) {
-                List<Seat> allReservedSeats = seatRepository.findByFlightId(flightId).stream()
-                    .filter(s -> s.getSeatStatus() == Seat.SeatStatus.RESERVED 
-                        && s.getBookingId() != null 
-                        && s.getBookingId().trim().toUpperCase().equals(normalizedBookingId))
-                    .toList();
-                
-                // Merge with existing seats, avoiding duplicates
-                for (Seat reservedSeat : allReservedSeats) {
-                    if (!existingSeats.stream().anyMatch(s -> s.getSeatId().equals(reservedSeat.getSeatId()))) {
-                        existingSeats.add(reservedSeat);
-                    }
-                }
-            }
-            
-            // Release any existing reserved seats for this booking
-            for (Seat existingSeat : existingSeats) {
-                // Skip if it's the same seat we're about to confirm
-                if (!existingSeat.getSeatId().equals(seatId)) {
-                    existingSeat.setSeatStatus(Seat.SeatStatus.AVAILABLE);
-                    existingSeat.setBookingId(null);
-                    existingSeat.setLockedBy(null);
-                    existingSeat.setLockExpiry(null);
-                    seatRepository.save(existingSeat);
-                    
-                    // Increment available seats count for released seat
-                    flightRepository.incrementAvailableSeats(flightId);
-                    
-                    // Broadcast release event for old seat
-                    Map<String, Object> releaseEvent = new HashMap<>();
-                    releaseEvent.put("flightId", flightId);
-                    releaseEvent.put("seatId", existingSeat.getSeatId());
-                    releaseEvent.put("status", "AVAILABLE");
-                    releaseEvent.put("sessionId", null);
-                    
-                    messagingTemplate.convertAndSend("/topic/flights/" + flightId + "/seats", releaseEvent);
-                }
-            }
-            
-            // Confirm the new seat (use normalized bookingId for consistency)
-            seat.setSeatStatus(Seat.SeatStatus.RESERVED);
-            seat.setBookingId(normalizedBookingId);
-            seat.setLockedBy(null);
-            seat.setLockExpiry(null);
-            seatRepository.save(seat);
-            
-            // Update flight available seats count (decrement for new reservation)
-            flightRepository.decrementAvailableSeats(flightId);
-            
-            // Broadcast reservation event for new seat
-            Map<String, Object> event = new HashMap<>();
-            event.put("flightId", flightId);
-            event.put("seatId", seatId);
-            event.put("status", "RESERVED");
-            event.put("sessionId", null);
-            
-            messagingTemplate.convertAndSend("/topic/flights/" + flightId + "/seats", event);
+            // Find ALL reserved seats for this booking (case-insensitive, whitespace-tolerant query)
+            List<Seat> existingSeats = seatRepository.findByFlightIdAndBookingIdAndReserved(flightId,
+                seat.getDepartureDate(), normalizedBookingId);
+            reserve(flightId, seat, normalizedBookingId, existingSeats);
+            // The passenger has a seat: stop waiting for others
+            seatWaitlistService.cancel(seat, sessionId);
             
             return true;
         }
         return false;
     }
     
+    /**
+     * Seat step of a complete check-in ({@link CheckInService}): confirm the seat the session holds, or keep the
+     * booking's reserved seat if no seat is given or it is the one already reserved for it.
+     *
+     * @param bookingId the booking's stored (normalized) id
+     * @return the booking's seat
+     * @throws IllegalStateException if the session does not hold the seat, or no seat is given and none is reserved
+     */
+    @Transactional
+    public synchronized Seat confirmCheckInSeat(String flightId, LocalDate departureDate, String seatId,
+                                                String bookingId, String sessionId) {
+        String normalizedBookingId = bookingId.trim().toUpperCase();
+        List<Seat> existingSeats = seatRepository.findByFlightIdAndBookingIdAndReserved(flightId, departureDate,
+            normalizedBookingId);
+        if (seatId == null || seatId.isBlank()) {
+            return existingSeats.stream().findFirst()
+                .orElseThrow(() -> new IllegalStateException("No seat selected for booking " + normalizedBookingId));
+        }
+        for (Seat existingSeat : existingSeats) {
+            if (existingSeat.getSeatId().equals(seatId)) {
+                return existingSeat;
+            }
+        }
+        
+        Seat seat = findSeat(flightId, departureDate, seatId);
+        if (seat.getSeatStatus() != Seat.SeatStatus.LOCKED || sessionId == null
+            || !sessionId.equals(seat.getLockedBy())) {
+            throw new IllegalStateException("Seat " + seatId + " is not held by this session");
+        }
+        reserve(flightId, seat, normalizedBookingId, existingSeats);
+        seatWaitlistService.cancel(seat, sessionId);
+        return seat;
+    }
+    
+    /**
+     * After a check-in or batch was rolled back: announce the stored state of the seats it changed, and of the
+     * bookings' reserved seats, again, as their events and assignment engine updates went out before the
+     * rollback. Runs from {@code afterCompletion} or after the rollback, hence in a new transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public synchronized void republishSeats(String flightId, LocalDate departureDate, Collection<String> seatIds,
+                                            Collection<String> bookingIds) {
+        Map<String, Seat> seats = new LinkedHashMap<>();
+        for (String bookingId : bookingIds) {
+            for (Seat seat : seatRepository.findByFlightIdAndBookingIdAndReserved(flightId, departureDate,
+                    bookingId.trim().toUpperCase())) {
+                seats.put(seat.getSeatId(), seat);
+            }
+        }
+        for (String seatId : seatIds) {
+            if (seatId != null && !seats.containsKey(seatId)) {
+                seatRepository.findByFlightIdAndSeatId(flightId, departureDate, seatId)
+                    .ifPresent(seat -> seats.put(seatId, seat));
+            }
+        }
+        for (Seat seat : seats.values()) {
+            seatAssignmentEngine.updateStatus(flightId, seat.getSeatId(), seat.getSeatStatus());
+            kioskEventPublisher.seatChanged(flightId, seat.getSeatId(), seat.getSeatStatus(), seat.getLockedBy());
+        }
+    }
+    
+    /**
+     * Run {@code work} holding this service's lock, which the seat operations it calls re-enter: a batch
+     * ({@link BatchService}) takes the lock once instead of once per operation, and no other seat change comes
+     * between its operations. Take row locks the work needs from outside this service (bookings) before.
+     */
+    public synchronized <T> T exclusively(Supplier<T> work) {
+        return work.get();
+    }
+    
+    /**
+     * Apply a seat confirmation an edge node recorded while its link to the database was down
+     * ({@code kiosk.edge.enabled}). It is applied if the seat is still at the version the node's snapshot had,
+     * or has changed since but is free again; the booking must not have been seated on another seat meanwhile.
+     *
+     * @param previousSeatId the booking's seat in the node's snapshot (released like in {@link #confirmSeat}), or null
+     * @return empty if applied (or already applied by an earlier attempt), otherwise why it conflicts
+     */
+    @Transactional
+    public synchronized Optional<String> applyOfflineConfirmation(String flightId, String seatId, String bookingId,
+                                                                  long expectedVersion, String previousSeatId) {
+        LocalDate departureDate = flightService.getDepartureDate(flightId);
+        Seat seat = findSeat(flightId, departureDate, seatId);
+        String normalizedBookingId = bookingId.trim().toUpperCase();
+        
+        if (normalizedBookingId.equals(seat.getBookingId()) && seat.getSeatStatus() != Seat.SeatStatus.AVAILABLE) {
+            return Optional.empty();
+        }
+        boolean free = seat.getSeatStatus() == Seat.SeatStatus.AVAILABLE
+            || (seat.getSeatStatus() == Seat.SeatStatus.LOCKED && seat.getLockExpiry() != null
+                && seat.getLockExpiry().isBefore(LocalDateTime.now()));
+        if (seat.getVersion() != expectedVersion && !free) {
+            return Optional.of("Seat " + seatId + " changed while offline (version " + expectedVersion + " -> "
+                + seat.getVersion() + ", now " + seat.getSeatStatus() + ")");
+        }
+        
+        List<Seat> existingSeats = seatRepository.findByFlightIdAndBookingIdAndReserved(flightId,
+            seat.getDepartureDate(), normalizedBookingId);
+        for (Seat existingSeat : existingSeats) {
+            if (!existingSeat.getSeatId().equals(seatId) && !existingSeat.getSeatId().equals(previousSeatId)) {
+                return Optional.of("Booking " + normalizedBookingId + " was seated on " + existingSeat.getSeatId()
+                    + " while offline");
+            }
+        }
+        reserve(flightId, seat, normalizedBookingId, existingSeats);
+        return Optional.empty();
+    }
+    
+    /**
+     * Reserve the seat for the booking, releasing the booking's other reserved seats of the flight.
+     */
+    private void reserve(String flightId, Seat seat, String normalizedBookingId, List<Seat> existingSeats) {
+        String seatId = seat.getSeatId();
+        
+        // Release any existing reserved seats for this booking; all updates are
+        // collected and flushed together so Hibernate can send them as one JDBC batch
+        List<Seat> changedSeats = new ArrayList<>(existingSeats.size() + 1);
+        LocalDateTime now = LocalDateTime.now();
+        for (Seat existingSeat : existingSeats) {
+            // Skip if it's the same seat we're about to confirm
+            if (!existingSeat.getSeatId().equals(seatId)) {
+                existingSeat.setBookingId(null);
+                release(existingSeat, now);
+                changedSeats.add(existingSeat);
+            }
+        }
+        int releasedCount = changedSeats.size();
+        
+        // Confirm the new seat (use normalized bookingId for consistency)
+        setStatus(seat, Seat.SeatStatus.RESERVED);
+        seat.setBookingId(normalizedBookingId);
+        seat.setLockedBy(null);
+        seat.setLockExpiry(null);
+        changedSeats.add(seat);
+        seatRepository.saveAll(changedSeats);
+        
+        // Update flight available seats count in one statement:
+        // +1 per released seat, -1 for the new reservation
+        flightRepository.adjustAvailableSeats(flightId, releasedCount - 1);
+        
+        for (Seat changedSeat : changedSeats) {
+            seatAssignmentEngine.updateStatus(flightId, changedSeat.getSeatId(), changedSeat.getSeatStatus());
+        }
+        
+        // Broadcast release events for old seats (LOCKED if passed on to a waiting session)
+        for (int i = 0; i < releasedCount; i++) {
+            Seat releasedSeat = changedSeats.get(i);
+            kioskEventPublisher.seatChanged(flightId, releasedSeat.getSeatId(), releasedSeat.getSeatStatus(),
+                releasedSeat.getLockedBy());
+        }
+        
+        // Broadcast reservation event for new seat
+        kioskEventPublisher.seatChanged(flightId, seatId, Seat.SeatStatus.RESERVED, null);
+    }
+    
     /**
      * Unlock a seat (release lock)
      */
     @Transactional
     public synchronized boolean unlockSeat(String flightId, String seatId, String sessionId) {
-        Seat seat = seatRepository.findByFlightIdAndSeatId(flightId, seatId)
-            .orElseThrow(() -> new SeatNotFoundException("Seat not found: " + seatId));
+        Seat seat = findSeat(flightId, flightService.getDepartureDate(flightId), seatId);
         
         // Only unlock if locked by this session
         if (seat.getSeatStatus() == Seat.SeatStatus.LOCKED && 
             sessionId.equals(seat.getLockedBy())) {
             
-            seat.setSeatStatus(Seat.SeatStatus.AVAILABLE);
-            seat.setLockedBy(null);
-            seat.setLockExpiry(null);
+            release(seat, LocalDateTime.now());
             seatRepository.save(seat);
+            seatAssignmentEngine.updateStatus(flightId, seatId, seat.getSeatStatus());
             
-            // Broadcast unlock event
-            Map<String, Object> event = new HashMap<>();
-            event.put("flightId", flightId);
-            event.put("seatId", seatId);
-            event.put("status", "AVAILABLE");
-            event.put("sessionId", null);
-            
-            messagingTemplate.convertAndSend("/topic/flights/" + flightId + "/seats", event);
+            // Broadcast unlock event (a LOCKED event for the waiting session the seat went to)
+            kioskEventPublisher.seatChanged(flightId, seatId, seat.getSeatStatus(), seat.getLockedBy());
             
             return true;
         }
@@ -181,23 +364,82 @@ public class SeatService {
     }
     
     /**
-     * Get seat map for a flight
+     * Automatically pick the best block of {@code count} adjacent available seats from the
+     * in-memory seat grid and lock all of them for the session in one transaction - all or nothing.
+     * The grid choice is re-verified against the database; a stale grid is rebuilt and retried once.
+     *
+     * @return the locked seats in block order, or an empty list if no suitable block is available
+     */
+    @Transactional
+    public synchronized List<Seat> autoAssignSeats(String flightId, int count, Seat.SeatClass seatClass,
+                                                   SeatGrid.Preference preference, String sessionId) {
+        LocalDate departureDate = flightService.getDepartureDate(flightId);
+        cleanExpiredLocks(flightId, departureDate);
+        
+        for (int attempt = 0; attempt < 2; attempt++) {
+            String[] block = seatAssignmentEngine.getGrid(flightId).findBlock(count, seatClass, preference);
+            if (block == null) {
+                return List.of();
+            }
+            
+            Map<String, Seat> seatsById = new HashMap<>();
+            for (Seat seat : seatRepository.findAllByIdAndDepartureDate(Arrays.asList(block), departureDate)) {
+                seatsById.put(seat.getSeatId(), seat);
+            }
+            List<Seat> seats = new ArrayList<>(block.length);
+            for (String seatId : block) {
+                Seat seat = seatsById.get(seatId);
+                if (seat == null || !flightId.equals(seat.getFlightId())
+                        || seat.getSeatStatus() != Seat.SeatStatus.AVAILABLE) {
+                    break;
+                }
+                seats.add(seat);
+            }
+            if (seats.size() != block.length) {
+                // Grid was out of date (e.g. changed by another node); rebuild and search again
+                seatAssignmentEngine.invalidate(flightId);
+                continue;
+            }
+            
+            LocalDateTime lockExpiry = LocalDateTime.now().plus(lockTtl);
+            for (Seat seat : seats) {
+                setStatus(seat, Seat.SeatStatus.LOCKED);
+                seat.setLockedBy(sessionId);
+                seat.setLockExpiry(lockExpiry);
+            }
+            seatRepository.saveAll(seats);
+            
+            for (Seat seat : seats) {
+                seatAssignmentEngine.updateStatus(flightId, seat.getSeatId(), Seat.SeatStatus.LOCKED);
+                
+                kioskEventPublisher.seatChanged(flightId, seat.getSeatId(), Seat.SeatStatus.LOCKED, sessionId);
+            }
+            return seats;
+        }
+        return List.of();
+    }
+    
+    /**
+     * Get seat map for a flight.
+     * Read-only transaction: Hibernate skips dirty-checking snapshots and flushes.
      */
+    @Transactional(readOnly = true)
     public List<Seat> getSeatMap(String flightId) {
-        return seatRepository.findByFlightId(flightId);
+        return seatRepository.findByFlightIdAndDepartureDate(flightId, flightService.getDepartureDate(flightId));
     }
     
     /**
-     * Get all reserved seats with passenger and flight information
+     * Get all reserved seats with passenger and flight information, read with one join.
      */
+    @Transactional(readOnly = true)
     public List<com.airport.kiosk.dto.SeatAssignmentResponse> getSeatAssignments(String flightId) {
-        List<Seat> reservedSeats = seatRepository.findByFlightId(flightId).stream()
-            .filter(s -> s.getSeatStatus() == Seat.SeatStatus.RESERVED && s.getBookingId() != null)
-            .toList();
+        List<SeatRepository.Assignment> rows = seatRepository.findAssignments(flightId,
+            flightService.getDepartureDate(flightId));
         
-        List<com.airport.kiosk.dto.SeatAssignmentResponse> assignments = new ArrayList<>();
+        List<com.airport.kiosk.dto.SeatAssignmentResponse> assignments = new ArrayList<>(rows.size());
         
-        for (Seat seat : reservedSeats) {
+        for (SeatRepository.Assignment row : rows) {
+            Seat seat = row.getSeat();
             com.airport.kiosk.dto.SeatAssignmentResponse assignment = new com.airport.kiosk.dto.SeatAssignmentResponse();
             assignment.setSeatId(seat.getSeatId());
             assignment.setSeatNumber(seat.getSeatNumber());
@@ -206,9 +448,7 @@ public class SeatService {
             assignment.setBookingId(seat.getBookingId());
             assignment.setFlightId(seat.getFlightId());
             
-            // Get booking information
-            com.airport.kiosk.model.Booking booking = bookingRepository.findByBookingIdIgnoreCase(seat.getBookingId())
-                .orElse(null);
+            com.airport.kiosk.model.Booking booking = row.getBooking();
             if (booking != null) {
                 assignment.setPassengerName(booking.getPassengerName());
                 assignment.setPassportNumber(booking.getPassportNumber());
@@ -216,16 +456,12 @@ public class SeatService {
                 assignment.setPhone(booking.getPhone());
             }
             
-            // Get flight information
-            com.airport.kiosk.model.Flight flight = flightRepository.findByFlightId(seat.getFlightId())
-                .orElse(null);
-            if (flight != null) {
-                assignment.setFlightNumber(flight.getFlightNumber());
-                assignment.setDepartureAirport(flight.getDepartureAirport());
-                assignment.setArrivalAirport(flight.getArrivalAirport());
-                assignment.setDepartureTime(flight.getDepartureTime().toString());
-                assignment.setArrivalTime(flight.getArrivalTime().toString());
-            }
+            com.airport.kiosk.model.Flight flight = row.getFlight();
+            assignment.setFlightNumber(flight.getFlightNumber());
+            assignment.setDepartureAirport(flight.getDepartureAirport());
+            assignment.setArrivalAirport(flight.getArrivalAirport());
+            assignment.setDepartureTime(flight.getDepartureTime().toString());
+            assignment.setArrivalTime(flight.getArrivalTime().toString());
             
             assignments.add(assignment);
         }
@@ -234,36 +470,60 @@ public class SeatService {
     }
     
     /**
-     * Clean expired locks - scheduled task
+     * Release the expired locks of all current flights, so a seat abandoned at a kiosk shows as available
+     * again within {@code kiosk.seat.lease.sweep-interval-ms} of its lease running out.
      */
-    @Scheduled(fixedRate = 10000) // Run every 10 seconds
+    @Scheduled(fixedDelayString = "${kiosk.seat.lease.sweep-interval-ms:5000}",
+               scheduler = SchedulingConfig.SEAT_LEASE_SCHEDULER)
     @Transactional
-    public void cleanExpiredLocksScheduled() {
-        // This will be called for all flights, but we can optimize by tracking active flights
-        // For now, we'll clean locks when they're accessed
+    public synchronized void cleanExpiredLocksScheduled() {
+        LocalDateTime now = LocalDateTime.now();
+        // Flights departed before yesterday have no kiosk sessions left: skip their partitions
+        releaseExpiredLocks(seatRepository.findExpiredLocksFrom(now.toLocalDate().minusDays(1), now), now);
+    }
+    
+    /**
+     * Look a seat up under the flight's cached departure date; if it is not there, the flight may have moved to
+     * another day since (the V9 trigger moves its rows), so the date is re-read and, if it changed, the lookup
+     * repeated. Statements after the lookup take the date from the seat.
+     */
+    private Seat findSeat(String flightId, LocalDate departureDate, String seatId) {
+        return seatRepository.findByFlightIdAndSeatId(flightId, departureDate, seatId)
+            .or(() -> {
+                LocalDate current = flightService.refreshDepartureDate(flightId);
+                return current.equals(departureDate)
+                    ? Optional.empty()
+                    : seatRepository.findByFlightIdAndSeatId(flightId, current, seatId);
+            })
+            .orElseThrow(() -> new SeatNotFoundException("Seat not found: " + seatId));
     }
     
     /**
      * Clean expired locks for a specific flight
      */
-    private void cleanExpiredLocks(String flightId) {
+    private void cleanExpiredLocks(String flightId, LocalDate departureDate) {
         LocalDateTime now = LocalDateTime.now();
-        List<Seat> expiredLocks = seatRepository.findExpiredLocks(flightId, now);
+        releaseExpiredLocks(seatRepository.findExpiredLocks(flightId, departureDate, now), now);
+    }
+    
+    private void releaseExpiredLocks(List<Seat> expiredLocks, LocalDateTime now) {
+        if (expiredLocks.isEmpty()) {
+            return;
+        }
+        for (Seat seat : expiredLocks) {
+            // How long the abandoned seat stayed blocked after its lease ran out
+            meterRegistry.timer("kiosk.seat.lease.release.delay").record(Duration.between(seat.getLockExpiry(), now));
+            release(seat, now);
+        }
+        seatRepository.saveAll(expiredLocks);
+        meterRegistry.counter("kiosk.seat.lease.expired").increment(expiredLocks.size());
         
         for (Seat seat : expiredLocks) {
-            seat.setSeatStatus(Seat.SeatStatus.AVAILABLE);
-            seat.setLockedBy(null);
-            seat.setLockExpiry(null);
-            seatRepository.save(seat);
-            
-            // Broadcast unlock event
-            Map<String, Object> event = new HashMap<>();
-            event.put("flightId", flightId);
-            event.put("seatId", seat.getSeatId());
-            event.put("status", "AVAILABLE");
-            event.put("sessionId", null);
+            seatAssignmentEngine.updateStatus(seat.getFlightId(), seat.getSeatId(), seat.getSeatStatus());
             
-            messagingTemplate.convertAndSend("/topic/flights/" + flightId + "/seats", event);
+            // Broadcast unlock event (a LOCKED event for the waiting session the seat went to)
+            kioskEventPublisher.seatChanged(seat.getFlightId(), seat.getSeatId(), seat.getSeatStatus(),
+                seat.getLockedBy());
         }
     }
 }
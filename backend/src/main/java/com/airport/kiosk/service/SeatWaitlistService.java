@@ -0,0 +1,138 @@
+package com.airport.kiosk.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.airport.kiosk.config.SchedulingConfig;
+import com.airport.kiosk.model.Seat;
+import com.airport.kiosk.model.SeatWaitlistEntry;
+import com.airport.kiosk.repository.SeatWaitlistRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * FIFO queues of kiosk sessions waiting for a seat another session has locked, so a passenger who wants a
+ * contended seat waits for it instead of retrying the lock. {@link SeatService} hands a released or expired
+ * lock to the first live entry ({@link #pollNext}); the kiosk learns it from the seat's LOCKED event, which
+ * carries its session id.
+ * <ul>
+ *   <li>At most {@code kiosk.seat.waitlist.max-length} sessions wait per seat</li>
+ *   <li>An entry lives as long as its session's lease heartbeat ({@link SeatLeaseService}): a kiosk that goes
+ *       away drops out of the queue after {@code kiosk.seat.lock-ttl}</li>
+ *   <li>A session leaves all queues of a flight when it is granted a seat or confirms one</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+public class SeatWaitlistService {
+    
+    private final SeatWaitlistRepository seatWaitlistRepository;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${kiosk.seat.waitlist.max-length:5}")
+    private int maxLength;
+    
+    @Value("${kiosk.seat.lock-ttl:PT15S}")
+    private Duration lockTtl;
+    
+    /**
+     * Queue the session for the seat, or refresh its entry if it is already queued.
+     *
+     * @return the session's 1-based place in the queue
+     * @throws IllegalStateException if the queue is full
+     */
+    @Transactional
+    public int join(Seat seat, String sessionId, LocalDateTime now) {
+        List<SeatWaitlistEntry> queue = seatWaitlistRepository.findQueue(seat.getSeatId(), seat.getDepartureDate(), now);
+        for (int i = 0; i < queue.size(); i++) {
+            SeatWaitlistEntry entry = queue.get(i);
+            if (entry.getSessionId().equals(sessionId)) {
+                entry.setExpiresAt(now.plus(lockTtl));
+                return i + 1;
+            }
+        }
+        if (queue.size() >= maxLength) {
+            meterRegistry.counter("kiosk.seat.waitlist.rejected").increment();
+            throw new IllegalStateException("The waitlist for seat " + seat.getSeatId() + " is full");
+        }
+        // A lapsed entry of the session goes; it rejoins at the back
+        seatWaitlistRepository.deleteEntry(seat.getSeatId(), seat.getDepartureDate(), sessionId);
+        
+        SeatWaitlistEntry entry = new SeatWaitlistEntry();
+        entry.setFlightId(seat.getFlightId());
+        entry.setSeatId(seat.getSeatId());
+        entry.setDepartureDate(seat.getDepartureDate());
+        entry.setSessionId(sessionId);
+        entry.setExpiresAt(now.plus(lockTtl));
+        seatWaitlistRepository.save(entry);
+        meterRegistry.counter("kiosk.seat.waitlist.joined").increment();
+        return queue.size() + 1;
+    }
+    
+    /**
+     * The session's 1-based place in the seat's queue, empty if it is not (or no longer) queued.
+     */
+    @Transactional(readOnly = true)
+    public OptionalInt position(Seat seat, String sessionId, LocalDateTime now) {
+        List<SeatWaitlistEntry> queue = seatWaitlistRepository.findQueue(seat.getSeatId(), seat.getDepartureDate(), now);
+        for (int i = 0; i < queue.size(); i++) {
+            if (queue.get(i).getSessionId().equals(sessionId)) {
+                return OptionalInt.of(i + 1);
+            }
+        }
+        return OptionalInt.empty();
+    }
+    
+    @Transactional
+    public boolean leave(Seat seat, String sessionId) {
+        return seatWaitlistRepository.deleteEntry(seat.getSeatId(), seat.getDepartureDate(), sessionId) > 0;
+    }
+    
+    /**
+     * Take the first live session off the seat's queue, together with its entries for the flight's other seats.
+     *
+     * @return the session the seat's lock goes to, empty if nobody is waiting
+     */
+    @Transactional
+    public Optional<String> pollNext(Seat seat, LocalDateTime now) {
+        List<SeatWaitlistEntry> queue = seatWaitlistRepository.findQueue(seat.getSeatId(), seat.getDepartureDate(), now);
+        if (queue.isEmpty()) {
+            return Optional.empty();
+        }
+        SeatWaitlistEntry next = queue.get(0);
+        seatWaitlistRepository.deleteSessionEntries(seat.getFlightId(), seat.getDepartureDate(), next.getSessionId());
+        meterRegistry.counter("kiosk.seat.waitlist.granted").increment();
+        meterRegistry.timer("kiosk.seat.waitlist.wait").record(Duration.between(next.getCreatedAt(), now));
+        return Optional.of(next.getSessionId());
+    }
+    
+    /**
+     * Drop the session's entries for all seats of the flight (e.g. once it has confirmed a seat).
+     */
+    @Transactional
+    public void cancel(Seat seat, String sessionId) {
+        seatWaitlistRepository.deleteSessionEntries(seat.getFlightId(), seat.getDepartureDate(), sessionId);
+    }
+    
+    /**
+     * Remove the entries of sessions that stopped heartbeating.
+     */
+    @Scheduled(fixedDelayString = "${kiosk.seat.lease.sweep-interval-ms:5000}",
+               scheduler = SchedulingConfig.SEAT_LEASE_SCHEDULER)
+    @Transactional
+    public void purgeExpired() {
+        int purged = seatWaitlistRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            meterRegistry.counter("kiosk.seat.waitlist.expired").increment(purged);
+        }
+    }
+}
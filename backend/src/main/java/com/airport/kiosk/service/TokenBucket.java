@@ -0,0 +1,70 @@
+package com.airport.kiosk.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time"
+ * updated with compare-and-set, so admitting a request costs a single CAS and no allocation.
+ */
+class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int burst;
+    // nanoTime() may be negative: starting from 0 would make a new bucket look used far into the future
+    private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+    private volatile long lastUsedNanos = theoreticalArrival.get();
+
+    /**
+     * @param ratePerSecond sustained requests per second
+     * @param burst         requests that may be admitted back to back on an idle bucket
+     */
+    TokenBucket(double ratePerSecond, int burst) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+        this.burst = Math.max(1, burst);
+    }
+
+    /**
+     * Take one token.
+     *
+     * @return 0 if admitted, otherwise the nanoseconds until a token becomes available
+     */
+    long tryAcquire(long nowNanos) {
+        return tryAcquire(nowNanos, 1);
+    }
+
+    /**
+     * Take several tokens at once, or none. More tokens than the burst take the whole burst, as they
+     * could otherwise never be admitted.
+     *
+     * @return 0 if admitted, otherwise the nanoseconds until enough tokens become available
+     */
+    long tryAcquire(long nowNanos, int tokens) {
+        int n = Math.min(Math.max(1, tokens), burst);
+        lastUsedNanos = nowNanos;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = Math.max(tat, nowNanos);
+            long waitNanos = base + (n - 1) * emissionIntervalNanos - burstToleranceNanos - nowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + n * emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back tokens taken by {@link #tryAcquire(long, int)} for a request that was rejected by a later check.
+     */
+    void refund(int tokens) {
+        long n = Math.min(Math.max(1, tokens), burst);
+        theoreticalArrival.addAndGet(-n * emissionIntervalNanos);
+    }
+
+    boolean isIdleSince(long nanos) {
+        return lastUsedNanos - nanos < 0 && theoreticalArrival.get() - nanos < 0;
+    }
+}
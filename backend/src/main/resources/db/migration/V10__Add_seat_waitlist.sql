@@ -0,0 +1,22 @@
+-- Migration: FIFO waitlist of kiosk sessions for seats locked by another session
+-- When the lock is released or expires, SeatService hands it to the oldest live entry (lowest entry_id)
+-- in the same transaction. Entries live as long as their session's lease heartbeat (expires_at) and are
+-- bounded per seat by kiosk.seat.waitlist.max-length. No foreign key to seats: its key differs between
+-- the plain and the partitioned (V9_1) schema.
+
+CREATE TABLE IF NOT EXISTS seat_waitlist (
+    entry_id BIGSERIAL PRIMARY KEY,
+    flight_id VARCHAR(50) NOT NULL,
+    seat_id VARCHAR(50) NOT NULL,
+    departure_date DATE NOT NULL,
+    session_id VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    UNIQUE (seat_id, departure_date, session_id),
+    FOREIGN KEY (flight_id) REFERENCES flights(flight_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_seat_waitlist_session ON seat_waitlist(session_id);
+CREATE INDEX IF NOT EXISTS idx_seat_waitlist_expires_at ON seat_waitlist(expires_at);
+
+COMMENT ON TABLE seat_waitlist IS 'Kiosk sessions queued for a locked seat, served in entry_id order';
@@ -0,0 +1,33 @@
+-- Migration: per-class seat availability counters
+-- Seats of each class of a flight by status (available, locked, booked = RESERVED or OCCUPIED), adjusted by
+-- SeatAvailabilityService in the transaction that changes the seats, so the seat map reads availability from
+-- a few rows instead of counting the flight's seats. AvailabilityReconciler compares them with the seats in the
+-- background and repairs drift. seat_class is plain text (not seat_class_type) so the counters can be updated
+-- with a bound parameter whatever the JDBC string type setting; no CHECK on the counts, so a drifted counter never
+-- fails a seat change: the reconciler corrects it instead.
+
+CREATE TABLE IF NOT EXISTS seat_availability (
+    flight_id VARCHAR(50) NOT NULL,
+    seat_class VARCHAR(20) NOT NULL,
+    departure_date DATE NOT NULL,
+    available_seats INT NOT NULL DEFAULT 0,
+    locked_seats INT NOT NULL DEFAULT 0,
+    booked_seats INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (flight_id, seat_class),
+    FOREIGN KEY (flight_id) REFERENCES flights(flight_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_seat_availability_departure_date ON seat_availability(departure_date);
+
+INSERT INTO seat_availability (flight_id, seat_class, departure_date, available_seats, locked_seats, booked_seats)
+SELECT s.flight_id, CAST(s.seat_class AS VARCHAR), s.departure_date,
+    COUNT(*) FILTER (WHERE s.seat_status = 'AVAILABLE'),
+    COUNT(*) FILTER (WHERE s.seat_status = 'LOCKED'),
+    COUNT(*) FILTER (WHERE s.seat_status IN ('RESERVED', 'OCCUPIED'))
+FROM seats s
+JOIN flights f ON f.flight_id = s.flight_id AND CAST(f.departure_time AS DATE) = s.departure_date
+GROUP BY s.flight_id, s.seat_class, s.departure_date
+ON CONFLICT DO NOTHING;
+
+COMMENT ON TABLE seat_availability IS 'Seats per flight and class by status, kept in step with seats and reconciled in the background';
@@ -0,0 +1,24 @@
+-- Migration: Remember on a seat which booking last gave it up
+-- A seat released from a booking no longer joins to it, so the incremental manifest (since=) could not
+-- tell that the booking lost its seat. The trigger keeps the previous booking_id in released_booking_id
+-- (on the seat row itself, so no other row is locked); the manifest returns bookings whose seat was
+-- released at or after since.
+
+ALTER TABLE seats ADD COLUMN IF NOT EXISTS released_booking_id VARCHAR(50);
+
+CREATE OR REPLACE FUNCTION remember_released_booking()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.released_booking_id := OLD.booking_id;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER remember_seats_released_booking BEFORE UPDATE OF booking_id ON seats
+    FOR EACH ROW WHEN (OLD.booking_id IS NOT NULL AND OLD.booking_id IS DISTINCT FROM NEW.booking_id)
+    EXECUTE FUNCTION remember_released_booking();
+
+CREATE INDEX IF NOT EXISTS idx_seats_released_booking_id ON seats(released_booking_id)
+    WHERE released_booking_id IS NOT NULL;
+
+COMMENT ON COLUMN seats.released_booking_id IS 'Booking that last gave up this seat (set by trigger)';
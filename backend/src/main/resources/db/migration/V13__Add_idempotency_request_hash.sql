@@ -0,0 +1,6 @@
+-- Migration: Hash of the request an Idempotency-Key was first used with
+-- A retry whose body differs from the original is answered 422 instead of replaying the original response.
+
+ALTER TABLE idempotency_records ADD COLUMN IF NOT EXISTS request_hash VARCHAR(64);
+
+COMMENT ON COLUMN idempotency_records.request_hash IS 'SHA-256 (hex) of the original request body';
@@ -0,0 +1,23 @@
+-- Migration: Notify nodes when a flight's departure moves to another day
+-- The V9 trigger moves the flight's seats, bookings and baggage records to the new departure_date, but
+-- nodes cache each flight's date (FlightService) and would keep querying under the old one. The trigger
+-- now also sends NOTIFY kiosk_flight_changes with the flight id (delivered on commit); with the cluster
+-- relay every node listens and drops its cached date and views of that flight.
+
+CREATE OR REPLACE FUNCTION sync_departure_date()
+RETURNS TRIGGER AS $$
+DECLARE
+    new_date DATE := CAST(NEW.departure_time AS DATE);
+BEGIN
+    IF new_date <> CAST(OLD.departure_time AS DATE) THEN
+        UPDATE bookings SET departure_date = new_date
+            WHERE flight_id = NEW.flight_id AND departure_date <> new_date;
+        UPDATE seats SET departure_date = new_date
+            WHERE flight_id = NEW.flight_id AND departure_date <> new_date;
+        UPDATE baggage_records SET departure_date = new_date
+            WHERE flight_id = NEW.flight_id AND departure_date <> new_date;
+        PERFORM pg_notify('kiosk_flight_changes', NEW.flight_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
@@ -0,0 +1,13 @@
+-- Migration: Track applied PNL/ADL passenger list messages per flight
+-- Messages with a sequence number <= last_sequence are skipped, which makes
+-- re-delivery and replay of passenger lists idempotent
+
+CREATE TABLE IF NOT EXISTS passenger_list_state (
+    flight_id VARCHAR(50) PRIMARY KEY,
+    last_sequence BIGINT NOT NULL,
+    last_message_type VARCHAR(10) NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (flight_id) REFERENCES flights(flight_id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE passenger_list_state IS 'Last applied PNL/ADL sequence number per flight';
@@ -0,0 +1,15 @@
+-- Migration: Responses of requests sent with an Idempotency-Key
+-- Only used when kiosk.idempotency.persistent=true, so that a kiosk retry landing
+-- on another node replays the original response instead of re-running it
+
+CREATE TABLE IF NOT EXISTS idempotency_records (
+    idempotency_key VARCHAR(600) PRIMARY KEY,
+    status_code INTEGER NOT NULL,
+    content_type VARCHAR(255),
+    body BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_records_created_at ON idempotency_records(created_at);
+
+COMMENT ON TABLE idempotency_records IS 'Cached responses of idempotent (retried) mutating requests';
@@ -0,0 +1,80 @@
+-- Migration: Archive tables for departed flights
+-- FlightArchiveService moves departed flights (after a grace period) and their bookings, seats and
+-- baggage records here, keeping the operational tables and their indexes at the size of the active
+-- schedule. No foreign keys or update triggers: rows are only inserted (and read by the history API).
+-- Only flight_id is unique: re-archiving a reused flight id replaces the earlier copy, while booking,
+-- seat and baggage ids may come back on a later flight and are indexed but not unique.
+
+CREATE TABLE IF NOT EXISTS flights_archive (
+    flight_id VARCHAR(50) PRIMARY KEY,
+    flight_number VARCHAR(20) NOT NULL,
+    airline_name VARCHAR(100),
+    aircraft_type VARCHAR(50),
+    departure_airport VARCHAR(10) NOT NULL,
+    arrival_airport VARCHAR(10) NOT NULL,
+    departure_time TIMESTAMP NOT NULL,
+    arrival_time TIMESTAMP NOT NULL,
+    total_seats INT NOT NULL,
+    available_seats INT NOT NULL,
+    baggage_count INT,
+    flight_status flight_status_type,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_flights_archive_departure_time ON flights_archive(departure_time);
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    booking_id VARCHAR(50) NOT NULL,
+    passenger_name VARCHAR(255) NOT NULL,
+    passport_number VARCHAR(50),
+    email VARCHAR(255),
+    phone VARCHAR(50),
+    flight_id VARCHAR(50) NOT NULL,
+    booking_status booking_status_type,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booking_id ON bookings_archive(UPPER(booking_id));
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_flight_id ON bookings_archive(flight_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_passport ON bookings_archive(passport_number);
+
+CREATE TABLE IF NOT EXISTS seats_archive (
+    seat_id VARCHAR(50) NOT NULL,
+    flight_id VARCHAR(50) NOT NULL,
+    seat_number VARCHAR(10) NOT NULL,
+    seat_class seat_class_type,
+    seat_status seat_status_type,
+    booking_id VARCHAR(50),
+    locked_by VARCHAR(100),
+    lock_expiry TIMESTAMP,
+    version BIGINT,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_seats_archive_flight_id ON seats_archive(flight_id);
+CREATE INDEX IF NOT EXISTS idx_seats_archive_booking_id ON seats_archive(booking_id) WHERE booking_id IS NOT NULL;
+
+CREATE TABLE IF NOT EXISTS baggage_records_archive (
+    baggage_id VARCHAR(50) NOT NULL,
+    booking_id VARCHAR(50) NOT NULL,
+    flight_id VARCHAR(50) NOT NULL,
+    baggage_weight DECIMAL(5,2),
+    baggage_count INT,
+    tag_number VARCHAR(50) NOT NULL,
+    check_in_time TIMESTAMP,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_baggage_archive_flight_id ON baggage_records_archive(flight_id);
+CREATE INDEX IF NOT EXISTS idx_baggage_archive_booking_id ON baggage_records_archive(booking_id);
+
+COMMENT ON TABLE flights_archive IS 'Departed flights moved out of flights by the archiver';
+COMMENT ON TABLE bookings_archive IS 'Bookings of archived flights';
+COMMENT ON TABLE seats_archive IS 'Seats of archived flights';
+COMMENT ON TABLE baggage_records_archive IS 'Baggage records of archived flights';
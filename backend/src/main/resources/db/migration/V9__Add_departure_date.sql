@@ -0,0 +1,62 @@
+-- Migration: Carry the flight's departure date on seats, bookings and baggage records
+-- departure_date is the partition key of the optional partitioned schema (db/partitioned) and is
+-- included in the application's seat and booking queries either way. It always equals the date of
+-- flights.departure_time: the trigger below follows schedule changes made directly in the database.
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS departure_date DATE;
+ALTER TABLE seats ADD COLUMN IF NOT EXISTS departure_date DATE;
+ALTER TABLE baggage_records ADD COLUMN IF NOT EXISTS departure_date DATE;
+
+-- The backfill is not a change of the bookings and seats: keep updated_at (incremental manifests) as is
+ALTER TABLE bookings DISABLE TRIGGER update_bookings_updated_at;
+ALTER TABLE seats DISABLE TRIGGER update_seats_updated_at;
+
+UPDATE bookings b SET departure_date = CAST(f.departure_time AS DATE)
+    FROM flights f WHERE f.flight_id = b.flight_id;
+UPDATE seats s SET departure_date = CAST(f.departure_time AS DATE)
+    FROM flights f WHERE f.flight_id = s.flight_id;
+UPDATE baggage_records g SET departure_date = CAST(f.departure_time AS DATE)
+    FROM flights f WHERE f.flight_id = g.flight_id;
+
+ALTER TABLE bookings ENABLE TRIGGER update_bookings_updated_at;
+ALTER TABLE seats ENABLE TRIGGER update_seats_updated_at;
+
+ALTER TABLE bookings ALTER COLUMN departure_date SET NOT NULL;
+ALTER TABLE seats ALTER COLUMN departure_date SET NOT NULL;
+ALTER TABLE baggage_records ALTER COLUMN departure_date SET NOT NULL;
+
+CREATE OR REPLACE FUNCTION sync_departure_date()
+RETURNS TRIGGER AS $$
+DECLARE
+    new_date DATE := CAST(NEW.departure_time AS DATE);
+BEGIN
+    IF new_date <> CAST(OLD.departure_time AS DATE) THEN
+        UPDATE bookings SET departure_date = new_date
+            WHERE flight_id = NEW.flight_id AND departure_date <> new_date;
+        UPDATE seats SET departure_date = new_date
+            WHERE flight_id = NEW.flight_id AND departure_date <> new_date;
+        UPDATE baggage_records SET departure_date = new_date
+            WHERE flight_id = NEW.flight_id AND departure_date <> new_date;
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER sync_flights_departure_date AFTER UPDATE OF departure_time ON flights
+    FOR EACH ROW EXECUTE FUNCTION sync_departure_date();
+
+-- Archived rows keep the date too (nullable: the archive tables take rows as they were deleted)
+ALTER TABLE bookings_archive ADD COLUMN IF NOT EXISTS departure_date DATE;
+ALTER TABLE seats_archive ADD COLUMN IF NOT EXISTS departure_date DATE;
+ALTER TABLE baggage_records_archive ADD COLUMN IF NOT EXISTS departure_date DATE;
+
+UPDATE bookings_archive b SET departure_date = CAST(f.departure_time AS DATE)
+    FROM flights_archive f WHERE f.flight_id = b.flight_id;
+UPDATE seats_archive s SET departure_date = CAST(f.departure_time AS DATE)
+    FROM flights_archive f WHERE f.flight_id = s.flight_id;
+UPDATE baggage_records_archive g SET departure_date = CAST(f.departure_time AS DATE)
+    FROM flights_archive f WHERE f.flight_id = g.flight_id;
+
+COMMENT ON COLUMN seats.departure_date IS 'Date of the flight departure_time (partition key in the partitioned schema)';
+COMMENT ON COLUMN bookings.departure_date IS 'Date of the flight departure_time (partition key in the partitioned schema)';
+COMMENT ON COLUMN baggage_records.departure_date IS 'Date of the flight departure_time (partition key in the partitioned schema)';
@@ -0,0 +1,192 @@
+-- Migration (optional): Range-partition seats, bookings and baggage_records by departure_date
+-- Enabled with spring.flyway.locations=classpath:db/migration,classpath:db/partitioned.
+-- One partition per departure date, named <table>_YYYYMMDD. Queries that filter on departure_date
+-- (all seat and booking queries of the application) are pruned to one partition, so a lock UPDATE only
+-- maintains the indexes of that day's partition instead of the indexes of the whole live schedule.
+-- Partitions are created by a trigger on flights when a flight with a new departure date is stored,
+-- and dropped by drop_departed_partitions() once the archiver has emptied them.
+--
+-- PostgreSQL requires primary keys and unique constraints of a partitioned table to include the
+-- partition key, so:
+--   * seats:           PRIMARY KEY (seat_id, departure_date), UNIQUE (flight_id, seat_number, departure_date)
+--   * bookings:        PRIMARY KEY (booking_id, departure_date)
+--   * baggage_records: PRIMARY KEY (baggage_id, departure_date), UNIQUE (booking_id, departure_date),
+--                      UNIQUE (tag_number, departure_date)
+-- and the booking_id foreign keys of seats and baggage_records are dropped (a booking moved to a flight
+-- on another date by an ADL changes its key). Ids and tag numbers are generated per flight, so the
+-- wider keys do not admit duplicates the application would create.
+
+-- Existing tables are renamed and copied over, then dropped
+ALTER TABLE baggage_records RENAME TO baggage_records_unpartitioned;
+ALTER TABLE seats RENAME TO seats_unpartitioned;
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+
+CREATE TABLE bookings (
+    booking_id VARCHAR(50) NOT NULL,
+    passenger_name VARCHAR(255) NOT NULL,
+    passport_number VARCHAR(50),
+    email VARCHAR(255),
+    phone VARCHAR(50),
+    flight_id VARCHAR(50) NOT NULL,
+    booking_status booking_status_type DEFAULT 'CONFIRMED',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    departure_date DATE NOT NULL
+) PARTITION BY RANGE (departure_date);
+
+CREATE TABLE seats (
+    seat_id VARCHAR(50) NOT NULL,
+    flight_id VARCHAR(50) NOT NULL,
+    seat_number VARCHAR(10) NOT NULL,
+    seat_class seat_class_type DEFAULT 'ECONOMY',
+    seat_status seat_status_type DEFAULT 'AVAILABLE',
+    booking_id VARCHAR(50),
+    locked_by VARCHAR(100),
+    lock_expiry TIMESTAMP NULL,
+    version BIGINT DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    departure_date DATE NOT NULL
+) PARTITION BY RANGE (departure_date);
+
+CREATE TABLE baggage_records (
+    baggage_id VARCHAR(50) NOT NULL,
+    booking_id VARCHAR(50) NOT NULL,
+    flight_id VARCHAR(50) NOT NULL,
+    baggage_weight DECIMAL(5,2) CHECK (baggage_weight >= 0),
+    baggage_count INT DEFAULT 1 CHECK (baggage_count > 0),
+    tag_number VARCHAR(50) NOT NULL,
+    check_in_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    departure_date DATE NOT NULL
+) PARTITION BY RANGE (departure_date);
+
+-- Creates the partitions of the three tables for one departure date (no-op if they exist)
+CREATE OR REPLACE FUNCTION create_departure_date_partitions(p_date DATE)
+RETURNS VOID AS $$
+DECLARE
+    parent TEXT;
+    partition TEXT;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY['bookings', 'seats', 'baggage_records'] LOOP
+        partition := parent || '_' || to_char(p_date, 'YYYYMMDD');
+        IF to_regclass(partition) IS NULL THEN
+            BEGIN
+                EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                    partition, parent, p_date, p_date + 1);
+            EXCEPTION WHEN duplicate_table OR unique_violation THEN
+                -- Created by a concurrent transaction
+                NULL;
+            END;
+        END IF;
+    END LOOP;
+END;
+$$ language 'plpgsql';
+
+-- Drops the partitions of dates before the earliest live flight once all three tables are empty there
+CREATE OR REPLACE FUNCTION drop_departed_partitions()
+RETURNS INT AS $$
+DECLARE
+    first_live DATE;
+    partition RECORD;
+    is_empty BOOLEAN;
+    parent TEXT;
+    dropped INT := 0;
+BEGIN
+    SELECT MIN(CAST(departure_time AS DATE)) INTO first_live FROM flights;
+    FOR partition IN
+        SELECT c.relname, to_date(right(c.relname, 8), 'YYYYMMDD') AS day
+        FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'seats'::regclass
+    LOOP
+        CONTINUE WHEN first_live IS NOT NULL AND partition.day >= first_live;
+        is_empty := TRUE;
+        FOREACH parent IN ARRAY ARRAY['bookings', 'seats', 'baggage_records'] LOOP
+            IF to_regclass(parent || right(partition.relname, 9)) IS NOT NULL THEN
+                EXECUTE format('SELECT NOT EXISTS (SELECT 1 FROM %I)', parent || right(partition.relname, 9))
+                    INTO is_empty;
+                EXIT WHEN NOT is_empty;
+            END IF;
+        END LOOP;
+        CONTINUE WHEN NOT is_empty;
+        FOREACH parent IN ARRAY ARRAY['baggage_records', 'seats', 'bookings'] LOOP
+            EXECUTE format('DROP TABLE IF EXISTS %I', parent || right(partition.relname, 9));
+        END LOOP;
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ language 'plpgsql';
+
+SELECT create_departure_date_partitions(day) FROM (
+    SELECT CAST(departure_time AS DATE) AS day FROM flights
+    UNION SELECT departure_date FROM bookings_unpartitioned
+    UNION SELECT departure_date FROM seats_unpartitioned
+    UNION SELECT departure_date FROM baggage_records_unpartitioned
+) days;
+
+INSERT INTO bookings (booking_id, passenger_name, passport_number, email, phone, flight_id, booking_status,
+                      created_at, updated_at, departure_date)
+    SELECT booking_id, passenger_name, passport_number, email, phone, flight_id, booking_status,
+           created_at, updated_at, departure_date
+    FROM bookings_unpartitioned;
+
+INSERT INTO seats (seat_id, flight_id, seat_number, seat_class, seat_status, booking_id, locked_by, lock_expiry,
+                   version, created_at, updated_at, departure_date)
+    SELECT seat_id, flight_id, seat_number, seat_class, seat_status, booking_id, locked_by, lock_expiry,
+           version, created_at, updated_at, departure_date
+    FROM seats_unpartitioned;
+
+INSERT INTO baggage_records (baggage_id, booking_id, flight_id, baggage_weight, baggage_count, tag_number,
+                             check_in_time, departure_date)
+    SELECT baggage_id, booking_id, flight_id, baggage_weight, baggage_count, tag_number,
+           check_in_time, departure_date
+    FROM baggage_records_unpartitioned;
+
+DROP TABLE baggage_records_unpartitioned;
+DROP TABLE seats_unpartitioned;
+DROP TABLE bookings_unpartitioned;
+
+-- Keys and indexes are built after the copy; each is created on every partition. idx_seats_flight_id,
+-- idx_baggage_booking_id and idx_baggage_tag_number are not recreated: the unique keys below lead with
+-- the same columns, and every seat UPDATE would otherwise maintain one more index
+ALTER TABLE bookings ADD CONSTRAINT bookings_pkey PRIMARY KEY (booking_id, departure_date);
+ALTER TABLE bookings ADD CONSTRAINT bookings_flight_id_fkey
+    FOREIGN KEY (flight_id) REFERENCES flights(flight_id) ON DELETE CASCADE;
+CREATE INDEX idx_bookings_flight_id ON bookings(flight_id);
+CREATE INDEX idx_bookings_status ON bookings(booking_status);
+CREATE INDEX idx_bookings_passport ON bookings(passport_number);
+
+ALTER TABLE seats ADD CONSTRAINT seats_pkey PRIMARY KEY (seat_id, departure_date);
+ALTER TABLE seats ADD CONSTRAINT seats_flight_id_seat_number_key UNIQUE (flight_id, seat_number, departure_date);
+ALTER TABLE seats ADD CONSTRAINT seats_flight_id_fkey
+    FOREIGN KEY (flight_id) REFERENCES flights(flight_id) ON DELETE CASCADE;
+CREATE INDEX idx_seats_status ON seats(seat_status);
+CREATE INDEX idx_seats_lock_expiry ON seats(lock_expiry) WHERE lock_expiry IS NOT NULL;
+CREATE INDEX idx_seats_booking_id ON seats(booking_id) WHERE booking_id IS NOT NULL;
+
+ALTER TABLE baggage_records ADD CONSTRAINT baggage_records_pkey PRIMARY KEY (baggage_id, departure_date);
+ALTER TABLE baggage_records ADD CONSTRAINT baggage_records_booking_id_unique UNIQUE (booking_id, departure_date);
+ALTER TABLE baggage_records ADD CONSTRAINT baggage_records_tag_number_key UNIQUE (tag_number, departure_date);
+ALTER TABLE baggage_records ADD CONSTRAINT baggage_records_flight_id_fkey
+    FOREIGN KEY (flight_id) REFERENCES flights(flight_id) ON DELETE CASCADE;
+CREATE INDEX idx_baggage_flight_id ON baggage_records(flight_id);
+
+CREATE TRIGGER update_bookings_updated_at BEFORE UPDATE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+CREATE TRIGGER update_seats_updated_at BEFORE UPDATE ON seats
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE OR REPLACE FUNCTION create_flight_departure_partitions()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM create_departure_date_partitions(CAST(NEW.departure_time AS DATE));
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER create_flights_departure_partitions BEFORE INSERT OR UPDATE OF departure_time ON flights
+    FOR EACH ROW EXECUTE FUNCTION create_flight_departure_partitions();
+
+COMMENT ON TABLE seats IS 'Seats, partitioned by departure_date (one partition per day)';
+COMMENT ON TABLE bookings IS 'Bookings, partitioned by departure_date (one partition per day)';
+COMMENT ON TABLE baggage_records IS 'Baggage records, partitioned by departure_date (one partition per day)';
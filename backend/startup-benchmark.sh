@@ -0,0 +1,76 @@
+#!/bin/bash
+
+# Measures time from JVM launch to the first successful seat lock, over several restarts
+# Usage: ./startup-benchmark.sh [plain|fast-start] [runs] [extra application arguments...]
+# Example: ./startup-benchmark.sh plain 5
+# Example: ./startup-benchmark.sh fast-start 5 --spring.datasource.url=jdbc:postgresql://db:5432/airport_kiosk
+#
+# plain:      target/kiosk-1.0.0.jar            (mvn package)
+# fast-start: target/fast-start/kiosk-1.0.0.jar (mvn -Pfast-start package) with its AppCDS archive and AOT code
+#
+# Environment: KIOSK_PORT (default 18090), KIOSK_FLIGHT (FL001), KIOSK_SEAT (FL001-S01E);
+# the seat must be AVAILABLE. It is unlocked again after each run.
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+cd "$SCRIPT_DIR"
+
+MODE=${1:-plain}
+RUNS=${2:-5}
+shift 2 2>/dev/null
+PORT=${KIOSK_PORT:-18090}
+FLIGHT=${KIOSK_FLIGHT:-FL001}
+SEAT=${KIOSK_SEAT:-FL001-S01E}
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+case "$MODE" in
+    plain)
+        JAVA_ARGS=(-jar target/kiosk-1.0.0.jar)
+        ;;
+    fast-start)
+        JAVA_ARGS=(-XX:SharedArchiveFile=target/fast-start/kiosk.jsa -Xshare:auto -Dspring.aot.enabled=true
+                   -jar target/fast-start/kiosk-1.0.0.jar --spring.profiles.active=fast-start)
+        ;;
+    *)
+        echo "Unknown mode: $MODE (plain or fast-start)"
+        exit 1
+        ;;
+esac
+
+LOCK_URL="http://localhost:$PORT/api/flights/$FLIGHT/seats/$SEAT/lock"
+RESULTS=()
+
+for run in $(seq 1 "$RUNS"); do
+    SESSION="startup-benchmark-$run-$$"
+    START=$(date +%s%N)
+    "$JAVA" "${JAVA_ARGS[@]}" --server.port="$PORT" "$@" > "target/startup-benchmark-$MODE-$run.log" 2>&1 &
+    PID=$!
+
+    LOCKED=false
+    while kill -0 "$PID" 2>/dev/null; do
+        if curl -s -X POST "$LOCK_URL" -H 'Content-Type: application/json' -H "X-Kiosk-Id: $SESSION" \
+                -d "{\"sessionId\":\"$SESSION\"}" 2>/dev/null | grep -q '"Seat locked successfully"'; then
+            LOCKED=true
+            break
+        fi
+        sleep 0.1
+    done
+    END=$(date +%s%N)
+
+    if [ "$LOCKED" != true ]; then
+        echo "Run $run: the application exited before a seat lock succeeded (see target/startup-benchmark-$MODE-$run.log)"
+        exit 1
+    fi
+
+    ELAPSED=$(( (END - START) / 1000000 ))
+    RESULTS+=("$ELAPSED")
+    echo "Run $run: first seat lock after $ELAPSED ms ($(grep -o 'Started AirportKioskApplication in [0-9.]* seconds' \
+        "target/startup-benchmark-$MODE-$run.log"))"
+
+    curl -s -X DELETE -H "X-Kiosk-Id: $SESSION" \
+        "http://localhost:$PORT/api/flights/$FLIGHT/seats/$SEAT/unlock?sessionId=$SESSION" > /dev/null
+    kill "$PID"
+    wait "$PID" 2>/dev/null
+done
+
+SORTED=($(printf '%s\n' "${RESULTS[@]}" | sort -n))
+echo "$MODE: median ${SORTED[$(( ${#SORTED[@]} / 2 ))]} ms, min ${SORTED[0]} ms, max ${SORTED[-1]} ms over $RUNS runs"
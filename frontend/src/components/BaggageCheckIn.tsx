@@ -48,6 +48,8 @@ export default function BaggageCheckIn() {
     };
 
     loadBaggageCount();
+    // Count updates missed while the WebSocket was down are only recovered by reloading it
+    const removeReload = wsService.onReload('baggage', loadBaggageCount);
 
     // Subscribe to baggage updates via WebSocket
     wsService.connect();
@@ -63,6 +65,7 @@ export default function BaggageCheckIn() {
     return () => {
       // The WebSocket service maintains subscriptions, so we don't need to unsubscribe here
       // The count will continue to update for all passengers viewing the same flight
+      removeReload();
     };
   }, [flight?.flightId, setBaggageCount]);
 
@@ -116,11 +116,11 @@ export default function FlightDetailsPage() {
       }
 
       // Fetch baggage info
-      let baggageDebugData: any = null;
+      let baggageData: any = null;
       try {
-        baggageDebugData = await baggageApi.getDebug(flightId);
+        baggageData = await baggageApi.getRecords(flightId);
       } catch (error) {
-        console.warn('Failed to load baggage debug data:', error);
+        console.warn('Failed to load baggage records:', error);
       }
 
       // Merge bookings with seat assignments and baggage info
@@ -130,8 +130,8 @@ export default function FlightDetailsPage() {
 
         // Find baggage info for this booking
         let baggageInfo = null;
-        if (baggageDebugData?.records) {
-          baggageInfo = baggageDebugData.records.find(
+        if (baggageData?.records) {
+          baggageInfo = baggageData.records.find(
             (r: any) => r.bookingId === booking.bookingId
           );
         }
@@ -14,12 +14,15 @@ import {
   User,
   X,
 } from 'lucide-react';
-import { useEffect, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
 import logo from '../assets/image/logo.png';
 import { seatApi } from '../services/api';
 import { wsService } from '../services/websocket';
 import { useKioskStore } from '../store/kioskStore';
-import type { Seat } from '../types';
+import type { Seat, SeatUpdateEvent } from '../types';
+
+// Seat locks expire after kiosk.seat.lock-ttl (15 s) unless renewed
+const LEASE_RENEW_INTERVAL_MS = 5000;
 
 export default function SeatMap() {
   const {
@@ -38,6 +41,64 @@ export default function SeatMap() {
   } = useKioskStore();
 
   const [lockingSeat, setLockingSeat] = useState<string | null>(null);
+  // Seat locked by another kiosk that this session is queued for, with its place in the queue
+  const [waitingSeat, setWaitingSeat] = useState<{ seatId: string; position: number } | null>(null);
+  // Read by the WebSocket handler, which is registered once per flight
+  const waitingSeatRef = useRef(waitingSeat);
+  waitingSeatRef.current = waitingSeat;
+  // Seat whose lock request is in flight: the heartbeat may already list it before the UI holds it
+  const lockingSeatRef = useRef(lockingSeat);
+  lockingSeatRef.current = lockingSeat;
+
+  // Keep the selected seat's lock (and our waitlist place) alive while the passenger decides
+  useEffect(() => {
+    if (!selectedSeat && !waitingSeat) return;
+    const heldSeatId = selectedSeat?.seatId;
+    let cancelled = false;
+
+    const timer = setInterval(async () => {
+      try {
+        const lease = await seatApi.renewLeases(sessionId);
+        if (cancelled) return;
+        const { selectedSeat: current, seats: currentSeats } = useKioskStore.getState();
+        const waiting = waitingSeatRef.current;
+        let heldNow = current?.seatId;
+
+        // The seat we wait for was handed to us, but its LOCKED event did not reach this kiosk
+        const handedOver = waiting && lease.seatIds.includes(waiting.seatId)
+          ? currentSeats.find((s) => s.seatId === waiting.seatId)
+          : undefined;
+        if (handedOver) {
+          setWaitingSeat(null);
+          takeOverSeat(handedOver);
+          heldNow = handedOver.seatId;
+        } else if (heldSeatId && current?.seatId === heldSeatId && !lease.seatIds.includes(heldSeatId)) {
+          setSelectedSeat(null);
+          setError('Your seat hold expired. Please select a seat again.');
+        }
+
+        // Locks this session holds that the UI does not show as ours (e.g. a hand-over we missed after
+        // picking another seat) would otherwise be renewed for as long as the kiosk heartbeats
+        for (const seatId of lease.seatIds) {
+          if (seatId === heldNow || seatId === lockingSeatRef.current) continue;
+          const stray = currentSeats.find((s) => s.seatId === seatId);
+          if (!stray) continue;
+          seatApi.unlockSeat(stray.flightId, stray.seatId, sessionId).catch((error) => {
+            console.warn('Failed to unlock seat not held by this kiosk:', error);
+          });
+          updateSeat({ ...stray, seatStatus: 'AVAILABLE', lockedBy: undefined });
+        }
+      } catch (error) {
+        // Try again on the next tick; the lock outlives a couple of missed renewals
+        console.warn('Failed to renew seat lease:', error);
+      }
+    }, LEASE_RENEW_INTERVAL_MS);
+
+    return () => {
+      cancelled = true;
+      clearInterval(timer);
+    };
+  }, [selectedSeat, waitingSeat, sessionId, setSelectedSeat, setError, updateSeat]);
 
   useEffect(() => {
     if (!flight) return;
@@ -56,14 +117,28 @@ export default function SeatMap() {
     };
 
     loadSeats();
+    // Seat events missed while the WebSocket was down are only recovered by reloading the map
+    const removeReload = wsService.onReload('seats', loadSeats);
 
     // Subscribe to seat updates via WebSocket
     wsService.connect();
-    const handleSeatUpdate = (event: { seatId: string; status: string }) => {
+    const handleSeatUpdate = (event: SeatUpdateEvent) => {
       const currentSeats = useKioskStore.getState().seats;
       const updatedSeat = currentSeats.find((s) => s.seatId === event.seatId);
       if (updatedSeat) {
-        updateSeat({ ...updatedSeat, seatStatus: event.status as Seat['seatStatus'] });
+        updateSeat({ ...updatedSeat, seatStatus: event.status, lockedBy: event.sessionId });
+        // A seat we were waiting for was handed to us
+        if (
+          event.status === 'LOCKED' &&
+          event.sessionId === useKioskStore.getState().sessionId &&
+          waitingSeatRef.current?.seatId === event.seatId
+        ) {
+          setWaitingSeat(null);
+          takeOverSeat(updatedSeat);
+        } else if (event.status === 'AVAILABLE' && waitingSeatRef.current?.seatId === event.seatId) {
+          // Our place lapsed (e.g. missed heartbeats); the seat can simply be tapped now
+          setWaitingSeat(null);
+        }
         // If the selected seat was released by another user, clear selection
         const currentSelectedSeat = useKioskStore.getState().selectedSeat;
         if (currentSelectedSeat?.seatId === event.seatId && event.status === 'AVAILABLE') {
@@ -77,12 +152,54 @@ export default function SeatMap() {
     // Cleanup: Note - WebSocket service manages subscriptions internally
     // We don't need to unsubscribe here as the service handles it
     return () => {
-      // Component cleanup handled by WebSocket service
+      removeReload();
     };
   }, [flight, setSeats, setLoading, setError, updateSeat, setSelectedSeat]);
 
+  // Switch the selection to a seat this session has just been handed from the waitlist
+  const takeOverSeat = (seat: Seat) => {
+    const previous = useKioskStore.getState().selectedSeat;
+    if (previous && previous.seatId !== seat.seatId) {
+      seatApi.unlockSeat(previous.flightId, previous.seatId, sessionId).catch((error) => {
+        console.warn('Failed to unlock previous seat:', error);
+      });
+      updateSeat({ ...previous, seatStatus: 'AVAILABLE', lockedBy: undefined });
+    }
+    setSelectedSeat(seat);
+    updateSeat({ ...seat, seatStatus: 'LOCKED', lockedBy: sessionId });
+  };
+
+  const handleJoinWaitlist = async (seat: Seat) => {
+    setLockingSeat(seat.seatId);
+    setError(null);
+    try {
+      // Waiting for one seat at a time
+      if (waitingSeat && waitingSeat.seatId !== seat.seatId) {
+        await seatApi.leaveWaitlist(flight!.flightId, waitingSeat.seatId, sessionId);
+      }
+      const result = await seatApi.joinWaitlist(flight!.flightId, seat.seatId, sessionId);
+      if (result.granted) {
+        setWaitingSeat(null);
+        takeOverSeat(seat);
+      } else {
+        setWaitingSeat({ seatId: seat.seatId, position: result.position });
+      }
+    } catch (error: unknown) {
+      console.warn('Failed to join the seat waitlist:', error);
+      setWaitingSeat(null);
+      setError('This seat cannot be waited for right now. Please select another seat.');
+    } finally {
+      setLockingSeat(null);
+    }
+  };
+
   const handleSeatClick = async (seat: Seat) => {
-    if (seat.seatStatus !== 'AVAILABLE' || lockingSeat) return;
+    if (lockingSeat) return;
+    if (seat.seatStatus === 'LOCKED' && seat.lockedBy !== sessionId) {
+      await handleJoinWaitlist(seat);
+      return;
+    }
+    if (seat.seatStatus !== 'AVAILABLE') return;
 
     setLockingSeat(seat.seatId);
     setError(null);
@@ -139,6 +256,10 @@ export default function SeatMap() {
   };
 
   const handleBack = () => {
+    if (waitingSeat) {
+      seatApi.leaveWaitlist(flight!.flightId, waitingSeat.seatId, sessionId);
+      setWaitingSeat(null);
+    }
     if (selectedSeat) {
       seatApi.unlockSeat(flight!.flightId, selectedSeat.seatId, sessionId);
       setSelectedSeat(null);
@@ -344,21 +465,30 @@ export default function SeatMap() {
                                       <button
                                         onClick={() => handleSeatClick(seat)}
                                         disabled={
-                                          seat.seatStatus !== 'AVAILABLE' ||
+                                          (seat.seatStatus !== 'AVAILABLE' &&
+                                            seat.seatStatus !== 'LOCKED') ||
                                           lockingSeat === seat.seatId ||
                                           isLoading
                                         }
                                         className={clsx(
                                           'w-12 h-12 rounded-lg font-bold text-sm transition-all duration-200 flex items-center justify-center relative group/seat',
                                           getSeatClass(seat),
-                                          (seat.seatStatus !== 'AVAILABLE' || lockingSeat) &&
+                                          ((seat.seatStatus !== 'AVAILABLE' &&
+                                            seat.seatStatus !== 'LOCKED') ||
+                                            lockingSeat) &&
                                             'cursor-not-allowed',
+                                          seat.seatId === waitingSeat?.seatId &&
+                                            'ring-2 ring-yellow-400',
                                           'hover:z-20',
                                           position === 'window' &&
                                             seat.seatStatus === 'AVAILABLE' &&
                                             'ring-2 ring-blue-300/50'
                                         )}
-                                        title={`${seat.seatNumber} - ${seat.seatClass} Class - ${position}`}
+                                        title={
+                                          seat.seatStatus === 'LOCKED' && seat.lockedBy !== sessionId
+                                            ? `${seat.seatNumber} - held by another kiosk, tap to wait for it`
+                                            : `${seat.seatNumber} - ${seat.seatClass} Class - ${position}`
+                                        }
                                       >
                                         {seat.seatStatus === 'LOCKED' &&
                                           seat.lockedBy !== sessionId && (
@@ -613,6 +743,18 @@ export default function SeatMap() {
                   )}
                 </div>
 
+                {/* Waitlist notice */}
+                {waitingSeat && (
+                  <div className="mt-6 p-4 bg-yellow-50 rounded-xl border-2 border-yellow-200 flex items-center gap-3">
+                    <Clock className="w-5 h-5 text-yellow-700 animate-pulse" />
+                    <p className="text-sm font-semibold text-gray-800">
+                      Waiting for seat{' '}
+                      {seats.find((s) => s.seatId === waitingSeat.seatId)?.seatNumber ?? waitingSeat.seatId}{' '}
+                      (position {waitingSeat.position}). It will be selected for you as soon as it is released.
+                    </p>
+                  </div>
+                )}
+
                 {/* Confirmation Panel - Inside Passenger Details Card */}
                 {selectedSeat && (
                   <div className="mt-6 pt-6 border-t-2 border-gray-300">
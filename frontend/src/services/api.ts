@@ -11,16 +11,33 @@ import type {
   Flight,
   SeatAssignmentsResponse,
   SeatConfirmRequest,
+  SeatLeaseRenewResponse,
   SeatLockRequest,
   SeatMapResponse,
+  SeatWaitlistResponse,
 } from '../types';
 
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080/api';
 
+// Identifies this kiosk to the backend (admission control, idempotency keys); kept across reloads
+const KIOSK_ID_STORAGE_KEY = 'kiosk-id';
+
+const getKioskId = (): string => {
+  let kioskId = localStorage.getItem(KIOSK_ID_STORAGE_KEY);
+  if (!kioskId) {
+    kioskId = `kiosk-${Date.now()}-${Math.random().toString(36).substring(2, 11)}`;
+    localStorage.setItem(KIOSK_ID_STORAGE_KEY, kioskId);
+  }
+  return kioskId;
+};
+
+export const KIOSK_ID = getKioskId();
+
 const api = axios.create({
   baseURL: API_BASE_URL,
   headers: {
     'Content-Type': 'application/json',
+    'X-Kiosk-Id': KIOSK_ID,
   },
   timeout: 10000, // 10 second timeout
 });
@@ -125,6 +142,40 @@ export const seatApi = {
     return response.data.data?.success || false;
   },
 
+  // Renews the locks of every seat the session holds; the response lists the seats still held
+  renewLeases: async (sessionId: string): Promise<SeatLeaseRenewResponse> => {
+    const response = await api.post<ApiResponse<SeatLeaseRenewResponse>>('/seats/leases/renew', {
+      sessionId,
+    });
+    if (!response.data.data) {
+      throw new Error('No seat lease data received');
+    }
+    return response.data.data;
+  },
+
+  // Queue for a seat another kiosk holds; its lock is handed over (seat topic LOCKED event with our sessionId)
+  joinWaitlist: async (
+    flightId: string,
+    seatId: string,
+    sessionId: string
+  ): Promise<SeatWaitlistResponse> => {
+    const response = await api.post<ApiResponse<SeatWaitlistResponse>>(
+      `/flights/${flightId}/seats/${seatId}/waitlist`,
+      { sessionId }
+    );
+    if (!response.data.data) {
+      throw new Error('No waitlist data received');
+    }
+    return response.data.data;
+  },
+
+  leaveWaitlist: async (flightId: string, seatId: string, sessionId: string): Promise<boolean> => {
+    const response = await api.delete<ApiResponse<{ success: boolean }>>(
+      `/flights/${flightId}/seats/${seatId}/waitlist?sessionId=${encodeURIComponent(sessionId)}`
+    );
+    return response.data.data?.success || false;
+  },
+
   getSeatAssignments: async (flightId: string): Promise<SeatAssignmentsResponse> => {
     const response = await api.get<ApiResponse<SeatAssignmentsResponse>>(
       `/flights/${flightId}/seats/assignments`
@@ -162,10 +213,10 @@ export const baggageApi = {
     return response.data.data;
   },
 
-  getDebug: async (flightId: string): Promise<any> => {
-    const response = await api.get<ApiResponse<any>>(`/flights/${flightId}/baggage/debug`);
+  getRecords: async (flightId: string): Promise<any> => {
+    const response = await api.get<ApiResponse<any>>(`/flights/${flightId}/baggage`);
     if (!response.data.data) {
-      throw new Error('No baggage debug data received');
+      throw new Error('No baggage records received');
     }
     return response.data.data;
   },
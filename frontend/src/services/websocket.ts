@@ -9,6 +9,9 @@ class WebSocketService {
   private connected: boolean = false;
   private seatSubscriptions: Map<string, (event: SeatUpdateEvent) => void> = new Map();
   private baggageSubscriptions: Map<string, (event: BaggageUpdateEvent) => void> = new Map();
+  // Reload the current view over REST after events may have been missed (keyed by view, e.g. 'seats')
+  private reloadHandlers: Map<string, () => void> = new Map();
+  private hasConnected: boolean = false;
 
   connect(): void {
     if (this.client?.connected) {
@@ -23,6 +26,13 @@ class WebSocketService {
       onConnect: () => {
         this.connected = true;
         console.log('WebSocket connected');
+        // Events sent while we were disconnected are not replayed by the broker
+        if (this.hasConnected) {
+          this.reloadAll();
+        }
+        this.hasConnected = true;
+        // The server asks for a reload when it may have missed events from other nodes
+        this.client?.subscribe('/topic/resync', () => this.reloadAll());
         // Re-subscribe to existing subscriptions
         this.seatSubscriptions.forEach((callback, flightId) => {
           this.subscribeToSeatUpdates(flightId, callback);
@@ -51,9 +61,28 @@ class WebSocketService {
       this.connected = false;
       this.seatSubscriptions.clear();
       this.baggageSubscriptions.clear();
+      this.reloadHandlers.clear();
+      this.hasConnected = false;
     }
   }
 
+  /**
+   * Register how a view reloads its state after a reconnect or a server resync message.
+   * Returns a function that removes the handler (if it has not been replaced since).
+   */
+  onReload(key: string, handler: () => void): () => void {
+    this.reloadHandlers.set(key, handler);
+    return () => {
+      if (this.reloadHandlers.get(key) === handler) {
+        this.reloadHandlers.delete(key);
+      }
+    };
+  }
+
+  private reloadAll(): void {
+    this.reloadHandlers.forEach((handler) => handler());
+  }
+
   subscribeToSeatUpdates(flightId: string, callback: (event: SeatUpdateEvent) => void): void {
     if (!this.client || !this.connected) {
       this.seatSubscriptions.set(flightId, callback);
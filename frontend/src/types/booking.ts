@@ -8,8 +8,6 @@ export interface Booking {
   phone?: string;
   flightId: string;
   bookingStatus: 'CONFIRMED' | 'CHECKED_IN' | 'CANCELLED';
-  createdAt: string;
-  updatedAt: string;
 }
 
 export interface BookingSearchRequest {
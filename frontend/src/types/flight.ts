@@ -11,6 +11,4 @@ export interface Flight {
   availableSeats: number;
   baggageCount: number;
   flightStatus: 'SCHEDULED' | 'BOARDING' | 'DEPARTED' | 'CANCELLED';
-  createdAt: string;
-  updatedAt: string;
 }
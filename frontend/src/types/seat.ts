@@ -9,21 +9,30 @@ export interface Seat {
   seatStatus: SeatStatus;
   bookingId?: string;
   lockedBy?: string;
-  lockExpiry?: string;
-  version: number;
-  createdAt: string;
-  updatedAt: string;
 }
 
 export interface SeatMapResponse {
   seats: Seat[];
   availableCount: number;
+  availableByClass: Partial<Record<SeatClass, number>>;
 }
 
 export interface SeatLockRequest {
   sessionId: string;
 }
 
+export interface SeatLeaseRenewResponse {
+  seatIds: string[];
+  expiresAt: string;
+}
+
+// granted: the session now holds the seat's lock; otherwise its 1-based place in the queue
+export interface SeatWaitlistResponse {
+  seatId: string;
+  granted: boolean;
+  position: number;
+}
+
 export interface SeatConfirmRequest {
   bookingId: string;
   sessionId: string;